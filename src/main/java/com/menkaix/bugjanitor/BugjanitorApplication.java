@@ -4,11 +4,13 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
 @CrossOrigin
 
 @EnableMongoRepositories("com.menkaix.bugjanitor.repositories")
+@EnableScheduling
 @SpringBootApplication
 public class BugjanitorApplication {
 
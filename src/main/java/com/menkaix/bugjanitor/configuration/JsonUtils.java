@@ -1,20 +1,40 @@
 package com.menkaix.bugjanitor.configuration;
 
+import java.util.Date;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.menkaix.bugjanitor.configuration.json.IsoDateTypeAdapter;
+import com.menkaix.bugjanitor.configuration.json.PersonTypeAdapter;
+import com.menkaix.bugjanitor.configuration.json.ProjectTypeAdapter;
+import com.menkaix.bugjanitor.configuration.json.TaskTypeAdapter;
+import com.menkaix.bugjanitor.models.documents.Person;
+import com.menkaix.bugjanitor.models.documents.Project;
+import com.menkaix.bugjanitor.models.documents.Task;
 
 @Component
 public class JsonUtils {
 
+    /**
+     * Sortie compacte sauf si {@code app.json.pretty-print} est vrai. Les
+     * documents sont (dé)sérialisés par des adaptateurs dédiés, sans
+     * réflexion ; les dates en ISO-8601 UTC, sans verrou partagé.
+     */
     @Bean
-    public Gson gson() {
-        return new GsonBuilder()
-                .setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
-                .setPrettyPrinting()
-                .create();
+    public Gson gson(@Value("${app.json.pretty-print:false}") boolean prettyPrint) {
+        GsonBuilder builder = new GsonBuilder()
+                .registerTypeAdapter(Date.class, new IsoDateTypeAdapter())
+                .registerTypeAdapter(Task.class, new TaskTypeAdapter())
+                .registerTypeAdapter(Project.class, new ProjectTypeAdapter())
+                .registerTypeAdapter(Person.class, new PersonTypeAdapter());
+        if (prettyPrint) {
+            builder.setPrettyPrinting();
+        }
+        return builder.create();
     }
 
 }
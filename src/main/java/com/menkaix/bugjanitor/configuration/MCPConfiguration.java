@@ -1,20 +1,136 @@
 package com.menkaix.bugjanitor.configuration;
 
+import com.menkaix.bugjanitor.mcp.metrics.CallMetrics;
 import com.menkaix.bugjanitor.mcp.prompts.MCPPromptTemplates;
+import com.menkaix.bugjanitor.mcp.resources.MCPResourceProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.ToolCallbackProvider;
 import org.springframework.ai.tool.method.MethodToolCallbackProvider;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import com.menkaix.bugjanitor.mcptools.EventToolsRegistry;
+import com.menkaix.bugjanitor.mcptools.PersonToolsRegistry;
 import com.menkaix.bugjanitor.mcptools.ProjectToolsRegistry;
 import com.menkaix.bugjanitor.mcptools.TaskToolsRegistry;
+import com.menkaix.bugjanitor.mcptools.json.ClientAwareToolCallback;
+import com.menkaix.bugjanitor.mcptools.json.ToolJson;
+import com.menkaix.bugjanitor.mcptools.reactive.ReactiveLookupTools;
 
 @Configuration
 public class MCPConfiguration {
 
+    private static final String JSON_MIME_TYPE = "application/json";
+    private static final String QUERY_TEMPLATE = "{?query}";
+
     @Bean
-    public ToolCallbackProvider projectTools(ProjectToolsRegistry projectToolsRegistry, TaskToolsRegistry taskToolsRegistry) {
-        return MethodToolCallbackProvider.builder().toolObjects(projectToolsRegistry, taskToolsRegistry).build();
+    public ToolCallbackProvider projectTools(ProjectToolsRegistry projectToolsRegistry, TaskToolsRegistry taskToolsRegistry,
+            PersonToolsRegistry personToolsRegistry, EventToolsRegistry eventToolsRegistry, ToolJson toolJson,
+            CallMetrics callMetrics, ObjectProvider<ReactiveLookupTools> lookupTools) {
+        // Outils servis sans blocage par la pile WebFlux (voir reactiveLookupToolSpecifications)
+        ReactiveLookupTools reactiveTools = lookupTools.getIfAvailable();
+        Set<String> replaced = reactiveTools == null ? Set.of() : reactiveTools.toolNames();
+        // Format de sortie choisi par client MCP (voir ToolJson), appels mesurés (voir CallMetrics)
+        return ToolCallbackProvider.from(toolCallbacks(projectToolsRegistry, taskToolsRegistry, personToolsRegistry,
+                eventToolsRegistry)
+                .stream()
+                .filter(callback -> !replaced.contains(callback.getToolDefinition().name()))
+                .map(callback -> (ToolCallback) new ClientAwareToolCallback(callback, toolJson, callMetrics))
+                .toList());
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public List<McpServerFeatures.AsyncToolSpecification> reactiveLookupToolSpecifications(ProjectToolsRegistry projectToolsRegistry,
+            TaskToolsRegistry taskToolsRegistry, PersonToolsRegistry personToolsRegistry, EventToolsRegistry eventToolsRegistry,
+            ReactiveLookupTools lookupTools) {
+        return lookupTools.specifications(toolCallbacks(projectToolsRegistry, taskToolsRegistry, personToolsRegistry,
+                eventToolsRegistry));
+    }
+
+    private static List<ToolCallback> toolCallbacks(ProjectToolsRegistry projectToolsRegistry,
+            TaskToolsRegistry taskToolsRegistry, PersonToolsRegistry personToolsRegistry,
+            EventToolsRegistry eventToolsRegistry) {
+        return Arrays.asList(MethodToolCallbackProvider.builder()
+                .toolObjects(projectToolsRegistry, taskToolsRegistry, personToolsRegistry, eventToolsRegistry)
+                .build()
+                .getToolCallbacks());
+    }
+
+    /**
+     * Ressources MCP natives, une par route de {@link MCPResourceProvider} :
+     * les routes à variables sont publiées comme modèles de ressources. La
+     * lecture repasse par le routeur, qui tranche entre un littéral et une
+     * variable ({@code tasks/overdue} et {@code tasks/{id}}).
+     *
+     * Le SDK compare une URI sans variable par égalité stricte : chaque route
+     * littérale est doublée d'un modèle {@code {?query}} pour que
+     * {@code janitor://tasks?fields=summary} trouve sa ressource.
+     */
+    @Bean
+    public List<McpServerFeatures.SyncResourceSpecification> resourceSpecifications(MCPResourceProvider resourceProvider,
+            ToolJson toolJson, CallMetrics callMetrics) {
+        List<McpServerFeatures.SyncResourceSpecification> specifications = new ArrayList<>();
+        resourceProvider.listResources().forEach((group, routes) -> routes.forEach((template, description) -> {
+            McpSchema.Resource resource = new McpSchema.Resource(MCPResourceProvider.URI_SCHEME + template, template,
+                    description, JSON_MIME_TYPE, null);
+            specifications.add(new McpServerFeatures.SyncResourceSpecification(resource,
+                    (exchange, request) -> readResource(resourceProvider, toolJson, callMetrics, exchange, request)));
+            if (!template.contains("{")) {
+                McpSchema.Resource withQuery = new McpSchema.Resource(
+                        MCPResourceProvider.URI_SCHEME + template + QUERY_TEMPLATE, template + QUERY_TEMPLATE,
+                        description, JSON_MIME_TYPE, null);
+                specifications.add(new McpServerFeatures.SyncResourceSpecification(withQuery,
+                        (exchange, request) -> readResource(resourceProvider, toolJson, callMetrics, exchange, request)));
+            }
+        }));
+        return specifications;
+    }
+
+    /**
+     * Les mêmes ressources pour le serveur asynchrone de la pile WebFlux : la
+     * lecture, bloquante, part sur l'ordonnanceur élastique.
+     */
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public List<McpServerFeatures.AsyncResourceSpecification> asyncResourceSpecifications(
+            MCPResourceProvider resourceProvider, ToolJson toolJson, CallMetrics callMetrics) {
+        return resourceSpecifications(resourceProvider, toolJson, callMetrics).stream()
+                .map(specification -> new McpServerFeatures.AsyncResourceSpecification(specification.resource(),
+                        (exchange, request) -> Mono.fromCallable(() -> specification.readHandler()
+                                .apply(new McpSyncServerExchange(exchange), request))
+                                .subscribeOn(Schedulers.boundedElastic())))
+                .toList();
+    }
+
+    private static McpSchema.ReadResourceResult readResource(MCPResourceProvider resourceProvider, ToolJson toolJson,
+            CallMetrics callMetrics, McpSyncServerExchange exchange, McpSchema.ReadResourceRequest request) {
+        String uri = request.uri();
+        String path = uri.startsWith(MCPResourceProvider.URI_SCHEME)
+                ? uri.substring(MCPResourceProvider.URI_SCHEME.length())
+                : uri;
+        String clientName = exchange.getClientInfo() == null ? null : exchange.getClientInfo().name();
+        String json = toolJson.withCall("resources/read", clientName,
+                () -> toolJson.toJson(resourceProvider.getResource(path)));
+        String template = resourceProvider.template(path);
+        if (template != null) {
+            callMetrics.recordPayload(CallMetrics.RESOURCE, template, json.length());
+        }
+        return new McpSchema.ReadResourceResult(List.of(new McpSchema.TextResourceContents(uri, JSON_MIME_TYPE, json)));
     }
 
     @Bean
@@ -0,0 +1,23 @@
+package com.menkaix.bugjanitor.configuration;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.menkaix.bugjanitor.mcp.metrics.MongoCommandTimer;
+
+/**
+ * Mesure des appels MCP (voir {@code CallMetrics}).
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Durée des commandes Mongo, imputée à l'appel d'outil ou à la lecture de
+     * ressource en cours.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandTimingCustomizer() {
+        return settings -> settings.addCommandListener(new MongoCommandTimer());
+    }
+}
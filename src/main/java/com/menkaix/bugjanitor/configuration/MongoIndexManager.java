@@ -0,0 +1,291 @@
+package com.menkaix.bugjanitor.configuration;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.menkaix.bugjanitor.models.documents.Person;
+import com.menkaix.bugjanitor.models.documents.Project;
+import com.menkaix.bugjanitor.models.documents.Task;
+
+/**
+ * Déclare, crée et vérifie au démarrage les index dont dépendent les requêtes
+ * des services.
+ *
+ * Chaque index est déclaré une seule fois ici ; au démarrage le gestionnaire
+ * compare les déclarations aux index présents dans la base (dérive), crée ceux
+ * qui manquent, puis exécute un explain sur chaque forme de requête connue.
+ * En mode strict, une dérive non résolue ou un plan en COLLSCAN fait échouer
+ * le démarrage.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MongoIndexManager implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexManager.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    private final List<IndexDeclaration> declarations = new ArrayList<>();
+    private final List<QueryShape> queryShapes = new ArrayList<>();
+
+    @Value("${app.mongo.indexes.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.mongo.indexes.strict:false}")
+    private boolean strict;
+
+    @Value("${app.mongo.indexes.explain:true}")
+    private boolean explain;
+
+    public MongoIndexManager(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        declareIndexes();
+        declareQueryShapes();
+    }
+
+    private void declareIndexes() {
+        // task : TaskService.findByProjectCode
+        declare(Task.class, new Index().on("projectCode", Direction.ASC).named("task_projectCode"));
+        // task : TaskService.findByStatus
+        declare(Task.class, new Index().on("status", Direction.ASC).named("task_status"));
+        // task : TaskService.findOverdueTasks / findUpcomingTasks
+        declare(Task.class, new Index().on("deadLine", Direction.ASC).on("doneDate", Direction.ASC)
+                .named("task_deadLine_doneDate"));
+        // task : TaskRepository.findByTrackingReference (unique lorsqu'elle est renseignée)
+        declare(Task.class, new Index().on("trackingReference", Direction.ASC).unique()
+                .partial(PartialIndexFilter.of(Criteria.where("trackingReference").type(2)))
+                .named("task_trackingReference_unique"));
+        // task : champs autorisés par le langage de filtre (FilterSchema.TASK)
+        declare(Task.class, new Index().on("assignee", Direction.ASC).named("task_assignee"));
+        declare(Task.class, new Index().on("plannedStart", Direction.ASC).named("task_plannedStart"));
+        declare(Task.class, new Index().on("creationDate", Direction.ASC).named("task_creationDate"));
+        declare(Task.class, new Index().on("updateDate", Direction.ASC).named("task_updateDate"));
+        declare(Task.class, new Index().on("doneDate", Direction.ASC).named("task_doneDate"));
+
+        // project : ProjectService.findByProjectCode / findByProjectName
+        declare(Project.class, new Index().on("projectCode", Direction.ASC).unique()
+                .partial(PartialIndexFilter.of(Criteria.where("projectCode").type(2)))
+                .named("project_projectCode_unique"));
+        declare(Project.class, new Index().on("projectName", Direction.ASC).named("project_projectName"));
+        // project : EntityTags.collectionTag
+        declare(Project.class, new Index().on("updateDate", Direction.ASC).named("project_updateDate"));
+
+        // person : PersonRepository.findByEmail
+        declare(Person.class, new Index().on("email", Direction.ASC).unique()
+                .partial(PartialIndexFilter.of(Criteria.where("email").type(2)))
+                .named("person_email_unique"));
+        // person : EntityTags.collectionTag
+        declare(Person.class, new Index().on("updateDate", Direction.ASC).named("person_updateDate"));
+    }
+
+    private void declareQueryShapes() {
+        Date now = new Date();
+        Date inSevenDays = new Date(now.getTime() + (7 * 24 * 60 * 60 * 1000));
+
+        shape("task.findByProjectCode", Task.class,
+                new Query(Criteria.where("projectCode").is("__shape__")));
+        shape("task.findByStatus", Task.class,
+                new Query(Criteria.where("status").is("__shape__")));
+        shape("task.findOverdueTasks", Task.class,
+                new Query(Criteria.where("deadLine").lt(now).and("doneDate").exists(false)));
+        shape("task.findUpcomingTasks", Task.class,
+                new Query(Criteria.where("deadLine").gte(now).lte(inSevenDays).and("doneDate").exists(false)));
+        shape("task.findByTrackingReference", Task.class,
+                new Query(Criteria.where("trackingReference").is("__shape__")));
+        shape("project.findByProjectCode", Project.class,
+                new Query(Criteria.where("projectCode").is("__shape__")));
+        shape("project.findByProjectName", Project.class,
+                new Query(Criteria.where("projectName").is("__shape__")));
+        shape("person.findByEmail", Person.class,
+                new Query(Criteria.where("email").is("__shape__")));
+    }
+
+    /**
+     * Déclare un index à maintenir sur la collection de l'entité.
+     */
+    public void declare(Class<?> entityClass, Index index) {
+        declarations.add(new IndexDeclaration(entityClass, index));
+    }
+
+    /**
+     * Déclare une forme de requête dont le plan d'exécution doit utiliser un index.
+     */
+    public void shape(String name, Class<?> entityClass, Query query) {
+        queryShapes.add(new QueryShape(name, entityClass, query));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            log.info("Gestion des index désactivée (app.mongo.indexes.enabled=false)");
+            return;
+        }
+
+        List<String> problems = new ArrayList<>();
+        try {
+            problems.addAll(reconcile());
+            if (explain) {
+                problems.addAll(checkQueryPlans());
+            }
+        } catch (Exception e) {
+            problems.add("Vérification des index impossible: " + e.getMessage());
+        }
+
+        if (problems.isEmpty()) {
+            log.info("Index MongoDB conformes ({} index, {} formes de requête)", declarations.size(), queryShapes.size());
+            return;
+        }
+
+        problems.forEach(p -> log.warn("Index MongoDB: {}", p));
+        if (strict) {
+            throw new IllegalStateException("Index MongoDB non conformes (mode strict): " + problems);
+        }
+    }
+
+    /**
+     * Compare les index déclarés aux index existants, crée ceux qui manquent et
+     * retourne la liste des dérives qui n'ont pas pu être résolues.
+     */
+    public List<String> reconcile() {
+        List<String> drift = new ArrayList<>();
+        Map<Class<?>, List<IndexInfo>> existingByEntity = new LinkedHashMap<>();
+
+        for (IndexDeclaration declaration : declarations) {
+            IndexOperations ops = mongoTemplate.indexOps(declaration.entityClass());
+            List<IndexInfo> existing = existingByEntity.computeIfAbsent(declaration.entityClass(), c -> ops.getIndexInfo());
+
+            Document options = declaration.index().getIndexOptions();
+            String name = options.getString("name");
+            IndexInfo current = existing.stream()
+                    .filter(info -> info.getName().equals(name))
+                    .findFirst()
+                    .orElse(null);
+
+            if (current == null) {
+                try {
+                    ops.ensureIndex(declaration.index());
+                    log.info("Index créé: {}.{}", collectionName(declaration.entityClass()), name);
+                } catch (Exception e) {
+                    drift.add("création de " + name + " impossible: " + e.getMessage());
+                }
+                continue;
+            }
+
+            String mismatch = describeMismatch(declaration.index(), current);
+            if (mismatch != null) {
+                drift.add(collectionName(declaration.entityClass()) + "." + name + " diffère de la déclaration: " + mismatch);
+            }
+        }
+
+        for (Map.Entry<Class<?>, List<IndexInfo>> entry : existingByEntity.entrySet()) {
+            for (IndexInfo info : entry.getValue()) {
+                boolean declared = "_id_".equals(info.getName()) || declarations.stream()
+                        .anyMatch(d -> d.entityClass().equals(entry.getKey())
+                                && info.getName().equals(d.index().getIndexOptions().getString("name")));
+                if (!declared) {
+                    log.info("Index non déclaré présent: {}.{}", collectionName(entry.getKey()), info.getName());
+                }
+            }
+        }
+
+        return drift;
+    }
+
+    /**
+     * Exécute un explain pour chaque forme de requête déclarée et retourne celles
+     * dont le plan gagnant passe par un COLLSCAN.
+     */
+    public List<String> checkQueryPlans() {
+        List<String> regressions = new ArrayList<>();
+
+        for (QueryShape shape : queryShapes) {
+            Document plan = mongoTemplate.getCollection(collectionName(shape.entityClass()))
+                    .find(shape.query().getQueryObject())
+                    .explain();
+
+            Object winningPlan = plan.get("queryPlanner", Document.class) != null
+                    ? plan.get("queryPlanner", Document.class).get("winningPlan")
+                    : null;
+            List<String> stages = new ArrayList<>();
+            collectStages(winningPlan, stages);
+
+            log.info("Plan {}: {}", shape.name(), String.join(" <- ", stages));
+            if (stages.contains("COLLSCAN")) {
+                regressions.add(shape.name() + " utilise un COLLSCAN");
+            }
+        }
+
+        return regressions;
+    }
+
+    private String describeMismatch(Index declared, IndexInfo current) {
+        Document keys = declared.getIndexKeys();
+        List<String> declaredKeys = new ArrayList<>(keys.keySet());
+        List<String> currentKeys = current.getIndexFields().stream().map(f -> f.getKey()).toList();
+        if (!declaredKeys.equals(currentKeys)) {
+            return "clés " + currentKeys + " au lieu de " + declaredKeys;
+        }
+
+        Document options = declared.getIndexOptions();
+        boolean declaredUnique = Boolean.TRUE.equals(options.getBoolean("unique"));
+        if (declaredUnique != current.isUnique()) {
+            return "unique=" + current.isUnique() + " au lieu de " + declaredUnique;
+        }
+
+        boolean declaredPartial = options.containsKey("partialFilterExpression");
+        boolean currentPartial = current.getPartialFilterExpression() != null;
+        if (declaredPartial != currentPartial) {
+            return "partiel=" + currentPartial + " au lieu de " + declaredPartial;
+        }
+
+        return null;
+    }
+
+    private void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage != null) {
+                stages.add(Objects.toString(stage));
+            }
+            for (Object value : document.values()) {
+                collectStages(value, stages);
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object value : list) {
+                collectStages(value, stages);
+            }
+        }
+    }
+
+    private String collectionName(Class<?> entityClass) {
+        return mongoTemplate.getCollectionName(entityClass);
+    }
+
+    private record IndexDeclaration(Class<?> entityClass, Index index) {
+    }
+
+    private record QueryShape(String name, Class<?> entityClass, Query query) {
+    }
+}
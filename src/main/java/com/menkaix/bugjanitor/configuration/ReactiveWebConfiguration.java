@@ -0,0 +1,24 @@
+package com.menkaix.bugjanitor.configuration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Pile WebFlux (profil {@code reactive}).
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfiguration {
+
+    /**
+     * Tomcat reste sur le classpath pour la pile servlet et serait choisi en
+     * premier par Spring Boot ; Netty tient les sessions SSE inactives sans
+     * thread ni tampon par connexion.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
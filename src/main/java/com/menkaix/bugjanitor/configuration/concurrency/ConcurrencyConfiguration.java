@@ -0,0 +1,130 @@
+package com.menkaix.bugjanitor.configuration.concurrency;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import com.mongodb.connection.ConnectionPoolSettings;
+
+/**
+ * Mode d'exécution des requêtes (threads plateforme ou virtuels, selon
+ * {@code spring.threads.virtual.enabled}) et borne des opérations Mongo.
+ */
+@Configuration
+public class ConcurrencyConfiguration {
+
+    /**
+     * Connexions au-delà de la borne du limiteur : les curseurs ouverts
+     * ({@code stream}) relisent leurs lots hors limiteur.
+     */
+    private static final int POOL_HEADROOM = 10;
+
+    /** Attente maximale d'une connexion du pilote (deux minutes par défaut). */
+    private static final long MAX_WAIT_MILLIS = 30_000;
+
+    /** Accesseurs sans aller-retour vers le serveur. */
+    private static final Set<String> LOCAL_METHODS = Set.of("getConverter", "getCollectionName", "getDb",
+            "getMongoDatabaseFactory", "toString", "hashCode", "equals");
+
+    /**
+     * Fait passer chaque opération du {@link MongoTemplate} (et donc des
+     * dépôts, qui l'utilisent) par le {@link MongoConcurrencyLimiter}. Les
+     * lots ({@code bulkOps}) sont bornés à leur {@code execute}.
+     */
+    @Bean
+    public static BeanPostProcessor mongoConcurrencyLimiterPostProcessor(ObjectProvider<MongoConcurrencyLimiter> limiter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof MongoTemplate)) {
+                    return bean;
+                }
+                MongoConcurrencyLimiter mongoLimiter = limiter.getObject();
+                if (!mongoLimiter.isEnabled()) {
+                    return bean;
+                }
+                ProxyFactory factory = new ProxyFactory(bean);
+                factory.setProxyTargetClass(true);
+                factory.addAdvice((MethodInterceptor) invocation -> {
+                    String method = invocation.getMethod().getName();
+                    if (LOCAL_METHODS.contains(method)) {
+                        return invocation.proceed();
+                    }
+                    if (method.equals("bulkOps")) {
+                        return limitedBulk((BulkOperations) invocation.proceed(), mongoLimiter);
+                    }
+                    return mongoLimiter.call(() -> proceed(invocation));
+                });
+                return factory.getProxy();
+            }
+        };
+    }
+
+    /**
+     * Threads virtuels : pool du pilote au moins aussi grand que la borne du
+     * limiteur, pour qu'une opération admise trouve une connexion sans
+     * attendre dans la file du pilote. Une taille ou une attente déjà
+     * configurées (URI, propriétés) ne sont jamais dégradées. Avec des threads
+     * plateforme, le pool de Tomcat borne déjà la charge : réglages inchangés.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public MongoClientSettingsBuilderCustomizer mongoPoolSizeCustomizer(MongoConcurrencyLimiter limiter) {
+        return settings -> {
+            if (limiter.isEnabled()) {
+                settings.applyToConnectionPoolSettings(pool -> {
+                    ConnectionPoolSettings configured = pool.build();
+                    pool.maxSize(Math.max(configured.getMaxSize(), limiter.getMaxConcurrency() + POOL_HEADROOM))
+                            .maxWaitTime(Math.min(configured.getMaxWaitTime(TimeUnit.MILLISECONDS), MAX_WAIT_MILLIS),
+                                    TimeUnit.MILLISECONDS);
+                });
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public VirtualThreadSchedulers virtualThreadSchedulers(@Value("${app.mcp.tools.max-concurrency:1000}") int maxConcurrency,
+            @Value("${app.mcp.tools.max-queued:100000}") int maxQueued) {
+        return new VirtualThreadSchedulers(maxConcurrency, maxQueued);
+    }
+
+    private static BulkOperations limitedBulk(BulkOperations bulk, MongoConcurrencyLimiter limiter) {
+        BulkOperations[] proxy = new BulkOperations[1];
+        ProxyFactory factory = new ProxyFactory(bulk);
+        factory.addInterface(BulkOperations.class);
+        factory.addAdvice((MethodInterceptor) invocation -> {
+            if (invocation.getMethod().getName().equals("execute")) {
+                return limiter.call(() -> proceed(invocation));
+            }
+            Object result = invocation.proceed();
+            // Méthodes chaînables : on rend le mandataire, pas la cible
+            return result == bulk ? proxy[0] : result;
+        });
+        proxy[0] = (BulkOperations) factory.getProxy();
+        return proxy[0];
+    }
+
+    private static Object proceed(MethodInvocation invocation) {
+        try {
+            return invocation.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
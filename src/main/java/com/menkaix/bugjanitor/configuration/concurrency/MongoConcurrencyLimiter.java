@@ -0,0 +1,126 @@
+package com.menkaix.bugjanitor.configuration.concurrency;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Borne le nombre d'opérations Mongo en vol.
+ *
+ * Avec des threads virtuels, le nombre de requêtes simultanées n'est plus
+ * limité par le pool de Tomcat : sans borne, des milliers d'appels attendraient
+ * une connexion dans la file du pilote jusqu'à son délai (deux minutes par
+ * défaut). Ici l'attente est courte et l'échec explicite
+ * ({@link TransientDataAccessResourceException}, donc rejouable).
+ *
+ * Un appel imbriqué sur le même thread (rappel d'un {@code execute}) réutilise
+ * le jeton déjà acquis, faute de quoi il pourrait attendre un jeton que son
+ * appelant détient.
+ */
+@Component
+public class MongoConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final int maxConcurrency;
+    private final long acquireTimeoutMillis;
+    private final Semaphore permits;
+
+    private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder waited = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public MongoConcurrencyLimiter(@Value("${app.mongo.limiter.enabled:true}") boolean enabled,
+                                   @Value("${app.mongo.limiter.max-concurrency:50}") int maxConcurrency,
+                                   @Value("${app.mongo.limiter.acquire-timeout-ms:2000}") long acquireTimeoutMillis) {
+        this.enabled = enabled && maxConcurrency > 0;
+        this.maxConcurrency = maxConcurrency;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(Math.max(maxConcurrency, 1), true);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Exécute {@code operation} une fois un jeton obtenu.
+     *
+     * @throws TransientDataAccessResourceException si aucun jeton ne se libère
+     *         dans {@code app.mongo.limiter.acquire-timeout-ms}
+     */
+    public <T> T call(Supplier<T> operation) {
+        int[] level = depth.get();
+        if (!enabled || level[0] > 0) {
+            return operation.get();
+        }
+
+        acquire();
+        level[0]++;
+        try {
+            return operation.get();
+        } finally {
+            level[0]--;
+            active.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long acquiredCount = acquired.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("maxConcurrency", maxConcurrency);
+        stats.put("active", active.get());
+        stats.put("peakActive", peakActive.get());
+        stats.put("queued", permits.getQueueLength());
+        stats.put("acquired", acquiredCount);
+        stats.put("waited", waited.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("avgWaitMs", acquiredCount == 0 ? 0.0 : totalWaitNanos.sum() / 1e6 / acquiredCount);
+        stats.put("maxWaitMs", maxWaitNanos.get() / 1e6);
+        return stats;
+    }
+
+    private void acquire() {
+        if (!permits.tryAcquire()) {
+            long start = System.nanoTime();
+            boolean granted;
+            try {
+                granted = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransientDataAccessResourceException("Attente d'une connexion Mongo interrompue", e);
+            }
+            long waitNanos = System.nanoTime() - start;
+            if (!granted) {
+                rejected.increment();
+                throw new TransientDataAccessResourceException("Trop d'opérations Mongo simultanées ("
+                        + maxConcurrency + " en cours, attente de " + acquireTimeoutMillis + " ms dépassée)");
+            }
+            waited.increment();
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+        acquired.increment();
+        peakActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+    }
+}
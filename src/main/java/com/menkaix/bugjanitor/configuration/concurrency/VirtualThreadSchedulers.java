@@ -0,0 +1,40 @@
+package com.menkaix.bugjanitor.configuration.concurrency;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Exécute les appels d'outils MCP sur des threads virtuels.
+ *
+ * Le serveur MCP synchrone lance chaque outil, ressource et prompt sur
+ * {@code Schedulers.boundedElastic()}, plafonné par défaut à dix threads
+ * plateforme par cœur. Cette fabrique le remplace par un ordonnanceur à un
+ * thread virtuel par tâche : un outil bloqué sur Mongo ne retient plus de
+ * thread système, et le plafond n'est plus lié au nombre de cœurs.
+ */
+public class VirtualThreadSchedulers implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadSchedulers.class);
+
+    public VirtualThreadSchedulers(int maxConcurrency, int maxQueued) {
+        ThreadFactory threads = Thread.ofVirtual().name("mcp-tool-", 0).factory();
+        Schedulers.setFactory(new Schedulers.Factory() {
+            @Override
+            public Scheduler newBoundedElastic(int threadCap, int queuedTaskCap, ThreadFactory threadFactory, int ttlSeconds) {
+                return newThreadPerTaskBoundedElastic(maxConcurrency, maxQueued, threads);
+            }
+        });
+        log.info("Outils MCP sur threads virtuels ({} appels simultanés au plus)", maxConcurrency);
+    }
+
+    @Override
+    public void destroy() {
+        Schedulers.resetFactory();
+    }
+}
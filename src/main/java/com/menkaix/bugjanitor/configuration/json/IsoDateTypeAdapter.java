@@ -0,0 +1,27 @@
+package com.menkaix.bugjanitor.configuration.json;
+
+import java.io.IOException;
+import java.util.Date;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Dates ISO-8601 sans verrou, pour toutes les {@link Date} hors documents
+ * (réponses construites en {@code Map}, métriques...). Remplace
+ * {@code setDateFormat}, dont les {@code DateFormat} partagés sont
+ * synchronisés à chaque date.
+ */
+public class IsoDateTypeAdapter extends TypeAdapter<Date> {
+
+    @Override
+    public void write(JsonWriter out, Date date) throws IOException {
+        JsonDates.write(out, date);
+    }
+
+    @Override
+    public Date read(JsonReader in) throws IOException {
+        return JsonDates.read(in);
+    }
+}
@@ -0,0 +1,187 @@
+package com.menkaix.bugjanitor.configuration.json;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.time.temporal.TemporalAccessor;
+import java.util.Date;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Dates JSON en ISO-8601, à base de {@code java.time} : les formateurs sont
+ * immuables et partagés sans verrou.
+ *
+ * Écriture toujours en UTC avec millisecondes
+ * ({@code 2024-01-31T12:00:00.000Z}). Lecture tolérante : décalage horaire
+ * ou {@code Z}, secondes et fractions optionnelles, date seule (minuit UTC),
+ * date-heure sans fuseau (interprétée en UTC).
+ *
+ * La forme canonique, de loin la plus fréquente, est écrite et relue à la
+ * main, sans objet intermédiaire ; les autres formes passent par
+ * {@code DateTimeFormatter}.
+ */
+public final class JsonDates {
+
+    private static final DateTimeFormatter OUTPUT = DateTimeFormatter
+            .ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSS'Z'")
+            .withZone(ZoneOffset.UTC);
+
+    private static final DateTimeFormatter INPUT = new DateTimeFormatterBuilder()
+            .append(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+            .optionalStart().appendOffsetId().optionalEnd()
+            .toFormatter()
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final long NOT_CANONICAL = Long.MIN_VALUE;
+
+    // Années 0000 à 9999 : hors de cette plage, la forme canonique ne tient plus sur 4 chiffres
+    private static final long MIN_FAST_EPOCH_DAY = -719_528;
+    private static final long MAX_FAST_EPOCH_DAY = 2_932_896;
+
+    private JsonDates() {
+    }
+
+    public static String format(Date date) {
+        long millis = date.getTime();
+        long epochDay = Math.floorDiv(millis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+        if (epochDay < MIN_FAST_EPOCH_DAY || epochDay > MAX_FAST_EPOCH_DAY) {
+            return OUTPUT.format(date.toInstant());
+        }
+
+        // Conversion jour julien -> date civile (algorithme de H. Hinnant)
+        long z = epochDay + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        char[] out = new char[24];
+        digits(out, 0, year, 4);
+        out[4] = '-';
+        digits(out, 5, month, 2);
+        out[7] = '-';
+        digits(out, 8, day, 2);
+        out[10] = 'T';
+        digits(out, 11, millisOfDay / 3_600_000, 2);
+        out[13] = ':';
+        digits(out, 14, millisOfDay / 60_000 % 60, 2);
+        out[16] = ':';
+        digits(out, 17, millisOfDay / 1000 % 60, 2);
+        out[19] = '.';
+        digits(out, 20, millisOfDay % 1000, 3);
+        out[23] = 'Z';
+        return new String(out);
+    }
+
+    public static Date parse(String text) {
+        long canonical = parseCanonical(text);
+        if (canonical != NOT_CANONICAL) {
+            return new Date(canonical);
+        }
+        String value = text.trim();
+        try {
+            if (value.length() == 10) {
+                return Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+            }
+            TemporalAccessor parsed = INPUT.parseBest(value, OffsetDateTime::from, LocalDateTime::from);
+            Instant instant = parsed instanceof OffsetDateTime offsetDateTime
+                    ? offsetDateTime.toInstant()
+                    : ((LocalDateTime) parsed).toInstant(ZoneOffset.UTC);
+            return Date.from(instant);
+        } catch (DateTimeParseException e) {
+            throw new JsonParseException("Date invalide: '" + text + "'", e);
+        }
+    }
+
+    /**
+     * Relit la forme canonique {@code uuuu-MM-ddTHH:mm:ss.SSSZ} ; retourne
+     * {@link #NOT_CANONICAL} pour toute autre forme.
+     */
+    private static long parseCanonical(String s) {
+        if (s.length() != 24 || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':' || s.charAt(19) != '.' || s.charAt(23) != 'Z') {
+            return NOT_CANONICAL;
+        }
+        int year = number(s, 0, 4);
+        int month = number(s, 5, 2);
+        int day = number(s, 8, 2);
+        int hour = number(s, 11, 2);
+        int minute = number(s, 14, 2);
+        int second = number(s, 17, 2);
+        int millis = number(s, 20, 3);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59 || millis < 0) {
+            return NOT_CANONICAL;
+        }
+
+        // Conversion date civile -> jour julien (algorithme de H. Hinnant)
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        long epochDay = era * 146_097 + dayOfEra - 719_468;
+
+        return epochDay * MILLIS_PER_DAY + hour * 3_600_000L + minute * 60_000L + second * 1000L + millis;
+    }
+
+    private static int number(String s, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void digits(char[] out, int offset, int value, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    public static void write(JsonWriter out, Date date) throws IOException {
+        if (date == null) {
+            out.nullValue();
+        } else {
+            out.value(format(date));
+        }
+    }
+
+    public static Date read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return parse(in.nextString());
+    }
+}
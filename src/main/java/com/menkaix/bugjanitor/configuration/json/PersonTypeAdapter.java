@@ -0,0 +1,62 @@
+package com.menkaix.bugjanitor.configuration.json;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.menkaix.bugjanitor.models.documents.Person;
+
+/**
+ * Adaptateur écrit à la main pour {@link Person}, sans réflexion.
+ */
+public class PersonTypeAdapter extends TypeAdapter<Person> {
+
+    @Override
+    public void write(JsonWriter out, Person person) throws IOException {
+        if (person == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(person.getId());
+        out.name("firstName").value(person.getFirstName());
+        out.name("lastName").value(person.getLastName());
+        out.name("email").value(person.getEmail());
+        JsonDates.write(out.name("creationDate"), person.getCreationDate());
+        JsonDates.write(out.name("updateDate"), person.getUpdateDate());
+        out.name("version").value(person.getVersion());
+        out.endObject();
+    }
+
+    @Override
+    public Person read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Person person = new Person();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            // Un null explicite efface la date de création posée par le constructeur
+            if (in.peek() == JsonToken.NULL && !"creationDate".equals(name)) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id" -> person.setId(in.nextString());
+                case "firstName" -> person.setFirstName(in.nextString());
+                case "lastName" -> person.setLastName(in.nextString());
+                case "email" -> person.setEmail(in.nextString());
+                case "creationDate" -> person.setCreationDate(JsonDates.read(in));
+                case "updateDate" -> person.setUpdateDate(JsonDates.read(in));
+                case "version" -> person.setVersion(in.nextLong());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return person;
+    }
+}
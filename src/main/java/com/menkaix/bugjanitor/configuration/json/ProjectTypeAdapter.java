@@ -0,0 +1,59 @@
+package com.menkaix.bugjanitor.configuration.json;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.menkaix.bugjanitor.models.documents.Project;
+
+/**
+ * Adaptateur écrit à la main pour {@link Project}, sans réflexion.
+ */
+public class ProjectTypeAdapter extends TypeAdapter<Project> {
+
+    @Override
+    public void write(JsonWriter out, Project project) throws IOException {
+        if (project == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(project.getId());
+        out.name("projectName").value(project.getProjectName());
+        out.name("projectCode").value(project.getProjectCode());
+        out.name("description").value(project.getDescription());
+        JsonDates.write(out.name("updateDate"), project.getUpdateDate());
+        out.name("version").value(project.getVersion());
+        out.endObject();
+    }
+
+    @Override
+    public Project read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Project project = new Project();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id" -> project.setId(in.nextString());
+                case "projectName" -> project.setProjectName(in.nextString());
+                case "projectCode" -> project.setProjectCode(in.nextString());
+                case "description" -> project.setDescription(in.nextString());
+                case "updateDate" -> project.setUpdateDate(JsonDates.read(in));
+                case "version" -> project.setVersion(in.nextLong());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return project;
+    }
+}
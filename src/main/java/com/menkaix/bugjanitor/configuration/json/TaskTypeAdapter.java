@@ -0,0 +1,79 @@
+package com.menkaix.bugjanitor.configuration.json;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.menkaix.bugjanitor.models.documents.Task;
+
+/**
+ * Adaptateur écrit à la main pour {@link Task}, sans réflexion. Les champs
+ * sont écrits dans l'ordre de déclaration, les valeurs nulles omises (sauf
+ * si le Gson sérialise les nulls) ; les champs inconnus sont ignorés en
+ * lecture.
+ */
+public class TaskTypeAdapter extends TypeAdapter<Task> {
+
+    @Override
+    public void write(JsonWriter out, Task task) throws IOException {
+        if (task == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(task.getId());
+        out.name("projectCode").value(task.getProjectCode());
+        JsonDates.write(out.name("creationDate"), task.getCreationDate());
+        JsonDates.write(out.name("updateDate"), task.getUpdateDate());
+        JsonDates.write(out.name("doneDate"), task.getDoneDate());
+        JsonDates.write(out.name("plannedStart"), task.getPlannedStart());
+        JsonDates.write(out.name("deadLine"), task.getDeadLine());
+        out.name("title").value(task.getTitle());
+        out.name("description").value(task.getDescription());
+        out.name("status").value(task.getStatus());
+        out.name("estimate").value(task.getEstimate());
+        out.name("trackingReference").value(task.getTrackingReference());
+        out.name("assignee").value(task.getAssignee());
+        out.name("version").value(task.getVersion());
+        out.endObject();
+    }
+
+    @Override
+    public Task read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Task task = new Task();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            // Un null explicite efface la date de création posée par le constructeur
+            if (in.peek() == JsonToken.NULL && !"creationDate".equals(name)) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id" -> task.setId(in.nextString());
+                case "projectCode" -> task.setProjectCode(in.nextString());
+                case "creationDate" -> task.setCreationDate(JsonDates.read(in));
+                case "updateDate" -> task.setUpdateDate(JsonDates.read(in));
+                case "doneDate" -> task.setDoneDate(JsonDates.read(in));
+                case "plannedStart" -> task.setPlannedStart(JsonDates.read(in));
+                case "deadLine" -> task.setDeadLine(JsonDates.read(in));
+                case "title" -> task.setTitle(in.nextString());
+                case "description" -> task.setDescription(in.nextString());
+                case "status" -> task.setStatus(in.nextString());
+                case "estimate" -> task.setEstimate(in.nextString());
+                case "trackingReference" -> task.setTrackingReference(in.nextString());
+                case "assignee" -> task.setAssignee(in.nextString());
+                case "version" -> task.setVersion(in.nextLong());
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return task;
+    }
+}
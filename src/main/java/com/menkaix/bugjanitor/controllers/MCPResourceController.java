@@ -1,30 +1,45 @@
 package com.menkaix.bugjanitor.controllers;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.google.gson.Gson;
 import com.menkaix.bugjanitor.mcp.resources.MCPResourceProvider;
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.projection.ProjectionSchema;
+import com.menkaix.bugjanitor.services.streaming.JsonStreams;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 @RequestMapping("/mcp/resources")
 public class MCPResourceController {
 
     private final MCPResourceProvider resourceProvider;
+    private final Gson gson;
 
     @Autowired
-    public MCPResourceController(MCPResourceProvider resourceProvider) {
+    public MCPResourceController(MCPResourceProvider resourceProvider, Gson gson) {
         this.resourceProvider = resourceProvider;
+        this.gson = gson;
     }
 
     @GetMapping("/**")
     public ResponseEntity<Map<String, Object>> getResource(
-            @RequestParam(value = "uri", required = true) String uri) {
+            @RequestParam(value = "uri", required = true) String uri,
+            @RequestParam(value = "fields", required = false) String fields) {
         
         try {
-            Map<String, Object> result = resourceProvider.getResource(uri);
+            Map<String, Object> result = fields != null
+                    ? resourceProvider.getResource(uri, fields)
+                    : resourceProvider.getResource(uri);
             
             if (result.containsKey("error")) {
                 return ResponseEntity.badRequest().body(result);
@@ -37,36 +52,39 @@ public class MCPResourceController {
         }
     }
 
+    /**
+     * Ressources de liste de tâches streamées : objet {@code {"tasks": [...],
+     * "count": n}} écrit au fil du curseur, ou NDJSON (format=ndjson ou
+     * Accept: application/x-ndjson).
+     */
+    @GetMapping("/stream")
+    public ResponseEntity<?> streamResource(
+            @RequestParam(value = "uri", required = true) String uri,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestHeader(value = "Accept", required = false) String accept) {
+
+        try {
+            Supplier<Stream<Task>> source = resourceProvider.taskListSource(uri,
+                    FieldProjection.parse(fields, ProjectionSchema.TASK));
+            if (source == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Resource not streamable: " + uri));
+            }
+            return JsonStreams.response(source, JsonStreams.wantsNdjson(format, accept), "tasks", gson);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/list")
     public ResponseEntity<Map<String, Object>> listAvailableResources() {
-        Map<String, Object> resources = Map.of(
-            "project_resources", Map.of(
-                "projects", "List all projects",
-                "projects/{id}", "Get specific project by ID",
-                "projects/{projectCode}/tasks", "Get tasks for a specific project"
-            ),
-            "task_resources", Map.of(
-                "tasks", "List all tasks",
-                "tasks/{id}", "Get specific task by ID",
-                "tasks/by-tracking-ref/{trackingRef}", "Get task by tracking reference",
-                "tasks/by-status/{status}", "Get tasks by status",
-                "tasks/overdue", "Get overdue tasks",
-                "tasks/upcoming", "Get upcoming tasks (next 7 days)"
-            ),
-            "schema_resources", Map.of(
-                "schemas/project", "Project JSON schema",
-                "schemas/task", "Task JSON schema"
-            ),
-            "server_resources", Map.of(
-                "server/health", "Server health status",
-                "server/info", "Server information and capabilities"
-            ),
-            "metrics_resources", Map.of(
-                "metrics/projects/count", "Total project count",
-                "metrics/tasks/count", "Total task count"
-            )
-        );
-        
+        Map<String, Object> resources = new LinkedHashMap<>(resourceProvider.listResources());
+        resources.put("usage", Map.of(
+            "?fields=summary|full|a,b", "Field projection for task and project lists (default full)",
+            "/mcp/resources/stream?uri=...", "Task lists streamed as JSON or NDJSON (format=ndjson)",
+            "{variable}", "Path variables match one segment; encode '/' as %2F",
+            "janitor://{uri}", "Same resources over MCP (resources/read), with resources/updated notifications"
+        ));
         return ResponseEntity.ok(resources);
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.menkaix.bugjanitor.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.menkaix.bugjanitor.mcp.metrics.CallMetrics;
+
+/**
+ * Mesures des appels MCP au format texte Prometheus, pour un scrape
+ * (en-tête {@code X-API-Key} requis, comme pour le reste de l'API).
+ * Sert les deux piles web : la réponse est calculée en mémoire.
+ */
+@RestController
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+    private final CallMetrics callMetrics;
+
+    public MetricsController(CallMetrics callMetrics) {
+        this.callMetrics = callMetrics;
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> scrape() {
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(callMetrics.prometheus());
+    }
+}
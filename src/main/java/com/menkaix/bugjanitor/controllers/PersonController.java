@@ -1,5 +1,6 @@
 package com.menkaix.bugjanitor.controllers;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -10,25 +11,45 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import com.menkaix.bugjanitor.models.documents.Person;
 import com.menkaix.bugjanitor.services.PersonService;
+import com.menkaix.bugjanitor.services.etag.EntityTags;
+import com.menkaix.bugjanitor.services.etag.PreconditionFailedException;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.projection.ProjectionSchema;
+import com.menkaix.bugjanitor.services.streaming.JsonStreams;
+import com.google.gson.Gson;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Optional;
+import java.util.Map;
 
 @CrossOrigin
 @RequestMapping("/person")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 public class PersonController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final PersonService personService;
+    private final Gson gson;
+    private final EntityTags entityTags;
 
-    public PersonController(PersonService personService) {
+    public PersonController(PersonService personService, Gson gson, EntityTags entityTags) {
         this.personService = personService;
+        this.gson = gson;
+        this.entityTags = entityTags;
     }
 
     @PostMapping
@@ -38,22 +59,27 @@ public class PersonController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Person> getPersonById(@PathVariable String id) {
-        Optional<Person> person = personService.findById(id);
-        return person.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return EntityTags.ok(personService.findById(id), PersonController::tag);
     }
 
     @GetMapping("/email/{email}")
     public ResponseEntity<Person> getPersonByEmail(@PathVariable String email) {
-        Optional<Person> person = personService.findByEmail(email);
-        return person.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return EntityTags.ok(personService.findByEmail(email), PersonController::tag);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Person> updatePerson(@PathVariable String id, @RequestBody Person personDetails) {
+    public ResponseEntity<Person> updatePerson(@PathVariable String id, @RequestBody Person personDetails,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         personDetails.setId(id);
         try {
+            personDetails.setVersion(EntityTags.expectedVersion(ifMatch, personDetails.getVersion(),
+                    () -> personService.findById(id), Person::getVersion, PersonController::tag));
             Person updatedPerson = personService.update(personDetails);
-            return ResponseEntity.ok(updatedPerson);
+            return ResponseEntity.ok().eTag(tag(updatedPerson)).body(updatedPerson);
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -66,8 +92,49 @@ public class PersonController {
     }
 
     @GetMapping
-    public Page<Person> getAllPersons(Pageable pageable,
-                                      @RequestParam(required = false) String search) {
-        return personService.findAll(pageable, search);
+    public ResponseEntity<?> getAllPersons(Pageable pageable,
+                                           @RequestParam(required = false) String search,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) String count,
+                                           WebRequest webRequest) {
+        try {
+            String tag = entityTags.collectionTag(Person.class, null);
+            if (tag != null && webRequest.checkNotModified(tag)) {
+                return null;
+            }
+            if (StringUtils.hasText(cursor)) {
+                return ResponseEntity.ok(personService.findAllByCursor(cursor, pageable.getPageSize(), search));
+            }
+
+            Slice<Person> persons = personService.findAll(pageable, search, CountMode.parse(count));
+            String nextCursor = personService.nextCursor(persons, search);
+            if (nextCursor == null) {
+                return ResponseEntity.ok(persons);
+            }
+            return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, nextCursor).body(persons);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Toutes les personnes, streamées en tableau JSON ou en NDJSON
+     * (format=ndjson ou Accept: application/x-ndjson).
+     */
+    @GetMapping("/all")
+    public ResponseEntity<?> streamAllPersons(@RequestParam(required = false) String fields,
+                                              @RequestParam(required = false) String format,
+                                              @RequestHeader(value = "Accept", required = false) String accept) {
+        try {
+            FieldProjection projection = FieldProjection.parse(fields, ProjectionSchema.PERSON);
+            return JsonStreams.response(() -> personService.streamAll(projection),
+                    JsonStreams.wantsNdjson(format, accept), gson);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static String tag(Person person) {
+        return EntityTags.of(person.getVersion(), person.getUpdateDate());
     }
 }
@@ -1,6 +1,7 @@
 package com.menkaix.bugjanitor.controllers;
 
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,26 +13,40 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.menkaix.bugjanitor.services.ProjectService;
+import com.menkaix.bugjanitor.services.etag.EntityTags;
+import com.menkaix.bugjanitor.services.etag.PreconditionFailedException;
+import com.menkaix.bugjanitor.services.paging.CountMode;
 
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import com.menkaix.bugjanitor.models.documents.Project;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Optional;
+import java.util.Map;
 
 @CrossOrigin
 @RequestMapping("/project")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 public class ProjectController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ProjectService projectService;
+    private final EntityTags entityTags;
 
-    public ProjectController(ProjectService projectService) {
+    public ProjectController(ProjectService projectService, EntityTags entityTags) {
         this.projectService = projectService;
+        this.entityTags = entityTags;
     }
 
     @PostMapping
@@ -41,16 +56,22 @@ public class ProjectController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Project> getProjectById(@PathVariable String id) {
-        Optional<Project> project = projectService.findById(id);
-        return project.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return EntityTags.ok(projectService.findById(id), ProjectController::tag);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Project> updateProject(@PathVariable String id, @RequestBody Project projectDetails) {
+    public ResponseEntity<Project> updateProject(@PathVariable String id, @RequestBody Project projectDetails,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         projectDetails.setId(id);
         try {
+            projectDetails.setVersion(EntityTags.expectedVersion(ifMatch, projectDetails.getVersion(),
+                    () -> projectService.findById(id), Project::getVersion, ProjectController::tag));
             Project updatedProject = projectService.update(projectDetails);
-            return ResponseEntity.ok(updatedProject);
+            return ResponseEntity.ok().eTag(tag(updatedProject)).body(updatedProject);
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -63,21 +84,43 @@ public class ProjectController {
     }
 
     @GetMapping
-    public Page<Project> getAllProjects(Pageable pageable,
-                                  @RequestParam(required = false) String search,
-                                  @RequestParam(required = false) String filter) {
-        return projectService.findAll(pageable, search, filter);
+    public ResponseEntity<?> getAllProjects(Pageable pageable,
+                                            @RequestParam(required = false) String search,
+                                            @RequestParam(required = false) String filter,
+                                            @RequestParam(required = false) String cursor,
+                                            @RequestParam(required = false) String count,
+                                            WebRequest webRequest) {
+        try {
+            String tag = entityTags.collectionTag(Project.class, filter);
+            if (tag != null && webRequest.checkNotModified(tag)) {
+                return null;
+            }
+            if (StringUtils.hasText(cursor)) {
+                return ResponseEntity.ok(projectService.findAllByCursor(cursor, pageable.getPageSize(), search, filter));
+            }
+
+            Slice<Project> projects = projectService.findAll(pageable, search, filter, CountMode.parse(count));
+            String nextCursor = projectService.nextCursor(projects, search, filter);
+            if (nextCursor == null) {
+                return ResponseEntity.ok(projects);
+            }
+            return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, nextCursor).body(projects);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
     @GetMapping("/code/{projectCode}")
     public ResponseEntity<Project> getProjectByCode(@PathVariable String projectCode) {
-        Optional<Project> project = projectService.findByProjectCode(projectCode);
-        return project.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return EntityTags.ok(projectService.findByProjectCode(projectCode), ProjectController::tag);
     }
 
     @GetMapping("/name/{projectName}")
     public ResponseEntity<Project> getProjectByName(@PathVariable String projectName) {
-        Optional<Project> project = projectService.findByProjectName(projectName);
-        return project.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return EntityTags.ok(projectService.findByProjectName(projectName), ProjectController::tag);
+    }
+
+    private static String tag(Project project) {
+        return EntityTags.of(project.getVersion(), project.getUpdateDate());
     }
 }
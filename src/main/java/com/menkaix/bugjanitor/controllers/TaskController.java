@@ -1,6 +1,7 @@
 package com.menkaix.bugjanitor.controllers;
 
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,32 +12,58 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.menkaix.bugjanitor.search.TaskSearchIndex;
 import com.menkaix.bugjanitor.services.TaskService;
+import com.menkaix.bugjanitor.services.bulk.BulkResult;
+import com.menkaix.bugjanitor.services.etag.EntityTags;
+import com.menkaix.bugjanitor.services.etag.PreconditionFailedException;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.projection.ProjectionSchema;
+import com.menkaix.bugjanitor.services.streaming.JsonStreams;
 
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.menkaix.bugjanitor.models.documents.Task;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
-import java.util.Optional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 import org.springframework.web.bind.annotation.RequestMethod;
 
 
 @CrossOrigin
 @RequestMapping("/task")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RestController
 public class TaskController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TaskService taskService;
+    private final TaskSearchIndex taskSearchIndex;
+    private final Gson gson;
+    private final EntityTags entityTags;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskSearchIndex taskSearchIndex, Gson gson, EntityTags entityTags) {
         this.taskService = taskService;
+        this.taskSearchIndex = taskSearchIndex;
+        this.gson = gson;
+        this.entityTags = entityTags;
     }
 
     @PostMapping
@@ -46,21 +73,23 @@ public class TaskController {
 
     @GetMapping("/{id}")
     public ResponseEntity<Task> getTaskById(@PathVariable String id) {
-        Optional<Task> task = taskService.findById(id);
-        return task.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build());
+        return EntityTags.ok(taskService.findById(id), TaskController::tag);
     }
 
     
     @PutMapping(path="/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable String id, @RequestBody Task taskDetails) {
+    public ResponseEntity<Task> updateTask(@PathVariable String id, @RequestBody Task taskDetails,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         taskDetails.setId(id);
         try {
-
-            Gson gson = new GsonBuilder().setPrettyPrinting().create() ;
-            System.out.println("input:\n"+gson.toJson(taskDetails));
-
+            taskDetails.setVersion(EntityTags.expectedVersion(ifMatch, taskDetails.getVersion(),
+                    () -> taskService.findById(id), Task::getVersion, TaskController::tag));
             Task updatedTask = taskService.update(taskDetails);
-            return ResponseEntity.ok(updatedTask);
+            return ResponseEntity.ok().eTag(tag(updatedTask)).body(updatedTask);
+        } catch (PreconditionFailedException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
@@ -72,10 +101,125 @@ public class TaskController {
         return ResponseEntity.noContent().build();
     }
 
+    /*
+     * Écritures en lot, résultat par élément : créations en un bulkWrite non
+     * ordonné, mises à jour et suppressions atomiques tâche par tâche.
+     */
+
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createTasks(@RequestBody List<Task> tasks) {
+        return bulk(() -> taskService.createAll(tasks));
+    }
+
+    @PutMapping("/bulk")
+    public ResponseEntity<?> updateTasks(@RequestBody List<Task> tasks) {
+        return bulk(() -> taskService.updateAll(tasks));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<?> deleteTasks(@RequestBody List<String> ids) {
+        return bulk(() -> taskService.deleteAll(ids));
+    }
+
+    private ResponseEntity<?> bulk(Supplier<BulkResult> operation) {
+        try {
+            return ResponseEntity.ok(operation.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping
-    public Page<Task> getAllTasks(Pageable pageable,
-                                  @RequestParam(required = false) String search,
-                                  @RequestParam(required = false) String filter) {
-        return taskService.findAll(pageable, search, filter);
+    public ResponseEntity<?> getAllTasks(Pageable pageable,
+                                         @RequestParam(required = false) String search,
+                                         @RequestParam(required = false) String filter,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) String count,
+                                         WebRequest webRequest) {
+        try {
+            // ETag de la collection : une liste inchangée répond 304 sans requête
+            String tag = entityTags.collectionTag(Task.class, filter,
+                    StringUtils.hasText(search) ? searchIndexState() : null);
+            if (tag != null && webRequest.checkNotModified(tag)) {
+                return null;
+            }
+            if (StringUtils.hasText(cursor)) {
+                return ResponseEntity.ok(taskService.findAllByCursor(cursor, pageable.getPageSize(), search, filter));
+            }
+
+            Slice<Task> tasks = taskService.findAll(pageable, search, filter, CountMode.parse(count));
+            String nextCursor = taskService.nextCursor(tasks, search, filter);
+            if (nextCursor == null) {
+                return ResponseEntity.ok(tasks);
+            }
+            return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, nextCursor).body(tasks);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * État de l'index de recherche pour l'ETag d'une liste avec
+     * {@code search} : le classement change quand l'index devient prêt (la
+     * base répondait jusque-là) ou est reconstruit, sans écriture dans la
+     * collection.
+     */
+    private String searchIndexState() {
+        return taskSearchIndex.isReady() ? "s" + Long.toString(taskSearchIndex.generation(), 36) : "db";
+    }
+
+    /*
+     * Listes non paginées, streamées en tableau JSON ou en NDJSON
+     * (format=ndjson ou Accept: application/x-ndjson).
+     */
+
+    @GetMapping("/by-project/{projectCode}")
+    public ResponseEntity<?> streamTasksByProject(@PathVariable String projectCode,
+                                                  @RequestParam(required = false) String fields,
+                                                  @RequestParam(required = false) String format,
+                                                  @RequestHeader(value = "Accept", required = false) String accept) {
+        return stream(fields, format, accept, projection -> taskService.streamByProjectCode(projectCode, projection));
+    }
+
+    @GetMapping("/by-status/{status}")
+    public ResponseEntity<?> streamTasksByStatus(@PathVariable String status,
+                                                 @RequestParam(required = false) String fields,
+                                                 @RequestParam(required = false) String format,
+                                                 @RequestHeader(value = "Accept", required = false) String accept) {
+        return stream(fields, format, accept, projection -> taskService.streamByStatus(status, projection));
+    }
+
+    @GetMapping("/overdue")
+    public ResponseEntity<?> streamOverdueTasks(@RequestParam(required = false) String fields,
+                                                @RequestParam(required = false) String format,
+                                                @RequestHeader(value = "Accept", required = false) String accept) {
+        return stream(fields, format, accept, taskService::streamOverdueTasks);
+    }
+
+    @GetMapping("/upcoming")
+    public ResponseEntity<?> streamUpcomingTasks(@RequestParam(required = false) String fields,
+                                                 @RequestParam(required = false) String format,
+                                                 @RequestHeader(value = "Accept", required = false) String accept) {
+        return stream(fields, format, accept, taskService::streamUpcomingTasks);
+    }
+
+    private ResponseEntity<?> stream(String fields, String format, String accept,
+                                     Function<FieldProjection, Stream<Task>> source) {
+        try {
+            FieldProjection projection = FieldProjection.parse(fields, ProjectionSchema.TASK);
+            return JsonStreams.response(() -> source.apply(projection), JsonStreams.wantsNdjson(format, accept), gson);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static String tag(Task task) {
+        return EntityTags.of(task.getVersion(), task.getUpdateDate());
+    }
+
+    @PostMapping("/search-index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildSearchIndex() {
+        int indexed = taskSearchIndex.rebuild();
+        return ResponseEntity.ok(Map.of("indexed", indexed));
     }
-}
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.menkaix.bugjanitor.controllers;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.projection.ProjectionSchema;
+import com.menkaix.bugjanitor.services.transfer.ImportReport;
+import com.menkaix.bugjanitor.services.transfer.TaskExportService;
+import com.menkaix.bugjanitor.services.transfer.TaskImportService;
+import com.menkaix.bugjanitor.services.transfer.TransferFormat;
+
+/**
+ * Import et export en flux des tâches (NDJSON ou CSV), pour des volumes que
+ * les écritures en lot de {@code /task/bulk} ne couvrent pas. L'import et
+ * l'export vers fichier exigent l'en-tête {@code X-API-Key}
+ * ({@code SecurityConfig}).
+ */
+@CrossOrigin
+@RequestMapping("/task")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RestController
+public class TaskTransferController {
+
+    private final TaskImportService taskImportService;
+    private final TaskExportService taskExportService;
+
+    public TaskTransferController(TaskImportService taskImportService, TaskExportService taskExportService) {
+        this.taskImportService = taskImportService;
+        this.taskExportService = taskExportService;
+    }
+
+    /**
+     * Importe le corps de la requête. Un import interrompu ({@code failed})
+     * se reprend en renvoyant le même fichier avec le même {@code jobId}.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importTasks(InputStream body,
+                                         @RequestParam(required = false) String format,
+                                         @RequestParam(required = false) String jobId,
+                                         @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false)
+                                         String contentType) {
+        try {
+            ImportReport report = taskImportService.importTasks(jobId, TransferFormat.of(format, contentType), body);
+            HttpStatus status = ImportReport.FAILED.equals(report.status()) ? HttpStatus.INTERNAL_SERVER_ERROR
+                    : HttpStatus.OK;
+            return ResponseEntity.status(status).body(report);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportReport> importProgress(@PathVariable String jobId) {
+        return ResponseEntity.of(taskImportService.progress(jobId));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<?> exportTasks(@RequestParam(required = false) String filter,
+                                         @RequestParam(required = false) String fields,
+                                         @RequestParam(required = false) String format,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        try {
+            FieldProjection projection = FieldProjection.parse(fields, ProjectionSchema.TASK);
+            TransferFormat transferFormat = TransferFormat.of(format, accept);
+            taskExportService.checkFilter(filter);
+            StreamingResponseBody body = outputStream -> {
+                Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+                taskExportService.export(filter, projection, transferFormat, out);
+            };
+            return ResponseEntity.ok()
+                    .contentType(transferFormat.mediaType())
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename(TaskExportService.defaultName(transferFormat)).build().toString())
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Écrit l'export dans le répertoire {@code app.transfer.export-dir} du
+     * serveur et retourne le chemin, le nombre de tâches et la taille.
+     */
+    @PostMapping("/export/file")
+    public ResponseEntity<?> exportTasksToFile(@RequestParam(required = false) String filter,
+                                               @RequestParam(required = false) String fields,
+                                               @RequestParam(required = false) String format,
+                                               @RequestParam(required = false) String name) {
+        try {
+            FieldProjection projection = FieldProjection.parse(fields, ProjectionSchema.TASK);
+            return ResponseEntity.ok(taskExportService.exportToFile(filter, projection,
+                    TransferFormat.of(format, null), name));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
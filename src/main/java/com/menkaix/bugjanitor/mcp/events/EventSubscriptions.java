@@ -0,0 +1,255 @@
+package com.menkaix.bugjanitor.mcp.events;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.FormattingStyle;
+import com.google.gson.Gson;
+import com.menkaix.bugjanitor.services.events.ChangeEvent;
+import com.menkaix.bugjanitor.services.events.ChangeFeed;
+import com.menkaix.bugjanitor.services.events.ChangeSubscription;
+
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Livraison des événements de {@link ChangeFeed} aux sessions MCP abonnées.
+ *
+ * Le SDK MCP ne sait adresser à une seule session que des messages de
+ * journal : chaque événement part en {@code notifications/message} de niveau
+ * {@code notice}, logger {@value #LOGGER}, avec l'événement en JSON dans
+ * {@code data}. Un client qui a abaissé son niveau de journal au-dessus de
+ * {@code notice} ne les reçoit pas.
+ *
+ * Chaque abonnement a sa file bornée ({@code app.events.queue-size}), vidée
+ * par un thread virtuel : une session lente ne retient pas le flux. Si la
+ * file déborde, les événements en trop sont perdus et le suivant porte
+ * {@code "gap": true} ; le client relit alors l'état courant. Un envoi en
+ * échec met fin à l'abonnement.
+ *
+ * Le transport SSE du SDK ne signale ni la fermeture d'une session ni les
+ * envois perdus : un abonnement est donc un bail de
+ * {@code app.events.subscription-ttl-ms}, prolongé par {@link #renew}. Les
+ * abonnements non renouvelés (session disparue) sont retirés toutes les
+ * {@code app.events.sweep-ms} et ne comptent plus dans
+ * {@code app.events.max-subscriptions}.
+ */
+@Component
+public class EventSubscriptions {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSubscriptions.class);
+
+    public static final String LOGGER = "janitor.events";
+
+    private final ChangeFeed changeFeed;
+    private final Gson gson;
+    private final int queueSize;
+    private final int maxSubscriptions;
+    private final long ttlMillis;
+
+    private final Map<String, Delivery> deliveries = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+
+    public EventSubscriptions(ChangeFeed changeFeed, Gson gson,
+                              @Value("${app.events.queue-size:256}") int queueSize,
+                              @Value("${app.events.max-subscriptions:1000}") int maxSubscriptions,
+                              @Value("${app.events.subscription-ttl-ms:1800000}") long ttlMillis) {
+        this.changeFeed = changeFeed;
+        this.gson = gson.newBuilder().setFormattingStyle(FormattingStyle.COMPACT).create();
+        this.queueSize = queueSize;
+        this.maxSubscriptions = maxSubscriptions;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Abonne la session de {@code exchange} au flux.
+     *
+     * @param resumeAfter jeton du dernier événement reçu, pour une reprise
+     * @throws IllegalArgumentException si une collection est inconnue
+     * @throws IllegalStateException    si le flux est désactivé ou si le
+     *                                  nombre d'abonnements est atteint
+     */
+    public Map<String, Object> subscribe(McpSyncServerExchange exchange, Set<String> collections, String projectCode,
+                                         String status, String assignee, String resumeAfter) {
+        if (!changeFeed.isEnabled()) {
+            throw new IllegalStateException("Le flux d'événements est désactivé (app.events.enabled=false)");
+        }
+        if (exchange == null) {
+            throw new IllegalStateException("Abonnement possible uniquement depuis une session MCP");
+        }
+        for (String collection : collections) {
+            if (!ChangeFeed.COLLECTIONS.contains(collection)) {
+                throw new IllegalArgumentException("Collection inconnue: " + collection
+                        + " (attendu: " + String.join(", ", ChangeFeed.COLLECTIONS) + ")");
+            }
+        }
+        if (deliveries.size() >= maxSubscriptions) {
+            expire();
+        }
+        if (deliveries.size() >= maxSubscriptions) {
+            throw new IllegalStateException("Nombre maximal d'abonnements atteint: " + maxSubscriptions);
+        }
+
+        String id = UUID.randomUUID().toString();
+        Delivery delivery = new Delivery(id, exchange, new ArrayBlockingQueue<>(queueSize));
+        deliveries.put(id, delivery);
+        ChangeSubscription subscription = new ChangeSubscription(id, collections, blankToNull(projectCode),
+                blankToNull(status), blankToNull(assignee), delivery::offer);
+        int replayed = changeFeed.subscribe(subscription, blankToNull(resumeAfter));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("subscriptionId", id);
+        result.put("collections", collections);
+        result.put("mode", changeFeed.mode());
+        result.put("logger", LOGGER);
+        result.put("expiresAt", new Date(delivery.expiresAt));
+        if (resumeAfter != null && !resumeAfter.isBlank()) {
+            result.put("replayed", Math.max(replayed, 0));
+            // Jeton sorti du tampon : des événements ont été manqués
+            result.put("gap", replayed < 0);
+        }
+        return result;
+    }
+
+    /**
+     * Prolonge le bail d'un abonnement.
+     *
+     * @return nouvelle échéance, vide si l'abonnement n'existe pas (ou plus)
+     */
+    public Optional<Date> renew(String subscriptionId) {
+        Delivery delivery = deliveries.get(subscriptionId);
+        if (delivery == null) {
+            return Optional.empty();
+        }
+        delivery.expiresAt = System.currentTimeMillis() + ttlMillis;
+        return Optional.of(new Date(delivery.expiresAt));
+    }
+
+    /**
+     * Retire les abonnements dont le bail est échu.
+     */
+    @Scheduled(fixedDelayString = "${app.events.sweep-ms:60000}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        deliveries.values().stream()
+                .filter(delivery -> delivery.expiresAt <= now)
+                .forEach(delivery -> {
+                    if (unsubscribe(delivery.id)) {
+                        expired.increment();
+                        log.info("Abonnement {} expiré faute de renouvellement", delivery.id);
+                    }
+                });
+    }
+
+    public boolean unsubscribe(String subscriptionId) {
+        Delivery delivery = deliveries.remove(subscriptionId);
+        changeFeed.unsubscribe(subscriptionId);
+        return delivery != null;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("mode", changeFeed.mode());
+        stats.put("subscriptions", deliveries.size());
+        stats.put("sent", sent.sum());
+        stats.put("dropped", dropped.sum());
+        stats.put("expired", expired.sum());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private final class Delivery {
+
+        private final String id;
+        private final McpSyncServerExchange exchange;
+        private final BlockingQueue<ChangeEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean gap;
+        private volatile long expiresAt = System.currentTimeMillis() + ttlMillis;
+
+        private Delivery(String id, McpSyncServerExchange exchange, BlockingQueue<ChangeEvent> queue) {
+            this.id = id;
+            this.exchange = exchange;
+            this.queue = queue;
+        }
+
+        /** Appelé sur le thread du flux : ne bloque jamais. */
+        void offer(ChangeEvent event) {
+            if (!queue.offer(event)) {
+                gap = true;
+                dropped.increment();
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                ChangeEvent event;
+                while ((event = queue.poll()) != null) {
+                    if (!send(event)) {
+                        return;
+                    }
+                }
+            } finally {
+                draining.set(false);
+            }
+            // Événement arrivé entre le dernier poll et la libération
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private boolean send(ChangeEvent event) {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("subscriptionId", id);
+            if (gap) {
+                gap = false;
+                payload.put("gap", true);
+            }
+            payload.put("event", event);
+            try {
+                exchange.loggingNotification(new McpSchema.LoggingMessageNotification(McpSchema.LoggingLevel.NOTICE,
+                        LOGGER, gson.toJson(payload)));
+                sent.increment();
+                return true;
+            } catch (RuntimeException e) {
+                log.info("Abonnement {} clos, envoi impossible: {}", id, e.getMessage());
+                queue.clear();
+                unsubscribe(id);
+                return false;
+            }
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package com.menkaix.bugjanitor.mcp.metrics;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Durées, erreurs, volume des réponses et temps Mongo des appels MCP, par
+ * outil et par ressource.
+ *
+ * Les outils rendent leurs erreurs dans un objet {@code {"error": ...}} au
+ * lieu de lever une exception : {@link #markError()}, appelé lors de la
+ * sérialisation de cet objet, marque l'appel en cours comme échoué.
+ *
+ * Le temps Mongo est la somme des commandes exécutées sur le thread de
+ * l'appel (voir {@link MongoCommandTimer}) ; il n'est pas mesuré pour les
+ * outils non bloquants, dont les commandes s'exécutent sur les threads du
+ * pilote.
+ */
+@Component
+public class CallMetrics {
+
+    public static final String TOOL = "tool";
+    public static final String RESOURCE = "resource";
+
+    private static final String PREFIX = "bugjanitor_mcp_";
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Map<String, CallStats>> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Exécute et mesure un appel ; une exception le compte comme échoué.
+     */
+    public <T> T call(String kind, String name, Supplier<T> operation) {
+        Scope previous = CURRENT.get();
+        Scope scope = new Scope();
+        CURRENT.set(scope);
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = operation.get();
+            failed = scope.error;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                // Appel imbriqué : ses commandes Mongo comptent aussi pour l'appelant
+                previous.mongoNanos += scope.mongoNanos;
+                previous.mongoCommands += scope.mongoCommands;
+                CURRENT.set(previous);
+            }
+            stats(kind, name).record(elapsed, failed, scope.mongoNanos, scope.mongoCommands);
+        }
+    }
+
+    /**
+     * Enregistre un appel mesuré par l'appelant, sans temps Mongo.
+     */
+    public void record(String kind, String name, long nanos, boolean failed) {
+        stats(kind, name).record(nanos, failed, -1, 0);
+    }
+
+    /**
+     * Taille (en caractères) de la réponse sérialisée d'un appel.
+     */
+    public void recordPayload(String kind, String name, long chars) {
+        stats(kind, name).recordPayload(chars);
+    }
+
+    /**
+     * Marque l'appel en cours sur ce thread comme échoué.
+     */
+    public static void markError() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.error = true;
+        }
+    }
+
+    static void mongoCommand(long nanos) {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.mongoNanos += nanos;
+            scope.mongoCommands++;
+        }
+    }
+
+    /**
+     * Résumé de chaque outil ou ressource de la catégorie {@code kind}.
+     */
+    public Map<String, Object> snapshot(String kind) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        new TreeMap<>(stats.getOrDefault(kind, Map.of()))
+                .forEach((name, callStats) -> snapshot.put(name, callStats.snapshot(false)));
+        return snapshot;
+    }
+
+    /**
+     * Détail d'un outil ou d'une ressource, classes d'histogramme comprises,
+     * ou null s'il n'a jamais été appelé.
+     */
+    public Map<String, Object> snapshot(String kind, String name) {
+        CallStats callStats = stats.getOrDefault(kind, Map.of()).get(name);
+        return callStats == null ? null : callStats.snapshot(true);
+    }
+
+    /**
+     * Toutes les mesures au format texte d'exposition Prometheus (0.0.4).
+     */
+    public String prometheus() {
+        StringBuilder out = new StringBuilder(16_384);
+        Map<String, Map<String, CallStats>> sorted = new TreeMap<>();
+        stats.forEach((kind, byName) -> sorted.put(kind, new TreeMap<>(byName)));
+
+        header(out, "call_duration_seconds", "histogram", "Duration of MCP tool calls and resource reads");
+        sorted.forEach((kind, byName) -> byName.forEach((name, s) -> {
+            long[] cumulative = s.latency.cumulative();
+            for (int i = 0; i < cumulative.length; i++) {
+                String le = i < LatencyHistogram.BOUNDS.length ? seconds(LatencyHistogram.BOUNDS[i]) : "+Inf";
+                sample(out, "call_duration_seconds_bucket", kind, name, "le", le, Long.toString(cumulative[i]));
+            }
+            sample(out, "call_duration_seconds_sum", kind, name, null, null, seconds(s.latency.sumNanos()));
+            sample(out, "call_duration_seconds_count", kind, name, null, null, Long.toString(s.latency.count()));
+        }));
+
+        header(out, "call_errors_total", "counter", "MCP calls that failed or returned an error object");
+        sorted.forEach((kind, byName) -> byName.forEach((name, s) ->
+                sample(out, "call_errors_total", kind, name, null, null, Long.toString(s.errors.sum()))));
+
+        header(out, "call_mongo_seconds_total", "counter", "Time spent in MongoDB commands during MCP calls");
+        sorted.forEach((kind, byName) -> byName.forEach((name, s) ->
+                sample(out, "call_mongo_seconds_total", kind, name, null, null, seconds(s.mongo.sumNanos()))));
+
+        header(out, "call_mongo_commands_total", "counter", "MongoDB commands issued during MCP calls");
+        sorted.forEach((kind, byName) -> byName.forEach((name, s) ->
+                sample(out, "call_mongo_commands_total", kind, name, null, null, Long.toString(s.mongoCommands.sum()))));
+
+        header(out, "call_payload_chars_total", "counter", "Characters of serialized MCP responses");
+        sorted.forEach((kind, byName) -> byName.forEach((name, s) ->
+                sample(out, "call_payload_chars_total", kind, name, null, null, Long.toString(s.payloadChars.sum()))));
+
+        header(out, "call_payload_chars_max", "gauge", "Largest serialized MCP response");
+        sorted.forEach((kind, byName) -> byName.forEach((name, s) ->
+                sample(out, "call_payload_chars_max", kind, name, null, null, Long.toString(s.payloadMax.get()))));
+        return out.toString();
+    }
+
+    private CallStats stats(String kind, String name) {
+        return stats.computeIfAbsent(kind, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(name == null ? "unknown" : name, key -> new CallStats());
+    }
+
+    private static void header(StringBuilder out, String metric, String type, String help) {
+        out.append("# HELP ").append(PREFIX).append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(PREFIX).append(metric).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String metric, String kind, String name, String extraLabel,
+            String extraValue, String value) {
+        out.append(PREFIX).append(metric).append("{kind=\"").append(escape(kind)).append("\",name=\"")
+                .append(escape(name)).append('"');
+        if (extraLabel != null) {
+            out.append(',').append(extraLabel).append("=\"").append(extraValue).append('"');
+        }
+        out.append("} ").append(value).append('\n');
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String seconds(long nanos) {
+        return BigDecimal.valueOf(nanos, 9).stripTrailingZeros().toPlainString();
+    }
+
+    private static final class Scope {
+        private boolean error;
+        private long mongoNanos;
+        private int mongoCommands;
+    }
+
+    private static final class CallStats {
+        private static final int WINDOW_SECONDS = 60;
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram mongo = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder mongoCommands = new LongAdder();
+        private final LongAdder payloads = new LongAdder();
+        private final LongAdder payloadChars = new LongAdder();
+        private final AtomicLong payloadMax = new AtomicLong();
+
+        // Appels par seconde sur la dernière minute, une case par seconde
+        private final AtomicLongArray recentCalls = new AtomicLongArray(WINDOW_SECONDS);
+        private final AtomicLongArray recentSeconds = new AtomicLongArray(WINDOW_SECONDS);
+
+        void record(long nanos, boolean failed, long mongoNanos, int commands) {
+            latency.record(nanos);
+            if (failed) {
+                errors.increment();
+            }
+            if (mongoNanos >= 0) {
+                mongo.record(mongoNanos);
+                mongoCommands.add(commands);
+            }
+            long second = System.nanoTime() / 1_000_000_000L;
+            int slot = (int) (second % WINDOW_SECONDS);
+            long stamp = recentSeconds.get(slot);
+            if (stamp != second && recentSeconds.compareAndSet(slot, stamp, second)) {
+                recentCalls.set(slot, 0);
+            }
+            recentCalls.incrementAndGet(slot);
+        }
+
+        void recordPayload(long chars) {
+            payloads.increment();
+            payloadChars.add(chars);
+            payloadMax.accumulateAndGet(chars, Math::max);
+        }
+
+        Map<String, Object> snapshot(boolean detailed) {
+            long calls = latency.count();
+            long errorCount = errors.sum();
+            long payloadCount = payloads.sum();
+            long mongoCalls = mongo.count();
+
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("calls", calls);
+            snapshot.put("errors", errorCount);
+            snapshot.put("errorRate", calls == 0 ? 0.0 : LatencyHistogram.round((double) errorCount / calls));
+            snapshot.put("callsPerSecond", LatencyHistogram.round(recentCallsPerSecond()));
+            snapshot.put("latencyMs", latency.snapshot());
+
+            Map<String, Object> mongoStats = new LinkedHashMap<>();
+            mongoStats.putAll(mongo.snapshot());
+            mongoStats.put("commandsPerCall", mongoCalls == 0 ? 0.0
+                    : LatencyHistogram.round((double) mongoCommands.sum() / mongoCalls));
+            mongoStats.put("shareOfLatency", latency.sumNanos() == 0 ? 0.0
+                    : LatencyHistogram.round((double) mongo.sumNanos() / latency.sumNanos()));
+            snapshot.put("mongoMs", mongoStats);
+
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("avgChars", payloadCount == 0 ? 0 : payloadChars.sum() / payloadCount);
+            payload.put("maxChars", payloadMax.get());
+            payload.put("totalChars", payloadChars.sum());
+            snapshot.put("payload", payload);
+
+            if (detailed) {
+                snapshot.put("latencyBucketsMs", latency.buckets());
+                snapshot.put("mongoBucketsMs", mongo.buckets());
+            }
+            return snapshot;
+        }
+
+        private double recentCallsPerSecond() {
+            long now = System.nanoTime() / 1_000_000_000L;
+            long total = 0;
+            for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+                long stamp = recentSeconds.get(slot);
+                // Seconde en cours exclue : elle n'est pas terminée
+                if (stamp < now && stamp >= now - WINDOW_SECONDS) {
+                    total += recentCalls.get(slot);
+                }
+            }
+            return (double) total / WINDOW_SECONDS;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.menkaix.bugjanitor.mcp.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durées à classes fixes, sans verrou.
+ *
+ * Les bornes suivent la progression 1 - 2,5 - 5 des histogrammes Prometheus,
+ * de 100 µs à 60 s. Les centiles sont interpolés linéairement dans la classe
+ * qui les contient (comme {@code histogram_quantile}) : l'erreur est bornée
+ * par la largeur de la classe, et la valeur ne dépasse jamais le maximum
+ * observé.
+ */
+final class LatencyHistogram {
+
+    /** Bornes supérieures des classes, en nanosecondes ; la dernière classe est ouverte. */
+    static final long[] BOUNDS = {
+            100_000L, 250_000L, 500_000L,
+            1_000_000L, 2_500_000L, 5_000_000L,
+            10_000_000L, 25_000_000L, 50_000_000L,
+            100_000_000L, 250_000_000L, 500_000_000L,
+            1_000_000_000L, 2_500_000_000L, 5_000_000_000L,
+            10_000_000_000L, 30_000_000_000L, 60_000_000_000L };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        buckets[bucket(nanos)].increment();
+        count.increment();
+        sumNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long count() {
+        return count.sum();
+    }
+
+    long sumNanos() {
+        return sumNanos.sum();
+    }
+
+    /**
+     * Effectifs cumulés par borne (dernier élément : toutes les valeurs).
+     */
+    long[] cumulative() {
+        long[] cumulative = new long[buckets.length];
+        long running = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            running += buckets[i].sum();
+            cumulative[i] = running;
+        }
+        return cumulative;
+    }
+
+    /**
+     * Centile {@code p} (entre 0 et 1) en millisecondes, 0 sans valeur.
+     */
+    double percentileMillis(double p) {
+        long[] cumulative = cumulative();
+        long total = cumulative[cumulative.length - 1];
+        if (total == 0) {
+            return 0.0;
+        }
+        long max = maxNanos.get();
+        double rank = p * total;
+        for (int i = 0; i < cumulative.length; i++) {
+            if (cumulative[i] >= rank) {
+                long before = i == 0 ? 0 : cumulative[i - 1];
+                long inBucket = cumulative[i] - before;
+                long lower = i == 0 ? 0 : BOUNDS[i - 1];
+                long upper = Math.min(i < BOUNDS.length ? BOUNDS[i] : max, max);
+                double value = inBucket == 0 ? upper : lower + (upper - lower) * (rank - before) / inBucket;
+                return Math.max(value, 0) / 1e6;
+            }
+        }
+        return max / 1e6;
+    }
+
+    Map<String, Object> snapshot() {
+        long calls = count();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("p50", round(percentileMillis(0.50)));
+        snapshot.put("p95", round(percentileMillis(0.95)));
+        snapshot.put("p99", round(percentileMillis(0.99)));
+        snapshot.put("max", round(maxNanos.get() / 1e6));
+        snapshot.put("avg", calls == 0 ? 0.0 : round(sumNanos() / 1e6 / calls));
+        return snapshot;
+    }
+
+    /**
+     * Effectif de chaque classe, par borne supérieure en millisecondes.
+     */
+    Map<String, Long> buckets() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            result.put(i < BOUNDS.length ? "le " + BOUNDS[i] / 1e6 : "+Inf", buckets[i].sum());
+        }
+        return result;
+    }
+
+    private static int bucket(long nanos) {
+        for (int i = 0; i < BOUNDS.length; i++) {
+            if (nanos <= BOUNDS[i]) {
+                return i;
+            }
+        }
+        return BOUNDS.length;
+    }
+
+    static double round(double millis) {
+        return Math.round(millis * 1000) / 1000.0;
+    }
+}
@@ -0,0 +1,27 @@
+package com.menkaix.bugjanitor.mcp.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+/**
+ * Impute la durée de chaque commande Mongo à l'appel MCP en cours.
+ *
+ * Le pilote synchrone notifie sur le thread qui a émis la commande, celui de
+ * l'appel ; les commandes émises hors appel (tâches de fond, pilote
+ * réactif) sont ignorées.
+ */
+public class MongoCommandTimer implements CommandListener {
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        CallMetrics.mongoCommand(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        CallMetrics.mongoCommand(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+}
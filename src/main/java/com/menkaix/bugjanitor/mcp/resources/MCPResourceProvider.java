@@ -4,146 +4,277 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.google.gson.Gson;
+import com.menkaix.bugjanitor.configuration.concurrency.MongoConcurrencyLimiter;
+import com.menkaix.bugjanitor.mcp.events.EventSubscriptions;
+import com.menkaix.bugjanitor.mcp.metrics.CallMetrics;
 import com.menkaix.bugjanitor.services.ProjectService;
 import com.menkaix.bugjanitor.services.TaskService;
+import com.menkaix.bugjanitor.mcptools.json.ToolJson;
+import com.menkaix.bugjanitor.services.cache.EntityCacheRegistry;
+import com.menkaix.bugjanitor.services.counters.CounterService;
+import com.menkaix.bugjanitor.services.dashboard.ProjectDashboardService;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.projection.ProjectionSchema;
 import com.menkaix.bugjanitor.models.documents.Project;
 import com.menkaix.bugjanitor.models.documents.Task;
 
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class MCPResourceProvider {
 
+    /**
+     * Préfixe des URI sous lesquelles les ressources sont publiées auprès des
+     * clients MCP ({@code janitor://tasks/{id}}).
+     */
+    public static final String URI_SCHEME = "janitor://";
+
+    private static final String PROJECTS = "project_resources";
+    private static final String TASKS = "task_resources";
+    private static final String SCHEMAS = "schema_resources";
+    private static final String SERVER = "server_resources";
+    private static final String METRICS = "metrics_resources";
+
+    private static final int DEFAULT_PAGE_SIZE = 100;
+    private static final int MAX_PAGE_SIZE = 1000;
+
     private final ProjectService projectService;
     private final TaskService taskService;
     private final Gson jsonUtils;
+    private final EntityCacheRegistry cacheRegistry;
+    private final ToolJson toolJson;
+    private final CounterService counterService;
+    private final MongoConcurrencyLimiter mongoLimiter;
+    private final CallMetrics callMetrics;
+    private final ProjectDashboardService dashboardService;
+    private final EventSubscriptions eventSubscriptions;
+    private final ResourceRouter router;
 
     @Autowired
-    public MCPResourceProvider(ProjectService projectService, TaskService taskService, Gson jsonUtils) {
+    public MCPResourceProvider(ProjectService projectService, TaskService taskService, Gson jsonUtils,
+                               EntityCacheRegistry cacheRegistry, ToolJson toolJson, CounterService counterService,
+                               MongoConcurrencyLimiter mongoLimiter, CallMetrics callMetrics,
+                               ProjectDashboardService dashboardService, EventSubscriptions eventSubscriptions) {
         this.projectService = projectService;
         this.taskService = taskService;
         this.jsonUtils = jsonUtils;
+        this.cacheRegistry = cacheRegistry;
+        this.toolJson = toolJson;
+        this.counterService = counterService;
+        this.mongoLimiter = mongoLimiter;
+        this.callMetrics = callMetrics;
+        this.dashboardService = dashboardService;
+        this.eventSubscriptions = eventSubscriptions;
+        this.router = ResourceRouter.of(this);
     }
 
+    /**
+     * Résout une URI de ressource ; les paramètres peuvent être passés en
+     * query string ({@code tasks/by-status/TODO?fields=summary}).
+     */
     public Map<String, Object> getResource(String uri) {
+        return getResource(uri, null);
+    }
+
+    public Map<String, Object> getResource(String uri, String fields) {
         Map<String, Object> response = new HashMap<>();
-        
+
         try {
-            if (uri.startsWith("projects/")) {
-                return handleProjectResource(uri);
-            } else if (uri.startsWith("tasks/")) {
-                return handleTaskResource(uri);
-            } else if (uri.startsWith("schemas/")) {
-                return handleSchemaResource(uri);
-            } else if (uri.startsWith("server/")) {
-                return handleServerResource(uri);
-            } else if (uri.startsWith("metrics/")) {
-                return handleMetricsResource(uri);
-            } else {
+            ResourceRequest request = router.resolve(uri, fields == null ? Map.of() : Map.of("fields", fields));
+            if (request == null) {
                 response.put("error", "Unknown resource: " + uri);
                 return response;
             }
+            // Mesurée par modèle d'URI, pas par URI : une série par route
+            return callMetrics.call(CallMetrics.RESOURCE, request.template(), () -> {
+                Map<String, Object> result = router.dispatch(request);
+                if (result.containsKey("error")) {
+                    CallMetrics.markError();
+                }
+                return result;
+            });
         } catch (Exception e) {
             response.put("error", e.getMessage());
             return response;
         }
     }
 
-    private Map<String, Object> handleProjectResource(String uri) {
-        Map<String, Object> response = new HashMap<>();
-        
-        if (uri.equals("projects")) {
-            return getAllProjects();
-        } else if (uri.startsWith("projects/") && uri.contains("/tasks")) {
-            return getProjectTasks(uri);
-        } else if (uri.startsWith("projects/")) {
-            String projectId = uri.substring("projects/".length());
-            return getProjectById(projectId);
+    /**
+     * Modèle de la route qui sert {@code uri}, ou null.
+     */
+    public String template(String uri) {
+        ResourceRequest request = router.resolve(uri, Map.of());
+        return request == null ? null : request.template();
+    }
+
+    /**
+     * Ressources déclarées, par rubrique : modèle d'URI vers description.
+     */
+    public Map<String, Map<String, String>> listResources() {
+        return router.listing();
+    }
+
+    /**
+     * Source streamée d'une ressource de liste de tâches ({@code tasks},
+     * {@code tasks/by-status/...}, {@code tasks/overdue},
+     * {@code tasks/upcoming}, {@code projects/{code}/tasks}), ou null si l'URI
+     * ne désigne pas une telle liste. Le flux n'est ouvert qu'à l'appel du
+     * fournisseur.
+     */
+    public Supplier<Stream<Task>> taskListSource(String uri, FieldProjection projection) {
+        ResourceRequest request = router.resolve(uri, Map.of());
+        if (request == null) {
+            return null;
         }
-        
-        response.put("error", "Invalid project resource: " + uri);
+        return switch (request.template()) {
+            case "tasks" -> () -> taskService.streamAll(projection);
+            case "tasks/by-status/{status}" -> () -> taskService.streamByStatus(request.variable("status"), projection);
+            case "tasks/overdue" -> () -> taskService.streamOverdueTasks(projection);
+            case "tasks/upcoming" -> () -> taskService.streamUpcomingTasks(projection);
+            case "projects/{projectCode}/tasks" ->
+                    () -> taskService.streamByProjectCode(request.variable("projectCode"), projection);
+            default -> null;
+        };
+    }
+
+    @ResourceRoute(value = "server/health", group = SERVER, description = "Server health status")
+    private Map<String, Object> getServerHealth(ResourceRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "healthy");
+        response.put("timestamp", new Date());
         return response;
     }
 
-    private Map<String, Object> handleTaskResource(String uri) {
+    @ResourceRoute(value = "server/info", group = SERVER, description = "Server information and capabilities")
+    private Map<String, Object> getServerInfo(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
-        
-        if (uri.equals("tasks")) {
-            return getAllTasks();
-        } else if (uri.startsWith("tasks/by-tracking-ref/")) {
-            String trackingRef = uri.substring("tasks/by-tracking-ref/".length());
-            return getTaskByTrackingReference(trackingRef);
-        } else if (uri.startsWith("tasks/by-status/")) {
-            String status = uri.substring("tasks/by-status/".length());
-            return getTasksByStatus(status);
-        } else if (uri.equals("tasks/overdue")) {
-            return getOverdueTasks();
-        } else if (uri.equals("tasks/upcoming")) {
-            return getUpcomingTasks();
-        } else if (uri.startsWith("tasks/")) {
-            String taskId = uri.substring("tasks/".length());
-            return getTaskById(taskId);
-        }
-        
-        response.put("error", "Invalid task resource: " + uri);
+        response.put("name", "Bug Tracking Janitor MCP Server");
+        response.put("version", "1.0.0");
+        response.put("capabilities", Arrays.asList("projects", "tasks", "schemas", "metrics"));
         return response;
     }
 
-    private Map<String, Object> handleSchemaResource(String uri) {
+    @ResourceRoute(value = "metrics/projects/count", group = METRICS, description = "Total project count")
+    private Map<String, Object> getProjectCount(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
-        
-        if (uri.equals("schemas/project")) {
-            return getProjectSchema();
-        } else if (uri.equals("schemas/task")) {
-            return getTaskSchema();
-        }
-        
-        response.put("error", "Invalid schema resource: " + uri);
+        response.put("count", counterService.get(CounterService.PROJECTS_TOTAL));
         return response;
     }
 
-    private Map<String, Object> handleServerResource(String uri) {
+    @ResourceRoute(value = "metrics/tasks/count", group = METRICS, description = "Total task count")
+    private Map<String, Object> getTaskCount(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
-        
-        if (uri.equals("server/health")) {
-            response.put("status", "healthy");
-            response.put("timestamp", new Date());
-            return response;
-        } else if (uri.equals("server/info")) {
-            response.put("name", "Bug Tracking Janitor MCP Server");
-            response.put("version", "1.0.0");
-            response.put("capabilities", Arrays.asList("projects", "tasks", "schemas", "metrics"));
-            return response;
-        }
-        
-        response.put("error", "Invalid server resource: " + uri);
+        response.put("count", counterService.get(CounterService.TASKS_TOTAL));
         return response;
     }
 
-    private Map<String, Object> handleMetricsResource(String uri) {
+    @ResourceRoute(value = "metrics/tasks/by-status", group = METRICS, description = "Task count per status")
+    private Map<String, Object> getTaskCountByStatus(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
-        
-        if (uri.equals("metrics/projects/count")) {
-            long count = projectService.findAll(null, null, null).getTotalElements();
-            response.put("count", count);
-            return response;
-        } else if (uri.equals("metrics/tasks/count")) {
-            long count = taskService.findAll(null, null, null).getTotalElements();
-            response.put("count", count);
-            return response;
+        response.put("counts", counterService.byPrefix(CounterService.TASKS_BY_STATUS));
+        return response;
+    }
+
+    @ResourceRoute(value = "metrics/tasks/by-project", group = METRICS, description = "Task count per project code")
+    private Map<String, Object> getTaskCountByProject(ResourceRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("counts", counterService.byPrefix(CounterService.TASKS_BY_PROJECT));
+        return response;
+    }
+
+    @ResourceRoute(value = "metrics/tasks/overdue", group = METRICS, description = "Open tasks past their deadline")
+    private Map<String, Object> getOverdueCount(ResourceRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("count", counterService.overdue());
+        return response;
+    }
+
+    @ResourceRoute(value = "metrics/cache", group = METRICS, description = "Entity cache size, hits, misses and evictions")
+    private Map<String, Object> getCacheMetrics(ResourceRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("caches", cacheRegistry.stats());
+        return response;
+    }
+
+    @ResourceRoute(value = "metrics/concurrency", group = METRICS,
+            description = "Thread kind serving requests and Mongo concurrency limiter usage")
+    private Map<String, Object> getConcurrencyMetrics(ResourceRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("requestThread", Thread.currentThread().isVirtual() ? "virtual" : "platform");
+        response.put("mongo", mongoLimiter.stats());
+        return response;
+    }
+
+    @ResourceRoute(value = "metrics/events", group = METRICS,
+            description = "Change event feed mode, active subscriptions, events sent and dropped")
+    private Map<String, Object> getEventMetrics(ResourceRequest request) {
+        return new HashMap<>(eventSubscriptions.stats());
+    }
+
+    @ResourceRoute(value = "metrics/serialization", group = METRICS,
+            description = "Tool response sizes and estimated tokens saved by compact JSON")
+    private Map<String, Object> getSerializationMetrics(ResourceRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("tools", toolJson.stats());
+        return response;
+    }
+
+    @ResourceRoute(value = "metrics/tools", group = METRICS,
+            description = "Per-tool call count, error rate, throughput, latency percentiles, Mongo time and payload size")
+    private Map<String, Object> getToolMetrics(ResourceRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("tools", callMetrics.snapshot(CallMetrics.TOOL));
+        return response;
+    }
+
+    @ResourceRoute(value = "metrics/tools/{toolName}", group = METRICS,
+            description = "Metrics of one tool, with latency and Mongo time histogram buckets")
+    private Map<String, Object> getToolMetricsByName(ResourceRequest request) {
+        return namedMetrics(CallMetrics.TOOL, request.variable("toolName"));
+    }
+
+    @ResourceRoute(value = "metrics/resources", group = METRICS,
+            description = "Per-resource read count, error rate, throughput, latency percentiles and Mongo time")
+    private Map<String, Object> getResourceMetrics(ResourceRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("resources", callMetrics.snapshot(CallMetrics.RESOURCE));
+        return response;
+    }
+
+    @ResourceRoute(value = "metrics/resources/{template}", group = METRICS,
+            description = "Metrics of one resource template (encode '/' as %2F), with histogram buckets")
+    private Map<String, Object> getResourceMetricsByTemplate(ResourceRequest request) {
+        return namedMetrics(CallMetrics.RESOURCE, request.variable("template"));
+    }
+
+    private Map<String, Object> namedMetrics(String kind, String name) {
+        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> metrics = callMetrics.snapshot(kind, name);
+        if (metrics == null) {
+            response.put("message", "Aucun appel mesuré pour: " + name);
+        } else {
+            response.put("name", name);
+            response.putAll(metrics);
         }
-        
-        response.put("error", "Invalid metrics resource: " + uri);
         return response;
     }
 
-    private Map<String, Object> getAllProjects() {
+    @ResourceRoute(value = "projects", group = PROJECTS,
+            description = "List projects by page (?size=100, max 1000; ?cursor=nextCursor; ?fields=summary|full|a,b)")
+    private Map<String, Object> getAllProjects(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
-            var projects = projectService.findAll(null, null, null);
-            response.put("projects", projects.getContent());
-            response.put("totalElements", projects.getTotalElements());
+            FieldProjection projection = FieldProjection.parse(request.parameter("fields"), ProjectionSchema.PROJECT);
+            CursorPage<Project> projects = projectService.findAllByCursor(request.parameter("cursor"),
+                    pageSize(request), null, null, projection);
+            response.put("projects", projects.content());
+            response.put("totalElements", counterService.get(CounterService.PROJECTS_TOTAL));
+            response.put("hasNext", projects.hasNext());
+            response.put("nextCursor", projects.nextCursor());
             return response;
         } catch (Exception e) {
             response.put("error", e.getMessage());
@@ -151,9 +282,11 @@ public class MCPResourceProvider {
         }
     }
 
-    private Map<String, Object> getProjectById(String projectId) {
+    @ResourceRoute(value = "projects/{id}", group = PROJECTS, description = "Get specific project by ID")
+    private Map<String, Object> getProjectById(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
+            String projectId = request.variable("id");
             Optional<Project> project = projectService.findById(projectId);
             if (project.isPresent()) {
                 response.put("project", project.get());
@@ -167,29 +300,57 @@ public class MCPResourceProvider {
         }
     }
 
-    private Map<String, Object> getProjectTasks(String uri) {
+    @ResourceRoute(value = "projects/{projectCode}/tasks", group = PROJECTS,
+            description = "Get tasks for a specific project (?fields=...)")
+    private Map<String, Object> getProjectTasks(ResourceRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            String projectCode = request.variable("projectCode");
+            var tasks = taskService.findByProjectCode(projectCode, taskProjection(request));
+            response.put("tasks", tasks);
+            response.put("projectCode", projectCode);
+            return response;
+        } catch (Exception e) {
+            response.put("error", e.getMessage());
+            return response;
+        }
+    }
+
+    @ResourceRoute(value = "projects/{projectCode}/dashboard", group = PROJECTS,
+            description = "Project summary from one aggregation: counts by status and assignee, overdue and upcoming counts, oldest open and recently done tasks (?limit=5)")
+    private Map<String, Object> getProjectDashboard(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
-            String[] parts = uri.split("/");
-            if (parts.length >= 3) {
-                String projectCode = parts[1];
-                var tasks = taskService.findByProjectCode(projectCode);
-                response.put("tasks", tasks);
-                response.put("projectCode", projectCode);
+            String projectCode = request.variable("projectCode");
+            String limit = request.parameter("limit");
+            var dashboard = dashboardService.dashboard(projectCode,
+                    limit == null || limit.isBlank() ? ProjectDashboardService.DEFAULT_LIMIT : Integer.parseInt(limit.trim()));
+            if (dashboard.isPresent()) {
+                response.put("dashboard", dashboard.get());
+            } else {
+                response.put("error", "Project not found: " + projectCode);
             }
             return response;
+        } catch (NumberFormatException e) {
+            response.put("error", "Invalid limit: " + request.parameter("limit"));
+            return response;
         } catch (Exception e) {
             response.put("error", e.getMessage());
             return response;
         }
     }
 
-    private Map<String, Object> getAllTasks() {
+    @ResourceRoute(value = "tasks", group = TASKS,
+            description = "List tasks by page (?size=100, max 1000; ?cursor=nextCursor; ?fields=summary|full|a,b)")
+    private Map<String, Object> getAllTasks(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
-            var tasks = taskService.findAll(null, null, null);
-            response.put("tasks", tasks.getContent());
-            response.put("totalElements", tasks.getTotalElements());
+            CursorPage<Task> tasks = taskService.findAllByCursor(request.parameter("cursor"), pageSize(request),
+                    null, null, taskProjection(request));
+            response.put("tasks", tasks.content());
+            response.put("totalElements", counterService.get(CounterService.TASKS_TOTAL));
+            response.put("hasNext", tasks.hasNext());
+            response.put("nextCursor", tasks.nextCursor());
             return response;
         } catch (Exception e) {
             response.put("error", e.getMessage());
@@ -197,9 +358,11 @@ public class MCPResourceProvider {
         }
     }
 
-    private Map<String, Object> getTaskById(String taskId) {
+    @ResourceRoute(value = "tasks/{id}", group = TASKS, description = "Get specific task by ID")
+    private Map<String, Object> getTaskById(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
+            String taskId = request.variable("id");
             Optional<Task> task = taskService.findById(taskId);
             if (task.isPresent()) {
                 response.put("task", task.get());
@@ -213,9 +376,12 @@ public class MCPResourceProvider {
         }
     }
 
-    private Map<String, Object> getTaskByTrackingReference(String trackingRef) {
+    @ResourceRoute(value = "tasks/by-tracking-ref/{trackingRef}", group = TASKS,
+            description = "Get task by tracking reference")
+    private Map<String, Object> getTaskByTrackingReference(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
+            String trackingRef = request.variable("trackingRef");
             Optional<Task> task = taskService.findByTrackingReference(trackingRef);
             if (task.isPresent()) {
                 response.put("task", task.get());
@@ -229,10 +395,12 @@ public class MCPResourceProvider {
         }
     }
 
-    private Map<String, Object> getTasksByStatus(String status) {
+    @ResourceRoute(value = "tasks/by-status/{status}", group = TASKS, description = "Get tasks by status (?fields=...)")
+    private Map<String, Object> getTasksByStatus(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
-            var tasks = taskService.findByStatus(status);
+            String status = request.variable("status");
+            var tasks = taskService.findByStatus(status, taskProjection(request));
             response.put("tasks", tasks);
             response.put("status", status);
             return response;
@@ -242,10 +410,11 @@ public class MCPResourceProvider {
         }
     }
 
-    private Map<String, Object> getOverdueTasks() {
+    @ResourceRoute(value = "tasks/overdue", group = TASKS, description = "Get overdue tasks (?fields=...)")
+    private Map<String, Object> getOverdueTasks(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
-            var tasks = taskService.findOverdueTasks();
+            var tasks = taskService.findOverdueTasks(taskProjection(request));
             response.put("tasks", tasks);
             response.put("count", tasks.size());
             return response;
@@ -255,10 +424,11 @@ public class MCPResourceProvider {
         }
     }
 
-    private Map<String, Object> getUpcomingTasks() {
+    @ResourceRoute(value = "tasks/upcoming", group = TASKS, description = "Get upcoming tasks (next 7 days, ?fields=...)")
+    private Map<String, Object> getUpcomingTasks(ResourceRequest request) {
         Map<String, Object> response = new HashMap<>();
         try {
-            var tasks = taskService.findUpcomingTasks();
+            var tasks = taskService.findUpcomingTasks(taskProjection(request));
             response.put("tasks", tasks);
             response.put("count", tasks.size());
             return response;
@@ -268,7 +438,8 @@ public class MCPResourceProvider {
         }
     }
 
-    private Map<String, Object> getProjectSchema() {
+    @ResourceRoute(value = "schemas/project", group = SCHEMAS, description = "Project JSON schema")
+    private Map<String, Object> getProjectSchema(ResourceRequest request) {
         Map<String, Object> schema = new HashMap<>();
         schema.put("type", "object");
         
@@ -283,7 +454,8 @@ public class MCPResourceProvider {
         return schema;
     }
 
-    private Map<String, Object> getTaskSchema() {
+    @ResourceRoute(value = "schemas/task", group = SCHEMAS, description = "Task JSON schema")
+    private Map<String, Object> getTaskSchema(ResourceRequest request) {
         Map<String, Object> schema = new HashMap<>();
         schema.put("type", "object");
         
@@ -305,4 +477,27 @@ public class MCPResourceProvider {
         schema.put("required", Arrays.asList("title", "description"));
         return schema;
     }
-}
\ No newline at end of file
+
+    /**
+     * Taille de page des listes complètes : une lecture de ressource ne charge
+     * jamais toute une collection en mémoire (le flux complet reste servi par
+     * {@code /mcp/resources/stream}).
+     */
+    private static int pageSize(ResourceRequest request) {
+        String size = request.parameter("size");
+        if (size == null || size.isBlank()) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        int parsed;
+        try {
+            parsed = Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid size: " + size);
+        }
+        return Math.max(1, Math.min(parsed, MAX_PAGE_SIZE));
+    }
+
+    private static FieldProjection taskProjection(ResourceRequest request) {
+        return FieldProjection.parse(request.parameter("fields"), ProjectionSchema.TASK);
+    }
+}
@@ -0,0 +1,18 @@
+package com.menkaix.bugjanitor.mcp.resources;
+
+import java.util.Map;
+
+/**
+ * Requête résolue : modèle de la route, variables de chemin et paramètres de
+ * query string, déjà décodés.
+ */
+public record ResourceRequest(String template, Map<String, String> variables, Map<String, String> parameters) {
+
+    public String variable(String name) {
+        return variables.get(name);
+    }
+
+    public String parameter(String name) {
+        return parameters.get(name);
+    }
+}
@@ -0,0 +1,29 @@
+package com.menkaix.bugjanitor.mcp.resources;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Déclare une méthode comme gestionnaire d'une ressource MCP.
+ *
+ * Le modèle est un chemin relatif dont les segments {@code {nom}} sont des
+ * variables ({@code projects/{projectCode}/tasks}). La méthode reçoit un
+ * {@link ResourceRequest} et retourne un {@code Map<String, Object>}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ResourceRoute {
+
+    String value();
+
+    /**
+     * Rubrique de la liste des ressources ({@code task_resources}...).
+     */
+    String group();
+
+    String description();
+}
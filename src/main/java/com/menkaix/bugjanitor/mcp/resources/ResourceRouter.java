@@ -0,0 +1,221 @@
+package com.menkaix.bugjanitor.mcp.resources;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Routeur d'URI de ressources, compilé une fois en arbre de préfixes à partir
+ * des méthodes annotées {@link ResourceRoute}.
+ *
+ * La résolution parcourt l'URI segment par segment : un segment littéral
+ * l'emporte sur une variable, et une variable ne capture jamais plus d'un
+ * segment. Une valeur contenant {@code /} doit donc être encodée
+ * ({@code %2F}).
+ */
+public class ResourceRouter {
+
+    private final Object handler;
+    private final Node root = new Node();
+    private final List<Route> routes = new ArrayList<>();
+    private final Map<String, Route> byTemplate = new HashMap<>();
+
+    private ResourceRouter(Object handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Compile les routes déclarées par {@code handler}.
+     *
+     * @throws IllegalStateException si deux routes ont le même chemin, ou si
+     *         une méthode n'a pas la signature attendue
+     */
+    public static ResourceRouter of(Object handler) {
+        ResourceRouter router = new ResourceRouter(handler);
+        ReflectionUtils.doWithMethods(ClassUtils.getUserClass(handler), method -> {
+            ResourceRoute annotation = method.getAnnotation(ResourceRoute.class);
+            if (annotation != null) {
+                router.register(annotation, method);
+            }
+        });
+        router.routes.sort(Comparator.comparing(Route::template));
+        return router;
+    }
+
+    /**
+     * Résout et exécute l'URI ; {@code extraParameters} complète ou remplace
+     * la query string. Retourne null si aucune route ne correspond.
+     */
+    public Map<String, Object> dispatch(String uri, Map<String, String> extraParameters) {
+        Resolution resolution = resolveRoute(uri, extraParameters);
+        return resolution == null ? null : invoke(resolution.route(), resolution.request());
+    }
+
+    /**
+     * Exécute une requête déjà résolue par {@link #resolve}.
+     */
+    public Map<String, Object> dispatch(ResourceRequest request) {
+        Route route = byTemplate.get(request.template());
+        if (route == null) {
+            throw new IllegalArgumentException("Route inconnue : " + request.template());
+        }
+        return invoke(route, request);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> invoke(Route route, ResourceRequest request) {
+        try {
+            return (Map<String, Object>) route.method().invoke(handler, request);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Résout l'URI sans l'exécuter, ou retourne null si aucune route ne
+     * correspond.
+     */
+    public ResourceRequest resolve(String uri, Map<String, String> extraParameters) {
+        Resolution resolution = resolveRoute(uri, extraParameters);
+        return resolution == null ? null : resolution.request();
+    }
+
+    private Resolution resolveRoute(String uri, Map<String, String> extraParameters) {
+        int queryStart = uri.indexOf('?');
+        String path = queryStart >= 0 ? uri.substring(0, queryStart) : uri;
+
+        List<String> values = new ArrayList<>(2);
+        Route route = match(root, path, 0, values);
+        if (route == null) {
+            return null;
+        }
+
+        Map<String, String> variables = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            variables.put(route.variables().get(i), decodeSegment(values.get(i)));
+        }
+        Map<String, String> parameters = queryStart >= 0 ? parseQuery(uri.substring(queryStart + 1)) : new HashMap<>();
+        extraParameters.forEach((name, value) -> {
+            if (value != null) {
+                parameters.put(name, value);
+            }
+        });
+        return new Resolution(route, new ResourceRequest(route.template(), variables, parameters));
+    }
+
+    /**
+     * Routes déclarées, groupées par rubrique : modèle vers description.
+     */
+    public Map<String, Map<String, String>> listing() {
+        Map<String, Map<String, String>> listing = new LinkedHashMap<>();
+        for (Route route : routes) {
+            listing.computeIfAbsent(route.group(), group -> new LinkedHashMap<>())
+                    .put(route.template(), route.description());
+        }
+        return listing;
+    }
+
+    private void register(ResourceRoute annotation, Method method) {
+        if (method.getParameterCount() != 1 || method.getParameterTypes()[0] != ResourceRequest.class
+                || !Map.class.isAssignableFrom(method.getReturnType())) {
+            throw new IllegalStateException("Route " + annotation.value() + " : signature attendue "
+                    + "Map<String, Object> " + method.getName() + "(ResourceRequest)");
+        }
+        ReflectionUtils.makeAccessible(method);
+
+        Node node = root;
+        List<String> variables = new ArrayList<>();
+        for (String segment : annotation.value().split("/")) {
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                variables.add(segment.substring(1, segment.length() - 1));
+                if (node.variable == null) {
+                    node.variable = new Node();
+                }
+                node = node.variable;
+            } else {
+                node = node.literals.computeIfAbsent(segment, key -> new Node());
+            }
+        }
+        if (node.route != null) {
+            throw new IllegalStateException("Routes en conflit : " + node.route.template() + " et " + annotation.value());
+        }
+        node.route = new Route(annotation.value(), annotation.group(), annotation.description(), List.copyOf(variables), method);
+        routes.add(node.route);
+        byTemplate.put(node.route.template(), node.route);
+    }
+
+    private Route match(Node node, String path, int start, List<String> values) {
+        int end = path.indexOf('/', start);
+        boolean last = end < 0;
+        if (last) {
+            end = path.length();
+        }
+        String segment = path.substring(start, end);
+
+        Node literal = node.literals.get(segment);
+        if (literal != null) {
+            Route route = last ? literal.route : match(literal, path, end + 1, values);
+            if (route != null) {
+                return route;
+            }
+        }
+        if (node.variable != null && !segment.isEmpty()) {
+            values.add(segment);
+            Route route = last ? node.variable.route : match(node.variable, path, end + 1, values);
+            if (route != null) {
+                return route;
+            }
+            values.remove(values.size() - 1);
+        }
+        return null;
+    }
+
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> parameters = new HashMap<>();
+        for (String param : query.split("&")) {
+            int equals = param.indexOf('=');
+            if (equals > 0) {
+                parameters.put(decode(param.substring(0, equals)), decode(param.substring(equals + 1)));
+            } else if (!param.isEmpty()) {
+                parameters.put(decode(param), "");
+            }
+        }
+        return parameters;
+    }
+
+    // Dans un chemin, '+' est un caractère ordinaire et non un espace
+    private static String decodeSegment(String value) {
+        return value.indexOf('%') < 0 ? value : URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String value) {
+        return value.indexOf('%') < 0 && value.indexOf('+') < 0 ? value : URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private record Resolution(Route route, ResourceRequest request) {
+    }
+
+    private record Route(String template, String group, String description, List<String> variables, Method method) {
+    }
+
+    private static final class Node {
+        private final Map<String, Node> literals = new HashMap<>();
+        private Node variable;
+        private Route route;
+    }
+}
@@ -0,0 +1,203 @@
+package com.menkaix.bugjanitor.mcp.resources;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriUtils;
+
+import com.menkaix.bugjanitor.models.documents.Project;
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.ProjectChangeListener;
+import com.menkaix.bugjanitor.services.TaskChangeListener;
+import com.menkaix.bugjanitor.services.deadlines.DeadlineListener;
+
+import io.modelcontextprotocol.spec.McpServerTransportProvider;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Envoie {@code notifications/resources/updated} aux clients MCP pour les
+ * ressources touchées par une écriture sur une tâche ou un projet, afin qu'ils
+ * rafraîchissent leur copie au lieu de relire périodiquement. La
+ * notification porte l'URI sans paramètres et vaut pour toutes ses variantes
+ * ({@code ?fields=...}).
+ *
+ * Les URI modifiées sont regroupées pendant {@code app.mcp.resources.notify-debounce-ms} :
+ * une rafale d'écritures (import, mise à jour en lot) ne produit qu'une
+ * notification par ressource.
+ *
+ * Le passage d'une échéance change aussi les listes de tâches en retard et à
+ * venir, sans écriture : il est signalé par {@link DeadlineListener}.
+ */
+@Component
+public class ResourceUpdateNotifier implements TaskChangeListener, ProjectChangeListener, DeadlineListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ResourceUpdateNotifier.class);
+
+    private static final String RESOURCES_UPDATED = "notifications/resources/updated";
+
+    private final ObjectProvider<McpServerTransportProvider> transportProvider;
+    private final boolean enabled;
+    private final long debounceMillis;
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-resource-notifier");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ResourceUpdateNotifier(ObjectProvider<McpServerTransportProvider> transportProvider,
+                                  @Value("${app.mcp.resources.notify-updates:true}") boolean enabled,
+                                  @Value("${app.mcp.resources.notify-debounce-ms:250}") long debounceMillis) {
+        this.transportProvider = transportProvider;
+        this.enabled = enabled;
+        this.debounceMillis = debounceMillis;
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        changed(task);
+        enqueue("metrics/tasks/count");
+    }
+
+    /**
+     * Lot de créations : seules les listes et les agrégats changent, aucun
+     * client ne suit encore la ressource d'une tâche qui vient d'être créée.
+     */
+    @Override
+    public void onCreatedAll(List<Task> tasks) {
+        enqueue("tasks");
+        enqueue("tasks/overdue");
+        enqueue("tasks/upcoming");
+        enqueue("metrics/tasks/by-status");
+        enqueue("metrics/tasks/by-project");
+        enqueue("metrics/tasks/overdue");
+        enqueue("metrics/tasks/count");
+        Set<String> seen = new HashSet<>();
+        for (Task task : tasks) {
+            if (task.getStatus() != null && seen.add("s:" + task.getStatus())) {
+                enqueue("tasks/by-status/" + segment(task.getStatus()));
+            }
+            if (task.getProjectCode() != null && seen.add("p:" + task.getProjectCode())) {
+                enqueue("projects/" + segment(task.getProjectCode()) + "/tasks");
+                enqueue("projects/" + segment(task.getProjectCode()) + "/dashboard");
+            }
+        }
+    }
+
+    @Override
+    public void onUpdated(Task before, Task after) {
+        changed(before);
+        changed(after);
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        changed(task);
+        enqueue("metrics/tasks/count");
+    }
+
+    @Override
+    public void onCreated(Project project) {
+        changed(project);
+        enqueue("metrics/projects/count");
+    }
+
+    @Override
+    public void onUpdated(Project before, Project after) {
+        changed(before);
+        changed(after);
+    }
+
+    @Override
+    public void onDeleted(Project project) {
+        changed(project);
+        enqueue("metrics/projects/count");
+    }
+
+    @Override
+    public void onOverdue(Task task) {
+        enqueue("tasks/overdue");
+        enqueue("tasks/upcoming");
+        enqueue("metrics/tasks/overdue");
+        if (task.getProjectCode() != null) {
+            enqueue("projects/" + segment(task.getProjectCode()) + "/dashboard");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void changed(Task task) {
+        enqueue("tasks");
+        enqueue("tasks/overdue");
+        enqueue("tasks/upcoming");
+        enqueue("metrics/tasks/by-status");
+        enqueue("metrics/tasks/by-project");
+        enqueue("metrics/tasks/overdue");
+        enqueue("tasks/" + segment(task.getId()));
+        if (task.getTrackingReference() != null) {
+            enqueue("tasks/by-tracking-ref/" + segment(task.getTrackingReference()));
+        }
+        if (task.getStatus() != null) {
+            enqueue("tasks/by-status/" + segment(task.getStatus()));
+        }
+        if (task.getProjectCode() != null) {
+            enqueue("projects/" + segment(task.getProjectCode()) + "/tasks");
+            enqueue("projects/" + segment(task.getProjectCode()) + "/dashboard");
+        }
+    }
+
+    private void changed(Project project) {
+        enqueue("projects");
+        enqueue("projects/" + segment(project.getId()));
+        if (project.getProjectCode() != null) {
+            enqueue("projects/" + segment(project.getProjectCode()) + "/dashboard");
+        }
+    }
+
+    private void enqueue(String path) {
+        if (!enabled) {
+            return;
+        }
+        pending.add(MCPResourceProvider.URI_SCHEME + path);
+        if (scheduled.compareAndSet(false, true)) {
+            scheduler.schedule(this::flush, debounceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void flush() {
+        scheduled.set(false);
+        McpServerTransportProvider transport = transportProvider.getIfAvailable();
+        for (String uri : Set.copyOf(pending)) {
+            pending.remove(uri);
+            if (transport == null) {
+                continue;
+            }
+            transport.notifyClients(RESOURCES_UPDATED, Map.of("uri", uri))
+                    .doOnError(e -> log.warn("Notification de mise à jour de {} en échec: {}", uri, e.getMessage()))
+                    .onErrorComplete()
+                    .subscribe();
+        }
+    }
+
+    private static String segment(String value) {
+        return UriUtils.encodePathSegment(value == null ? "" : value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,85 @@
+package com.menkaix.bugjanitor.mcptools;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.stereotype.Service;
+
+import com.menkaix.bugjanitor.mcp.events.EventSubscriptions;
+import com.menkaix.bugjanitor.mcptools.json.RawJsonResultConverter;
+import com.menkaix.bugjanitor.mcptools.json.ToolJson;
+import com.menkaix.bugjanitor.services.events.ChangeFeed;
+
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class EventToolsRegistry {
+
+    private final EventSubscriptions eventSubscriptions;
+    private final ToolJson jsonUtils;
+
+    public EventToolsRegistry(EventSubscriptions eventSubscriptions, ToolJson jsonUtils) {
+        this.eventSubscriptions = eventSubscriptions;
+        this.jsonUtils = jsonUtils;
+    }
+
+    @Tool(name = "subscribe-events", description = "Subscribes the current MCP session to change events on tasks, projects and persons, pushed as logging notifications (notifications/message, level 'notice', logger 'janitor.events', data = JSON {subscriptionId, gap (only when events were lost), event: {resumeToken, collection, operation ('insert', 'update', 'replace', 'delete', or 'overdue' when a task deadline passes), id, at, before, after, updatedFields}}). Parameters: collections (string, optional, comma-separated list among 'task', 'project', 'person'; default 'task'), projectCode (string, optional), status (string, optional), assignee (string, optional): filters applied to the fields a document carries, an event matches when the state before or after the write matches; resumeAfter (string, optional, resumeToken of the last event received, to replay the events missed since a reconnection). Returns subscriptionId, mode ('change-stream' for all writes, 'local' for task writes of this server only), expiresAt (the subscription is a lease: call renew-events before this date, or it is dropped), and with resumeAfter the number of replayed events and gap (true when the token is too old: reload the current state).", resultConverter = RawJsonResultConverter.class)
+    public String subscribeEvents(String collections, String projectCode, String status, String assignee,
+            String resumeAfter, ToolContext toolContext) {
+        try {
+            McpSyncServerExchange exchange = toolContext == null ? null
+                    : McpToolUtils.getMcpExchange(toolContext).orElse(null);
+            return jsonUtils.toJson(eventSubscriptions.subscribe(exchange, collections(collections), projectCode,
+                    status, assignee, resumeAfter));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return jsonUtils.toJson(error);
+        }
+    }
+
+    @Tool(name = "renew-events", description = "Extends the lease of an event subscription created by subscribe-events; subscriptions that are not renewed before their expiresAt are dropped (the server cannot detect closed sessions). Parameter: subscriptionId (string, required). Returns subscriptionId and the new expiresAt, or an error if the subscription doesn't exist or has expired (subscribe again, with resumeAfter to replay missed events).", resultConverter = RawJsonResultConverter.class)
+    public String renewEvents(String subscriptionId) {
+        Map<String, Object> result = new HashMap<>();
+        Optional<Date> expiresAt = subscriptionId == null ? Optional.empty()
+                : eventSubscriptions.renew(subscriptionId.trim());
+        if (expiresAt.isPresent()) {
+            result.put("subscriptionId", subscriptionId.trim());
+            result.put("expiresAt", expiresAt.get());
+        } else {
+            result.put("error", "Abonnement inconnu ou expiré: " + subscriptionId);
+        }
+        return jsonUtils.toJson(result);
+    }
+
+    @Tool(name = "unsubscribe-events", description = "Ends an event subscription created by subscribe-events. Parameter: subscriptionId (string, required). Returns a confirmation message, or an error if the subscription doesn't exist.", resultConverter = RawJsonResultConverter.class)
+    public String unsubscribeEvents(String subscriptionId) {
+        Map<String, String> result = new HashMap<>();
+        if (subscriptionId != null && eventSubscriptions.unsubscribe(subscriptionId.trim())) {
+            result.put("message", "Abonnement clos: " + subscriptionId);
+        } else {
+            result.put("error", "Abonnement inconnu: " + subscriptionId);
+        }
+        return jsonUtils.toJson(result);
+    }
+
+    private static Set<String> collections(String collections) {
+        if (collections == null || collections.isBlank()) {
+            return Set.of(ChangeFeed.COLLECTIONS.get(0));
+        }
+        Set<String> names = new LinkedHashSet<>();
+        Arrays.stream(collections.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .forEach(names::add);
+        return names;
+    }
+}
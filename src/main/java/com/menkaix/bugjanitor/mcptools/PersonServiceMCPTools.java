@@ -5,13 +5,18 @@ import org.springframework.stereotype.Service;
 import com.google.gson.Gson;
 import com.menkaix.bugjanitor.models.documents.Person;
 import com.menkaix.bugjanitor.services.PersonService;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.projection.ProjectionSchema;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class PersonServiceMCPTools {
@@ -85,23 +90,12 @@ public class PersonServiceMCPTools {
                 throw new IllegalArgumentException("L'ID de la personne est requis pour la mise à jour");
             }
 
-            Person existingPerson = personService.findById(personDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("Personne non trouvée avec l'ID: " + personDetails.getId()));
-
-            if (personDetails.getFirstName() != null) {
-                existingPerson.setFirstName(personDetails.getFirstName());
-            }
-            if (personDetails.getLastName() != null) {
-                existingPerson.setLastName(personDetails.getLastName());
-            }
-            if (personDetails.getEmail() != null) {
-                if (!isValidEmail(personDetails.getEmail())) {
-                    throw new IllegalArgumentException("L'email doit être valide");
-                }
-                existingPerson.setEmail(personDetails.getEmail());
+            if (personDetails.getEmail() != null && !isValidEmail(personDetails.getEmail())) {
+                throw new IllegalArgumentException("L'email doit être valide");
             }
 
-            return personService.update(existingPerson);
+            // Seuls les champs fournis sont modifiés, en un aller-retour
+            return personService.update(personDetails);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la mise à jour de la personne: " + e.getMessage(), e);
         }
@@ -123,14 +117,28 @@ public class PersonServiceMCPTools {
         }
     }
 
-    public Page<Person> findAllPersons(Pageable pageable, String search) {
+    public Slice<Person> findAllPersons(Pageable pageable, String search, CountMode countMode, String fields) {
+        try {
+            return personService.findAll(pageable, search, countMode,
+                    FieldProjection.parse(fields, ProjectionSchema.PERSON));
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la recherche des personnes: " + e.getMessage(), e);
+        }
+    }
+
+    public CursorPage<Person> findAllPersonsByCursor(String cursor, int size, String search, String fields) {
         try {
-            return personService.findAll(pageable, search);
+            return personService.findAllByCursor(cursor, size, search,
+                    FieldProjection.parse(fields, ProjectionSchema.PERSON));
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la recherche des personnes: " + e.getMessage(), e);
         }
     }
 
+    public String nextCursor(Slice<Person> page, String search) {
+        return personService.nextCursor(page, search);
+    }
+
     public List<Person> findAllPersons() {
         try {
             return personService.findAll();
@@ -139,6 +147,10 @@ public class PersonServiceMCPTools {
         }
     }
 
+    public Stream<Person> streamAllPersons(String fields) {
+        return personService.streamAll(FieldProjection.parse(fields, ProjectionSchema.PERSON));
+    }
+
     private boolean isValidEmail(String email) {
         if (email == null || email.trim().isEmpty()) {
             return false;
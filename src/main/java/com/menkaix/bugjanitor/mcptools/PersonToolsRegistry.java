@@ -4,13 +4,17 @@ import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
-import com.google.gson.Gson;
+import com.menkaix.bugjanitor.mcptools.json.RawJsonResultConverter;
+import com.menkaix.bugjanitor.mcptools.json.ToolJson;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
+import com.menkaix.bugjanitor.services.streaming.JsonStreams;
 import com.menkaix.bugjanitor.models.documents.Person;
 
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -18,14 +22,14 @@ import java.util.Optional;
 public class PersonToolsRegistry {
 
     private final PersonServiceMCPTools personServiceTools;
-    private final Gson jsonUtils;
+    private final ToolJson jsonUtils;
 
-    public PersonToolsRegistry(PersonServiceMCPTools tools, Gson jsonUtils) {
+    public PersonToolsRegistry(PersonServiceMCPTools tools, ToolJson jsonUtils) {
         personServiceTools = tools;
         this.jsonUtils = jsonUtils;
     }
 
-    @Tool(name = "create-person", description = "Creates a new person from JSON input. Required fields: firstName (string), lastName (string), email (string, valid email format). Returns the created person with auto-generated ID and timestamps.")
+    @Tool(name = "create-person", description = "Creates a new person from JSON input. Required fields: firstName (string), lastName (string), email (string, valid email format). Returns the created person with auto-generated ID and timestamps.", resultConverter = RawJsonResultConverter.class)
     public String createPerson(String personJson) {
         try {
             Person person = personServiceTools.createPerson(personJson);
@@ -37,7 +41,7 @@ public class PersonToolsRegistry {
         }
     }
 
-    @Tool(name = "find-person-by-id", description = "Retrieves a specific person by their unique identifier. Parameter: id (string, required). Returns the complete person object if found, or an error message if the person doesn't exist.")
+    @Tool(name = "find-person-by-id", description = "Retrieves a specific person by their unique identifier. Parameter: id (string, required). Returns the complete person object if found, or an error message if the person doesn't exist.", resultConverter = RawJsonResultConverter.class)
     public String findPersonById(String id) {
         try {
             Optional<Person> person = personServiceTools.findPersonById(id);
@@ -55,7 +59,7 @@ public class PersonToolsRegistry {
         }
     }
 
-    @Tool(name = "find-person-by-email", description = "Retrieves a specific person by their email address. Parameter: email (string, required). Returns the complete person object if found, or an error message if no person with that email exists.")
+    @Tool(name = "find-person-by-email", description = "Retrieves a specific person by their email address. Parameter: email (string, required). Returns the complete person object if found, or an error message if no person with that email exists.", resultConverter = RawJsonResultConverter.class)
     public String findPersonByEmail(String email) {
         try {
             Optional<Person> person = personServiceTools.findPersonByEmail(email);
@@ -73,7 +77,7 @@ public class PersonToolsRegistry {
         }
     }
 
-    @Tool(name = "update-person", description = "Updates an existing person with new data from JSON input. Required field: id (string, person identifier). Updatable fields: firstName (string), lastName (string), email (string, valid email format). Returns the updated person with refreshed updateDate timestamp.")
+    @Tool(name = "update-person", description = "Updates an existing person with new data from JSON input. Required field: id (string, person identifier). Updatable fields: firstName (string), lastName (string), email (string, valid email format). Optional: version (number, as returned by a previous read); when given, the update is rejected with a conflict error if the record was modified since. Only provided fields are changed. Returns the updated person with refreshed updateDate timestamp.", resultConverter = RawJsonResultConverter.class)
     public String updatePerson(String personDetails) {
         try {
             Person person = personServiceTools.updatePerson(personDetails);
@@ -85,7 +89,7 @@ public class PersonToolsRegistry {
         }
     }
 
-    @Tool(name = "delete-person", description = "Permanently removes a person from the system. Parameter: id (string, required, person identifier). Returns a confirmation message upon successful deletion or an error if the person doesn't exist.")
+    @Tool(name = "delete-person", description = "Permanently removes a person from the system. Parameter: id (string, required, person identifier). Returns a confirmation message upon successful deletion or an error if the person doesn't exist.", resultConverter = RawJsonResultConverter.class)
     public String deletePerson(String id) {
         try {
             String result = personServiceTools.deletePerson(id);
@@ -99,8 +103,9 @@ public class PersonToolsRegistry {
         }
     }
 
-    @Tool(name = "find-persons", description = "Retrieves persons with pagination and search capabilities. Parameters: page (int, default 0, zero-based page number), size (int, default 10, max 100, number of items per page), search (string, optional, searches in firstName, lastName, and email). Returns paginated results with person list, total count, page info, and navigation flags.")
-    public String findPersons(int page, int size, String search) {
+    @Tool(name = "find-persons", description = "Retrieves persons with pagination and search capabilities. Parameters: page (int, default 0, zero-based page number), size (int, default 10, max 100, number of items per page), search (string, optional, searches in firstName, lastName, and email), cursor (string, optional, opaque nextCursor returned by a previous call; when set, page is ignored and the next page is read by key at constant cost whatever its depth), countMode (string, optional, 'exact' (default) computes totalElements, 'estimated' returns a short-lived cached or metadata-based total flagged totalEstimated, 'none' skips counting and only reports hasNext), fields (string, optional, 'full' (default), 'summary' (id, firstName, lastName, email) or a comma-separated field list). Returns paginated results with person list, total count (unless countMode is 'none'), page info, navigation flags and nextCursor (absent on the last page).", resultConverter = RawJsonResultConverter.class)
+    public String findPersons(int page, int size, String search, String cursor, String countMode,
+                              String fields) {
         try {
             if (page < 0)
                 page = 0;
@@ -109,17 +114,36 @@ public class PersonToolsRegistry {
             if (size > 100)
                 size = 100;
 
+            if (cursor != null && !cursor.trim().isEmpty()) {
+                CursorPage<Person> personsPage = personServiceTools.findAllPersonsByCursor(cursor, size, search, fields);
+
+                Map<String, Object> result = new HashMap<>();
+                result.put("content", personsPage.content());
+                result.put("size", personsPage.size());
+                result.put("hasNext", personsPage.hasNext());
+                result.put("nextCursor", personsPage.nextCursor());
+
+                return jsonUtils.toJson(result);
+            }
+
             Pageable pageable = PageRequest.of(page, size);
-            Page<Person> persons = personServiceTools.findAllPersons(pageable, search);
+            CountMode mode = CountMode.parse(countMode);
+            Slice<Person> persons = personServiceTools.findAllPersons(pageable, search, mode, fields);
 
             Map<String, Object> result = new HashMap<>();
             result.put("content", persons.getContent());
-            result.put("totalElements", persons.getTotalElements());
-            result.put("totalPages", persons.getTotalPages());
+            if (persons instanceof Page<Person> counted) {
+                result.put("totalElements", counted.getTotalElements());
+                result.put("totalPages", counted.getTotalPages());
+                if (mode == CountMode.ESTIMATED) {
+                    result.put("totalEstimated", true);
+                }
+            }
             result.put("currentPage", persons.getNumber());
             result.put("size", persons.getSize());
             result.put("hasNext", persons.hasNext());
             result.put("hasPrevious", persons.hasPrevious());
+            result.put("nextCursor", personServiceTools.nextCursor(persons, search));
 
             return jsonUtils.toJson(result);
         } catch (Exception e) {
@@ -129,15 +153,11 @@ public class PersonToolsRegistry {
         }
     }
 
-    @Tool(name = "list-all-persons", description = "Retrieves all persons in the system without pagination. Returns a complete list of all persons. Use with caution on large datasets.")
-    public String listAllPersons() {
+    @Tool(name = "list-all-persons", description = "Retrieves all persons in the system without pagination. Parameter: fields (string, optional, 'full' (default), 'summary' (id, firstName, lastName, email) or a comma-separated field list). Returns a complete list of all persons, serialized while reading from the database. Use with caution on large datasets.", resultConverter = RawJsonResultConverter.class)
+    public String listAllPersons(String fields) {
         try {
-            List<Person> persons = personServiceTools.findAllPersons();
-            Map<String, Object> result = new HashMap<>();
-            result.put("persons", persons);
-            result.put("count", persons.size());
-            result.put("message", "Toutes les personnes trouvées");
-            return jsonUtils.toJson(result);
+            return JsonStreams.toJsonString("persons", personServiceTools.streamAllPersons(fields),
+                    Map.of("message", "Toutes les personnes trouvées"), jsonUtils.gson());
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("error", e.getMessage());
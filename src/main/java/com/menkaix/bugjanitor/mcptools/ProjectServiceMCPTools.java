@@ -5,10 +5,16 @@ import org.springframework.stereotype.Service;
 import com.google.gson.Gson;
 import com.menkaix.bugjanitor.models.documents.Project;
 import com.menkaix.bugjanitor.services.ProjectService;
+import com.menkaix.bugjanitor.services.dashboard.ProjectDashboard;
+import com.menkaix.bugjanitor.services.dashboard.ProjectDashboardService;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.projection.ProjectionSchema;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.Optional;
 
@@ -16,11 +22,14 @@ import java.util.Optional;
 public class ProjectServiceMCPTools {
 
     private final ProjectService projectService;
+    private final ProjectDashboardService dashboardService;
     private final Gson jsonUtils;
 
     @Autowired
-    public ProjectServiceMCPTools(ProjectService projectService, Gson jsonUtils) {
+    public ProjectServiceMCPTools(ProjectService projectService, ProjectDashboardService dashboardService,
+                                  Gson jsonUtils) {
         this.projectService = projectService;
+        this.dashboardService = dashboardService;
         this.jsonUtils = jsonUtils;
     }
 
@@ -69,22 +78,8 @@ public class ProjectServiceMCPTools {
                 throw new IllegalArgumentException("L'ID du projet est requis pour la mise à jour");
             }
 
-            // Vérifier que le projet existe
-            Project existingProject = projectService.findById(projectDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("Projet non trouvé avec l'ID: " + projectDetails.getId()));
-
-            // Mettre à jour les champs
-            if (projectDetails.getProjectName() != null) {
-                existingProject.setProjectName(projectDetails.getProjectName());
-            }
-            if (projectDetails.getProjectCode() != null) {
-                existingProject.setProjectCode(projectDetails.getProjectCode());
-            }
-            if (projectDetails.getDescription() != null) {
-                existingProject.setDescription(projectDetails.getDescription());
-            }
-
-            return projectService.update(existingProject);
+            // Seuls les champs fournis sont modifiés, en un aller-retour
+            return projectService.update(projectDetails);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la mise à jour du projet: " + e.getMessage(), e);
         }
@@ -107,14 +102,30 @@ public class ProjectServiceMCPTools {
         }
     }
 
-    public Page<Project> findAllProjects(Pageable pageable, String search, String filter) {
+    public Slice<Project> findAllProjects(Pageable pageable, String search, String filter, CountMode countMode,
+                                          String fields) {
+        try {
+            return projectService.findAll(pageable, search, filter, countMode,
+                    FieldProjection.parse(fields, ProjectionSchema.PROJECT));
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la recherche des projets: " + e.getMessage(), e);
+        }
+    }
+
+    public CursorPage<Project> findAllProjectsByCursor(String cursor, int size, String search, String filter,
+                                                       String fields) {
         try {
-            return projectService.findAll(pageable, search, filter);
+            return projectService.findAllByCursor(cursor, size, search, filter,
+                    FieldProjection.parse(fields, ProjectionSchema.PROJECT));
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la recherche des projets: " + e.getMessage(), e);
         }
     }
 
+    public String nextCursor(Slice<Project> page, String search, String filter) {
+        return projectService.nextCursor(page, search, filter);
+    }
+
     public Optional<Project> findProjectByCode(String projectCode) {
         try {
             if (projectCode == null || projectCode.trim().isEmpty()) {
@@ -136,4 +147,15 @@ public class ProjectServiceMCPTools {
             throw new RuntimeException("Erreur lors de la recherche du projet par nom: " + e.getMessage(), e);
         }
     }
+
+    public Optional<ProjectDashboard> projectDashboard(String projectCode, int limit) {
+        try {
+            if (projectCode == null || projectCode.trim().isEmpty()) {
+                throw new IllegalArgumentException("Le code du projet ne peut pas être null ou vide");
+            }
+            return dashboardService.dashboard(projectCode, limit);
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors du calcul du tableau de bord du projet: " + e.getMessage(), e);
+        }
+    }
 }
@@ -5,9 +5,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
-import com.google.gson.Gson;
+import com.menkaix.bugjanitor.mcptools.json.RawJsonResultConverter;
+import com.menkaix.bugjanitor.mcptools.json.ToolJson;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
+import com.menkaix.bugjanitor.services.dashboard.ProjectDashboard;
 import com.menkaix.bugjanitor.models.documents.Project;
 
 import java.util.HashMap;
@@ -18,15 +23,15 @@ import java.util.Optional;
 public class ProjectToolsRegistry {
 
     private final ProjectServiceMCPTools projectServiceTools;
-    private final Gson jsonUtils;
+    private final ToolJson jsonUtils;
 
     @Autowired
-    public ProjectToolsRegistry(ProjectServiceMCPTools tools, Gson jsonUtils) {
+    public ProjectToolsRegistry(ProjectServiceMCPTools tools, ToolJson jsonUtils) {
         projectServiceTools = tools;
         this.jsonUtils = jsonUtils;
     }
 
-    @Tool(name = "create-project", description = "Creates a new project from JSON input. Required fields: projectName (string, display name), projectCode (string, unique identifier), description (string, project details). Returns the created project with auto-generated ID. Example: {\"projectName\":\"Bug Tracker\",\"projectCode\":\"BT001\",\"description\":\"Main bug tracking system\"}")
+    @Tool(name = "create-project", description = "Creates a new project from JSON input. Required fields: projectName (string, display name), projectCode (string, unique identifier), description (string, project details). Returns the created project with auto-generated ID. Example: {\"projectName\":\"Bug Tracker\",\"projectCode\":\"BT001\",\"description\":\"Main bug tracking system\"}", resultConverter = RawJsonResultConverter.class)
     public String createProject(String projectJson) {
         try {
             Project project = projectServiceTools.createProject(projectJson);
@@ -38,7 +43,7 @@ public class ProjectToolsRegistry {
         }
     }
 
-    @Tool(name = "find-project-by-id", description = "Retrieves a specific project by its unique identifier. Parameter: id (string, required, project identifier). Returns the complete project object if found, or an error message if the project doesn't exist.")
+    @Tool(name = "find-project-by-id", description = "Retrieves a specific project by its unique identifier. Parameter: id (string, required, project identifier). Returns the complete project object if found, or an error message if the project doesn't exist.", resultConverter = RawJsonResultConverter.class)
     public String findProjectById(String id) {
         try {
             Optional<Project> project = projectServiceTools.findProjectById(id);
@@ -56,7 +61,7 @@ public class ProjectToolsRegistry {
         }
     }
 
-    @Tool(name = "update-project", description = "Updates an existing project with new data from JSON input. Required field: id (string, project identifier). Updatable fields: projectName (string, display name), projectCode (string, unique identifier), description (string, project details). Returns the updated project. Example: {\"id\":\"507f1f77bcf86cd799439011\",\"projectName\":\"Updated Name\",\"projectCode\":\"BT002\",\"description\":\"Updated description\"}")
+    @Tool(name = "update-project", description = "Updates an existing project with new data from JSON input. Required field: id (string, project identifier). Updatable fields: projectName (string, display name), projectCode (string, unique identifier), description (string, project details). Optional: version (number, as returned by a previous read); when given, the update is rejected with a conflict error if the record was modified since. Only provided fields are changed. Returns the updated project. Example: {\"id\":\"507f1f77bcf86cd799439011\",\"projectName\":\"Updated Name\",\"projectCode\":\"BT002\",\"description\":\"Updated description\"}", resultConverter = RawJsonResultConverter.class)
     public String updateProject(String projectDetails) {
         try {
             Project project = projectServiceTools.updateProject(projectDetails);
@@ -68,7 +73,7 @@ public class ProjectToolsRegistry {
         }
     }
 
-    @Tool(name = "delete-project", description = "Permanently removes a project from the system. Parameter: id (string, required, project identifier). Returns a confirmation message upon successful deletion or an error if the project doesn't exist. Warning: This action cannot be undone.")
+    @Tool(name = "delete-project", description = "Permanently removes a project from the system. Parameter: id (string, required, project identifier). Returns a confirmation message upon successful deletion or an error if the project doesn't exist. Warning: This action cannot be undone.", resultConverter = RawJsonResultConverter.class)
     public String deleteProject(String id) {
         try {
             String result = projectServiceTools.deleteProject(id);
@@ -82,8 +87,9 @@ public class ProjectToolsRegistry {
         }
     }
 
-    @Tool(name = "find-projects", description = "Retrieves projects with pagination, search, and filtering capabilities. Parameters: page (int, default 0, zero-based page number), size (int, default 10, max 100, number of items per page), search (string, optional, searches in projectName and description), filter (string, optional, format 'fieldName:value' for exact matching). Returns paginated results with project list, total count, page info, and navigation flags.")
-    public String findProjects(int page, int size, String search, String filter) {
+    @Tool(name = "find-projects", description = "Retrieves projects with pagination, search, and filtering capabilities. Parameters: page (int, default 0, zero-based page number), size (int, default 10, max 100, number of items per page), search (string, optional, searches in projectName and description), filter (string, optional, filter expression on projectCode and projectName; operators ':' '!=', 'field in (a,b)', 'field exists', AND/OR and parentheses, optional 'sort:projectName'; example 'projectCode in (ABC,XYZ)'), cursor (string, optional, opaque nextCursor returned by a previous call; when set, page is ignored and the next page is read by key at constant cost whatever its depth), countMode (string, optional, 'exact' (default) computes totalElements, 'estimated' returns a short-lived cached or metadata-based total flagged totalEstimated, 'none' skips counting and only reports hasNext), fields (string, optional, 'full' (default), 'summary' (id, projectCode, projectName) or a comma-separated field list). Returns paginated results with project list, total count (unless countMode is 'none'), page info, navigation flags and nextCursor (absent on the last page).", resultConverter = RawJsonResultConverter.class)
+    public String findProjects(int page, int size, String search, String filter, String cursor, String countMode,
+                               String fields) {
         try {
             // Valeurs par défaut
             if (page < 0)
@@ -93,17 +99,36 @@ public class ProjectToolsRegistry {
             if (size > 100)
                 size = 100; // Limite maximale
 
+            if (cursor != null && !cursor.trim().isEmpty()) {
+                CursorPage<Project> projectsPage = projectServiceTools.findAllProjectsByCursor(cursor, size, search, filter, fields);
+
+                Map<String, Object> result = new HashMap<>();
+                result.put("content", projectsPage.content());
+                result.put("size", projectsPage.size());
+                result.put("hasNext", projectsPage.hasNext());
+                result.put("nextCursor", projectsPage.nextCursor());
+
+                return jsonUtils.toJson(result);
+            }
+
             Pageable pageable = PageRequest.of(page, size);
-            Page<Project> projects = projectServiceTools.findAllProjects(pageable, search, filter);
+            CountMode mode = CountMode.parse(countMode);
+            Slice<Project> projects = projectServiceTools.findAllProjects(pageable, search, filter, mode, fields);
 
             Map<String, Object> result = new HashMap<>();
             result.put("content", projects.getContent());
-            result.put("totalElements", projects.getTotalElements());
-            result.put("totalPages", projects.getTotalPages());
+            if (projects instanceof Page<Project> counted) {
+                result.put("totalElements", counted.getTotalElements());
+                result.put("totalPages", counted.getTotalPages());
+                if (mode == CountMode.ESTIMATED) {
+                    result.put("totalEstimated", true);
+                }
+            }
             result.put("currentPage", projects.getNumber());
             result.put("size", projects.getSize());
             result.put("hasNext", projects.hasNext());
             result.put("hasPrevious", projects.hasPrevious());
+            result.put("nextCursor", projectServiceTools.nextCursor(projects, search, filter));
 
             return jsonUtils.toJson(result);
         } catch (Exception e) {
@@ -113,7 +138,7 @@ public class ProjectToolsRegistry {
         }
     }
 
-    @Tool(name = "find-project-by-code", description = "Retrieves a project by its unique project code. Parameter: projectCode (string, required, project code identifier). Returns the complete project object if found, or an error message if no project exists with the specified code.")
+    @Tool(name = "find-project-by-code", description = "Retrieves a project by its unique project code. Parameter: projectCode (string, required, project code identifier). Returns the complete project object if found, or an error message if no project exists with the specified code.", resultConverter = RawJsonResultConverter.class)
     public String findProjectByCode(String projectCode) {
         try {
             Optional<Project> project = projectServiceTools.findProjectByCode(projectCode);
@@ -131,7 +156,25 @@ public class ProjectToolsRegistry {
         }
     }
 
-    @Tool(name = "find-project-by-name", description = "Retrieves a project by its project name. Parameter: projectName (string, required, project name). Returns the complete project object if found, or an error message if no project exists with the specified name.")
+    @Tool(name = "project-dashboard", description = "Summarizes a project in a single database round-trip instead of fetching its task lists. Parameters: projectCode (string, required), limit (int, default 5, max 50, number of tasks in each list). Returns projectCode, projectName, generatedAt, total, open (no doneDate), overdue (open with deadLine in the past), upcoming (open with deadLine within 7 days) task counts, byStatus and byAssignee counts (largest first; 'none' and 'unassigned' for missing values), oldestOpen (open tasks by creationDate) and recentlyDone (by doneDate, latest first) with summary fields only, or a message if the project doesn't exist.", resultConverter = RawJsonResultConverter.class)
+    public String projectDashboard(String projectCode, int limit) {
+        try {
+            Optional<ProjectDashboard> dashboard = projectServiceTools.projectDashboard(projectCode, limit);
+            if (dashboard.isPresent()) {
+                return jsonUtils.toJson(dashboard.get());
+            } else {
+                Map<String, String> result = new HashMap<>();
+                result.put("message", "Aucun projet trouvé avec le code: " + projectCode);
+                return jsonUtils.toJson(result);
+            }
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return jsonUtils.toJson(error);
+        }
+    }
+
+    @Tool(name = "find-project-by-name", description = "Retrieves a project by its project name. Parameter: projectName (string, required, project name). Returns the complete project object if found, or an error message if no project exists with the specified name.", resultConverter = RawJsonResultConverter.class)
     public String findProjectByName(String projectName) {
         try {
             Optional<Project> project = projectServiceTools.findProjectByName(projectName);
@@ -3,12 +3,20 @@ package com.menkaix.bugjanitor.mcptools;
 import org.springframework.stereotype.Service;
 
 import com.google.gson.Gson;
+import com.menkaix.bugjanitor.configuration.json.JsonDates;
 import com.menkaix.bugjanitor.models.documents.Task;
 import com.menkaix.bugjanitor.services.TaskService;
+import com.menkaix.bugjanitor.services.bulk.BulkResult;
+import com.menkaix.bugjanitor.services.history.TaskChange;
+import com.menkaix.bugjanitor.services.history.TaskHistory;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.projection.ProjectionSchema;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,12 +24,16 @@ import java.util.Optional;
 @Service
 public class TaskServiceMCPTools {
 
+    private static final int DEFAULT_HISTORY_LIMIT = 50;
+
     private final TaskService taskService;
+    private final TaskHistory taskHistory;
     private final Gson jsonUtils;
 
     @Autowired
-    public TaskServiceMCPTools(TaskService taskService, Gson jsonUtils) {
+    public TaskServiceMCPTools(TaskService taskService, TaskHistory taskHistory, Gson jsonUtils) {
         this.taskService = taskService;
+        this.taskHistory = taskHistory;
         this.jsonUtils = jsonUtils;
     }
 
@@ -77,20 +89,8 @@ public class TaskServiceMCPTools {
                 throw new IllegalArgumentException("L'ID de la tâche est requis pour la mise à jour");
             }
 
-            Task existingTask = taskService.findById(taskDetails.getId())
-                    .orElseThrow(() -> new RuntimeException("Tâche non trouvé avec l'ID: " + taskDetails.getId()));
-
-            if (taskDetails.getTitle() != null) {
-                existingTask.setTitle(taskDetails.getTitle());
-            }
-            if (taskDetails.getDescription() != null) {
-                existingTask.setDescription(taskDetails.getDescription());
-            }
-            if (taskDetails.getAssignee() != null) {
-                existingTask.setAssignee(taskDetails.getAssignee());
-            }
-
-            return taskService.update(existingTask);
+            // Seuls les champs fournis sont modifiés, en un aller-retour
+            return taskService.update(taskDetails);
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la mise à jour de la tâche: " + e.getMessage(), e);
         }
@@ -112,49 +112,112 @@ public class TaskServiceMCPTools {
         }
     }
 
-    public Page<Task> findAllTasks(Pageable pageable, String search, String filter) {
+    public BulkResult createTasks(String tasksJson) {
+        try {
+            return taskService.createAll(List.of(parseArray(tasksJson, Task[].class)));
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la création des tâches: " + e.getMessage(), e);
+        }
+    }
+
+    public BulkResult updateTasks(String tasksJson) {
         try {
-            return taskService.findAll(pageable, search, filter);
+            return taskService.updateAll(List.of(parseArray(tasksJson, Task[].class)));
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la mise à jour des tâches: " + e.getMessage(), e);
+        }
+    }
+
+    public BulkResult deleteTasks(String idsJson) {
+        try {
+            return taskService.deleteAll(List.of(parseArray(idsJson, String[].class)));
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la suppression des tâches: " + e.getMessage(), e);
+        }
+    }
+
+    private <T> T[] parseArray(String json, Class<T[]> arrayType) {
+        if (json == null || json.trim().isEmpty()) {
+            throw new IllegalArgumentException("Le tableau JSON ne peut pas être null ou vide");
+        }
+        T[] items = jsonUtils.fromJson(json, arrayType);
+        if (items == null) {
+            throw new IllegalArgumentException("Le tableau JSON ne peut pas être null ou vide");
+        }
+        return items;
+    }
+
+    public Slice<Task> findAllTasks(Pageable pageable, String search, String filter, CountMode countMode,
+                                    String fields) {
+        try {
+            return taskService.findAll(pageable, search, filter, countMode,
+                    FieldProjection.parse(fields, ProjectionSchema.TASK));
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la recherche des tâches: " + e.getMessage(), e);
+        }
+    }
+
+    public CursorPage<Task> findAllTasksByCursor(String cursor, int size, String search, String filter,
+                                                 String fields) {
+        try {
+            return taskService.findAllByCursor(cursor, size, search, filter,
+                    FieldProjection.parse(fields, ProjectionSchema.TASK));
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la recherche des tâches: " + e.getMessage(), e);
         }
     }
 
-    public List<Task> findOverdueTasks() {
+    public String nextCursor(Slice<Task> page, String search, String filter) {
+        return taskService.nextCursor(page, search, filter);
+    }
+
+    public List<Task> findOverdueTasks(String fields) {
         try {
-            return taskService.findOverdueTasks();
+            return taskService.findOverdueTasks(FieldProjection.parse(fields, ProjectionSchema.TASK));
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la recherche des tâches en retard: " + e.getMessage(), e);
         }
     }
 
-    public List<Task> findUpcomingTasks() {
+    public List<Task> findUpcomingTasks(String fields) {
         try {
-            return taskService.findUpcomingTasks();
+            return taskService.findUpcomingTasks(FieldProjection.parse(fields, ProjectionSchema.TASK));
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la recherche des tâches à venir: " + e.getMessage(), e);
         }
     }
 
-    public List<Task> findTasksByStatus(String status) {
+    public List<Task> findTasksByStatus(String status, String fields) {
         try {
             if (status == null || status.trim().isEmpty()) {
                 throw new IllegalArgumentException("Le statut ne peut pas être null ou vide");
             }
-            return taskService.findByStatus(status);
+            return taskService.findByStatus(status, FieldProjection.parse(fields, ProjectionSchema.TASK));
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la recherche des tâches par statut: " + e.getMessage(), e);
         }
     }
 
-    public List<Task> findTasksByProjectCode(String projectCode) {
+    public List<Task> findTasksByProjectCode(String projectCode, String fields) {
         try {
             if (projectCode == null || projectCode.trim().isEmpty()) {
                 throw new IllegalArgumentException("Le code du projet ne peut pas être null ou vide");
             }
-            return taskService.findByProjectCode(projectCode);
+            return taskService.findByProjectCode(projectCode, FieldProjection.parse(fields, ProjectionSchema.TASK));
         } catch (Exception e) {
             throw new RuntimeException("Erreur lors de la recherche des tâches par projet: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    public List<TaskChange> taskHistory(String id, String since, int limit) {
+        try {
+            if (id == null || id.trim().isEmpty()) {
+                throw new IllegalArgumentException("L'ID de la tâche ne peut pas être null ou vide");
+            }
+            return taskHistory.find(id.trim(), since == null || since.isBlank() ? null : JsonDates.parse(since.trim()),
+                    limit > 0 ? limit : DEFAULT_HISTORY_LIMIT);
+        } catch (Exception e) {
+            throw new RuntimeException("Erreur lors de la lecture de l'historique de la tâche: " + e.getMessage(), e);
+        }
+    }
+}
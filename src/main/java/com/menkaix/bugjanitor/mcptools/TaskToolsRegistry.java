@@ -4,9 +4,14 @@ import org.springframework.ai.tool.annotation.Tool;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
-import com.google.gson.Gson;
+import com.menkaix.bugjanitor.mcptools.json.RawJsonResultConverter;
+import com.menkaix.bugjanitor.mcptools.json.ToolJson;
+import com.menkaix.bugjanitor.services.history.TaskChange;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
 import com.menkaix.bugjanitor.models.documents.Task;
 
 import java.util.HashMap;
@@ -18,14 +23,14 @@ import java.util.Optional;
 public class TaskToolsRegistry {
 
     private final TaskServiceMCPTools taskServiceTools;
-    private final Gson jsonUtils;
+    private final ToolJson jsonUtils;
 
-    public TaskToolsRegistry(TaskServiceMCPTools tools, Gson jsonUtils) {
+    public TaskToolsRegistry(TaskServiceMCPTools tools, ToolJson jsonUtils) {
         taskServiceTools = tools;
         this.jsonUtils = jsonUtils;
     }
 
-    @Tool(name = "create-task", description = "Creates a new task from JSON input. Required fields: title (string), description (string). Optional fields: projectCode (string, must reference existing project), plannedStart (ISO-8601 date), deadLine (ISO-8601 date), status (string), estimate (string), trackingReference (string, external tracking ID). Returns the created task with auto-generated ID and timestamps.")
+    @Tool(name = "create-task", description = "Creates a new task from JSON input. Required fields: title (string), description (string). Optional fields: projectCode (string, must reference existing project), plannedStart (ISO-8601 date), deadLine (ISO-8601 date), status (string), estimate (string), trackingReference (string, external tracking ID). Returns the created task with auto-generated ID and timestamps.", resultConverter = RawJsonResultConverter.class)
     public String createTask(String taskJson) {
         try {
             Task task = taskServiceTools.createTask(taskJson);
@@ -37,7 +42,7 @@ public class TaskToolsRegistry {
         }
     }
 
-    @Tool(name = "find-task-by-id", description = "Retrieves a specific task by its unique identifier. Parameter: id (string, required). Returns the complete task object if found, or an error message if the task doesn't exist.")
+    @Tool(name = "find-task-by-id", description = "Retrieves a specific task by its unique identifier. Parameter: id (string, required). Returns the complete task object if found, or an error message if the task doesn't exist.", resultConverter = RawJsonResultConverter.class)
     public String findTaskById(String id) {
         try {
             Optional<Task> task = taskServiceTools.findTaskById(id);
@@ -55,7 +60,7 @@ public class TaskToolsRegistry {
         }
     }
 
-    @Tool(name = "find-task-by-tracking-reference", description = "Retrieves a specific task by its tracking reference. Parameter: trackingReference (string, required, external tracking identifier). Returns the complete task object if found, or an error message if no task with that tracking reference exists.")
+    @Tool(name = "find-task-by-tracking-reference", description = "Retrieves a specific task by its tracking reference. Parameter: trackingReference (string, required, external tracking identifier). Returns the complete task object if found, or an error message if no task with that tracking reference exists.", resultConverter = RawJsonResultConverter.class)
     public String findTaskByTrackingReference(String trackingReference) {
         try {
             Optional<Task> task = taskServiceTools.findTaskByTrackingReference(trackingReference);
@@ -73,7 +78,7 @@ public class TaskToolsRegistry {
         }
     }
 
-    @Tool(name = "update-task", description = "Updates an existing task with new data from JSON input. Required field: id (string, task identifier). Updatable fields: title (string), description (string), projectCode (string, must reference existing project), plannedStart (ISO-8601 date), deadLine (ISO-8601 date), status (string), doneDate (ISO-8601 date), estimate (string), trackingReference (string, external tracking ID). Returns the updated task with refreshed updateDate timestamp.")
+    @Tool(name = "update-task", description = "Updates an existing task with new data from JSON input. Required field: id (string, task identifier). Updatable fields: title (string), description (string), projectCode (string, must reference existing project), plannedStart (ISO-8601 date), deadLine (ISO-8601 date), status (string), doneDate (ISO-8601 date), estimate (string), trackingReference (string, external tracking ID), assignee (string). Optional: version (number, as returned by a previous read); when given, the update is rejected with a conflict error if the record was modified since. Only provided fields are changed. Returns the updated task with refreshed updateDate timestamp.", resultConverter = RawJsonResultConverter.class)
     public String updateTask(String taskDetails) {
         try {
             Task task = taskServiceTools.updateTask(taskDetails);
@@ -85,7 +90,7 @@ public class TaskToolsRegistry {
         }
     }
 
-    @Tool(name = "delete-task", description = "Permanently removes a task from the system. Parameter: id (string, required, task identifier). Returns a confirmation message upon successful deletion or an error if the task doesn't exist.")
+    @Tool(name = "delete-task", description = "Permanently removes a task from the system. Parameter: id (string, required, task identifier). Returns a confirmation message upon successful deletion or an error if the task doesn't exist.", resultConverter = RawJsonResultConverter.class)
     public String deleteTask(String id) {
         try {
             String result = taskServiceTools.deleteTask(id);
@@ -99,8 +104,42 @@ public class TaskToolsRegistry {
         }
     }
 
-    @Tool(name = "find-tasks", description = "Retrieves tasks with pagination, search, and filtering capabilities. Parameters: page (int, default 0, zero-based page number), size (int, default 10, max 100, number of items per page), search (string, optional, searches in title and description), filter (string, optional, format 'fieldName:value' for exact matching). Returns paginated results with task list, total count, page info, and navigation flags.")
-    public String findTasks(int page, int size, String search, String filter) {
+    @Tool(name = "create-tasks", description = "Creates several tasks in a single unordered database round-trip. Parameter: tasksJson (string, required, JSON array of task objects with the same fields as create-task; title is required for each item; at most 1000 items). An invalid or failing item does not prevent the others from being created. Returns items (one per input, in input order: index, id, status 'created' or 'error', error message), succeeded and failed counts.", resultConverter = RawJsonResultConverter.class)
+    public String createTasks(String tasksJson) {
+        try {
+            return jsonUtils.toJson(taskServiceTools.createTasks(tasksJson));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return jsonUtils.toJson(error);
+        }
+    }
+
+    @Tool(name = "update-tasks", description = "Updates several tasks in one call, with one atomic write per task. Parameter: tasksJson (string, required, JSON array of task objects with the same fields as update-task; id is required for each item, version is optional and enables conflict detection per item; at most 1000 items). Only provided fields are changed. A failing item (not found, version conflict) does not prevent the others from being updated. Returns items (one per input, in input order: index, id, status 'updated' or 'error', error message), succeeded and failed counts.", resultConverter = RawJsonResultConverter.class)
+    public String updateTasks(String tasksJson) {
+        try {
+            return jsonUtils.toJson(taskServiceTools.updateTasks(tasksJson));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return jsonUtils.toJson(error);
+        }
+    }
+
+    @Tool(name = "delete-tasks", description = "Permanently removes several tasks in one call, with one atomic removal per task. Parameter: idsJson (string, required, JSON array of task identifiers; at most 1000 items). An unknown id does not prevent the others from being deleted. Returns items (one per input, in input order: index, id, status 'deleted' or 'error', error message), succeeded and failed counts.", resultConverter = RawJsonResultConverter.class)
+    public String deleteTasks(String idsJson) {
+        try {
+            return jsonUtils.toJson(taskServiceTools.deleteTasks(idsJson));
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return jsonUtils.toJson(error);
+        }
+    }
+
+    @Tool(name = "find-tasks", description = "Retrieves tasks with pagination, search, and filtering capabilities. Parameters: page (int, default 0, zero-based page number), size (int, default 10, max 100, number of items per page), search (string, optional, full-text search in title and description, French/English stemming, results ranked by relevance), filter (string, optional, filter expression on indexed fields projectCode, status, assignee, trackingReference, deadLine, plannedStart, creationDate, updateDate, doneDate; operators ':' '!=' '>' '>=' '<' '<=', 'field in (a,b)', 'field exists', 'field !exists', AND/OR and parentheses, juxtaposed terms are ANDed; dates as 2024-01-31, 2024-01-31T12:00:00Z or now, now+7d, now-2h; optional 'sort:-deadLine,status'; example 'status in (TODO,IN_PROGRESS) deadLine<now+7d doneDate !exists'), cursor (string, optional, opaque nextCursor returned by a previous call; when set, page is ignored and the next page is read by key at constant cost whatever its depth), countMode (string, optional, 'exact' (default) computes totalElements, 'estimated' returns a short-lived cached or metadata-based total flagged totalEstimated, 'none' skips counting and only reports hasNext), fields (string, optional, 'full' (default) returns whole documents, 'summary' returns id, projectCode, title, status, deadLine and assignee, or a comma-separated field list that may include a preset, e.g. 'summary,description'; unselected fields are not read from the database). Returns paginated results with task list, total count (unless countMode is 'none'), page info, navigation flags and nextCursor (absent on the last page).", resultConverter = RawJsonResultConverter.class)
+    public String findTasks(int page, int size, String search, String filter, String cursor, String countMode,
+                            String fields) {
         try {
             if (page < 0)
                 page = 0;
@@ -109,17 +148,36 @@ public class TaskToolsRegistry {
             if (size > 100)
                 size = 100;
 
+            if (cursor != null && !cursor.trim().isEmpty()) {
+                CursorPage<Task> tasksPage = taskServiceTools.findAllTasksByCursor(cursor, size, search, filter, fields);
+
+                Map<String, Object> result = new HashMap<>();
+                result.put("content", tasksPage.content());
+                result.put("size", tasksPage.size());
+                result.put("hasNext", tasksPage.hasNext());
+                result.put("nextCursor", tasksPage.nextCursor());
+
+                return jsonUtils.toJson(result);
+            }
+
             Pageable pageable = PageRequest.of(page, size);
-            Page<Task> tasks = taskServiceTools.findAllTasks(pageable, search, filter);
+            CountMode mode = CountMode.parse(countMode);
+            Slice<Task> tasks = taskServiceTools.findAllTasks(pageable, search, filter, mode, fields);
 
             Map<String, Object> result = new HashMap<>();
             result.put("content", tasks.getContent());
-            result.put("totalElements", tasks.getTotalElements());
-            result.put("totalPages", tasks.getTotalPages());
+            if (tasks instanceof Page<Task> counted) {
+                result.put("totalElements", counted.getTotalElements());
+                result.put("totalPages", counted.getTotalPages());
+                if (mode == CountMode.ESTIMATED) {
+                    result.put("totalEstimated", true);
+                }
+            }
             result.put("currentPage", tasks.getNumber());
             result.put("size", tasks.getSize());
             result.put("hasNext", tasks.hasNext());
             result.put("hasPrevious", tasks.hasPrevious());
+            result.put("nextCursor", taskServiceTools.nextCursor(tasks, search, filter));
 
             return jsonUtils.toJson(result);
         } catch (Exception e) {
@@ -129,10 +187,10 @@ public class TaskToolsRegistry {
         }
     }
 
-    @Tool(name = "find-overdue-tasks", description = "Retrieves all tasks that are overdue (deadline has passed and task is not completed). Returns a list of tasks with their details including deadline dates. No parameters required.")
-    public String findOverdueTasks() {
+    @Tool(name = "find-overdue-tasks", description = "Retrieves all tasks that are overdue (deadline has passed and task is not completed). Parameter: fields (string, optional, 'full' (default) returns whole documents, 'summary' returns id, projectCode, title, status, deadLine and assignee, or a comma-separated field list that may include a preset, e.g. 'summary,description'; unselected fields are not read from the database). Returns a list of tasks with their details including deadline dates.", resultConverter = RawJsonResultConverter.class)
+    public String findOverdueTasks(String fields) {
         try {
-            List<Task> overdueTasks = taskServiceTools.findOverdueTasks();
+            List<Task> overdueTasks = taskServiceTools.findOverdueTasks(fields);
             Map<String, Object> result = new HashMap<>();
             result.put("tasks", overdueTasks);
             result.put("count", overdueTasks.size());
@@ -145,10 +203,10 @@ public class TaskToolsRegistry {
         }
     }
 
-    @Tool(name = "find-upcoming-tasks", description = "Retrieves all tasks with deadlines in the next 7 days that are not yet completed. Useful for planning and prioritization. Returns a list of tasks with their deadline information. No parameters required.")
-    public String findUpcomingTasks() {
+    @Tool(name = "find-upcoming-tasks", description = "Retrieves all tasks with deadlines in the next 7 days that are not yet completed. Useful for planning and prioritization. Parameter: fields (string, optional, 'full' (default) returns whole documents, 'summary' returns id, projectCode, title, status, deadLine and assignee, or a comma-separated field list that may include a preset, e.g. 'summary,description'; unselected fields are not read from the database). Returns a list of tasks with their deadline information.", resultConverter = RawJsonResultConverter.class)
+    public String findUpcomingTasks(String fields) {
         try {
-            List<Task> upcomingTasks = taskServiceTools.findUpcomingTasks();
+            List<Task> upcomingTasks = taskServiceTools.findUpcomingTasks(fields);
             Map<String, Object> result = new HashMap<>();
             result.put("tasks", upcomingTasks);
             result.put("count", upcomingTasks.size());
@@ -161,10 +219,10 @@ public class TaskToolsRegistry {
         }
     }
 
-    @Tool(name = "find-tasks-by-status", description = "Retrieves all tasks with a specific status. Parameter: status (string, required, task status to filter by). Common statuses include 'TODO', 'IN_PROGRESS', 'DONE', 'BLOCKED', etc. Returns a list of tasks matching the specified status.")
-    public String findTasksByStatus(String status) {
+    @Tool(name = "find-tasks-by-status", description = "Retrieves all tasks with a specific status. Parameters: status (string, required, task status to filter by), fields (string, optional, 'full' (default) returns whole documents, 'summary' returns id, projectCode, title, status, deadLine and assignee, or a comma-separated field list that may include a preset, e.g. 'summary,description'; unselected fields are not read from the database). Common statuses include 'TODO', 'IN_PROGRESS', 'DONE', 'BLOCKED', etc. Returns a list of tasks matching the specified status.", resultConverter = RawJsonResultConverter.class)
+    public String findTasksByStatus(String status, String fields) {
         try {
-            List<Task> tasks = taskServiceTools.findTasksByStatus(status);
+            List<Task> tasks = taskServiceTools.findTasksByStatus(status, fields);
             Map<String, Object> result = new HashMap<>();
             result.put("tasks", tasks);
             result.put("count", tasks.size());
@@ -178,10 +236,10 @@ public class TaskToolsRegistry {
         }
     }
 
-    @Tool(name = "find-tasks-by-project", description = "Retrieves all tasks associated with a specific project. Parameter: projectCode (string, required, project code to filter tasks by). Returns a list of tasks belonging to the specified project with their complete details.")
-    public String findTasksByProject(String projectCode) {
+    @Tool(name = "find-tasks-by-project", description = "Retrieves all tasks associated with a specific project. Parameters: projectCode (string, required, project code to filter tasks by), fields (string, optional, 'full' (default) returns whole documents, 'summary' returns id, projectCode, title, status, deadLine and assignee, or a comma-separated field list that may include a preset, e.g. 'summary,description'; unselected fields are not read from the database). Returns a list of tasks belonging to the specified project.", resultConverter = RawJsonResultConverter.class)
+    public String findTasksByProject(String projectCode, String fields) {
         try {
-            List<Task> tasks = taskServiceTools.findTasksByProjectCode(projectCode);
+            List<Task> tasks = taskServiceTools.findTasksByProjectCode(projectCode, fields);
             Map<String, Object> result = new HashMap<>();
             result.put("tasks", tasks);
             result.put("count", tasks.size());
@@ -194,4 +252,20 @@ public class TaskToolsRegistry {
             return jsonUtils.toJson(error);
         }
     }
-}
\ No newline at end of file
+
+    @Tool(name = "task-history", description = "Retrieves the change history of a task, most recent first: one entry per create, update or delete, with the fields that changed. Parameters: id (string, required, task identifier, also works for deleted tasks), since (ISO-8601 date, optional, only changes at or after this date), limit (int, optional, default 50, max 500). Returns entries {id, taskId, at, operation ('create', 'update' or 'delete'), version, changes: [{field, from, to}]}; updateDate and version changes are not listed as field changes.", resultConverter = RawJsonResultConverter.class)
+    public String taskHistory(String id, String since, int limit) {
+        try {
+            List<TaskChange> changes = taskServiceTools.taskHistory(id, since, limit);
+            Map<String, Object> result = new HashMap<>();
+            result.put("taskId", id);
+            result.put("changes", changes);
+            result.put("count", changes.size());
+            return jsonUtils.toJson(result);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", e.getMessage());
+            return jsonUtils.toJson(error);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.menkaix.bugjanitor.mcptools.json;
+
+import java.util.function.Supplier;
+
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.McpToolUtils;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+
+import com.menkaix.bugjanitor.mcp.metrics.CallMetrics;
+
+import io.modelcontextprotocol.spec.McpSchema;
+
+/**
+ * Enveloppe un outil pour que {@link ToolJson} connaisse, le temps de
+ * l'appel, l'outil invoqué et le client MCP appelant (nom déclaré à
+ * l'initialisation de la session). L'appel est mesuré par
+ * {@link CallMetrics}.
+ */
+public class ClientAwareToolCallback implements ToolCallback {
+
+    private final ToolCallback delegate;
+    private final ToolJson toolJson;
+    private final CallMetrics callMetrics;
+
+    public ClientAwareToolCallback(ToolCallback delegate, ToolJson toolJson, CallMetrics callMetrics) {
+        this.delegate = delegate;
+        this.toolJson = toolJson;
+        this.callMetrics = callMetrics;
+    }
+
+    @Override
+    public ToolDefinition getToolDefinition() {
+        return delegate.getToolDefinition();
+    }
+
+    @Override
+    public ToolMetadata getToolMetadata() {
+        return delegate.getToolMetadata();
+    }
+
+    @Override
+    public String call(String toolInput) {
+        return measured(null, () -> delegate.call(toolInput));
+    }
+
+    @Override
+    public String call(String toolInput, ToolContext toolContext) {
+        return measured(clientName(toolContext), () -> delegate.call(toolInput, toolContext));
+    }
+
+    private String measured(String clientName, Supplier<String> call) {
+        String toolName = getToolDefinition().name();
+        return callMetrics.call(CallMetrics.TOOL, toolName, () -> {
+            String result = toolJson.withCall(toolName, clientName, call);
+            callMetrics.recordPayload(CallMetrics.TOOL, toolName, result == null ? 0 : result.length());
+            return result;
+        });
+    }
+
+    private static String clientName(ToolContext toolContext) {
+        if (toolContext == null) {
+            return null;
+        }
+        return McpToolUtils.getMcpExchange(toolContext)
+                .map(exchange -> exchange.getClientInfo())
+                .map(McpSchema.Implementation::name)
+                .orElse(null);
+    }
+}
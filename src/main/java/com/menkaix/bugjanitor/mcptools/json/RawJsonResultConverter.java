@@ -0,0 +1,26 @@
+package com.menkaix.bugjanitor.mcptools.json;
+
+import java.lang.reflect.Type;
+
+import org.springframework.ai.tool.execution.DefaultToolCallResultConverter;
+import org.springframework.ai.tool.execution.ToolCallResultConverter;
+
+/**
+ * Transmet tel quel le JSON déjà produit par un outil.
+ *
+ * Le convertisseur par défaut resérialise la chaîne retournée : le client
+ * reçoit alors une chaîne JSON échappée ({@code "{\"id\":...}"}), plus longue
+ * et plus coûteuse en tokens que le document lui-même.
+ */
+public class RawJsonResultConverter implements ToolCallResultConverter {
+
+    private static final ToolCallResultConverter FALLBACK = new DefaultToolCallResultConverter();
+
+    @Override
+    public String convert(Object result, Type returnType) {
+        if (result instanceof String json) {
+            return json;
+        }
+        return FALLBACK.convert(result, returnType);
+    }
+}
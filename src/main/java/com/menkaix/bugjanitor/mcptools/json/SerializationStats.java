@@ -0,0 +1,118 @@
+package com.menkaix.bugjanitor.mcptools.json;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Volume des réponses d'outils, par outil.
+ *
+ * Une réponse sur {@code sampleEvery} est aussi mesurée dans ses autres
+ * formes : indentée, et indentée puis échappée en chaîne JSON (ce que
+ * recevaient les clients avant le mode compact). Les tokens sont une
+ * estimation (un token par ponctuation ou suite d'espaces, un par tranche de
+ * quatre caractères alphanumériques), suffisante pour comparer les formats.
+ */
+class SerializationStats {
+
+    private final Map<String, ToolStats> tools = new ConcurrentHashMap<>();
+    private final int sampleEvery;
+
+    SerializationStats(int sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Enregistre une réponse ; retourne vrai si elle doit être échantillonnée.
+     */
+    boolean record(String tool, int length) {
+        ToolStats stats = tools.computeIfAbsent(tool == null ? "unknown" : tool, name -> new ToolStats());
+        stats.calls.increment();
+        stats.chars.add(length);
+        return sampleEvery > 0 && stats.sequence.getAndIncrement() % sampleEvery == 0;
+    }
+
+    void recordSample(String tool, CharSequence emitted, String pretty, String legacy) {
+        ToolStats stats = tools.get(tool == null ? "unknown" : tool);
+        if (stats == null) {
+            return;
+        }
+        stats.samples.increment();
+        stats.sampledChars.add(emitted.length());
+        stats.sampledTokens.add(approxTokens(emitted));
+        stats.prettyChars.add(pretty.length());
+        stats.prettyTokens.add(approxTokens(pretty));
+        stats.legacyChars.add(legacy.length());
+        stats.legacyTokens.add(approxTokens(legacy));
+    }
+
+    Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        tools.keySet().stream().sorted().forEach(name -> snapshot.put(name, tools.get(name).snapshot()));
+        return snapshot;
+    }
+
+    static long approxTokens(CharSequence json) {
+        long tokens = 0;
+        int i = 0;
+        int n = json.length();
+        while (i < n) {
+            char c = json.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(json.charAt(i))) {
+                    i++;
+                }
+                tokens++;
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < n && Character.isLetterOrDigit(json.charAt(i))) {
+                    i++;
+                }
+                tokens += (i - start + 3) / 4;
+            } else {
+                i++;
+                tokens++;
+            }
+        }
+        return tokens;
+    }
+
+    private static final class ToolStats {
+        private final AtomicLong sequence = new AtomicLong();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder chars = new LongAdder();
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder sampledChars = new LongAdder();
+        private final LongAdder sampledTokens = new LongAdder();
+        private final LongAdder prettyChars = new LongAdder();
+        private final LongAdder prettyTokens = new LongAdder();
+        private final LongAdder legacyChars = new LongAdder();
+        private final LongAdder legacyTokens = new LongAdder();
+
+        Map<String, Object> snapshot() {
+            long callCount = calls.sum();
+            long sampleCount = samples.sum();
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("calls", callCount);
+            stats.put("chars", chars.sum());
+            stats.put("avgChars", callCount == 0 ? 0 : chars.sum() / callCount);
+            stats.put("samples", sampleCount);
+            if (sampleCount > 0) {
+                stats.put("avgTokens", sampledTokens.sum() / sampleCount);
+                stats.put("avgPrettyChars", prettyChars.sum() / sampleCount);
+                stats.put("avgPrettyTokens", prettyTokens.sum() / sampleCount);
+                stats.put("avgLegacyChars", legacyChars.sum() / sampleCount);
+                stats.put("avgLegacyTokens", legacyTokens.sum() / sampleCount);
+                stats.put("charsSavedVsLegacy", ratio(sampledChars.sum(), legacyChars.sum()));
+                stats.put("tokensSavedVsLegacy", ratio(sampledTokens.sum(), legacyTokens.sum()));
+            }
+            return stats;
+        }
+
+        private static double ratio(long emitted, long legacy) {
+            return legacy == 0 ? 0.0 : 1.0 - (double) emitted / legacy;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.menkaix.bugjanitor.mcptools.json;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.gson.FormattingStyle;
+import com.google.gson.Gson;
+import com.menkaix.bugjanitor.mcp.metrics.CallMetrics;
+
+/**
+ * Sérialisation des réponses d'outils MCP.
+ *
+ * Compacte par défaut : l'indentation ne sert qu'à la lecture humaine et
+ * coûte des tokens aux clients LLM. L'indentation reste possible globalement
+ * ({@code app.json.pretty-print}) ou pour certains clients, désignés par le
+ * nom qu'ils déclarent à l'initialisation MCP ({@code app.json.pretty-clients}).
+ *
+ * Le document est écrit dans un {@code StringBuilder}, dont la longueur sert
+ * aussi aux statistiques, puis rendu sous forme de chaîne au convertisseur
+ * de résultat ({@link RawJsonResultConverter}).
+ */
+@Component
+public class ToolJson {
+
+    private static final ThreadLocal<Call> CURRENT = new ThreadLocal<>();
+
+    private final Gson compact;
+    private final Gson pretty;
+    private final boolean prettyByDefault;
+    private final Set<String> prettyClients;
+    private final SerializationStats stats;
+
+    public ToolJson(Gson gson,
+                    @Value("${app.json.pretty-print:false}") boolean prettyByDefault,
+                    @Value("${app.json.pretty-clients:}") List<String> prettyClients,
+                    @Value("${app.json.sample-every:50}") int sampleEvery) {
+        this.compact = gson.newBuilder().setFormattingStyle(FormattingStyle.COMPACT).create();
+        this.pretty = gson.newBuilder().setFormattingStyle(FormattingStyle.PRETTY).create();
+        this.prettyByDefault = prettyByDefault;
+        this.prettyClients = prettyClients.stream()
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .map(name -> name.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.stats = new SerializationStats(sampleEvery);
+    }
+
+    /**
+     * Exécute un appel d'outil en fixant le format de sortie selon le client.
+     */
+    public <T> T withCall(String toolName, String clientName, Supplier<T> call) {
+        boolean usePretty = clientName == null
+                ? prettyByDefault
+                : prettyByDefault || prettyClients.contains(clientName.toLowerCase(Locale.ROOT));
+        Call previous = CURRENT.get();
+        CURRENT.set(new Call(toolName, usePretty));
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    public String toJson(Object value) {
+        // Les outils rendent leurs erreurs dans un objet {"error": ...}
+        if (value instanceof Map<?, ?> map && map.containsKey("error")) {
+            CallMetrics.markError();
+        }
+        Call call = CURRENT.get();
+        String tool = call == null ? null : call.tool();
+        Gson active = gson();
+
+        StringBuilder out = new StringBuilder(256);
+        active.toJson(value, out);
+
+        if (stats.record(tool, out.length())) {
+            String indented = active == pretty ? out.toString() : pretty.toJson(value);
+            stats.recordSample(tool, out, indented, compact.toJson(indented));
+        }
+        return out.toString();
+    }
+
+    /**
+     * Instance Gson du format courant, pour les écritures en flux.
+     */
+    public Gson gson() {
+        Call call = CURRENT.get();
+        boolean usePretty = call == null ? prettyByDefault : call.pretty();
+        return usePretty ? pretty : compact;
+    }
+
+    public Map<String, Object> stats() {
+        return stats.snapshot();
+    }
+
+    private record Call(String tool, boolean pretty) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.menkaix.bugjanitor.mcptools.reactive;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+
+import com.menkaix.bugjanitor.mcp.metrics.CallMetrics;
+import com.menkaix.bugjanitor.mcptools.json.ToolJson;
+import com.menkaix.bugjanitor.services.reactive.ReactivePersonService;
+import com.menkaix.bugjanitor.services.reactive.ReactiveProjectService;
+import com.menkaix.bugjanitor.services.reactive.ReactiveTaskService;
+
+import io.modelcontextprotocol.server.McpAsyncServerExchange;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Mono;
+
+/**
+ * Version non bloquante des outils de recherche par identifiant, pour la
+ * pile WebFlux.
+ *
+ * Chaque outil garde le nom, la description et le schéma de l'outil
+ * {@code @Tool} qu'il remplace, ainsi que ses réponses (objet, message
+ * « non trouvé » ou erreur) : les clients voient la même surface dans les deux
+ * profils. Les autres outils passent par les services bloquants, exécutés sur
+ * l'ordonnanceur élastique.
+ *
+ * Un appel est mesuré de l'abonnement à la réponse, sans temps Mongo : les
+ * commandes s'exécutent sur les threads du pilote.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveLookupTools {
+
+    private final ToolJson toolJson;
+    private final CallMetrics callMetrics;
+    private final Map<String, Lookup> lookups = new LinkedHashMap<>();
+
+    public ReactiveLookupTools(ReactiveTaskService taskService, ReactiveProjectService projectService,
+                               ReactivePersonService personService, ToolJson toolJson, CallMetrics callMetrics) {
+        this.toolJson = toolJson;
+        this.callMetrics = callMetrics;
+
+        lookups.put("find-task-by-id", new Lookup("id", taskService::findById,
+                "Tâche non trouvé avec l'ID: ",
+                "Erreur lors de la recherche de la tâche: ",
+                "L'ID de la tâche ne peut pas être null ou vide"));
+        lookups.put("find-task-by-tracking-reference", new Lookup("trackingReference", taskService::findByTrackingReference,
+                "Tâche non trouvé avec la référence de suivi: ",
+                "Erreur lors de la recherche de la tâche par référence de suivi: ",
+                "La référence de suivi ne peut pas être null ou vide"));
+        lookups.put("find-project-by-id", new Lookup("id", projectService::findById,
+                "Projet non trouvé avec l'ID: ",
+                "Erreur lors de la recherche du projet: ",
+                "L'ID du projet ne peut pas être null ou vide"));
+        lookups.put("find-project-by-code", new Lookup("projectCode", projectService::findByProjectCode,
+                "Aucun projet trouvé avec le code: ",
+                "Erreur lors de la recherche du projet par code: ",
+                "Le code du projet ne peut pas être null ou vide"));
+        lookups.put("find-project-by-name", new Lookup("projectName", projectService::findByProjectName,
+                "Aucun projet trouvé avec le nom: ",
+                "Erreur lors de la recherche du projet par nom: ",
+                "Le nom du projet ne peut pas être null ou vide"));
+        lookups.put("find-person-by-id", new Lookup("id", personService::findById,
+                "Personne non trouvée avec l'ID: ",
+                "Erreur lors de la recherche de la personne: ",
+                "L'ID de la personne ne peut pas être null ou vide"));
+        lookups.put("find-person-by-email", new Lookup("email", personService::findByEmail,
+                "Personne non trouvée avec l'email: ",
+                "Erreur lors de la recherche de la personne par email: ",
+                "L'email ne peut pas être null ou vide"));
+    }
+
+    /**
+     * Noms des outils remplacés, à retirer des outils bloquants publiés.
+     */
+    public Set<String> toolNames() {
+        return lookups.keySet();
+    }
+
+    /**
+     * Spécifications asynchrones des outils remplacés, décrites d'après les
+     * outils {@code @Tool} d'origine.
+     */
+    public List<McpServerFeatures.AsyncToolSpecification> specifications(List<ToolCallback> callbacks) {
+        List<McpServerFeatures.AsyncToolSpecification> specifications = new ArrayList<>();
+        for (ToolCallback callback : callbacks) {
+            ToolDefinition definition = callback.getToolDefinition();
+            Lookup lookup = lookups.get(definition.name());
+            if (lookup != null) {
+                McpSchema.Tool tool = new McpSchema.Tool(definition.name(), definition.description(),
+                        definition.inputSchema());
+                specifications.add(new McpServerFeatures.AsyncToolSpecification(tool,
+                        (exchange, arguments) -> call(definition.name(), lookup, exchange, arguments)));
+            }
+        }
+        return specifications;
+    }
+
+    private Mono<McpSchema.CallToolResult> call(String toolName, Lookup lookup, McpAsyncServerExchange exchange,
+            Map<String, Object> arguments) {
+        String clientName = exchange.getClientInfo() == null ? null : exchange.getClientInfo().name();
+        Object argument = arguments == null ? null : arguments.get(lookup.parameter());
+        String value = argument == null ? null : argument.toString();
+
+        Mono<?> found = value == null || value.trim().isEmpty()
+                ? Mono.error(new IllegalArgumentException(lookup.emptyMessage()))
+                : lookup.finder().apply(value);
+
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            boolean[] failed = new boolean[1];
+            return found
+                    .map(entity -> json(toolName, clientName, entity))
+                    .switchIfEmpty(Mono.fromSupplier(() -> json(toolName, clientName,
+                            message("message", lookup.notFoundMessage() + value))))
+                    .onErrorResume(e -> {
+                        failed[0] = true;
+                        return Mono.just(json(toolName, clientName,
+                                message("error", lookup.errorPrefix() + e.getMessage())));
+                    })
+                    .doOnNext(json -> {
+                        callMetrics.record(CallMetrics.TOOL, toolName, System.nanoTime() - start, failed[0]);
+                        callMetrics.recordPayload(CallMetrics.TOOL, toolName, json.length());
+                    });
+        }).map(json -> new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(json)), false));
+    }
+
+    private String json(String toolName, String clientName, Object value) {
+        return toolJson.withCall(toolName, clientName, () -> toolJson.toJson(value));
+    }
+
+    private static Map<String, String> message(String key, String text) {
+        Map<String, String> result = new HashMap<>();
+        result.put(key, text);
+        return result;
+    }
+
+    private record Lookup(String parameter, Function<String, Mono<?>> finder, String notFoundMessage,
+                          String errorPrefix, String emptyMessage) {
+    }
+}
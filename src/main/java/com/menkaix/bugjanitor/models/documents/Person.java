@@ -3,6 +3,8 @@ package com.menkaix.bugjanitor.models.documents;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 
@@ -21,10 +23,35 @@ public class Person {
     private Date creationDate;
     private Date updateDate;
 
+    @Version
+    private Long version;
+
     public Person() {
         creationDate = new Date();
     }
 
+    /**
+     * Instance lue depuis MongoDB : {@code creationDate} vient du document,
+     * et reste null quand une lecture projetée ne la charge pas, au lieu de
+     * la date courante posée par le constructeur.
+     */
+    @PersistenceCreator
+    public static Person fromDocument() {
+        Person person = new Person();
+        person.creationDate = null;
+        return person;
+    }
+
+    public Person(Person other) {
+        this.id = other.id;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.email = other.email;
+        this.creationDate = other.creationDate;
+        this.updateDate = other.updateDate;
+        this.version = other.version;
+    }
+
     public String getId() {
         return id;
     }
@@ -72,4 +99,12 @@ public class Person {
     public void setUpdateDate(Date updateDate) {
         this.updateDate = updateDate;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
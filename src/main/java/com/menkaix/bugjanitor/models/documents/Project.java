@@ -1,6 +1,9 @@
 package com.menkaix.bugjanitor.models.documents;
 
+import java.util.Date;
+
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document
@@ -12,6 +15,11 @@ public class Project {
     private String projectCode;
     private String description;
 
+    private Date updateDate;
+
+    @Version
+    private Long version;
+
     // Constructeur par défaut
     public Project() {
     }
@@ -31,6 +39,16 @@ public class Project {
         this.description = description;
     }
 
+    // Constructeur de copie
+    public Project(Project other) {
+        this.id = other.id;
+        this.projectName = other.projectName;
+        this.projectCode = other.projectCode;
+        this.description = other.description;
+        this.updateDate = other.updateDate;
+        this.version = other.version;
+    }
+
     public String getId() {
         return id;
     }
@@ -63,6 +81,22 @@ public class Project {
         this.description = description;
     }
 
+    public Date getUpdateDate() {
+        return updateDate;
+    }
+
+    public void setUpdateDate(Date updateDate) {
+        this.updateDate = updateDate;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Project{" +
@@ -70,6 +104,8 @@ public class Project {
                 ", projectName='" + projectName + '\'' +
                 ", projectCode='" + projectCode + '\'' +
                 ", description='" + description + '\'' +
+                ", updateDate=" + updateDate +
+                ", version=" + version +
                 '}';
     }
 }
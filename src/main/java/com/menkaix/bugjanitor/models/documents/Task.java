@@ -3,6 +3,8 @@ package com.menkaix.bugjanitor.models.documents;
 import java.util.Date;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.PersistenceCreator;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Document(collection = "task")
@@ -27,12 +29,44 @@ public class Task {
     private String trackingReference ;
     private String assignee ;
 
+    @Version
+    private Long version ;
 
 
     public Task(){
         creationDate = new Date() ;
     }
 
+    /**
+     * Instance lue depuis MongoDB : {@code creationDate} vient du document,
+     * et reste null quand une lecture projetée ne la charge pas, au lieu de
+     * la date courante posée par le constructeur.
+     */
+    @PersistenceCreator
+    public static Task fromDocument() {
+        Task task = new Task() ;
+        task.creationDate = null ;
+        return task ;
+    }
+
+    // Copie superficielle, les dates étant remplacées et jamais modifiées en place
+    public Task(Task other){
+        this.id = other.id ;
+        this.projectCode = other.projectCode ;
+        this.creationDate = other.creationDate ;
+        this.updateDate = other.updateDate ;
+        this.doneDate = other.doneDate ;
+        this.plannedStart = other.plannedStart ;
+        this.deadLine = other.deadLine ;
+        this.title = other.title ;
+        this.description = other.description ;
+        this.status = other.status ;
+        this.estimate = other.estimate ;
+        this.trackingReference = other.trackingReference ;
+        this.assignee = other.assignee ;
+        this.version = other.version ;
+    }
+
     public String getId() {
         return id;
     }
@@ -135,4 +169,12 @@ public class Task {
         this.assignee = assignee;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
 }
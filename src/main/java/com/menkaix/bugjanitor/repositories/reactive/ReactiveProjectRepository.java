@@ -0,0 +1,14 @@
+package com.menkaix.bugjanitor.repositories.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.menkaix.bugjanitor.models.documents.Project;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveProjectRepository extends ReactiveMongoRepository<Project, String> {
+    Mono<Project> findByProjectCode(String projectCode);
+    Mono<Project> findByProjectName(String projectName);
+}
@@ -0,0 +1,15 @@
+package com.menkaix.bugjanitor.repositories.reactive;
+
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ReactiveTaskRepository extends ReactiveMongoRepository<Task, String> {
+
+    Mono<Task> findByTrackingReference(String trackingReference);
+
+}
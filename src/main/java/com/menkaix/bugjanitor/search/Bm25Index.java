@@ -0,0 +1,299 @@
+package com.menkaix.bugjanitor.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire avec classement BM25.
+ *
+ * Les documents sont identifiés en interne par un ordinal entier. Chaque
+ * terme garde ses postings dans deux tableaux primitifs parallèles (ordinaux
+ * croissants, fréquences), soit une dizaine d'octets par couple (terme,
+ * document) au lieu de plusieurs dizaines avec des collections d'objets.
+ *
+ * Un document réindexé remplace intégralement sa version précédente : il
+ * reçoit un nouvel ordinal et ses anciens postings sont marqués supprimés
+ * (fréquence nulle). Une liste dont la moitié des entrées est supprimée est
+ * compactée ; les ordinaux sont renumérotés lorsque les ordinaux libérés
+ * dépassent les documents vivants.
+ */
+public class Bm25Index {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACTION = 16;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<String, Integer> ordinalsById = new HashMap<>();
+
+    // Par ordinal ; identifiant null pour un ordinal libéré
+    private String[] ids = new String[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private Postings[][] termsByOrdinal = new Postings[INITIAL_CAPACITY][];
+
+    private int nextOrdinal = 0;
+    private int liveDocuments = 0;
+    private long totalLength = 0;
+
+    /**
+     * Indexe (ou réindexe) un document à partir de ses termes déjà analysés.
+     */
+    public void index(String id, List<String> terms) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            if (nextOrdinal - liveDocuments > Math.max(liveDocuments, INITIAL_CAPACITY)) {
+                renumber();
+            }
+            ensureCapacity(nextOrdinal + 1);
+
+            int ordinal = nextOrdinal++;
+            Map<String, Integer> frequencies = new HashMap<>();
+            for (String term : terms) {
+                frequencies.merge(term, 1, Integer::sum);
+            }
+            Postings[] documentTerms = new Postings[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Postings termPostings = postings.computeIfAbsent(entry.getKey(), Postings::new);
+                termPostings.add(ordinal, entry.getValue());
+                documentTerms[i++] = termPostings;
+            }
+
+            ordinalsById.put(id, ordinal);
+            ids[ordinal] = id;
+            lengths[ordinal] = terms.size();
+            termsByOrdinal[ordinal] = documentTerms;
+            liveDocuments++;
+            totalLength += terms.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retourne au plus {@code limit} documents classés par score décroissant.
+     * Chaque groupe représente un mot de la requête et ses variantes : seule la
+     * meilleure variante d'un groupe contribue au score d'un document.
+     */
+    public List<SearchHit> search(List<Set<String>> queryGroups, int limit) {
+        lock.readLock().lock();
+        try {
+            if (liveDocuments == 0 || queryGroups.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+
+            double averageLength = (double) totalLength / liveDocuments;
+            double[] scores = new double[nextOrdinal];
+            double[] groupScores = null;
+
+            for (Set<String> group : queryGroups) {
+                List<Postings> variants = new ArrayList<>(group.size());
+                for (String term : group) {
+                    Postings termPostings = postings.get(term);
+                    if (termPostings != null) {
+                        variants.add(termPostings);
+                    }
+                }
+                if (variants.size() == 1) {
+                    accumulate(variants.get(0), averageLength, scores, false);
+                } else if (variants.size() > 1) {
+                    if (groupScores == null) {
+                        groupScores = new double[nextOrdinal];
+                    }
+                    for (Postings variant : variants) {
+                        accumulate(variant, averageLength, groupScores, true);
+                    }
+                    // Report de la meilleure variante, puis remise à zéro des seules cases touchées
+                    for (Postings variant : variants) {
+                        for (int i = 0; i < variant.size; i++) {
+                            int ordinal = variant.documents[i];
+                            scores[ordinal] += groupScores[ordinal];
+                            groupScores[ordinal] = 0;
+                        }
+                    }
+                }
+            }
+
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocuments;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void accumulate(Postings termPostings, double averageLength, double[] target, boolean keepMax) {
+        int df = termPostings.live;
+        double idf = Math.log(1 + (liveDocuments - df + 0.5) / (df + 0.5));
+        for (int i = 0; i < termPostings.size; i++) {
+            int tf = termPostings.frequencies[i];
+            if (tf == 0) {
+                continue;
+            }
+            int ordinal = termPostings.documents[i];
+            double score = idf * (tf * (K1 + 1)) / (tf + K1 * (1 - B + B * lengths[ordinal] / averageLength));
+            target[ordinal] = keepMax ? Math.max(target[ordinal], score) : target[ordinal] + score;
+        }
+    }
+
+    private List<SearchHit> top(double[] scores, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        for (int ordinal = 0; ordinal < scores.length; ordinal++) {
+            if (scores[ordinal] > 0) {
+                hits.add(new SearchHit(ids[ordinal], scores[ordinal]));
+            }
+        }
+        // Tri stable : à score égal, l'ordre d'indexation
+        hits.sort(Comparator.comparingDouble(SearchHit::score).reversed());
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private void removeInternal(String id) {
+        Integer ordinal = ordinalsById.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        for (Postings termPostings : termsByOrdinal[ordinal]) {
+            termPostings.remove(ordinal);
+            if (termPostings.live == 0) {
+                postings.remove(termPostings.term);
+            }
+        }
+        totalLength -= lengths[ordinal];
+        ids[ordinal] = null;
+        termsByOrdinal[ordinal] = null;
+        liveDocuments--;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        lengths = Arrays.copyOf(lengths, grown);
+        termsByOrdinal = Arrays.copyOf(termsByOrdinal, grown);
+    }
+
+    /**
+     * Resserre les ordinaux sur les documents vivants. La correspondance est
+     * croissante : les listes restent triées.
+     */
+    private void renumber() {
+        int[] mapping = new int[nextOrdinal];
+        int next = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (ids[ordinal] == null) {
+                mapping[ordinal] = -1;
+                continue;
+            }
+            mapping[ordinal] = next;
+            ids[next] = ids[ordinal];
+            lengths[next] = lengths[ordinal];
+            termsByOrdinal[next] = termsByOrdinal[ordinal];
+            next++;
+        }
+        Arrays.fill(ids, next, nextOrdinal, null);
+        Arrays.fill(termsByOrdinal, next, nextOrdinal, null);
+        for (Postings termPostings : postings.values()) {
+            termPostings.renumber(mapping);
+        }
+        ordinalsById.replaceAll((id, ordinal) -> mapping[ordinal]);
+        nextOrdinal = next;
+    }
+
+    /**
+     * Postings d'un terme : ordinaux croissants et fréquences, une fréquence
+     * nulle marquant une entrée supprimée.
+     */
+    private static final class Postings {
+
+        final String term;
+        int[] documents = new int[4];
+        short[] frequencies = new short[4];
+        int size;
+        int live;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void add(int ordinal, int frequency) {
+            if (size == documents.length) {
+                int grown = size + Math.max(4, size >> 1);
+                documents = Arrays.copyOf(documents, grown);
+                frequencies = Arrays.copyOf(frequencies, grown);
+            }
+            documents[size] = ordinal;
+            frequencies[size] = (short) Math.min(frequency, Short.MAX_VALUE);
+            size++;
+            live++;
+        }
+
+        void remove(int ordinal) {
+            int i = Arrays.binarySearch(documents, 0, size, ordinal);
+            if (i < 0 || frequencies[i] == 0) {
+                return;
+            }
+            frequencies[i] = 0;
+            live--;
+            if (size >= MIN_COMPACTION && live < size / 2) {
+                renumber(null);
+            }
+        }
+
+        /**
+         * Retire les entrées supprimées et, si {@code mapping} est fourni,
+         * renumérote les ordinaux restants.
+         */
+        void renumber(int[] mapping) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (frequencies[i] == 0) {
+                    continue;
+                }
+                int ordinal = mapping == null ? documents[i] : mapping[documents[i]];
+                if (ordinal < 0) {
+                    continue;
+                }
+                documents[kept] = ordinal;
+                frequencies[kept] = frequencies[i];
+                kept++;
+            }
+            size = kept;
+            live = kept;
+            if (documents.length > 2 * kept + 4) {
+                documents = Arrays.copyOf(documents, kept + 4);
+                frequencies = Arrays.copyOf(frequencies, kept + 4);
+            }
+        }
+    }
+}
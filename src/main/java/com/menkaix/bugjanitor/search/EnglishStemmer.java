@@ -0,0 +1,89 @@
+package com.menkaix.bugjanitor.search;
+
+/**
+ * Racinisation anglaise légère : pluriels, formes en -ed/-ing et suffixes
+ * dérivationnels courants. Moins agressive que Porter, mais stable entre
+ * un document et une requête.
+ */
+final class EnglishStemmer {
+
+    private static final String[][] SUFFIXES = {
+            { "ational", "ate" }, { "tional", "tion" }, { "ization", "ize" }, { "fulness", "ful" },
+            { "ousness", "ous" }, { "iveness", "ive" }, { "ation", "ate" }, { "ement", "" }, { "ment", "" },
+            { "ness", "" }, { "able", "" }, { "ible", "" }, { "ally", "al" }, { "ly", "" }, { "ity", "" },
+            { "er", "" } };
+
+    private EnglishStemmer() {
+    }
+
+    static String stem(String word) {
+        if (word.length() < 4 || !isAlphabetic(word)) {
+            return word;
+        }
+
+        String w = word;
+
+        if (w.endsWith("sses")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("ies") && w.length() > 4) {
+            w = w.substring(0, w.length() - 3) + "y";
+        } else if (w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us") && !w.endsWith("is")) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        if (w.endsWith("eed")) {
+            w = w.substring(0, w.length() - 1);
+        } else if (w.endsWith("ed") && w.length() > 4 && hasVowel(w, w.length() - 2)) {
+            w = undouble(w.substring(0, w.length() - 2));
+        } else if (w.endsWith("ing") && w.length() > 5 && hasVowel(w, w.length() - 3)) {
+            w = undouble(w.substring(0, w.length() - 3));
+        }
+
+        for (String[] suffix : SUFFIXES) {
+            if (w.endsWith(suffix[0]) && w.length() - suffix[0].length() >= 3) {
+                w = w.substring(0, w.length() - suffix[0].length()) + suffix[1];
+                break;
+            }
+        }
+
+        if (w.endsWith("e") && w.length() > 3) {
+            w = w.substring(0, w.length() - 1);
+        }
+        if (w.endsWith("y") && w.length() > 3 && !isVowel(w.charAt(w.length() - 2))) {
+            w = w.substring(0, w.length() - 1) + "i";
+        }
+
+        return w;
+    }
+
+    private static String undouble(String w) {
+        int n = w.length();
+        if (n >= 3 && w.charAt(n - 1) == w.charAt(n - 2) && !isVowel(w.charAt(n - 1))
+                && "lsz".indexOf(w.charAt(n - 1)) < 0) {
+            return w.substring(0, n - 1);
+        }
+        return w;
+    }
+
+    private static boolean hasVowel(String w, int end) {
+        for (int i = 0; i < end; i++) {
+            if (isVowel(w.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return "aeiouy".indexOf(c) >= 0;
+    }
+
+    private static boolean isAlphabetic(String w) {
+        for (int i = 0; i < w.length(); i++) {
+            if (!Character.isLetter(w.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,56 @@
+package com.menkaix.bugjanitor.search;
+
+/**
+ * Racinisation française légère (inspirée de l'algorithme de Savoy) :
+ * pluriels, féminins et suffixes dérivationnels les plus fréquents. Les
+ * accents sont déjà retirés par {@link TextAnalyzer}.
+ */
+final class FrenchStemmer {
+
+    private static final String[] SUFFIXES = {
+            "issements", "issement", "atrices", "atrice", "ateurs", "ateur", "ations", "ation", "ements",
+            "ement", "ments", "ment", "ances", "ance", "ences", "ence", "iques", "ique", "istes", "iste",
+            "ables", "able", "euses", "euse", "eurs", "eur", "ites", "ite", "ees", "ee", "es", "er", "ez" };
+
+    private FrenchStemmer() {
+    }
+
+    static String stem(String word) {
+        if (word.length() < 4 || !isAlphabetic(word)) {
+            return word;
+        }
+
+        String w = word;
+
+        if (w.endsWith("aux") && w.length() > 4) {
+            w = w.substring(0, w.length() - 3) + "al";
+        } else if (w.endsWith("x") || (w.endsWith("s") && !w.endsWith("ss"))) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        for (String suffix : SUFFIXES) {
+            if (w.endsWith(suffix) && w.length() - suffix.length() >= 3) {
+                w = w.substring(0, w.length() - suffix.length());
+                break;
+            }
+        }
+
+        if (w.endsWith("e") && w.length() > 4) {
+            w = w.substring(0, w.length() - 1);
+        }
+        if (w.length() > 4 && w.charAt(w.length() - 1) == w.charAt(w.length() - 2)) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        return w;
+    }
+
+    private static boolean isAlphabetic(String w) {
+        for (int i = 0; i < w.length(); i++) {
+            if (!Character.isLetter(w.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
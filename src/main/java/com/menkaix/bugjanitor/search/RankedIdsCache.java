@@ -0,0 +1,67 @@
+package com.menkaix.bugjanitor.search;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Classements filtrés récents, par recherche et filtre : les pages suivantes
+ * d'une même recherche (par numéro ou par curseur) reprennent la liste au lieu
+ * de reclasser toutes les correspondances et de les refiltrer dans MongoDB.
+ *
+ * Une entrée vaut {@code app.search.ranking-cache-ttl-ms} et jusqu'à la
+ * prochaine reconstruction de l'index. Pendant ce délai, une tâche modifiée
+ * garde sa place d'origine ; une tâche supprimée disparaît à la lecture.
+ *
+ * Les listes réutilisent les identifiants de l'index (une référence par
+ * entrée) ; {@code app.search.ranking-cache-max-ids} borne leur nombre total.
+ */
+@Component
+public class RankedIdsCache {
+
+    private final Map<String, CachedRanking> rankings = new ConcurrentHashMap<>();
+
+    @Value("${app.search.ranking-cache-ttl-ms:30000}")
+    private long ttlMillis;
+
+    @Value("${app.search.ranking-cache-max-ids:1000000}")
+    private long maxIds;
+
+    /**
+     * Classement en cache pour {@code (search, filter)} dans la génération
+     * d'index donnée, sinon calculé par {@code ranking} et mis en cache.
+     */
+    public List<String> get(String search, String filter, long generation, Supplier<List<String>> ranking) {
+        String key = generation + "\u0000" + search + "\u0000" + (filter == null ? "" : filter.trim());
+        long now = System.currentTimeMillis();
+        CachedRanking cached = rankings.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.ids();
+        }
+
+        List<String> ids = List.copyOf(ranking.get());
+        if (ttlMillis > 0 && ids.size() <= maxIds) {
+            store(key, ids, now);
+        }
+        return ids;
+    }
+
+    private synchronized void store(String key, List<String> ids, long now) {
+        rankings.values().removeIf(entry -> entry.expiresAt() <= now);
+        long total = ids.size();
+        for (CachedRanking entry : rankings.values()) {
+            total += entry.ids().size();
+        }
+        if (total > maxIds) {
+            rankings.clear();
+        }
+        rankings.put(key, new CachedRanking(ids, now + ttlMillis));
+    }
+
+    private record CachedRanking(List<String> ids, long expiresAt) {
+    }
+}
@@ -0,0 +1,7 @@
+package com.menkaix.bugjanitor.search;
+
+/**
+ * Résultat de recherche : identifiant du document et score BM25.
+ */
+public record SearchHit(String id, double score) {
+}
@@ -0,0 +1,180 @@
+package com.menkaix.bugjanitor.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.TaskChangeListener;
+
+/**
+ * Recherche plein texte sur les titres et descriptions des tâches.
+ *
+ * L'index est reconstruit depuis MongoDB au démarrage (en arrière-plan) puis
+ * maintenu incrémentalement par les écritures de {@code TaskService}. Tant
+ * qu'il n'est pas prêt, {@link #isReady()} retourne false et les appelants
+ * retombent sur la recherche par expression régulière.
+ */
+@Service
+public class TaskSearchIndex implements TaskChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskSearchIndex.class);
+
+    private static final int TITLE_WEIGHT = 2;
+
+    private final MongoTemplate mongoTemplate;
+
+    private volatile Bm25Index index = new Bm25Index();
+    private volatile boolean ready = false;
+    private volatile long generation = 0;
+
+    // Une seule reconstruction à la fois : elles partagent pendingDuringRebuild
+    private final Object rebuildLock = new Object();
+
+    // Écritures reçues pendant une reconstruction, rejouées après la bascule
+    private Map<String, Task> pendingDuringRebuild;
+
+    @Value("${app.search.enabled:true}")
+    private boolean enabled;
+
+    public TaskSearchIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("task-search-rebuild").start(() -> {
+            try {
+                rebuild();
+            } catch (Exception e) {
+                log.warn("Reconstruction de l'index de recherche impossible: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Reconstruit l'index complet depuis la collection des tâches puis le
+     * substitue à l'index courant. Un appel concurrent attend la fin de la
+     * reconstruction en cours.
+     */
+    public int rebuild() {
+        synchronized (rebuildLock) {
+            return rebuildExclusively();
+        }
+    }
+
+    private int rebuildExclusively() {
+        synchronized (this) {
+            pendingDuringRebuild = new HashMap<>();
+        }
+
+        Bm25Index fresh = new Bm25Index();
+        Query query = new Query();
+        query.fields().include("id", "title", "description", "projectCode");
+
+        long start = System.currentTimeMillis();
+        try (Stream<Task> tasks = mongoTemplate.stream(query, Task.class)) {
+            tasks.forEach(task -> fresh.index(task.getId(), analyze(task)));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            pendingDuringRebuild.forEach((id, task) -> {
+                if (task == null) {
+                    fresh.remove(id);
+                } else {
+                    fresh.index(id, analyze(task));
+                }
+            });
+            pendingDuringRebuild = null;
+            index = fresh;
+            ready = true;
+            generation++;
+        }
+
+        log.info("Index de recherche reconstruit: {} tâches en {} ms", fresh.size(), System.currentTimeMillis() - start);
+        return fresh.size();
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    /**
+     * Incrémentée à chaque reconstruction : tout ce qui dérive d'un classement
+     * (pages en cache, ETag) en dépend.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Retourne toutes les tâches correspondant à la requête, classées par
+     * pertinence : un filtre appliqué ensuite ne perd aucun résultat.
+     */
+    public List<SearchHit> search(String text) {
+        return index.search(TextAnalyzer.analyzeQuery(text), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        put(task);
+    }
+
+    @Override
+    public void onUpdated(Task before, Task after) {
+        put(after);
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        synchronized (this) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.put(task.getId(), null);
+            }
+        }
+        index.remove(task.getId());
+    }
+
+    private void put(Task task) {
+        synchronized (this) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.put(task.getId(), task);
+            }
+        }
+        index.index(task.getId(), analyze(task));
+    }
+
+    private List<String> analyze(Task task) {
+        List<String> terms = new ArrayList<>();
+        List<String> titleTerms = TextAnalyzer.analyzeDocument(task.getTitle());
+        for (int i = 0; i < TITLE_WEIGHT; i++) {
+            terms.addAll(titleTerms);
+        }
+        terms.addAll(TextAnalyzer.analyzeDocument(task.getDescription()));
+        terms.addAll(TextAnalyzer.analyzeDocument(task.getProjectCode()));
+        return terms;
+    }
+}
@@ -0,0 +1,121 @@
+package com.menkaix.bugjanitor.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Découpe un texte en termes indexables : normalisation (minuscules, accents
+ * retirés), suppression des mots vides français et anglais, puis racinisation
+ * légère dans la langue détectée.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> FRENCH_STOPWORDS = Set.of(
+            "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "elle", "en", "et", "eux", "il", "je",
+            "la", "le", "les", "leur", "lui", "ma", "mais", "me", "meme", "mes", "moi", "mon", "ne", "nos",
+            "notre", "nous", "on", "ou", "par", "pas", "pour", "qu", "que", "qui", "sa", "se", "ses", "son",
+            "sur", "ta", "te", "tes", "toi", "ton", "tu", "un", "une", "vos", "votre", "vous", "est", "sont",
+            "ete", "etre", "avoir", "fait", "plus", "cette", "cet", "sans", "sous", "entre");
+
+    private static final Set<String> ENGLISH_STOPWORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is", "it",
+            "no", "not", "of", "on", "or", "such", "that", "the", "their", "then", "there", "these", "they",
+            "this", "to", "was", "will", "with", "when", "where", "which", "who", "what", "from", "has",
+            "have", "had", "been", "should", "would", "can", "could", "we", "you", "our", "its", "do", "does");
+
+    private TextAnalyzer() {
+    }
+
+    /**
+     * Analyse un document : la langue est déduite des mots vides rencontrés et
+     * chaque jeton est racinisé dans cette langue.
+     */
+    public static List<String> analyzeDocument(String text) {
+        List<String> tokens = tokenize(text);
+        Language language = detect(tokens);
+
+        List<String> terms = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (isStopword(token)) {
+                continue;
+            }
+            terms.add(language == Language.FRENCH ? FrenchStemmer.stem(token) : EnglishStemmer.stem(token));
+        }
+        return terms;
+    }
+
+    /**
+     * Analyse une requête : la langue n'étant pas fiable sur quelques mots,
+     * chaque jeton produit ses variantes racinisées dans les deux langues.
+     */
+    public static List<Set<String>> analyzeQuery(String text) {
+        List<Set<String>> groups = new ArrayList<>();
+        for (String token : tokenize(text)) {
+            if (isStopword(token)) {
+                continue;
+            }
+            Set<String> variants = new LinkedHashSet<>();
+            variants.add(EnglishStemmer.stem(token));
+            variants.add(FrenchStemmer.stem(token));
+            groups.add(variants);
+        }
+        return groups;
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase();
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (!current.isEmpty()) {
+                addToken(tokens, current);
+            }
+        }
+        if (!current.isEmpty()) {
+            addToken(tokens, current);
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, StringBuilder current) {
+        if (current.length() >= 2 || Character.isDigit(current.charAt(0))) {
+            tokens.add(current.toString());
+        }
+        current.setLength(0);
+    }
+
+    private static boolean isStopword(String token) {
+        return FRENCH_STOPWORDS.contains(token) || ENGLISH_STOPWORDS.contains(token);
+    }
+
+    private static Language detect(List<String> tokens) {
+        int french = 0;
+        int english = 0;
+        for (String token : tokens) {
+            if (FRENCH_STOPWORDS.contains(token)) {
+                french++;
+            }
+            if (ENGLISH_STOPWORDS.contains(token)) {
+                english++;
+            }
+        }
+        return french > english ? Language.FRENCH : Language.ENGLISH;
+    }
+
+    private enum Language {
+        FRENCH, ENGLISH
+    }
+}
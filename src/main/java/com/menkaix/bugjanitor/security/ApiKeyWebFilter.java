@@ -0,0 +1,45 @@
+package com.menkaix.bugjanitor.security;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+
+/**
+ * Équivalent WebFlux de {@link ApiKeyAuthenticationFilter}. Pas un
+ * {@code @Component} : WebFlux ajouterait tout {@link WebFilter} déclaré
+ * comme bean à chaque requête, en plus de la chaîne de sécurité.
+ */
+public class ApiKeyWebFilter implements WebFilter {
+
+    private static final String API_KEY_HEADER = "X-API-Key";
+
+    private final String apiKey;
+
+    public ApiKeyWebFilter(String apiKey) {
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String providedApiKey = exchange.getRequest().getHeaders().getFirst(API_KEY_HEADER);
+
+        if (providedApiKey != null && providedApiKey.equals(apiKey)) {
+            Authentication authentication = new UsernamePasswordAuthenticationToken(
+                    "api-user",
+                    null,
+                    Collections.singletonList(new SimpleGrantedAuthority("ROLE_API")));
+            return chain.filter(exchange)
+                    .contextWrite(ReactiveSecurityContextHolder.withAuthentication(authentication));
+        }
+
+        return chain.filter(exchange);
+    }
+}
@@ -2,74 +2,183 @@ package com.menkaix.bugjanitor.services;
 
 import com.menkaix.bugjanitor.models.documents.Person;
 import com.menkaix.bugjanitor.repositories.PersonRepository;
+import com.menkaix.bugjanitor.services.cache.EntityCache;
+import com.menkaix.bugjanitor.services.cache.EntityCacheRegistry;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
+import com.menkaix.bugjanitor.services.paging.PageCursor;
+import com.menkaix.bugjanitor.services.paging.PagedQueryExecutor;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.update.PartialUpdate;
+import com.menkaix.bugjanitor.services.update.VersionedUpdater;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class PersonService {
 
     private final PersonRepository personRepository;
     private final MongoTemplate mongoTemplate;
+    private final PagedQueryExecutor pagedQueryExecutor;
+
+    private final VersionedUpdater versionedUpdater;
+    private final EntityCache<String, Person> personsById;
+    private final EntityCache<String, Person> personsByEmail;
 
     @Autowired
-    public PersonService(PersonRepository personRepository, MongoTemplate mongoTemplate) {
+    public PersonService(PersonRepository personRepository, MongoTemplate mongoTemplate,
+                         PagedQueryExecutor pagedQueryExecutor, VersionedUpdater versionedUpdater,
+                         EntityCacheRegistry cacheRegistry) {
         this.personRepository = personRepository;
         this.mongoTemplate = mongoTemplate;
+        this.pagedQueryExecutor = pagedQueryExecutor;
+        this.versionedUpdater = versionedUpdater;
+        this.personsById = cacheRegistry.create("person.byId", Person::new);
+        this.personsByEmail = cacheRegistry.create("person.byEmail", Person::new);
     }
 
+    /**
+     * N'écrase jamais une personne existante : un identifiant déjà pris lève
+     * une {@code DuplicateKeyException}, les modifications passent par
+     * {@link #update(Person)}.
+     */
     public Person create(Person person) {
         if (person.getEmail() == null || person.getEmail().trim().isEmpty()) {
             throw new IllegalArgumentException("L'email est obligatoire");
         }
-        return personRepository.save(person);
+        Person saved = personRepository.insert(person);
+        evict(saved);
+        return saved;
     }
 
     public Optional<Person> findById(String id) {
-        return personRepository.findById(id);
+        return personsById.get(id, () -> personRepository.findById(id));
     }
 
     public Optional<Person> findByEmail(String email) {
-        return personRepository.findByEmail(email);
+        return personsByEmail.get(email, () -> personRepository.findByEmail(email));
     }
 
+    /**
+     * Mise à jour partielle en un aller-retour, gardée par la version si elle
+     * est fournie.
+     */
     public Person update(Person personDetails) {
-        Person person = personRepository.findById(personDetails.getId())
-                .orElseThrow(() -> new RuntimeException("Person not found with id: " + personDetails.getId()));
+        PartialUpdate<Person> changes = new PartialUpdate<Person>()
+                .setIfPresent("firstName", personDetails.getFirstName(), Person::setFirstName)
+                .setIfPresent("lastName", personDetails.getLastName(), Person::setLastName)
+                .setIfPresent("email", personDetails.getEmail(), Person::setEmail)
+                // Mettre à jour automatiquement la date de modification
+                .set("updateDate", new Date(), Person::setUpdateDate);
+
+        Person before = versionedUpdater.modify(Person.class, personDetails.getId(),
+                personDetails.getVersion(), changes);
+
+        Person saved = changes.applyTo(new Person(before));
+        saved.setVersion(before.getVersion() == null ? 1L : before.getVersion() + 1);
+        evict(before);
+        evict(saved);
+        return saved;
+    }
 
-        // Mettre à jour les champs
-        if (personDetails.getFirstName() != null) {
-            person.setFirstName(personDetails.getFirstName());
+    public void delete(String id) {
+        Person removed = mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id)), Person.class);
+        personsById.invalidate(id);
+        if (removed != null) {
+            evict(removed);
         }
-        if (personDetails.getLastName() != null) {
-            person.setLastName(personDetails.getLastName());
+    }
+
+    public Page<Person> findAll(Pageable pageable, String search) {
+        return (Page<Person>) findAll(pageable, search, CountMode.EXACT);
+    }
+
+    /**
+     * Recherche paginée ; retourne une {@code Page} lorsque le total est
+     * calculé et une {@code Slice} en mode {@link CountMode#NONE}.
+     */
+    public Slice<Person> findAll(Pageable pageable, String search, CountMode countMode) {
+        return findAll(pageable, search, countMode, FieldProjection.full());
+    }
+
+    public Slice<Person> findAll(Pageable pageable, String search, CountMode countMode,
+                                 FieldProjection projection) {
+        if (pageable == null) {
+            pageable = Pageable.unpaged();
         }
-        if (personDetails.getEmail() != null) {
-            person.setEmail(personDetails.getEmail());
+
+        Query query = projection.applyTo(new Query(buildCriteria(search)));
+        if (pageable.getSort().isUnsorted()) {
+            query.with(Sort.by("id"));
         }
 
-        // Mettre à jour automatiquement la date de modification
-        person.setUpdateDate(new Date());
+        return pagedQueryExecutor.execute(query, pageable, countMode, Person.class);
+    }
 
-        return personRepository.save(person);
+    /**
+     * Pagination par curseur sur {@code _id} : coût constant quelle que soit
+     * la profondeur. Sans curseur, retourne la première page.
+     */
+    public CursorPage<Person> findAllByCursor(String cursor, int size, String search) {
+        return findAllByCursor(cursor, size, search, FieldProjection.full());
     }
 
-    public void delete(String id) {
-        personRepository.deleteById(id);
+    public CursorPage<Person> findAllByCursor(String cursor, int size, String search,
+                                              FieldProjection projection) {
+        PageCursor pageCursor = StringUtils.hasText(cursor) ? PageCursor.decode(cursor, search, null) : null;
+
+        Criteria criteria = buildCriteria(search);
+        if (pageCursor != null && pageCursor.isKeyset()) {
+            criteria.and("id").gt(ObjectId.isValid(pageCursor.afterId())
+                    ? new ObjectId(pageCursor.afterId())
+                    : pageCursor.afterId());
+        }
+        Query query = projection.applyTo(new Query(criteria)).with(Sort.by("id")).limit(size + 1);
+        if (pageCursor != null && !pageCursor.isKeyset()) {
+            query.skip(pageCursor.offset());
+        }
+
+        List<Person> persons = mongoTemplate.find(query, Person.class);
+        boolean hasNext = persons.size() > size;
+        List<Person> content = hasNext ? persons.subList(0, size) : persons;
+        String nextCursor = hasNext
+                ? PageCursor.afterId(content.get(content.size() - 1).getId(), search, null).encode()
+                : null;
+        return new CursorPage<>(content, size, hasNext, nextCursor);
     }
 
-    public Page<Person> findAll(Pageable pageable, String search) {
-        Query query = new Query().with(pageable);
+    /**
+     * Curseur permettant de poursuivre après une page obtenue par numéro, ou
+     * null si la page est la dernière ou que son tri ne le permet pas.
+     */
+    public String nextCursor(Slice<Person> page, String search) {
+        if (!page.hasNext() || page.getContent().isEmpty() || !PageCursor.followsIdOrder(page.getSort())) {
+            return null;
+        }
+        return PageCursor.afterId(page.getContent().get(page.getNumberOfElements() - 1).getId(), search, null)
+                .encode();
+    }
+
+    private void evict(Person person) {
+        personsById.invalidate(person.getId());
+        personsByEmail.invalidate(person.getEmail());
+    }
+
+    private Criteria buildCriteria(String search) {
         Criteria criteria = new Criteria();
 
         if (StringUtils.hasText(search)) {
@@ -79,15 +188,18 @@ public class PersonService {
                     Criteria.where("email").regex(search, "i"));
         }
 
-        query.addCriteria(criteria);
-
-        return PageableExecutionUtils.getPage(
-                mongoTemplate.find(query, Person.class),
-                pageable,
-                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Person.class));
+        return criteria;
     }
 
     public List<Person> findAll() {
         return personRepository.findAll();
     }
+
+    /**
+     * Toutes les personnes, lues au fil du curseur MongoDB. Le flux doit être
+     * fermé par l'appelant.
+     */
+    public Stream<Person> streamAll(FieldProjection projection) {
+        return mongoTemplate.stream(projection.applyTo(new Query()).with(Sort.by("id")), Person.class);
+    }
 }
@@ -0,0 +1,22 @@
+package com.menkaix.bugjanitor.services;
+
+import com.menkaix.bugjanitor.models.documents.Project;
+
+/**
+ * Notifié par {@link ProjectService} après chaque écriture réussie sur un
+ * projet.
+ *
+ * Mêmes règles que {@link TaskChangeListener} : les implémentations ne
+ * doivent pas dépendre de {@link ProjectService} elles-mêmes.
+ */
+public interface ProjectChangeListener {
+
+    default void onCreated(Project project) {
+    }
+
+    default void onUpdated(Project before, Project after) {
+    }
+
+    default void onDeleted(Project project) {
+    }
+}
@@ -2,62 +2,121 @@ package com.menkaix.bugjanitor.services;
 
 import com.menkaix.bugjanitor.models.documents.Project;
 import com.menkaix.bugjanitor.repositories.ProjectRepository;
+import com.menkaix.bugjanitor.services.cache.EntityCache;
+import com.menkaix.bugjanitor.services.cache.EntityCacheRegistry;
+import com.menkaix.bugjanitor.services.counters.CounterService;
+import com.menkaix.bugjanitor.services.filter.FilterCompiler;
+import com.menkaix.bugjanitor.services.filter.FilterCompiler.CompiledFilter;
+import com.menkaix.bugjanitor.services.filter.FilterSchema;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
+import com.menkaix.bugjanitor.services.paging.PageCursor;
+import com.menkaix.bugjanitor.services.paging.PagedQueryExecutor;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.update.PartialUpdate;
+import com.menkaix.bugjanitor.services.update.VersionedUpdater;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class ProjectService {
 
+    private static final Logger log = LoggerFactory.getLogger(ProjectService.class);
+
     private final ProjectRepository projectRepository;
     private final MongoTemplate mongoTemplate;
+    private final PagedQueryExecutor pagedQueryExecutor;
+    private final FilterCompiler filterCompiler;
+    private final VersionedUpdater versionedUpdater;
+    private final CounterService counterService;
+    private final EntityCache<String, Project> projectsById;
+    private final EntityCache<String, Project> projectsByCode;
+    private final List<ProjectChangeListener> changeListeners;
 
     @Autowired
-    public ProjectService(ProjectRepository projectRepository, MongoTemplate mongoTemplate) {
+    public ProjectService(ProjectRepository projectRepository, MongoTemplate mongoTemplate,
+                          PagedQueryExecutor pagedQueryExecutor, FilterCompiler filterCompiler,
+                          VersionedUpdater versionedUpdater, EntityCacheRegistry cacheRegistry,
+                          CounterService counterService, List<ProjectChangeListener> changeListeners) {
         this.projectRepository = projectRepository;
         this.mongoTemplate = mongoTemplate;
+        this.pagedQueryExecutor = pagedQueryExecutor;
+        this.filterCompiler = filterCompiler;
+        this.versionedUpdater = versionedUpdater;
+        this.counterService = counterService;
+        this.projectsById = cacheRegistry.create("project.byId", Project::new);
+        this.projectsByCode = cacheRegistry.create("project.byProjectCode", Project::new);
+        this.changeListeners = changeListeners;
     }
 
+    /**
+     * Insertion stricte : un identifiant déjà présent lève une
+     * {@code DuplicateKeyException} au lieu de remplacer le projet, ce qui
+     * fausserait {@code projects.total}.
+     */
     public Project create(Project project) {
-        return projectRepository.save(project);
+        Project saved = projectRepository.insert(project);
+        evict(saved);
+        counterService.projectCreated();
+        notifyListeners(listener -> listener.onCreated(saved));
+        return saved;
     }
 
     public Optional<Project> findById(String id) {
-        return projectRepository.findById(id);
+        return projectsById.get(id, () -> projectRepository.findById(id));
     }
 
+    /**
+     * Mise à jour partielle en un aller-retour, gardée par la version si elle
+     * est fournie.
+     */
     public Project update(Project projectDetails) {
-        Project project = projectRepository.findById(projectDetails.getId())
-                .orElseThrow(() -> new RuntimeException("Project not found with id: " + projectDetails.getId()));
-
-        // Mettre à jour les champs
-        if (projectDetails.getProjectName() != null) {
-            project.setProjectName(projectDetails.getProjectName());
-        }
-        if (projectDetails.getProjectCode() != null) {
-            project.setProjectCode(projectDetails.getProjectCode());
-        }
-        if (projectDetails.getDescription() != null) {
-            project.setDescription(projectDetails.getDescription());
-        }
-
-        return projectRepository.save(project);
+        PartialUpdate<Project> changes = new PartialUpdate<Project>()
+                .setIfPresent("projectName", projectDetails.getProjectName(), Project::setProjectName)
+                .setIfPresent("projectCode", projectDetails.getProjectCode(), Project::setProjectCode)
+                .setIfPresent("description", projectDetails.getDescription(), Project::setDescription)
+                .set("updateDate", new Date(), Project::setUpdateDate);
+
+        Project before = versionedUpdater.modify(Project.class, projectDetails.getId(),
+                projectDetails.getVersion(), changes);
+
+        Project saved = changes.applyTo(new Project(before));
+        saved.setVersion(before.getVersion() == null ? 1L : before.getVersion() + 1);
+        evict(before);
+        evict(saved);
+        notifyListeners(listener -> listener.onUpdated(before, saved));
+        return saved;
     }
 
     public void delete(String id) {
-        projectRepository.deleteById(id);
+        Project removed = mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id)), Project.class);
+        projectsById.invalidate(id);
+        if (removed != null) {
+            evict(removed);
+            counterService.projectDeleted();
+            notifyListeners(listener -> listener.onDeleted(removed));
+        }
     }
 
     public Optional<Project> findByProjectCode(String projectCode) {
-        return projectRepository.findByProjectCode(projectCode);
+        return projectsByCode.get(projectCode, () -> projectRepository.findByProjectCode(projectCode));
     }
 
     public Optional<Project> findByProjectName(String projectName) {
@@ -65,30 +124,120 @@ public class ProjectService {
     }
 
     public Page<Project> findAll(Pageable pageable, String search, String filter) {
-        Query query = new Query().with(pageable);
-        Criteria criteria = new Criteria();
+        return (Page<Project>) findAll(pageable, search, filter, CountMode.EXACT);
+    }
+
+    /**
+     * Recherche paginée ; retourne une {@code Page} lorsque le total est
+     * calculé et une {@code Slice} en mode {@link CountMode#NONE}.
+     */
+    public Slice<Project> findAll(Pageable pageable, String search, String filter, CountMode countMode) {
+        return findAll(pageable, search, filter, countMode, FieldProjection.full());
+    }
+
+    public Slice<Project> findAll(Pageable pageable, String search, String filter, CountMode countMode,
+                                  FieldProjection projection) {
+        if (pageable == null) {
+            pageable = Pageable.unpaged();
+        }
+
+        CompiledFilter compiled = filterCompiler.compile(filter, FilterSchema.PROJECT);
+        Query query = projection.applyTo(new Query(buildCriteria(search, compiled)));
+        if (hasSort(compiled)) {
+            query.with(compiled.sort());
+        } else if (pageable.getSort().isUnsorted()) {
+            query.with(Sort.by("id"));
+        }
+
+        return pagedQueryExecutor.execute(query, pageable, countMode, Project.class);
+    }
+
+    /**
+     * Pagination par curseur sur {@code _id} : coût constant quelle que soit
+     * la profondeur. Sans curseur, retourne la première page.
+     */
+    public CursorPage<Project> findAllByCursor(String cursor, int size, String search, String filter) {
+        return findAllByCursor(cursor, size, search, filter, FieldProjection.full());
+    }
+
+    public CursorPage<Project> findAllByCursor(String cursor, int size, String search, String filter,
+                                               FieldProjection projection) {
+        PageCursor pageCursor = StringUtils.hasText(cursor) ? PageCursor.decode(cursor, search, filter) : null;
+        CompiledFilter compiled = filterCompiler.compile(filter, FilterSchema.PROJECT);
+        if (hasSort(compiled)) {
+            throw new IllegalArgumentException("Le tri 'sort:' n'est pas compatible avec la pagination par curseur");
+        }
+
+        Criteria criteria = buildCriteria(search, compiled);
+        if (pageCursor != null && pageCursor.isKeyset()) {
+            criteria.and("id").gt(ObjectId.isValid(pageCursor.afterId())
+                    ? new ObjectId(pageCursor.afterId())
+                    : pageCursor.afterId());
+        }
+        Query query = projection.applyTo(new Query(criteria)).with(Sort.by("id")).limit(size + 1);
+        if (pageCursor != null && !pageCursor.isKeyset()) {
+            query.skip(pageCursor.offset());
+        }
+
+        List<Project> projects = mongoTemplate.find(query, Project.class);
+        boolean hasNext = projects.size() > size;
+        List<Project> content = hasNext ? projects.subList(0, size) : projects;
+        String nextCursor = hasNext
+                ? PageCursor.afterId(content.get(content.size() - 1).getId(), search, filter).encode()
+                : null;
+        return new CursorPage<>(content, size, hasNext, nextCursor);
+    }
+
+    /**
+     * Curseur permettant de poursuivre après une page obtenue par numéro, ou
+     * null si la page est la dernière ou que son tri ne le permet pas.
+     */
+    public String nextCursor(Slice<Project> page, String search, String filter) {
+        if (!page.hasNext() || page.getContent().isEmpty() || !PageCursor.followsIdOrder(page.getSort())
+                || hasSort(filterCompiler.compile(filter, FilterSchema.PROJECT))) {
+            return null;
+        }
+        return PageCursor.afterId(page.getContent().get(page.getNumberOfElements() - 1).getId(), search, filter)
+                .encode();
+    }
+
+    private Criteria buildCriteria(String search, CompiledFilter compiled) {
+        List<Criteria> parts = new ArrayList<>();
 
         if (StringUtils.hasText(search)) {
-            criteria.orOperator(
+            parts.add(new Criteria().orOperator(
                     Criteria.where("projectName").regex(search, "i"),
                     Criteria.where("projectCode").regex(search, "i"),
-                    Criteria.where("description").regex(search, "i"));
+                    Criteria.where("description").regex(search, "i")));
         }
 
-        if (StringUtils.hasText(filter)) {
-            // Simple filter implementation: assumes filter is in "key:value" format
-            String[] filterParts = filter.split(":");
-            if (filterParts.length == 2) {
-                criteria.and(filterParts[0]).is(filterParts[1]);
-            }
+        if (compiled != null && compiled.criteria() != null) {
+            parts.add(compiled.criteria());
         }
 
-        query.addCriteria(criteria);
+        if (parts.isEmpty()) {
+            return new Criteria();
+        }
+        return parts.size() == 1 ? parts.get(0) : new Criteria().andOperator(parts);
+    }
+
+    private void evict(Project project) {
+        projectsById.invalidate(project.getId());
+        projectsByCode.invalidate(project.getProjectCode());
+    }
 
-        return PageableExecutionUtils.getPage(
-                mongoTemplate.find(query, Project.class),
-                pageable,
-                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Project.class));
+    private static boolean hasSort(CompiledFilter compiled) {
+        return compiled != null && compiled.sort().isSorted();
+    }
+
+    private void notifyListeners(Consumer<ProjectChangeListener> notification) {
+        for (ProjectChangeListener listener : changeListeners) {
+            try {
+                notification.accept(listener);
+            } catch (Exception e) {
+                log.warn("Listener {} en échec: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
     }
 
 }
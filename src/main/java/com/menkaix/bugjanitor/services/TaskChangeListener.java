@@ -0,0 +1,31 @@
+package com.menkaix.bugjanitor.services;
+
+import java.util.List;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+
+/**
+ * Notifié par {@link TaskService} après chaque écriture réussie sur une tâche.
+ *
+ * Les implémentations maintiennent des structures dérivées (index, caches...)
+ * et ne doivent pas dépendre de {@link TaskService} elles-mêmes.
+ */
+public interface TaskChangeListener {
+
+    default void onCreated(Task task) {
+    }
+
+    /**
+     * Lot de tâches créées en une écriture (création en lot, import) ; à
+     * redéfinir pour traiter le lot d'un bloc.
+     */
+    default void onCreatedAll(List<Task> tasks) {
+        tasks.forEach(this::onCreated);
+    }
+
+    default void onUpdated(Task before, Task after) {
+    }
+
+    default void onDeleted(Task task) {
+    }
+}
@@ -4,144 +4,583 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.menkaix.bugjanitor.models.documents.Task;
 import com.menkaix.bugjanitor.repositories.TaskRepository;
+import com.menkaix.bugjanitor.search.RankedIdsCache;
+import com.menkaix.bugjanitor.search.SearchHit;
+import com.menkaix.bugjanitor.search.TaskSearchIndex;
+import com.menkaix.bugjanitor.services.bulk.BulkItemResult;
+import com.menkaix.bugjanitor.services.bulk.BulkResult;
+import com.menkaix.bugjanitor.services.bulk.BulkWriter;
+import com.menkaix.bugjanitor.services.cache.EntityCache;
+import com.menkaix.bugjanitor.services.cache.EntityCacheRegistry;
+import com.menkaix.bugjanitor.services.deadlines.DeadlineIndex;
+import com.menkaix.bugjanitor.services.filter.FilterCompiler;
+import com.menkaix.bugjanitor.services.filter.FilterCompiler.CompiledFilter;
+import com.menkaix.bugjanitor.services.filter.FilterSchema;
+import com.menkaix.bugjanitor.services.paging.CountMode;
+import com.menkaix.bugjanitor.services.paging.CursorPage;
+import com.menkaix.bugjanitor.services.paging.PageCursor;
+import com.menkaix.bugjanitor.services.paging.PagedQueryExecutor;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.update.PartialUpdate;
+import com.menkaix.bugjanitor.services.update.VersionedUpdater;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
-import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TaskService {
 
+    private static final Logger log = LoggerFactory.getLogger(TaskService.class);
+
+    private static final int FILTER_BATCH_SIZE = 1000;
+
     private final TaskRepository taskRepository;
     private final MongoTemplate mongoTemplate;
+    private final PagedQueryExecutor pagedQueryExecutor;
+    private final FilterCompiler filterCompiler;
+    private final VersionedUpdater versionedUpdater;
+    private final BulkWriter bulkWriter;
+    private final TaskSearchIndex taskSearchIndex;
+    private final RankedIdsCache rankedIdsCache;
+    private final DeadlineIndex deadlineIndex;
+    private final List<TaskChangeListener> changeListeners;
+    private final EntityCache<String, Task> tasksById;
+    private final EntityCache<String, Task> tasksByTrackingReference;
 
     @Autowired
-    public TaskService(TaskRepository taskRepository, MongoTemplate mongoTemplate) {
+    public TaskService(TaskRepository taskRepository, MongoTemplate mongoTemplate,
+                       PagedQueryExecutor pagedQueryExecutor, FilterCompiler filterCompiler,
+                       VersionedUpdater versionedUpdater, BulkWriter bulkWriter, TaskSearchIndex taskSearchIndex, List<TaskChangeListener> changeListeners,
+                       EntityCacheRegistry cacheRegistry, DeadlineIndex deadlineIndex, RankedIdsCache rankedIdsCache) {
         this.taskRepository = taskRepository;
         this.mongoTemplate = mongoTemplate;
+        this.pagedQueryExecutor = pagedQueryExecutor;
+        this.filterCompiler = filterCompiler;
+        this.versionedUpdater = versionedUpdater;
+        this.bulkWriter = bulkWriter;
+        this.taskSearchIndex = taskSearchIndex;
+        this.rankedIdsCache = rankedIdsCache;
+        this.deadlineIndex = deadlineIndex;
+        this.changeListeners = changeListeners;
+        this.tasksById = cacheRegistry.create("task.byId", Task::new);
+        this.tasksByTrackingReference = cacheRegistry.create("task.byTrackingReference", Task::new);
     }
 
+    /**
+     * Création seulement : une tâche dont l'identifiant existe déjà est
+     * refusée, les écouteurs ne voient jamais une mise à jour comme une
+     * création.
+     */
     public Task create(Task task) {
-        return taskRepository.save(task);
+        Task savedTask = taskRepository.insert(task);
+        evict(savedTask);
+        notifyListeners(listener -> listener.onCreated(savedTask));
+        return savedTask;
     }
 
     public Optional<Task> findById(String id) {
-        return taskRepository.findById(id);
+        return tasksById.get(id, () -> taskRepository.findById(id));
     }
 
     public Optional<Task> findByTrackingReference(String trackingReference) {
-        return taskRepository.findByTrackingReference(trackingReference);
+        return tasksByTrackingReference.get(trackingReference,
+                () -> taskRepository.findByTrackingReference(trackingReference));
     }
 
+    /**
+     * Mise à jour partielle en un aller-retour : seuls les champs non null de
+     * {@code taskDetails} sont modifiés. Si {@code taskDetails.getVersion()}
+     * est renseignée, la mise à jour échoue avec une
+     * {@code OptimisticLockingFailureException} lorsque la tâche a changé
+     * depuis.
+     */
     public Task update(Task taskDetails) {
-        Task task = taskRepository.findById(taskDetails.getId())
-                .orElseThrow(() -> new RuntimeException("Task not found with id: " + taskDetails.getId()));
+        PartialUpdate<Task> changes = changesOf(taskDetails);
+
+        Task before = versionedUpdater.modify(Task.class, taskDetails.getId(), taskDetails.getVersion(), changes);
+
+        // État après modification, déduit sans relire la base
+        Task savedTask = changes.applyTo(new Task(before));
+        savedTask.setVersion(before.getVersion() == null ? 1L : before.getVersion() + 1);
 
+        evict(before);
+        evict(savedTask);
+        notifyListeners(listener -> listener.onUpdated(before, savedTask));
 
+        return savedTask;
+    }
+
+    private PartialUpdate<Task> changesOf(Task taskDetails) {
+        return new PartialUpdate<Task>()
+                .setIfPresent("title", taskDetails.getTitle(), Task::setTitle)
+                .setIfPresent("description", taskDetails.getDescription(), Task::setDescription)
+                .setIfPresent("deadLine", taskDetails.getDeadLine(), Task::setDeadLine)
+                .setIfPresent("projectCode", taskDetails.getProjectCode(), Task::setProjectCode)
+                .setIfPresent("status", taskDetails.getStatus(), Task::setStatus)
+                .setIfPresent("estimate", taskDetails.getEstimate(), Task::setEstimate)
+                .setIfPresent("plannedStart", taskDetails.getPlannedStart(), Task::setPlannedStart)
+                .setIfPresent("doneDate", taskDetails.getDoneDate(), Task::setDoneDate)
+                .setIfPresent("trackingReference", taskDetails.getTrackingReference(), Task::setTrackingReference)
+                .setIfPresent("assignee", taskDetails.getAssignee(), Task::setAssignee)
+                // Mettre à jour automatiquement la date de modification
+                .set("updateDate", new Date(), Task::setUpdateDate);
+    }
 
-        // Mettre à jour les champs
-        if (taskDetails.getTitle() != null) {
-            task.setTitle(taskDetails.getTitle());
+    public void delete(String id) {
+        Task removed = mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id)), Task.class);
+        tasksById.invalidate(id);
+        if (removed != null) {
+            evict(removed);
+            notifyListeners(listener -> listener.onDeleted(removed));
         }
-        if (taskDetails.getDescription() != null) {
-            task.setDescription(taskDetails.getDescription());
+    }
+
+    /**
+     * Crée un lot de tâches en un seul bulkWrite non ordonné ; une erreur sur
+     * une tâche n'empêche pas la création des autres.
+     */
+    public BulkResult createAll(List<Task> tasks) {
+        bulkWriter.checkSize(tasks.size());
+        List<BulkItemResult> results = new ArrayList<>();
+        List<Task> submitted = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (task == null || !StringUtils.hasText(task.getTitle())) {
+                results.add(BulkItemResult.failure(i, task == null ? null : task.getId(), "Le titre de la tâche est requis"));
+                continue;
+            }
+            // Identifiant et version posés ici : l'insertion en lot ne les reporte pas sur l'entité
+            if (task.getId() == null) {
+                task.setId(new ObjectId().toHexString());
+            }
+            if (task.getVersion() == null) {
+                task.setVersion(0L);
+            }
+            submitted.add(task);
+            indexes.add(i);
         }
-        if (taskDetails.getDeadLine() != null) {
-            task.setDeadLine(taskDetails.getDeadLine());
+
+        Map<Integer, String> errors = bulkWriter.insert(Task.class, submitted, indexes);
+        List<Task> created = new ArrayList<>();
+        for (int j = 0; j < submitted.size(); j++) {
+            int index = indexes.get(j);
+            Task task = submitted.get(j);
+            if (errors.containsKey(index)) {
+                results.add(BulkItemResult.failure(index, task.getId(), errors.get(index)));
+            } else {
+                results.add(BulkItemResult.success(index, task.getId(), BulkItemResult.CREATED));
+                evict(task);
+                created.add(task);
+            }
         }
-        if (taskDetails.getProjectCode() != null) {
-            task.setProjectCode(taskDetails.getProjectCode());
+        if (!created.isEmpty()) {
+            notifyListeners(listener -> listener.onCreatedAll(created));
         }
-        if (taskDetails.getStatus() != null) {
-            task.setStatus(taskDetails.getStatus());
+        return BulkResult.of(results);
+    }
+
+    /**
+     * Insère un lot d'import, déjà validé et muni d'identifiants, sans la
+     * limite {@code app.bulk.max-items}. Un identifiant déjà présent (import
+     * rejoué après une reprise) est compté {@code skipped} et non en erreur.
+     */
+    public BulkResult importAll(List<Task> tasks, List<Integer> indexes) {
+        Map<Integer, String> duplicates = new HashMap<>();
+        Map<Integer, String> errors = bulkWriter.insert(Task.class, tasks, indexes, duplicates);
+        List<BulkItemResult> results = new ArrayList<>(tasks.size());
+        List<Task> created = new ArrayList<>(tasks.size());
+        for (int j = 0; j < tasks.size(); j++) {
+            int index = indexes.get(j);
+            Task task = tasks.get(j);
+            if (errors.containsKey(index)) {
+                results.add(BulkItemResult.failure(index, task.getId(), errors.get(index)));
+            } else if (duplicates.containsKey(index)) {
+                results.add(BulkItemResult.skipped(index, task.getId(), duplicates.get(index)));
+            } else {
+                results.add(BulkItemResult.success(index, task.getId(), BulkItemResult.CREATED));
+                evict(task);
+                created.add(task);
+            }
+        }
+        if (!created.isEmpty()) {
+            notifyListeners(listener -> listener.onCreatedAll(created));
         }
-        if (taskDetails.getEstimate() != null) {
-            task.setEstimate(taskDetails.getEstimate());
+        return BulkResult.of(results);
+    }
+
+    /**
+     * Met à jour un lot de tâches avec la sémantique de {@link #update(Task)}
+     * pour chaque élément : un {@code findAndModify} par tâche, gardé par la
+     * version si elle est fournie. Un bulkWrite ne rend que des totaux ; il ne
+     * dirait pas quelle tâche a été modifiée par ce lot, ni dans quel état,
+     * face à une écriture concurrente.
+     */
+    public BulkResult updateAll(List<Task> tasks) {
+        bulkWriter.checkSize(tasks.size());
+        List<BulkItemResult> results = new ArrayList<>();
+
+        for (int i = 0; i < tasks.size(); i++) {
+            Task details = tasks.get(i);
+            if (details == null || !StringUtils.hasText(details.getId())) {
+                results.add(BulkItemResult.failure(i, null, "L'ID de la tâche est requis pour la mise à jour"));
+                continue;
+            }
+            try {
+                update(details);
+                results.add(BulkItemResult.success(i, details.getId(), BulkItemResult.UPDATED));
+            } catch (RuntimeException e) {
+                results.add(BulkItemResult.failure(i, details.getId(), e.getMessage()));
+            }
+        }
+        return BulkResult.of(results);
+    }
+
+    /**
+     * Supprime un lot de tâches, une {@code findAndRemove} par tâche comme
+     * {@link #delete(String)} : seul l'appel qui a réellement retiré une tâche
+     * la signale aux écouteurs.
+     */
+    public BulkResult deleteAll(List<String> ids) {
+        bulkWriter.checkSize(ids.size());
+        List<BulkItemResult> results = new ArrayList<>();
+
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            try {
+                Task removed = StringUtils.hasText(id)
+                        ? mongoTemplate.findAndRemove(new Query(Criteria.where("id").is(id)), Task.class)
+                        : null;
+                if (removed == null) {
+                    results.add(BulkItemResult.failure(i, id, "Task not found with id: " + id));
+                    continue;
+                }
+                results.add(BulkItemResult.success(i, id, BulkItemResult.DELETED));
+                evict(removed);
+                notifyListeners(listener -> listener.onDeleted(removed));
+            } catch (RuntimeException e) {
+                results.add(BulkItemResult.failure(i, id, e.getMessage()));
+            }
         }
-        if (taskDetails.getPlannedStart() != null) {
-            task.setPlannedStart(taskDetails.getPlannedStart());
+        return BulkResult.of(results);
+    }
+
+    public Page<Task> findAll(Pageable pageable, String search, String filter) {
+        return (Page<Task>) findAll(pageable, search, filter, CountMode.EXACT);
+    }
+
+    /**
+     * Recherche paginée ; retourne une {@code Page} lorsque le total est
+     * calculé et une {@code Slice} en mode {@link CountMode#NONE}.
+     */
+    public Slice<Task> findAll(Pageable pageable, String search, String filter, CountMode countMode) {
+        return findAll(pageable, search, filter, countMode, FieldProjection.full());
+    }
+
+    public Slice<Task> findAll(Pageable pageable, String search, String filter, CountMode countMode,
+                               FieldProjection projection) {
+        if (pageable == null) {
+            pageable = Pageable.unpaged();
         }
-        if (taskDetails.getDoneDate() != null) {
-            task.setDoneDate(taskDetails.getDoneDate());
+        CompiledFilter compiled = filterCompiler.compile(filter, FilterSchema.TASK);
+
+        // Un tri explicite du filtre prime sur le classement par pertinence
+        if (StringUtils.hasText(search) && taskSearchIndex.isReady() && !hasSort(compiled)) {
+            List<String> rankedIds = rankIds(search, filter, compiled);
+            int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), rankedIds.size()) : 0;
+            int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), rankedIds.size()) : rankedIds.size();
+            return new PageImpl<>(loadInOrder(rankedIds.subList(from, to), projection), pageable, rankedIds.size());
         }
-        if (taskDetails.getTrackingReference() != null) {
-            task.setTrackingReference(taskDetails.getTrackingReference());
+
+        Query query = projection.applyTo(new Query(buildCriteria(search, compiled)));
+        if (hasSort(compiled)) {
+            query.with(compiled.sort());
+        } else if (pageable.getSort().isUnsorted()) {
+            query.with(Sort.by("id"));
         }
-        if (taskDetails.getAssignee() != null) {
-            task.setAssignee(taskDetails.getAssignee());
+
+        return pagedQueryExecutor.execute(query, pageable, countMode, Task.class);
+    }
+
+    /**
+     * Pagination par curseur : coût constant quelle que soit la profondeur.
+     * Sans curseur, retourne la première page.
+     */
+    public CursorPage<Task> findAllByCursor(String cursor, int size, String search, String filter) {
+        return findAllByCursor(cursor, size, search, filter, FieldProjection.full());
+    }
+
+    public CursorPage<Task> findAllByCursor(String cursor, int size, String search, String filter,
+                                            FieldProjection projection) {
+        PageCursor pageCursor = StringUtils.hasText(cursor) ? PageCursor.decode(cursor, search, filter) : null;
+        CompiledFilter compiled = filterCompiler.compile(filter, FilterSchema.TASK);
+        if (hasSort(compiled)) {
+            throw new IllegalArgumentException("Le tri 'sort:' n'est pas compatible avec la pagination par curseur");
         }
 
-        // Mettre à jour automatiquement la date de modification
-        task.setUpdateDate(new java.util.Date());
+        boolean ranked = StringUtils.hasText(search) && taskSearchIndex.isReady()
+                && (pageCursor == null || !pageCursor.isKeyset());
+        if (ranked) {
+            List<String> rankedIds = rankIds(search, filter, compiled);
+            int from = pageCursor == null ? 0 : (int) Math.min(pageCursor.offset(), rankedIds.size());
+            int to = Math.min(from + size, rankedIds.size());
+            boolean hasNext = to < rankedIds.size();
+            return new CursorPage<>(loadInOrder(rankedIds.subList(from, to), projection), size, hasNext,
+                    hasNext ? PageCursor.atOffset(to, search, filter).encode() : null);
+        }
 
-        Task savedTask = taskRepository.save(task);
+        Criteria criteria = buildCriteria(search, compiled);
+        if (pageCursor != null && pageCursor.isKeyset()) {
+            criteria.and("id").gt(toObjectId(pageCursor.afterId()));
+        }
+        Query query = projection.applyTo(new Query(criteria)).with(Sort.by("id")).limit(size + 1);
+        if (pageCursor != null && !pageCursor.isKeyset()) {
+            query.skip(pageCursor.offset());
+        }
 
-        return savedTask ;
+        List<Task> tasks = mongoTemplate.find(query, Task.class);
+        boolean hasNext = tasks.size() > size;
+        List<Task> content = hasNext ? tasks.subList(0, size) : tasks;
+        String nextCursor = hasNext
+                ? PageCursor.afterId(content.get(content.size() - 1).getId(), search, filter).encode()
+                : null;
+        return new CursorPage<>(content, size, hasNext, nextCursor);
     }
 
-    public void delete(String id) {
-        taskRepository.deleteById(id);
+    /**
+     * Curseur permettant de poursuivre après une page obtenue par numéro, ou
+     * null si la page est la dernière ou que son tri ne le permet pas.
+     */
+    public String nextCursor(Slice<Task> page, String search, String filter) {
+        if (!page.hasNext() || page.getContent().isEmpty()
+                || hasSort(filterCompiler.compile(filter, FilterSchema.TASK))) {
+            return null;
+        }
+        if (StringUtils.hasText(search) && taskSearchIndex.isReady()) {
+            return PageCursor.atOffset(page.getPageable().getOffset() + page.getNumberOfElements(), search, filter)
+                    .encode();
+        }
+        if (!PageCursor.followsIdOrder(page.getSort())) {
+            return null;
+        }
+        return PageCursor.afterId(page.getContent().get(page.getNumberOfElements() - 1).getId(), search, filter)
+                .encode();
     }
 
-    public Page<Task> findAll(Pageable pageable, String search, String filter) {
-        Query query = new Query().with(pageable);
-        Criteria criteria = new Criteria();
+    private Criteria buildCriteria(String search, CompiledFilter compiled) {
+        List<Criteria> parts = new ArrayList<>();
 
         if (StringUtils.hasText(search)) {
-            criteria.orOperator(
+            parts.add(new Criteria().orOperator(
                     Criteria.where("title").regex(search, "i"),
                     Criteria.where("projectCode").regex(search, "i"),
-                    Criteria.where("description").regex(search, "i"));
+                    Criteria.where("description").regex(search, "i")));
+        }
+
+        if (compiled != null && compiled.criteria() != null) {
+            parts.add(compiled.criteria());
         }
 
-        if (StringUtils.hasText(filter)) {
-            // Simple filter implementation: assumes filter is in "key:value" format
-            String[] filterParts = filter.split(":");
-            if (filterParts.length == 2) {
-                criteria.and(filterParts[0]).is(filterParts[1]);
+        if (parts.isEmpty()) {
+            return new Criteria();
+        }
+        return parts.size() == 1 ? parts.get(0) : new Criteria().andOperator(parts);
+    }
+
+    private static boolean hasSort(CompiledFilter compiled) {
+        return compiled != null && compiled.sort().isSorted();
+    }
+
+    /**
+     * Recherche plein texte : l'index en mémoire fournit les identifiants
+     * classés par pertinence, MongoDB ne sert qu'à appliquer le filtre
+     * éventuel, par lots de {@value #FILTER_BATCH_SIZE} identifiants. Le
+     * filtre porte sur toutes les correspondances, le total est donc exact.
+     * Le classement filtré est gardé en cache ({@link RankedIdsCache}) : les
+     * pages suivantes ne le recalculent pas.
+     */
+    private List<String> rankIds(String search, String filter, CompiledFilter compiled) {
+        return rankedIdsCache.get(search, filter, taskSearchIndex.generation(), () -> rank(search, compiled));
+    }
+
+    private List<String> rank(String search, CompiledFilter compiled) {
+        List<String> rankedIds = taskSearchIndex.search(search).stream()
+                .map(SearchHit::id)
+                .collect(Collectors.toList());
+
+        if (compiled != null && compiled.criteria() != null && !rankedIds.isEmpty()) {
+            Set<String> matching = new HashSet<>();
+            for (int from = 0; from < rankedIds.size(); from += FILTER_BATCH_SIZE) {
+                List<String> batch = rankedIds.subList(from, Math.min(from + FILTER_BATCH_SIZE, rankedIds.size()));
+                Criteria criteria = new Criteria().andOperator(Criteria.where("id").in(batch), compiled.criteria());
+                Query query = new Query(criteria);
+                query.fields().include("id");
+                mongoTemplate.find(query, Task.class).forEach(task -> matching.add(task.getId()));
             }
+            rankedIds.removeIf(id -> !matching.contains(id));
         }
 
-        query.addCriteria(criteria);
+        return rankedIds;
+    }
 
-        return PageableExecutionUtils.getPage(
-                mongoTemplate.find(query, Task.class),
-                pageable,
-                () -> mongoTemplate.count(Query.of(query).limit(-1).skip(-1), Task.class));
+    private List<Task> loadInOrder(List<String> ids, FieldProjection projection) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Query query = projection.applyTo(new Query(Criteria.where("id").in(ids)));
+        Map<String, Task> tasksById = mongoTemplate.find(query, Task.class)
+                .stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return ids.stream()
+                .map(tasksById::get)
+                .filter(task -> task != null)
+                .toList();
+    }
+
+    private Object toObjectId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
     }
 
     public List<Task> findByProjectCode(String projectCode) {
-        Query query = new Query(Criteria.where("projectCode").is(projectCode));
-        return mongoTemplate.find(query, Task.class);
+        return findByProjectCode(projectCode, FieldProjection.full());
+    }
+
+    public List<Task> findByProjectCode(String projectCode, FieldProjection projection) {
+        return mongoTemplate.find(byProjectCodeQuery(projectCode, projection), Task.class);
     }
 
     public List<Task> findByStatus(String status) {
-        Query query = new Query(Criteria.where("status").is(status));
-        return mongoTemplate.find(query, Task.class);
+        return findByStatus(status, FieldProjection.full());
+    }
+
+    public List<Task> findByStatus(String status, FieldProjection projection) {
+        return mongoTemplate.find(byStatusQuery(status, projection), Task.class);
     }
 
     public List<Task> findOverdueTasks() {
-        Date now = new Date();
-        Query query = new Query(Criteria.where("deadLine").lt(now)
-                .and("doneDate").exists(false));
-        return mongoTemplate.find(query, Task.class);
+        return findOverdueTasks(FieldProjection.full());
+    }
+
+    public List<Task> findOverdueTasks(FieldProjection projection) {
+        if (deadlineIndex.isReady()) {
+            return deadlineIndex.overdue(projection);
+        }
+        return mongoTemplate.find(overdueQuery(projection), Task.class);
     }
 
     public List<Task> findUpcomingTasks() {
+        return findUpcomingTasks(FieldProjection.full());
+    }
+
+    public List<Task> findUpcomingTasks(FieldProjection projection) {
+        if (deadlineIndex.isReady()) {
+            return deadlineIndex.upcoming(projection);
+        }
+        return mongoTemplate.find(upcomingQuery(projection), Task.class);
+    }
+
+    /*
+     * Variantes streamées : les documents sont lus au fil du curseur MongoDB.
+     * Le flux doit être fermé par l'appelant (try-with-resources).
+     */
+
+    public Stream<Task> streamAll(FieldProjection projection) {
+        return mongoTemplate.stream(projection.applyTo(new Query()).with(Sort.by("id")), Task.class);
+    }
+
+    /**
+     * Tâches correspondant au filtre, dans l'ordre du tri du filtre ou des
+     * identifiants, pour l'export.
+     */
+    public Stream<Task> streamFiltered(String filter, FieldProjection projection, int batchSize) {
+        CompiledFilter compiled = filterCompiler.compile(filter, FilterSchema.TASK);
+        Query query = projection.applyTo(new Query(buildCriteria(null, compiled)));
+        query.with(hasSort(compiled) ? compiled.sort() : Sort.by("id"));
+        query.cursorBatchSize(batchSize);
+        return mongoTemplate.stream(query, Task.class);
+    }
+
+    public Stream<Task> streamByProjectCode(String projectCode, FieldProjection projection) {
+        return mongoTemplate.stream(byProjectCodeQuery(projectCode, projection), Task.class);
+    }
+
+    public Stream<Task> streamByStatus(String status, FieldProjection projection) {
+        return mongoTemplate.stream(byStatusQuery(status, projection), Task.class);
+    }
+
+    public Stream<Task> streamOverdueTasks(FieldProjection projection) {
+        if (deadlineIndex.isReady()) {
+            return deadlineIndex.overdue(projection).stream();
+        }
+        return mongoTemplate.stream(overdueQuery(projection), Task.class);
+    }
+
+    public Stream<Task> streamUpcomingTasks(FieldProjection projection) {
+        if (deadlineIndex.isReady()) {
+            return deadlineIndex.upcoming(projection).stream();
+        }
+        return mongoTemplate.stream(upcomingQuery(projection), Task.class);
+    }
+
+    private Query byProjectCodeQuery(String projectCode, FieldProjection projection) {
+        return projection.applyTo(new Query(Criteria.where("projectCode").is(projectCode)));
+    }
+
+    private Query byStatusQuery(String status, FieldProjection projection) {
+        return projection.applyTo(new Query(Criteria.where("status").is(status)));
+    }
+
+    private Query overdueQuery(FieldProjection projection) {
+        Date now = new Date();
+        return projection.applyTo(new Query(Criteria.where("deadLine").lt(now)
+                .and("doneDate").exists(false)));
+    }
+
+    private Query upcomingQuery(FieldProjection projection) {
         Date now = new Date();
-        Date sevenDaysFromNow = new Date(now.getTime() + (7 * 24 * 60 * 60 * 1000));
-        Query query = new Query(Criteria.where("deadLine").gte(now).lte(sevenDaysFromNow)
-                .and("doneDate").exists(false));
-        return mongoTemplate.find(query, Task.class);
+        Date sevenDaysFromNow = new Date(now.getTime() + DeadlineIndex.UPCOMING_MILLIS);
+        return projection.applyTo(new Query(Criteria.where("deadLine").gte(now).lte(sevenDaysFromNow)
+                .and("doneDate").exists(false)));
+    }
+
+    private void evict(Task task) {
+        tasksById.invalidate(task.getId());
+        tasksByTrackingReference.invalidate(task.getTrackingReference());
+    }
+
+    private void notifyListeners(Consumer<TaskChangeListener> notification) {
+        for (TaskChangeListener listener : changeListeners) {
+            try {
+                notification.accept(listener);
+            } catch (Exception e) {
+                log.warn("Listener {} en échec: {}", listener.getClass().getSimpleName(), e.getMessage());
+            }
+        }
     }
 
 }
\ No newline at end of file
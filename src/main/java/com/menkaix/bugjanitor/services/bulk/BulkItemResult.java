@@ -0,0 +1,32 @@
+package com.menkaix.bugjanitor.services.bulk;
+
+/**
+ * Résultat d'un élément d'un lot : position dans la requête, identifiant,
+ * statut ({@code created}, {@code updated}, {@code deleted}, {@code skipped}
+ * ou {@code error}) et message d'erreur éventuel.
+ */
+public record BulkItemResult(int index, String id, String status, String error) {
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    /** Document déjà présent (import rejoué), non réécrit. */
+    public static final String SKIPPED = "skipped";
+    public static final String ERROR = "error";
+
+    public static BulkItemResult success(int index, String id, String status) {
+        return new BulkItemResult(index, id, status, null);
+    }
+
+    public static BulkItemResult skipped(int index, String id, String reason) {
+        return new BulkItemResult(index, id, SKIPPED, reason);
+    }
+
+    public static BulkItemResult failure(int index, String id, String error) {
+        return new BulkItemResult(index, id, ERROR, error);
+    }
+
+    public boolean succeeded() {
+        return !ERROR.equals(status);
+    }
+}
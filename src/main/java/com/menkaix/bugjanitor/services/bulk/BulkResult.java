@@ -0,0 +1,18 @@
+package com.menkaix.bugjanitor.services.bulk;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Résultats d'un lot, un par élément soumis, dans l'ordre de la requête.
+ */
+public record BulkResult(List<BulkItemResult> items, int succeeded, int failed) {
+
+    public static BulkResult of(List<BulkItemResult> items) {
+        List<BulkItemResult> ordered = items.stream()
+                .sorted(Comparator.comparingInt(BulkItemResult::index))
+                .toList();
+        int succeeded = (int) ordered.stream().filter(BulkItemResult::succeeded).count();
+        return new BulkResult(ordered, succeeded, ordered.size() - succeeded);
+    }
+}
@@ -0,0 +1,85 @@
+package com.menkaix.bugjanitor.services.bulk;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import com.mongodb.bulk.BulkWriteError;
+
+/**
+ * Exécute des lots d'écritures en un seul appel {@code bulkWrite} non
+ * ordonné : une erreur sur un élément n'interrompt pas les suivants.
+ *
+ * Chaque méthode retourne les erreurs indexées par la position de l'élément
+ * dans la requête d'origine (et non dans le lot envoyé, dont les éléments
+ * invalides ont pu être retirés).
+ */
+@Component
+public class BulkWriter {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.bulk.max-items:1000}")
+    private int maxItems;
+
+    public BulkWriter(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void checkSize(int size) {
+        if (size > maxItems) {
+            throw new IllegalArgumentException("Lot trop volumineux: " + size + " éléments (maximum " + maxItems + ")");
+        }
+    }
+
+    /**
+     * Insère les entités ; {@code itemIndexes} donne, pour chaque entité, sa
+     * position dans la requête.
+     */
+    public <T> Map<Integer, String> insert(Class<T> entityClass, List<T> entities, List<Integer> itemIndexes) {
+        if (entities.isEmpty()) {
+            return Map.of();
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, entityClass);
+        ops.insert(entities);
+        return execute(ops, itemIndexes, null);
+    }
+
+    /**
+     * Comme {@link #insert(Class, List, List)}, mais les conflits de clé
+     * unique (code 11000) sont rangés dans {@code duplicates} et non parmi
+     * les erreurs : un import rejoué retrouve ses documents déjà insérés.
+     */
+    public <T> Map<Integer, String> insert(Class<T> entityClass, List<T> entities, List<Integer> itemIndexes,
+                                           Map<Integer, String> duplicates) {
+        if (entities.isEmpty()) {
+            return Map.of();
+        }
+        BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, entityClass);
+        ops.insert(entities);
+        return execute(ops, itemIndexes, duplicates);
+    }
+
+    private Map<Integer, String> execute(BulkOperations ops, List<Integer> itemIndexes, Map<Integer, String> duplicates) {
+        try {
+            ops.execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> errors = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                Map<Integer, String> target = duplicates != null && error.getCode() == DUPLICATE_KEY ? duplicates : errors;
+                target.put(itemIndexes.get(error.getIndex()), error.getMessage());
+            }
+            return errors;
+        }
+    }
+}
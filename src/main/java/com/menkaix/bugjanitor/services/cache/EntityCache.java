@@ -0,0 +1,139 @@
+package com.menkaix.bugjanitor.services.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Cache en lecture traversante, borné en taille (LRU) et en durée de vie.
+ *
+ * Les valeurs sont copiées à l'entrée et à la sortie : un appelant qui modifie
+ * l'entité reçue ne modifie pas la version en cache. Les absences ne sont pas
+ * mises en cache, afin qu'une création soit visible immédiatement.
+ *
+ * Une invalidation pendant un chargement empêche ce chargement d'être mis en
+ * cache : sans cela, une lecture lancée avant une écriture pourrait réinsérer
+ * l'ancienne valeur juste après l'invalidation.
+ */
+public class EntityCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copier;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    EntityCache(String name, int maxEntries, long ttlMillis, UnaryOperator<V> copier) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.copier = copier;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retourne la valeur en cache ou la charge via {@code loader}.
+     */
+    public Optional<V> get(K key, Supplier<Optional<V>> loader) {
+        if (key == null || maxEntries <= 0) {
+            return loader.get();
+        }
+
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (now - entry.loadedAt() < ttlNanos) {
+                    hits.increment();
+                    return Optional.of(copier.apply(entry.value()));
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        Optional<V> loaded = loader.get();
+        loaded.ifPresent(value -> put(key, value, loadGeneration));
+        return loaded.map(copier);
+    }
+
+    public void invalidate(K key) {
+        if (key == null) {
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", size());
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMs", ttlNanos / 1_000_000L);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", total == 0 ? 0.0 : (double) hitCount / total);
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    private void put(K key, V value, long loadGeneration) {
+        synchronized (entries) {
+            if (generation.get() != loadGeneration) {
+                return;
+            }
+            entries.put(key, new Entry<>(copier.apply(value), System.nanoTime()));
+            Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.menkaix.bugjanitor.services.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fabrique et recense les caches d'entités, pour exposer leurs métriques.
+ */
+@Component
+public class EntityCacheRegistry {
+
+    private final Map<String, EntityCache<?, ?>> caches = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public EntityCacheRegistry(@Value("${app.cache.enabled:true}") boolean enabled,
+                               @Value("${app.cache.max-entries:10000}") int maxEntries,
+                               @Value("${app.cache.ttl-ms:60000}") long ttlMillis) {
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Crée un cache nommé ; désactivé (taille 0) si {@code app.cache.enabled}
+     * est faux.
+     */
+    public <K, V> EntityCache<K, V> create(String name, UnaryOperator<V> copier) {
+        EntityCache<K, V> cache = new EntityCache<>(name, enabled ? maxEntries : 0, ttlMillis, copier);
+        caches.put(name, cache);
+        return cache;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        caches.keySet().stream().sorted().forEach(name -> stats.put(name, caches.get(name).stats()));
+        return stats;
+    }
+
+    public void invalidateAll() {
+        caches.values().forEach(EntityCache::invalidateAll);
+    }
+}
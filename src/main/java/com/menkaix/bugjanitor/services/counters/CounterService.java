@@ -0,0 +1,254 @@
+package com.menkaix.bugjanitor.services.counters;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.menkaix.bugjanitor.models.documents.Project;
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.TaskChangeListener;
+
+/**
+ * Compteurs maintenus au fil des écritures, pour servir les métriques sans
+ * parcourir les collections.
+ *
+ * Chaque compteur est un document {@code {_id: clé, value: n}} de la
+ * collection {@code counters} : total des tâches, tâches par statut et par
+ * projet, tâches ouvertes par jour d'échéance (UTC), total des projets. Une
+ * écriture de tâche se traduit par un seul {@code bulkWrite} de {@code $inc}
+ * sur les clés dont elle entre ou sort.
+ *
+ * Les compteurs sont mis à jour après l'écriture de la tâche, hors
+ * transaction : un arrêt entre les deux les décale. La réconciliation
+ * ({@code app.counters.reconcile-cron}, et au démarrage si la collection est
+ * vide) les recalcule entièrement ; les écritures concurrentes d'une
+ * réconciliation peuvent rester décalées jusqu'à la suivante.
+ */
+@Service
+public class CounterService implements TaskChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(CounterService.class);
+
+    public static final String COLLECTION = "counters";
+
+    public static final String TASKS_TOTAL = "tasks.total";
+    public static final String TASKS_BY_STATUS = "tasks.status.";
+    public static final String TASKS_BY_PROJECT = "tasks.project.";
+    public static final String OPEN_TASKS_BY_DUE_DAY = "tasks.openDue.";
+    public static final String PROJECTS_TOTAL = "projects.total";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.counters.enabled:true}")
+    private boolean enabled;
+
+    public CounterService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileIfMissing() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("counters-reconcile").start(() -> {
+            try {
+                if (!mongoTemplate.exists(new Query(Criteria.where("_id").is(TASKS_TOTAL)), COLLECTION)) {
+                    reconcile();
+                }
+            } catch (Exception e) {
+                log.warn("Initialisation des compteurs impossible: {}", e.getMessage());
+            }
+        });
+    }
+
+    @Scheduled(cron = "${app.counters.reconcile-cron:0 0 3 * * *}")
+    public void scheduledReconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Réconciliation des compteurs en échec: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        Map<String, Integer> deltas = new HashMap<>();
+        keysOf(task).forEach(key -> deltas.merge(key, 1, Integer::sum));
+        apply(deltas);
+    }
+
+    /**
+     * Un seul {@code bulkWrite} pour tout le lot : un import de N tâches ne
+     * coûte pas N allers-retours de compteurs.
+     */
+    @Override
+    public void onCreatedAll(List<Task> tasks) {
+        Map<String, Integer> deltas = new HashMap<>();
+        for (Task task : tasks) {
+            keysOf(task).forEach(key -> deltas.merge(key, 1, Integer::sum));
+        }
+        apply(deltas);
+    }
+
+    @Override
+    public void onUpdated(Task before, Task after) {
+        Map<String, Integer> deltas = new HashMap<>();
+        keysOf(before).forEach(key -> deltas.merge(key, -1, Integer::sum));
+        keysOf(after).forEach(key -> deltas.merge(key, 1, Integer::sum));
+        apply(deltas);
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        Map<String, Integer> deltas = new HashMap<>();
+        keysOf(task).forEach(key -> deltas.merge(key, -1, Integer::sum));
+        apply(deltas);
+    }
+
+    public void projectCreated() {
+        apply(Map.of(PROJECTS_TOTAL, 1));
+    }
+
+    public void projectDeleted() {
+        apply(Map.of(PROJECTS_TOTAL, -1));
+    }
+
+    public long get(String key) {
+        Document counter = mongoTemplate.findById(key, Document.class, COLLECTION);
+        return counter == null ? 0 : ((Number) counter.get("value")).longValue();
+    }
+
+    /**
+     * Compteurs non nuls dont la clé commence par {@code prefix}, indexés par
+     * la fin de la clé ({@code tasks.status.} donne les statuts).
+     */
+    public Map<String, Long> byPrefix(String prefix) {
+        Query query = new Query(Criteria.where("_id").regex("^" + Pattern.quote(prefix)));
+        Map<String, Long> counters = new TreeMap<>();
+        for (Document counter : mongoTemplate.find(query, Document.class, COLLECTION)) {
+            long value = ((Number) counter.get("value")).longValue();
+            if (value != 0) {
+                counters.put(counter.getString("_id").substring(prefix.length()), value);
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Tâches ouvertes dont l'échéance est passée : somme des jours d'échéance
+     * antérieurs à aujourd'hui, plus le compte (indexé) des échéances
+     * d'aujourd'hui déjà dépassées.
+     */
+    public long overdue() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        long overdue = 0;
+        for (Map.Entry<String, Long> bucket : byPrefix(OPEN_TASKS_BY_DUE_DAY).entrySet()) {
+            if (LocalDate.parse(bucket.getKey()).isBefore(today)) {
+                overdue += bucket.getValue();
+            }
+        }
+        Date startOfDay = Date.from(today.atStartOfDay(ZoneOffset.UTC).toInstant());
+        overdue += mongoTemplate.count(new Query(Criteria.where("deadLine").gte(startOfDay).lt(new Date())
+                .and("doneDate").exists(false)), Task.class);
+        return overdue;
+    }
+
+    /**
+     * Recalcule tous les compteurs depuis les collections et remplace les
+     * valeurs courantes ; retourne le nombre de compteurs écrits.
+     */
+    public int reconcile() {
+        long start = System.currentTimeMillis();
+        Map<String, Long> fresh = new HashMap<>();
+        fresh.put(TASKS_TOTAL, mongoTemplate.count(new Query(), Task.class));
+        fresh.put(PROJECTS_TOTAL, mongoTemplate.count(new Query(), Project.class));
+        groupCount(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("status").ne(null)),
+                Aggregation.group("status").count().as("count")), TASKS_BY_STATUS, fresh);
+        groupCount(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("projectCode").ne(null)),
+                Aggregation.group("projectCode").count().as("count")), TASKS_BY_PROJECT, fresh);
+        groupCount(Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("deadLine").ne(null).and("doneDate").exists(false)),
+                Aggregation.project().and(DateOperators.DateToString.dateOf("deadLine").toString("%Y-%m-%d")).as("day"),
+                Aggregation.group("day").count().as("count")), OPEN_TASKS_BY_DUE_DAY, fresh);
+
+        BulkOperations ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, COLLECTION);
+        fresh.forEach((key, value) -> ops.upsert(new Query(Criteria.where("_id").is(key)), new Update().set("value", value)));
+        ops.execute();
+        mongoTemplate.remove(new Query(Criteria.where("_id").nin(new ArrayList<>(fresh.keySet()))), COLLECTION);
+
+        log.info("Compteurs réconciliés: {} clés en {} ms", fresh.size(), System.currentTimeMillis() - start);
+        return fresh.size();
+    }
+
+    private void groupCount(Aggregation aggregation, String prefix, Map<String, Long> fresh) {
+        for (Document group : mongoTemplate.aggregate(aggregation, Task.class, Document.class).getMappedResults()) {
+            Object key = group.get("_id");
+            if (key != null) {
+                fresh.put(prefix + key, ((Number) group.get("count")).longValue());
+            }
+        }
+    }
+
+    private void apply(Map<String, Integer> deltas) {
+        if (!enabled) {
+            return;
+        }
+        BulkOperations ops = null;
+        for (Map.Entry<String, Integer> delta : deltas.entrySet()) {
+            if (delta.getValue() == 0) {
+                continue;
+            }
+            if (ops == null) {
+                ops = mongoTemplate.bulkOps(BulkMode.UNORDERED, COLLECTION);
+            }
+            ops.upsert(new Query(Criteria.where("_id").is(delta.getKey())), new Update().inc("value", delta.getValue()));
+        }
+        if (ops != null) {
+            ops.execute();
+        }
+    }
+
+    private static List<String> keysOf(Task task) {
+        List<String> keys = new ArrayList<>(4);
+        keys.add(TASKS_TOTAL);
+        if (task.getStatus() != null) {
+            keys.add(TASKS_BY_STATUS + task.getStatus());
+        }
+        if (task.getProjectCode() != null) {
+            keys.add(TASKS_BY_PROJECT + task.getProjectCode());
+        }
+        if (task.getDeadLine() != null && task.getDoneDate() == null) {
+            keys.add(OPEN_TASKS_BY_DUE_DAY + task.getDeadLine().toInstant().atZone(ZoneOffset.UTC).toLocalDate());
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,17 @@
+package com.menkaix.bugjanitor.services.dashboard;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+
+/**
+ * Vue d'ensemble d'un projet : compteurs et quelques tâches représentatives
+ * (champs de résumé seulement).
+ */
+public record ProjectDashboard(String projectCode, String projectName, Date generatedAt,
+                               long total, long open, long overdue, long upcoming,
+                               Map<String, Long> byStatus, Map<String, Long> byAssignee,
+                               List<Task> oldestOpen, List<Task> recentlyDone) {
+}
@@ -0,0 +1,122 @@
+package com.menkaix.bugjanitor.services.dashboard;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.menkaix.bugjanitor.models.documents.Project;
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.ProjectService;
+
+/**
+ * Tableau de bord d'un projet, calculé en une seule agrégation.
+ *
+ * Un {@code $match} sur {@code projectCode} (index {@code task_projectCode})
+ * puis un {@code $facet} : chaque facette (compteurs, répartitions, tâches
+ * les plus anciennes et dernières terminées) relit les tâches du projet en
+ * mémoire côté serveur, et seul le résumé revient au client. Les définitions
+ * de « en retard » et « à venir » sont celles des ressources
+ * {@code tasks/overdue} et {@code tasks/upcoming}.
+ */
+@Service
+public class ProjectDashboardService {
+
+    public static final int DEFAULT_LIMIT = 5;
+    public static final int MAX_LIMIT = 50;
+
+    private static final long UPCOMING_WINDOW_MILLIS = 7L * 24 * 60 * 60 * 1000;
+    private static final String[] ITEM_FIELDS = { "projectCode", "title", "status", "assignee", "creationDate",
+            "deadLine", "doneDate" };
+
+    private final MongoTemplate mongoTemplate;
+    private final ProjectService projectService;
+
+    public ProjectDashboardService(MongoTemplate mongoTemplate, ProjectService projectService) {
+        this.mongoTemplate = mongoTemplate;
+        this.projectService = projectService;
+    }
+
+    /**
+     * Tableau de bord du projet {@code projectCode}, ou vide si le projet
+     * n'existe pas.
+     *
+     * @param limit nombre de tâches par liste, ramené entre 1 et {@link #MAX_LIMIT}
+     */
+    public Optional<ProjectDashboard> dashboard(String projectCode, int limit) {
+        Optional<Project> project = projectService.findByProjectCode(projectCode);
+        if (project.isEmpty()) {
+            return Optional.empty();
+        }
+        int items = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        Date now = new Date();
+        Date horizon = new Date(now.getTime() + UPCOMING_WINDOW_MILLIS);
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("projectCode").is(projectCode)),
+                Aggregation.facet(count()).as("total")
+                        .and(Aggregation.match(open()), count()).as("open")
+                        .and(Aggregation.match(open().and("deadLine").lt(now)), count()).as("overdue")
+                        .and(Aggregation.match(open().and("deadLine").gte(now).lte(horizon)), count()).as("upcoming")
+                        .and(Aggregation.group("status").count().as("count")).as("byStatus")
+                        .and(Aggregation.group("assignee").count().as("count")).as("byAssignee")
+                        .and(Aggregation.match(open()),
+                                Aggregation.sort(Sort.by("creationDate", "_id")),
+                                Aggregation.limit(items),
+                                Aggregation.project(ITEM_FIELDS)).as("oldestOpen")
+                        .and(Aggregation.match(Criteria.where("doneDate").exists(true)),
+                                Aggregation.sort(Sort.by(Sort.Direction.DESC, "doneDate", "_id")),
+                                Aggregation.limit(items),
+                                Aggregation.project(ITEM_FIELDS)).as("recentlyDone"));
+
+        // Collection nommée : pas de résolution des champs des facettes contre Task
+        Document result = mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(Task.class),
+                Document.class).getUniqueMappedResult();
+        if (result == null) {
+            result = new Document();
+        }
+
+        return Optional.of(new ProjectDashboard(projectCode, project.get().getProjectName(), now,
+                count(result, "total"), count(result, "open"), count(result, "overdue"), count(result, "upcoming"),
+                groups(result, "byStatus", "none"), groups(result, "byAssignee", "unassigned"),
+                tasks(result, "oldestOpen"), tasks(result, "recentlyDone")));
+    }
+
+    private static Criteria open() {
+        return Criteria.where("doneDate").exists(false);
+    }
+
+    private static AggregationOperation count() {
+        return Aggregation.count().as("count");
+    }
+
+    private static long count(Document result, String facet) {
+        List<Document> documents = result.getList(facet, Document.class, List.of());
+        return documents.isEmpty() ? 0 : ((Number) documents.get(0).get("count")).longValue();
+    }
+
+    private static Map<String, Long> groups(Document result, String facet, String nullKey) {
+        Map<String, Long> groups = new LinkedHashMap<>();
+        result.getList(facet, Document.class, List.of()).stream()
+                .sorted((a, b) -> Long.compare(((Number) b.get("count")).longValue(),
+                        ((Number) a.get("count")).longValue()))
+                .forEach(group -> groups.put(group.get("_id") == null ? nullKey : group.get("_id").toString(),
+                        ((Number) group.get("count")).longValue()));
+        return groups;
+    }
+
+    private List<Task> tasks(Document result, String facet) {
+        return result.getList(facet, Document.class, List.of()).stream()
+                .map(document -> mongoTemplate.getConverter().read(Task.class, document))
+                .toList();
+    }
+}
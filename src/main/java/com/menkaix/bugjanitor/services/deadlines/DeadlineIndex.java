@@ -0,0 +1,329 @@
+package com.menkaix.bugjanitor.services.deadlines;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.TaskChangeListener;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Tâches ouvertes ({@code doneDate} absente) ayant une échéance, rangées par
+ * échéance, pour servir les listes des tâches en retard et à venir sans
+ * requête : O(log n + k) pour k tâches retournées.
+ *
+ * Comme {@link com.menkaix.bugjanitor.search.TaskSearchIndex}, l'index est
+ * chargé depuis MongoDB au démarrage (en arrière-plan) puis tenu à jour par
+ * les écritures de {@code TaskService} ; tant qu'il n'est pas prêt,
+ * {@link #isReady()} retourne false et les appelants interrogent la base.
+ *
+ * Chaque échéance à venir est aussi programmée dans une {@link TimerWheel} :
+ * au passage de l'échéance (à {@code app.deadlines.tick-ms} près), les
+ * {@link DeadlineListener} sont prévenus que la tâche est en retard. Les
+ * échéances déjà passées au chargement ne sont pas signalées.
+ */
+@Service
+public class DeadlineIndex implements TaskChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineIndex.class);
+
+    public static final long UPCOMING_MILLIS = 7L * 24 * 60 * 60 * 1000;
+
+    // Borne supérieure des identifiants, pour inclure toute la dernière milliseconde
+    private static final String LAST_ID = String.valueOf(Character.MAX_VALUE);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectProvider<DeadlineListener> listeners;
+    private final boolean enabled;
+    private final long tickMillis;
+    private final long retryMillis;
+
+    private volatile NavigableMap<Key, Task> byDeadline = new ConcurrentSkipListMap<>();
+    private Map<String, Key> keys = new HashMap<>();
+    private TimerWheel wheel;
+    private volatile boolean ready = false;
+    private volatile boolean stopped = false;
+
+    // Écritures reçues pendant un chargement, rejouées après la bascule
+    private Map<String, Task> pendingDuringRebuild;
+
+    public DeadlineIndex(MongoTemplate mongoTemplate, ObjectProvider<DeadlineListener> listeners,
+                         @Value("${app.deadlines.enabled:true}") boolean enabled,
+                         @Value("${app.deadlines.tick-ms:1000}") long tickMillis,
+                         @Value("${app.deadlines.retry-ms:30000}") long retryMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.listeners = listeners;
+        this.enabled = enabled;
+        this.tickMillis = tickMillis;
+        this.retryMillis = retryMillis;
+        this.wheel = new TimerWheel(System.currentTimeMillis(), tickMillis);
+    }
+
+    /**
+     * Premier chargement, retenté toutes les {@code app.deadlines.retry-ms}
+     * jusqu'à réussite (base indisponible au démarrage) ; la roue ne démarre
+     * qu'ensuite.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("deadline-index-rebuild").start(() -> {
+            while (!stopped) {
+                try {
+                    rebuild();
+                    Thread.ofPlatform().daemon().name("deadline-wheel").start(this::runWheel);
+                    return;
+                } catch (Exception e) {
+                    log.warn("Chargement de l'index des échéances impossible, nouvel essai dans {} ms: {}",
+                            retryMillis, e.getMessage());
+                }
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Recharge les tâches ouvertes à échéance depuis la base et les
+     * substitue à l'index courant.
+     */
+    public int rebuild() {
+        synchronized (this) {
+            pendingDuringRebuild = new HashMap<>();
+        }
+
+        long start = System.currentTimeMillis();
+        NavigableMap<Key, Task> freshEntries = new ConcurrentSkipListMap<>();
+        Map<String, Key> freshKeys = new HashMap<>();
+        Query query = new Query(Criteria.where("deadLine").exists(true).and("doneDate").exists(false));
+        try (Stream<Task> tasks = mongoTemplate.stream(query, Task.class)) {
+            tasks.filter(task -> task.getDeadLine() != null).forEach(task -> {
+                Key key = new Key(task.getDeadLine().getTime(), task.getId());
+                freshEntries.put(key, task);
+                freshKeys.put(task.getId(), key);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            TimerWheel freshWheel = new TimerWheel(now, tickMillis);
+            freshKeys.forEach((id, key) -> {
+                if (key.deadline() > now) {
+                    freshWheel.schedule(id, key.deadline());
+                }
+            });
+            byDeadline = freshEntries;
+            keys = freshKeys;
+            wheel = freshWheel;
+            pendingDuringRebuild.forEach((id, task) -> {
+                if (task == null) {
+                    remove(id);
+                } else {
+                    put(task);
+                }
+            });
+            pendingDuringRebuild = null;
+            ready = true;
+        }
+
+        log.info("Index des échéances chargé: {} tâches ouvertes en {} ms", freshEntries.size(),
+                System.currentTimeMillis() - start);
+        return freshEntries.size();
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public int size() {
+        return byDeadline.size();
+    }
+
+    /**
+     * Tâches ouvertes dont l'échéance est passée, de la plus ancienne à la
+     * plus récente.
+     */
+    public List<Task> overdue(FieldProjection projection) {
+        long now = System.currentTimeMillis();
+        return copies(byDeadline.headMap(new Key(now, ""), false).values(), projection);
+    }
+
+    /**
+     * Tâches ouvertes dont l'échéance tombe dans les sept prochains jours,
+     * par échéance croissante.
+     */
+    public List<Task> upcoming(FieldProjection projection) {
+        long now = System.currentTimeMillis();
+        return copies(byDeadline.subMap(new Key(now, ""), true, new Key(now + UPCOMING_MILLIS, LAST_ID), true)
+                .values(), projection);
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        write(task.getId(), task);
+    }
+
+    @Override
+    public void onUpdated(Task before, Task after) {
+        write(after.getId(), after);
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        write(task.getId(), null);
+    }
+
+    private synchronized void write(String id, Task task) {
+        if (!enabled) {
+            return;
+        }
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.put(id, task);
+        }
+        if (task == null) {
+            remove(id);
+        } else {
+            put(task);
+        }
+    }
+
+    private void put(Task task) {
+        remove(task.getId());
+        if (task.getDeadLine() == null || task.getDoneDate() != null) {
+            return;
+        }
+        Key key = new Key(task.getDeadLine().getTime(), task.getId());
+        byDeadline.put(key, new Task(task));
+        keys.put(task.getId(), key);
+        if (key.deadline() > System.currentTimeMillis()) {
+            wheel.schedule(task.getId(), key.deadline());
+        }
+    }
+
+    private void remove(String id) {
+        Key key = keys.remove(id);
+        if (key != null) {
+            byDeadline.remove(key);
+            wheel.cancel(id);
+        }
+    }
+
+    private void runWheel() {
+        while (!stopped) {
+            List<Task> overdue = new ArrayList<>();
+            long next;
+            synchronized (this) {
+                long now = System.currentTimeMillis();
+                wheel.advance(now, id -> {
+                    Key key = keys.get(id);
+                    // Garde-fou : une échéance reportée a été reprogrammée par put()
+                    if (key != null && key.deadline() <= now) {
+                        overdue.add(new Task(byDeadline.get(key)));
+                    }
+                });
+                next = wheel.nextTickMillis();
+            }
+            for (Task task : overdue) {
+                listeners.orderedStream().forEach(listener -> {
+                    try {
+                        listener.onOverdue(task);
+                    } catch (Exception e) {
+                        log.warn("Listener {} en échec: {}", listener.getClass().getSimpleName(), e.getMessage());
+                    }
+                });
+            }
+            long wait = next - System.currentTimeMillis();
+            if (wait > 0) {
+                try {
+                    Thread.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static List<Task> copies(Collection<Task> tasks, FieldProjection projection) {
+        List<Task> result = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            result.add(project(task, projection));
+        }
+        return result;
+    }
+
+    /**
+     * Copie restreinte aux champs de la projection, comme la lecture
+     * projetée de MongoDB (les autres champs restent null).
+     */
+    private static Task project(Task task, FieldProjection projection) {
+        if (projection.isFull()) {
+            return new Task(task);
+        }
+        Task copy = new Task();
+        copy.setCreationDate(null);
+        for (String field : projection.fields()) {
+            switch (field) {
+                case "id" -> copy.setId(task.getId());
+                case "projectCode" -> copy.setProjectCode(task.getProjectCode());
+                case "title" -> copy.setTitle(task.getTitle());
+                case "description" -> copy.setDescription(task.getDescription());
+                case "status" -> copy.setStatus(task.getStatus());
+                case "creationDate" -> copy.setCreationDate(task.getCreationDate());
+                case "updateDate" -> copy.setUpdateDate(task.getUpdateDate());
+                case "doneDate" -> copy.setDoneDate(task.getDoneDate());
+                case "plannedStart" -> copy.setPlannedStart(task.getPlannedStart());
+                case "deadLine" -> copy.setDeadLine(task.getDeadLine());
+                case "estimate" -> copy.setEstimate(task.getEstimate());
+                case "trackingReference" -> copy.setTrackingReference(task.getTrackingReference());
+                case "assignee" -> copy.setAssignee(task.getAssignee());
+                default -> throw new IllegalArgumentException("Champ inconnu: " + field);
+            }
+        }
+        return copy;
+    }
+
+    private record Key(long deadline, String id) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int byDeadline = Long.compare(deadline, other.deadline);
+            return byDeadline != 0 ? byDeadline : id.compareTo(other.id);
+        }
+    }
+}
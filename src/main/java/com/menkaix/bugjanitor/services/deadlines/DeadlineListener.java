@@ -0,0 +1,15 @@
+package com.menkaix.bugjanitor.services.deadlines;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+
+/**
+ * Notifié par {@link DeadlineIndex} quand l'échéance d'une tâche ouverte
+ * passe, sans écriture associée.
+ *
+ * Appelé sur le thread de la roue : les implémentations rendent la main
+ * immédiatement.
+ */
+public interface DeadlineListener {
+
+    void onOverdue(Task task);
+}
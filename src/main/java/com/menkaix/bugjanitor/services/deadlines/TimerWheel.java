@@ -0,0 +1,175 @@
+package com.menkaix.bugjanitor.services.deadlines;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Roue temporelle hiérarchique : quatre niveaux de 64 cases, d'une graduation
+ * ({@code tickMillis}) pour le premier à 64³ graduations pour le dernier.
+ *
+ * Programmer ou annuler une échéance coûte O(1). À chaque graduation, seule
+ * la case courante du premier niveau est parcourue ; toutes les 64
+ * graduations, une case du niveau supérieur est redistribuée vers les
+ * niveaux inférieurs. Une échéance au-delà de la portée de la roue (64⁴
+ * graduations, 194 jours à la seconde) est rangée au dernier niveau puis
+ * reclassée à son passage.
+ *
+ * Les échéances sont identifiées par une clé : reprogrammer une clé remplace
+ * l'échéance précédente. Non synchronisée.
+ */
+final class TimerWheel {
+
+    private static final int BITS = 6;
+    private static final int SIZE = 1 << BITS;
+    private static final int MASK = SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (BITS * LEVELS);
+
+    private final long origin;
+    private final long tickMillis;
+    private final Node[][] slots = new Node[LEVELS][SIZE];
+    private final Map<String, Node> nodes = new HashMap<>();
+    private long currentTick;
+
+    TimerWheel(long originMillis, long tickMillis) {
+        this.origin = originMillis;
+        this.tickMillis = tickMillis;
+    }
+
+    /**
+     * Programme {@code key} à {@code dueMillis} ; une échéance déjà passée
+     * expire à la graduation suivante.
+     */
+    void schedule(String key, long dueMillis) {
+        cancel(key);
+        // Graduation atteinte au moment de l'échéance ou juste après
+        long dueTick = Math.floorDiv(dueMillis - origin + tickMillis - 1, tickMillis);
+        Node node = new Node(key, dueTick);
+        nodes.put(key, node);
+        place(node);
+    }
+
+    boolean cancel(String key) {
+        Node node = nodes.remove(key);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Avance jusqu'à {@code nowMillis} en passant chaque graduation et
+     * transmet les clés échues, graduation par graduation.
+     */
+    void advance(long nowMillis, Consumer<String> expired) {
+        long target = Math.floorDiv(nowMillis - origin, tickMillis);
+        while (currentTick < target) {
+            tick(expired);
+        }
+    }
+
+    /**
+     * Instant de la prochaine graduation.
+     */
+    long nextTickMillis() {
+        return origin + (currentTick + 1) * tickMillis;
+    }
+
+    private void tick(Consumer<String> expired) {
+        currentTick++;
+        // Redistribution des niveaux supérieurs quand le niveau inférieur boucle
+        for (int level = 1; level < LEVELS; level++) {
+            if (((currentTick >> (BITS * (level - 1))) & MASK) != 0) {
+                break;
+            }
+            redistribute(detach(level, (int) ((currentTick >> (BITS * level)) & MASK)), expired);
+        }
+        redistribute(detach(0, (int) (currentTick & MASK)), expired);
+    }
+
+    private void redistribute(Node node, Consumer<String> expired) {
+        while (node != null) {
+            Node next = node.next;
+            if (node.dueTick <= currentTick) {
+                nodes.remove(node.key);
+                expired.accept(node.key);
+            } else {
+                place(node);
+            }
+            node = next;
+        }
+    }
+
+    private void place(Node node) {
+        long delta = node.dueTick - currentTick;
+        long tick = node.dueTick;
+        if (delta <= 0) {
+            tick = currentTick + 1;
+            delta = 1;
+        } else if (delta >= SPAN) {
+            // Hors de portée : dernier niveau, reclassé à son passage
+            tick = currentTick + SPAN - 1;
+            delta = SPAN - 1;
+        }
+        int level = 0;
+        while (delta >= 1L << (BITS * (level + 1))) {
+            level++;
+        }
+        int index = (int) ((tick >> (BITS * level)) & MASK);
+        node.level = level;
+        node.index = index;
+        node.prev = null;
+        node.next = slots[level][index];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        slots[level][index] = node;
+    }
+
+    private Node detach(int level, int index) {
+        Node head = slots[level][index];
+        slots[level][index] = null;
+        for (Node node = head; node != null; node = node.next) {
+            node.level = -1;
+        }
+        return head;
+    }
+
+    private void unlink(Node node) {
+        if (node.level < 0) {
+            return;
+        }
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            slots[node.level][node.index] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+        node.level = -1;
+    }
+
+    private static final class Node {
+
+        private final String key;
+        private final long dueTick;
+        private int level = -1;
+        private int index;
+        private Node prev;
+        private Node next;
+
+        private Node(String key, long dueTick) {
+            this.key = key;
+            this.dueTick = dueTick;
+        }
+    }
+}
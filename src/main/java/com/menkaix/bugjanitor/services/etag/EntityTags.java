@@ -0,0 +1,138 @@
+package com.menkaix.bugjanitor.services.etag;
+
+import java.util.Date;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * ETags des entités et des listes, pour les requêtes conditionnelles REST.
+ *
+ * Une entité porte un ETag fort tiré de sa version ({@code "v3"}), ou à
+ * défaut de sa date de modification ({@code "u1718000000000"}) pour les
+ * documents antérieurs au champ {@code version}. Une réponse
+ * {@link ResponseEntity} qui porte cet ETag est transformée par Spring MVC en
+ * {@code 304} sans corps si {@code If-None-Match} correspond.
+ *
+ * Une liste porte un ETag faible calculé sur toute la collection : nombre de
+ * documents, plus grande date de modification et plus grand identifiant (qui
+ * trahit une création compensant une suppression). Trois lectures indexées,
+ * faites avant la requête elle-même : une liste inchangée n'est ni lue ni
+ * sérialisée.
+ */
+@Component
+public class EntityTags {
+
+    /** Filtres relatifs à l'heure courante : leur résultat change sans écriture. */
+    private static final Pattern RELATIVE_DATE = Pattern.compile("\\bnow\\b", Pattern.CASE_INSENSITIVE);
+
+    private final MongoTemplate mongoTemplate;
+
+    public EntityTags(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * ETag fort (entre guillemets) d'une entité, ou {@code null} si elle n'a
+     * ni version ni date de modification.
+     */
+    public static String of(Long version, Date updateDate) {
+        if (version != null) {
+            return "\"v" + version + "\"";
+        }
+        if (updateDate != null) {
+            return "\"u" + updateDate.getTime() + "\"";
+        }
+        return null;
+    }
+
+    /**
+     * {@code 200} avec l'ETag de l'entité, ou {@code 404}.
+     */
+    public static <T> ResponseEntity<T> ok(Optional<T> entity, Function<T, String> tagOf) {
+        return entity.map(found -> ResponseEntity.ok().eTag(tagOf.apply(found)).body(found))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Version à exiger d'après {@code If-Match}, ou {@code fallback} (version
+     * fournie dans le corps) si l'en-tête est absent. {@code *} n'exige que
+     * l'existence, vérifiée par la mise à jour elle-même.
+     *
+     * @param current état courant, lu seulement pour un ETag sans version
+     * @throws PreconditionFailedException si aucun ETag fort ne correspond
+     */
+    public static <T> Long expectedVersion(String ifMatch, Long fallback, Supplier<Optional<T>> current,
+                                           Function<T, Long> versionOf, Function<T, String> tagOf) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return fallback;
+        }
+        if (ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Optional<T> loaded = null;
+        for (String tag : ifMatch.split(",")) {
+            tag = tag.trim();
+            // Comparaison forte : un ETag faible ne correspond jamais
+            if (tag.startsWith("W/") || tag.length() < 3) {
+                continue;
+            }
+            String value = tag.substring(1, tag.length() - 1);
+            if (value.startsWith("v")) {
+                try {
+                    return Long.parseLong(value.substring(1));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+            }
+            if (loaded == null) {
+                loaded = current.get();
+            }
+            if (loaded.isPresent() && tag.equals(tagOf.apply(loaded.get()))) {
+                return versionOf.apply(loaded.get());
+            }
+        }
+        throw new PreconditionFailedException("Aucun ETag de If-Match ne correspond: " + ifMatch);
+    }
+
+    /**
+     * ETag faible de la collection de {@code entityClass}, ou {@code null}
+     * si le filtre dépend de l'heure courante.
+     */
+    public String collectionTag(Class<?> entityClass, String filter) {
+        return collectionTag(entityClass, filter, null);
+    }
+
+    /**
+     * Comme {@link #collectionTag(Class, String)}, en y ajoutant
+     * {@code qualifier} : état dont dépend la réponse en plus de la
+     * collection (index de recherche qui classe les résultats).
+     */
+    public String collectionTag(Class<?> entityClass, String filter, String qualifier) {
+        if (filter != null && RELATIVE_DATE.matcher(filter).find()) {
+            return null;
+        }
+        String collection = mongoTemplate.getCollectionName(entityClass);
+        long count = mongoTemplate.estimatedCount(collection);
+        Object lastUpdate = last(collection, "updateDate");
+        Object lastId = last(collection, "_id");
+        long updated = lastUpdate instanceof Date date ? date.getTime() : 0;
+        String suffix = qualifier == null ? "" : "-" + qualifier;
+        return "W/\"" + Long.toString(count, 36) + "-" + Long.toString(updated, 36) + "-" + lastId + suffix + "\"";
+    }
+
+    private Object last(String collection, String field) {
+        Query query = new Query().with(Sort.by(Sort.Direction.DESC, field)).limit(1);
+        query.fields().include(field);
+        Document document = mongoTemplate.findOne(query, Document.class, collection);
+        return document == null ? null : document.get(field);
+    }
+}
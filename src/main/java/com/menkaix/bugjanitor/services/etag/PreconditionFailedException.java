@@ -0,0 +1,11 @@
+package com.menkaix.bugjanitor.services.etag;
+
+/**
+ * Un en-tête {@code If-Match} ne correspond pas à l'état courant de l'entité.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,19 @@
+package com.menkaix.bugjanitor.services.events;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Écriture sur une tâche, un projet ou une personne, telle que poussée aux
+ * abonnés : champs de résumé avant et après (null s'ils sont inconnus) et
+ * noms des champs modifiés.
+ *
+ * @param resumeToken jeton à repasser à l'abonnement pour reprendre après
+ *                    cet événement
+ * @param operation   {@code insert}, {@code update}, {@code replace}, {@code delete}
+ *                    ou {@code overdue} (échéance passée, sans écriture)
+ */
+public record ChangeEvent(String resumeToken, String collection, String operation, String id, Date at,
+                          Map<String, Object> before, Map<String, Object> after, List<String> updatedFields) {
+}
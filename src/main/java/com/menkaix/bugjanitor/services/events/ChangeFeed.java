@@ -0,0 +1,405 @@
+package com.menkaix.bugjanitor.services.events;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.TaskChangeListener;
+import com.menkaix.bugjanitor.services.deadlines.DeadlineListener;
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Flux des écritures sur {@code task}, {@code project} et {@code person},
+ * distribué aux abonnements ({@link ChangeSubscription}).
+ *
+ * Source : un change stream sur la base, qui voit aussi les écritures des
+ * autres instances et des outils externes. Il exige un replica set (un seul
+ * nœud suffit, voir {@code docker-compose.replica-set.yml}) ; sur un serveur
+ * autonome le flux se replie sur les écritures de tâches de cette instance
+ * ({@link TaskChangeListener}) et retente le change stream périodiquement.
+ *
+ * Reprise : le jeton du dernier événement lu est enregistré (au plus une
+ * fois par seconde) dans {@code change_feed}, et le flux repart de là après
+ * un redémarrage ou une coupure. Côté client, les derniers événements sont
+ * gardés en mémoire : un abonnement qui repasse le jeton de son dernier
+ * événement reçoit ceux qui ont suivi, ou un signal de trou si le jeton est
+ * sorti du tampon.
+ */
+@Component
+public class ChangeFeed implements TaskChangeListener, DeadlineListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    /** Collections suivies. */
+    public static final List<String> COLLECTIONS = List.of("task", "project", "person");
+
+    /** Champs de résumé transmis, par collection. */
+    static final Map<String, List<String>> SUMMARY_FIELDS = Map.of(
+            "task", List.of("projectCode", "title", "status", "assignee", "deadLine", "doneDate"),
+            "project", List.of("projectCode", "projectName"),
+            "person", List.of("firstName", "lastName", "email"));
+
+    public static final String STATE_COLLECTION = "change_feed";
+
+    private static final String STATE_ID = "resume";
+    private static final int NOT_A_REPLICA_SET = 40573;
+    private static final int HISTORY_LOST = 286;
+    private static final long TOKEN_SAVE_INTERVAL_MILLIS = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final boolean changeStream;
+    private final boolean preImages;
+    private final int replayCapacity;
+    private final long retryMillis;
+
+    private final Map<String, ChangeSubscription> subscriptions = new ConcurrentHashMap<>();
+    private final ArrayDeque<ChangeEvent> replay = new ArrayDeque<>();
+    private final AtomicLong localSequence = new AtomicLong();
+
+    private volatile boolean streaming;
+    private volatile boolean stopped;
+    private BsonDocument resumeToken;
+    private long tokenSavedAt;
+
+    public ChangeFeed(MongoTemplate mongoTemplate,
+                      @Value("${app.events.enabled:true}") boolean enabled,
+                      @Value("${app.events.change-stream:true}") boolean changeStream,
+                      @Value("${app.events.pre-images:false}") boolean preImages,
+                      @Value("${app.events.replay-buffer:1000}") int replayCapacity,
+                      @Value("${app.events.retry-ms:30000}") long retryMillis) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.changeStream = changeStream;
+        this.preImages = preImages;
+        this.replayCapacity = replayCapacity;
+        this.retryMillis = retryMillis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || !changeStream) {
+            return;
+        }
+        Thread.ofPlatform().daemon().name("change-feed").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * {@code change-stream} si le flux suit la base, {@code local} s'il se
+     * limite aux écritures de tâches de cette instance.
+     */
+    public String mode() {
+        return streaming ? "change-stream" : "local";
+    }
+
+    /**
+     * Enregistre l'abonnement ; avec {@code resumeAfter}, lui transmet
+     * d'abord les événements suivants encore en mémoire.
+     *
+     * @return nombre d'événements rejoués, ou -1 si le jeton est inconnu
+     *         (trop ancien) : le client doit relire l'état courant
+     */
+    public int subscribe(ChangeSubscription subscription, String resumeAfter) {
+        synchronized (replay) {
+            int replayed = 0;
+            if (resumeAfter != null && !resumeAfter.isBlank()) {
+                replayed = -1;
+                Iterator<ChangeEvent> events = replay.iterator();
+                while (events.hasNext()) {
+                    if (events.next().resumeToken().equals(resumeAfter)) {
+                        replayed = 0;
+                        break;
+                    }
+                }
+                while (replayed >= 0 && events.hasNext()) {
+                    ChangeEvent event = events.next();
+                    if (subscription.matches(event)) {
+                        subscription.sink().accept(event);
+                        replayed++;
+                    }
+                }
+            }
+            subscriptions.put(subscription.id(), subscription);
+            return replayed;
+        }
+    }
+
+    public boolean unsubscribe(String subscriptionId) {
+        return subscriptions.remove(subscriptionId) != null;
+    }
+
+    public int subscriptionCount() {
+        return subscriptions.size();
+    }
+
+    /*
+     * Repli local : écritures de tâches de cette instance, tant que le change
+     * stream n'est pas ouvert.
+     */
+
+    @Override
+    public void onCreated(Task task) {
+        local("insert", task.getId(), null, summary(task));
+    }
+
+    @Override
+    public void onUpdated(Task before, Task after) {
+        local("update", after.getId(), summary(before), summary(after));
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        local("delete", task.getId(), summary(task), null);
+    }
+
+    /**
+     * Passage d'une échéance : événement {@code overdue} sans écriture, émis
+     * dans les deux modes.
+     */
+    @Override
+    public void onOverdue(Task task) {
+        if (enabled) {
+            Map<String, Object> state = summary(task);
+            publish(new ChangeEvent("local-" + localSequence.incrementAndGet(), "task", "overdue", task.getId(),
+                    new Date(), state, state, null));
+        }
+    }
+
+    private void local(String operation, String id, Map<String, Object> before, Map<String, Object> after) {
+        if (!enabled || streaming) {
+            return;
+        }
+        publish(new ChangeEvent("local-" + localSequence.incrementAndGet(), "task", operation, id, new Date(),
+                before, after, null));
+    }
+
+    private void publish(ChangeEvent event) {
+        synchronized (replay) {
+            if (replay.size() >= replayCapacity) {
+                replay.removeFirst();
+            }
+            replay.addLast(event);
+            for (ChangeSubscription subscription : subscriptions.values()) {
+                if (subscription.matches(event)) {
+                    try {
+                        subscription.sink().accept(event);
+                    } catch (RuntimeException e) {
+                        log.warn("Abonnement {} en échec: {}", subscription.id(), e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    private void run() {
+        resumeToken = loadToken();
+        if (preImages) {
+            enablePreImages();
+        }
+        boolean warned = false;
+        while (!stopped) {
+            try {
+                tail();
+            } catch (MongoCommandException e) {
+                if (e.getErrorCode() == NOT_A_REPLICA_SET) {
+                    if (!warned) {
+                        log.warn("Change streams indisponibles (serveur hors replica set) : flux limité aux "
+                                + "écritures de cette instance, nouvel essai toutes les {} ms", retryMillis);
+                        warned = true;
+                    }
+                } else {
+                    lost(e);
+                }
+                pause(retryMillis);
+            } catch (MongoException e) {
+                lost(e);
+                pause(Math.min(retryMillis, 5000));
+            } catch (RuntimeException e) {
+                log.warn("Flux de changements interrompu: {}", e.getMessage());
+                pause(retryMillis);
+            }
+        }
+    }
+
+    private void lost(MongoException e) {
+        if (e.getCode() == HISTORY_LOST) {
+            // Jeton sorti de l'oplog : reprise à partir de maintenant, les clients verront un trou
+            log.warn("Jeton de reprise expiré, reprise du flux à l'instant présent");
+            resumeToken = null;
+            synchronized (replay) {
+                replay.clear();
+            }
+        } else {
+            log.warn("Flux de changements interrompu, reprise au dernier jeton: {}", e.getMessage());
+        }
+    }
+
+    private void tail() {
+        ChangeStreamIterable<Document> stream = mongoTemplate.getDb()
+                .watch(List.of(Aggregates.match(Filters.in("ns.coll", COLLECTIONS))))
+                .fullDocument(FullDocument.UPDATE_LOOKUP)
+                .maxAwaitTime(1, TimeUnit.SECONDS);
+        if (preImages) {
+            stream.fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE);
+        }
+        if (resumeToken != null) {
+            stream.resumeAfter(resumeToken);
+        }
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            if (!streaming) {
+                log.info("Flux de changements ouvert sur {}", COLLECTIONS);
+            }
+            streaming = true;
+            while (!stopped) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                if (change != null) {
+                    ChangeEvent event = event(change);
+                    if (event != null) {
+                        publish(event);
+                    }
+                }
+                BsonDocument token = cursor.getResumeToken();
+                if (token != null) {
+                    resumeToken = token;
+                    saveToken(false);
+                }
+            }
+            saveToken(true);
+        } finally {
+            streaming = false;
+        }
+    }
+
+    private ChangeEvent event(ChangeStreamDocument<Document> change) {
+        if (change.getNamespace() == null || change.getDocumentKey() == null) {
+            return null;
+        }
+        String collection = change.getNamespace().getCollectionName();
+        BsonValue key = change.getDocumentKey().get("_id");
+        String id = key.isObjectId() ? key.asObjectId().getValue().toHexString()
+                : key.isString() ? key.asString().getValue() : key.toString();
+        List<String> updatedFields = null;
+        if (change.getUpdateDescription() != null && change.getUpdateDescription().getUpdatedFields() != null) {
+            updatedFields = new ArrayList<>(change.getUpdateDescription().getUpdatedFields().keySet());
+        }
+        Date at = change.getWallTime() != null ? new Date(change.getWallTime().getValue())
+                : change.getClusterTime() != null ? new Date(change.getClusterTime().getTime() * 1000L) : new Date();
+        return new ChangeEvent(change.getResumeToken().getString("_data").getValue(), collection,
+                change.getOperationTypeString(), id, at,
+                summary(collection, change.getFullDocumentBeforeChange()),
+                summary(collection, change.getFullDocument()), updatedFields);
+    }
+
+    private static Map<String, Object> summary(String collection, Document document) {
+        if (document == null) {
+            return null;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        for (String field : SUMMARY_FIELDS.get(collection)) {
+            summary.put(field, document.get(field));
+        }
+        return summary;
+    }
+
+    private static Map<String, Object> summary(Task task) {
+        if (task == null) {
+            return null;
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("projectCode", task.getProjectCode());
+        summary.put("title", task.getTitle());
+        summary.put("status", task.getStatus());
+        summary.put("assignee", task.getAssignee());
+        summary.put("deadLine", task.getDeadLine());
+        summary.put("doneDate", task.getDoneDate());
+        return summary;
+    }
+
+    private BsonDocument loadToken() {
+        try {
+            Document state = mongoTemplate.findById(STATE_ID, Document.class, STATE_COLLECTION);
+            return state == null || state.getString("token") == null ? null : BsonDocument.parse(state.getString("token"));
+        } catch (RuntimeException e) {
+            log.warn("Jeton de reprise illisible, flux ouvert à l'instant présent: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void saveToken(boolean force) {
+        long now = System.currentTimeMillis();
+        if (resumeToken == null || (!force && now - tokenSavedAt < TOKEN_SAVE_INTERVAL_MILLIS)) {
+            return;
+        }
+        tokenSavedAt = now;
+        try {
+            mongoTemplate.upsert(new Query(Criteria.where("_id").is(STATE_ID)),
+                    Update.update("token", resumeToken.toJson()).set("updatedAt", new Date()), STATE_COLLECTION);
+        } catch (RuntimeException e) {
+            log.warn("Enregistrement du jeton de reprise impossible: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pré-images (MongoDB 6+) : l'état avant modification permet de signaler
+     * une tâche qui sort du filtre d'un abonné, et de filtrer les suppressions.
+     */
+    private void enablePreImages() {
+        for (String collection : COLLECTIONS) {
+            try {
+                mongoTemplate.getDb().runCommand(new Document("collMod", collection)
+                        .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+            } catch (RuntimeException e) {
+                log.warn("Pré-images non activées sur {}: {}", collection, e.getMessage());
+            }
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.menkaix.bugjanitor.services.events;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Abonnement au flux d'événements : collections suivies et filtres
+ * facultatifs sur {@code projectCode}, {@code status} et {@code assignee}.
+ *
+ * Un filtre ne s'applique qu'aux documents qui portent le champ (un projet
+ * n'a ni statut ni assigné, une personne aucun des trois). Il retient un
+ * événement si l'état avant ou après correspond : une tâche qui quitte le
+ * statut suivi est signalée. Une suppression dont l'état n'est pas connu
+ * (pas de pré-image) est transmise à tous les abonnés de la collection.
+ *
+ * {@code sink} est appelé sur le thread du flux : il doit rendre la main
+ * immédiatement.
+ */
+public record ChangeSubscription(String id, Set<String> collections, String projectCode, String status,
+                                 String assignee, Consumer<ChangeEvent> sink) {
+
+    public boolean matches(ChangeEvent event) {
+        if (!collections.contains(event.collection())) {
+            return false;
+        }
+        if (event.before() == null && event.after() == null) {
+            return true;
+        }
+        return matches(event, "projectCode", projectCode)
+                && matches(event, "status", status)
+                && matches(event, "assignee", assignee);
+    }
+
+    private static boolean matches(ChangeEvent event, String field, String expected) {
+        if (expected == null || !ChangeFeed.SUMMARY_FIELDS.get(event.collection()).contains(field)) {
+            return true;
+        }
+        return has(event.before(), field, expected) || has(event.after(), field, expected);
+    }
+
+    private static boolean has(Map<String, Object> state, String field, String expected) {
+        return state != null && Objects.equals(expected, state.get(field));
+    }
+}
@@ -0,0 +1,10 @@
+package com.menkaix.bugjanitor.services.filter;
+
+/**
+ * Type d'un champ filtrable, qui détermine la conversion des valeurs et les
+ * opérateurs autorisés.
+ */
+public enum FieldType {
+    STRING,
+    DATE
+}
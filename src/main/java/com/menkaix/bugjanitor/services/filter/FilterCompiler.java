@@ -0,0 +1,261 @@
+package com.menkaix.bugjanitor.services.filter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import com.menkaix.bugjanitor.services.filter.FilterNode.And;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Comparison;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Exists;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Operator;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Or;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Parsed;
+import com.menkaix.bugjanitor.services.filter.FilterNode.SortKey;
+
+/**
+ * Compile une expression de filtre en {@link Criteria} MongoDB.
+ *
+ * Une expression est analysée une seule fois en arbre, puis réduite à sa
+ * forme normalisée (les valeurs remplacées par des paramètres). La forme est
+ * validée contre la liste blanche du schéma et compilée en plan ; le plan est
+ * mis en cache par forme, de sorte que deux filtres ne différant que par leurs
+ * valeurs partagent la même compilation.
+ */
+@Component
+public class FilterCompiler {
+
+    private static final Pattern RELATIVE_NOW = Pattern.compile("now(?:([+-])(\\d+)([dhm]))?");
+
+    private final Map<String, CompiledPlan> plansByShape = new ConcurrentHashMap<>();
+    private final Map<String, Bound> boundByExpression;
+
+    @Value("${app.filter.plan-cache-size:256}")
+    private int planCacheSize;
+
+    public FilterCompiler(@Value("${app.filter.expression-cache-size:1024}") int expressionCacheSize) {
+        this.boundByExpression = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bound> eldest) {
+                return size() > expressionCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Compile un filtre pour le schéma donné. Retourne {@code null} si le filtre
+     * est vide.
+     */
+    public CompiledFilter compile(String expression, FilterSchema schema) {
+        if (expression == null || expression.isBlank()) {
+            return null;
+        }
+
+        String cacheKey = schema.name() + "|" + expression.trim();
+        Bound bound = boundByExpression.get(cacheKey);
+        if (bound == null) {
+            Parsed parsed = FilterParser.parse(expression.trim());
+            StringBuilder shape = new StringBuilder(schema.name()).append('|');
+            List<String> rawValues = new ArrayList<>();
+            describe(parsed.root(), shape, rawValues);
+            shape.append("|sort:");
+            parsed.sort().forEach(key -> shape.append(key.ascending() ? '+' : '-').append(key.field()).append(','));
+            bound = new Bound(shape.toString(), parsed, rawValues);
+            boundByExpression.put(cacheKey, bound);
+        }
+
+        Parsed parsed = bound.parsed();
+        CompiledPlan plan = plansByShape.get(bound.shape());
+        if (plan == null) {
+            plan = new CompiledPlan(compileNode(parsed.root(), schema), compileSort(parsed.sort(), schema));
+            if (plansByShape.size() >= planCacheSize) {
+                plansByShape.clear();
+            }
+            plansByShape.put(bound.shape(), plan);
+        }
+
+        Criteria criteria = plan.criteria() == null ? null : plan.criteria().build(bound.rawValues().iterator());
+        return new CompiledFilter(criteria, plan.sort());
+    }
+
+    /**
+     * Nombre de plans compilés en cache (une entrée par forme de filtre).
+     */
+    int cachedPlanCount() {
+        return plansByShape.size();
+    }
+
+    private void describe(FilterNode node, StringBuilder shape, List<String> rawValues) {
+        switch (node) {
+            case null -> shape.append("*");
+            case And and -> describeChildren("and", and.children(), shape, rawValues);
+            case Or or -> describeChildren("or", or.children(), shape, rawValues);
+            case Exists exists -> shape.append(exists.field()).append(exists.exists() ? " exists" : " !exists");
+            case Comparison comparison -> {
+                shape.append(comparison.field()).append(' ').append(comparison.operator().symbol());
+                if (comparison.operator() == Operator.IN) {
+                    shape.append(" (").append(comparison.values().size()).append(')');
+                } else {
+                    shape.append(" ?");
+                }
+                rawValues.addAll(comparison.values());
+            }
+        }
+    }
+
+    private void describeChildren(String name, List<FilterNode> children, StringBuilder shape, List<String> rawValues) {
+        shape.append(name).append('(');
+        for (FilterNode child : children) {
+            describe(child, shape, rawValues);
+            shape.append(',');
+        }
+        shape.append(')');
+    }
+
+    private CriteriaPlan compileNode(FilterNode node, FilterSchema schema) {
+        return switch (node) {
+            case null -> null;
+            case And and -> {
+                List<CriteriaPlan> children = and.children().stream().map(c -> compileNode(c, schema)).toList();
+                yield values -> new Criteria().andOperator(children.stream().map(c -> c.build(values)).toList());
+            }
+            case Or or -> {
+                List<CriteriaPlan> children = or.children().stream().map(c -> compileNode(c, schema)).toList();
+                yield values -> new Criteria().orOperator(children.stream().map(c -> c.build(values)).toList());
+            }
+            case Exists exists -> {
+                schema.typeOf(exists.field());
+                yield values -> Criteria.where(exists.field()).exists(exists.exists());
+            }
+            case Comparison comparison -> compileComparison(comparison, schema);
+        };
+    }
+
+    private CriteriaPlan compileComparison(Comparison comparison, FilterSchema schema) {
+        String field = comparison.field();
+        FieldType type = schema.typeOf(field);
+        Operator operator = comparison.operator();
+
+        if (type == FieldType.STRING && operator != Operator.EQ && operator != Operator.NE && operator != Operator.IN) {
+            throw new IllegalArgumentException("Opérateur " + operator.symbol() + " non applicable au champ texte " + field);
+        }
+
+        if (operator == Operator.IN) {
+            int count = comparison.values().size();
+            return values -> {
+                List<Object> converted = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    converted.add(convert(values.next(), type, field));
+                }
+                return Criteria.where(field).in(converted);
+            };
+        }
+
+        return values -> {
+            Object value = convert(values.next(), type, field);
+            Criteria criteria = Criteria.where(field);
+            return switch (operator) {
+                case EQ -> criteria.is(value);
+                case NE -> criteria.ne(value);
+                case GT -> criteria.gt(value);
+                case GTE -> criteria.gte(value);
+                case LT -> criteria.lt(value);
+                case LTE -> criteria.lte(value);
+                case IN -> throw new IllegalStateException();
+            };
+        };
+    }
+
+    private Sort compileSort(List<SortKey> keys, FilterSchema schema) {
+        if (keys.isEmpty()) {
+            return Sort.unsorted();
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for (SortKey key : keys) {
+            schema.typeOf(key.field());
+            orders.add(key.ascending() ? Sort.Order.asc(key.field()) : Sort.Order.desc(key.field()));
+        }
+        // _id en dernier pour un ordre total et stable
+        orders.add(Sort.Order.asc("id"));
+        return Sort.by(orders);
+    }
+
+    private Object convert(String raw, FieldType type, String field) {
+        if (type == FieldType.STRING) {
+            return raw;
+        }
+        return parseDate(raw, field);
+    }
+
+    /**
+     * Accepte {@code now}, {@code now+7d}/{@code now-2h}/{@code now+30m}, une
+     * date seule (minuit UTC), une date-heure sans fuseau (UTC) ou une
+     * date-heure avec décalage.
+     */
+    static Date parseDate(String raw, String field) {
+        Matcher relative = RELATIVE_NOW.matcher(raw);
+        if (relative.matches()) {
+            long now = System.currentTimeMillis();
+            if (relative.group(1) == null) {
+                return new Date(now);
+            }
+            long amount = Long.parseLong(relative.group(2));
+            long unit = switch (relative.group(3)) {
+                case "d" -> 24L * 60 * 60 * 1000;
+                case "h" -> 60L * 60 * 1000;
+                default -> 60L * 1000;
+            };
+            return new Date(relative.group(1).equals("+") ? now + amount * unit : now - amount * unit);
+        }
+
+        try {
+            if (raw.length() == 10) {
+                return Date.from(LocalDate.parse(raw).atStartOfDay().toInstant(ZoneOffset.UTC));
+            }
+            if (raw.endsWith("Z") || raw.matches(".*[+-]\\d{2}:?\\d{2}$")) {
+                return Date.from(OffsetDateTime.parse(raw).toInstant());
+            }
+            return Date.from(LocalDateTime.parse(raw).toInstant(ZoneOffset.UTC));
+        } catch (DateTimeParseException e) {
+            try {
+                return Date.from(Instant.parse(raw));
+            } catch (DateTimeParseException ignored) {
+                throw new IllegalArgumentException("Date invalide pour " + field + ": " + raw);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CriteriaPlan {
+        Criteria build(Iterator<String> values);
+    }
+
+    private record CompiledPlan(CriteriaPlan criteria, Sort sort) {
+    }
+
+    private record Bound(String shape, Parsed parsed, List<String> rawValues) {
+    }
+
+    /**
+     * Filtre compilé : critère (éventuellement absent) et tri demandé.
+     */
+    public record CompiledFilter(Criteria criteria, Sort sort) {
+    }
+}
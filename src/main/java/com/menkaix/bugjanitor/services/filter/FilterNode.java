@@ -0,0 +1,44 @@
+package com.menkaix.bugjanitor.services.filter;
+
+import java.util.List;
+
+/**
+ * Arbre syntaxique d'une expression de filtre.
+ */
+public sealed interface FilterNode {
+
+    enum Operator {
+        EQ("="), NE("!="), GT(">"), GTE(">="), LT("<"), LTE("<="), IN("in");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String symbol() {
+            return symbol;
+        }
+    }
+
+    record And(List<FilterNode> children) implements FilterNode {
+    }
+
+    record Or(List<FilterNode> children) implements FilterNode {
+    }
+
+    record Comparison(String field, Operator operator, List<String> values) implements FilterNode {
+    }
+
+    record Exists(String field, boolean exists) implements FilterNode {
+    }
+
+    record SortKey(String field, boolean ascending) {
+    }
+
+    /**
+     * Résultat de l'analyse : expression (éventuellement absente) et tri demandé.
+     */
+    record Parsed(FilterNode root, List<SortKey> sort) {
+    }
+}
@@ -0,0 +1,277 @@
+package com.menkaix.bugjanitor.services.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.menkaix.bugjanitor.services.filter.FilterNode.And;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Comparison;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Exists;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Operator;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Or;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Parsed;
+import com.menkaix.bugjanitor.services.filter.FilterNode.SortKey;
+
+/**
+ * Analyseur descendant récursif du langage de filtre.
+ *
+ * <pre>
+ * status:TODO AND (assignee:alice OR assignee:bob)
+ * status in (TODO, IN_PROGRESS) deadLine&gt;=2024-01-01 deadLine&lt;now+7d
+ * doneDate !exists sort:-deadLine,creationDate
+ * </pre>
+ *
+ * Deux termes juxtaposés sont combinés par AND. Une valeur s'étend jusqu'au
+ * prochain espace, virgule ou parenthèse, ce qui autorise les dates ISO-8601
+ * contenant des ':' ; les guillemets permettent les espaces.
+ */
+final class FilterParser {
+
+    private final String input;
+    private int pos = 0;
+    private int depth = 0;
+    private final List<SortKey> sort = new ArrayList<>();
+
+    private FilterParser(String input) {
+        this.input = input;
+    }
+
+    static Parsed parse(String input) {
+        FilterParser parser = new FilterParser(input);
+        parser.skipWhitespace();
+        FilterNode root = parser.atEnd() ? null : parser.parseOr();
+        parser.skipWhitespace();
+        if (!parser.atEnd()) {
+            throw parser.error("fin de l'expression attendue");
+        }
+        return new Parsed(root, List.copyOf(parser.sort));
+    }
+
+    private FilterNode parseOr() {
+        List<FilterNode> children = new ArrayList<>();
+        addIfPresent(children, parseAnd());
+        while (peekKeyword("or")) {
+            readWord();
+            addIfPresent(children, parseAnd());
+        }
+        return combine(children, false);
+    }
+
+    private FilterNode parseAnd() {
+        List<FilterNode> children = new ArrayList<>();
+        addIfPresent(children, parseTerm());
+        while (true) {
+            skipWhitespace();
+            if (atEnd() || peek() == ')' || peekKeyword("or")) {
+                break;
+            }
+            if (peekKeyword("and")) {
+                readWord();
+            }
+            addIfPresent(children, parseTerm());
+        }
+        return combine(children, true);
+    }
+
+    private FilterNode parseTerm() {
+        skipWhitespace();
+        if (atEnd()) {
+            throw error("terme attendu");
+        }
+
+        if (peek() == '(') {
+            pos++;
+            depth++;
+            FilterNode inner = parseOr();
+            skipWhitespace();
+            expect(')');
+            depth--;
+            return inner;
+        }
+
+        String field = readIdentifier();
+        skipWhitespace();
+
+        if (field.equals("sort") && !atEnd() && peek() == ':') {
+            if (depth > 0) {
+                throw error("sort n'est autorisé qu'au premier niveau");
+            }
+            pos++;
+            parseSortList();
+            return null;
+        }
+
+        if (peekKeyword("in")) {
+            readWord();
+            skipWhitespace();
+            expect('(');
+            List<String> values = new ArrayList<>();
+            do {
+                skipWhitespace();
+                values.add(readValue());
+                skipWhitespace();
+            } while (tryConsume(','));
+            expect(')');
+            return new Comparison(field, Operator.IN, values);
+        }
+
+        if (peekKeyword("exists")) {
+            readWord();
+            return new Exists(field, true);
+        }
+        if (input.startsWith("!exists", pos)) {
+            pos += "!exists".length();
+            return new Exists(field, false);
+        }
+
+        Operator operator = readOperator();
+        skipWhitespace();
+        return new Comparison(field, operator, List.of(readValue()));
+    }
+
+    private void parseSortList() {
+        do {
+            skipWhitespace();
+            boolean ascending = true;
+            if (tryConsume('-')) {
+                ascending = false;
+            } else {
+                tryConsume('+');
+            }
+            sort.add(new SortKey(readIdentifier(), ascending));
+        } while (tryConsume(','));
+    }
+
+    private Operator readOperator() {
+        if (input.startsWith(">=", pos)) {
+            pos += 2;
+            return Operator.GTE;
+        }
+        if (input.startsWith("<=", pos)) {
+            pos += 2;
+            return Operator.LTE;
+        }
+        if (input.startsWith("!=", pos)) {
+            pos += 2;
+            return Operator.NE;
+        }
+        if (atEnd()) {
+            throw error("opérateur attendu");
+        }
+        char c = input.charAt(pos++);
+        return switch (c) {
+            case ':', '=' -> Operator.EQ;
+            case '>' -> Operator.GT;
+            case '<' -> Operator.LT;
+            default -> {
+                pos--;
+                throw error("opérateur attendu (:, =, !=, >, >=, <, <=, in, exists, !exists)");
+            }
+        };
+    }
+
+    private String readIdentifier() {
+        int start = pos;
+        while (!atEnd() && (Character.isLetterOrDigit(peek()) || peek() == '_' || peek() == '.')) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("nom de champ attendu");
+        }
+        return input.substring(start, pos);
+    }
+
+    private String readValue() {
+        if (atEnd()) {
+            throw error("valeur attendue");
+        }
+        if (peek() == '"') {
+            pos++;
+            StringBuilder value = new StringBuilder();
+            while (!atEnd() && peek() != '"') {
+                if (peek() == '\\' && pos + 1 < input.length()) {
+                    pos++;
+                }
+                value.append(input.charAt(pos++));
+            }
+            expect('"');
+            return value.toString();
+        }
+
+        int start = pos;
+        while (!atEnd() && !Character.isWhitespace(peek()) && peek() != ',' && peek() != '(' && peek() != ')') {
+            pos++;
+        }
+        if (start == pos) {
+            throw error("valeur attendue");
+        }
+        return input.substring(start, pos);
+    }
+
+    private String readWord() {
+        skipWhitespace();
+        int start = pos;
+        while (!atEnd() && Character.isLetter(peek())) {
+            pos++;
+        }
+        return input.substring(start, pos);
+    }
+
+    private boolean peekKeyword(String keyword) {
+        skipWhitespace();
+        int end = pos + keyword.length();
+        if (end > input.length() || !input.regionMatches(true, pos, keyword, 0, keyword.length())) {
+            return false;
+        }
+        return end == input.length() || !Character.isLetterOrDigit(input.charAt(end)) && input.charAt(end) != '_';
+    }
+
+    private boolean tryConsume(char c) {
+        skipWhitespace();
+        if (!atEnd() && peek() == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (atEnd() || peek() != c) {
+            throw error("'" + c + "' attendu");
+        }
+        pos++;
+    }
+
+    private void skipWhitespace() {
+        while (!atEnd() && Character.isWhitespace(peek())) {
+            pos++;
+        }
+    }
+
+    private char peek() {
+        return input.charAt(pos);
+    }
+
+    private boolean atEnd() {
+        return pos >= input.length();
+    }
+
+    private static void addIfPresent(List<FilterNode> nodes, FilterNode node) {
+        if (node != null) {
+            nodes.add(node);
+        }
+    }
+
+    private static FilterNode combine(List<FilterNode> children, boolean and) {
+        if (children.isEmpty()) {
+            return null;
+        }
+        if (children.size() == 1) {
+            return children.get(0);
+        }
+        return and ? new And(List.copyOf(children)) : new Or(List.copyOf(children));
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Filtre invalide à la position " + pos + ": " + message + " dans '" + input + "'");
+    }
+}
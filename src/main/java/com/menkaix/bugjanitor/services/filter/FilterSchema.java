@@ -0,0 +1,40 @@
+package com.menkaix.bugjanitor.services.filter;
+
+import java.util.Map;
+
+/**
+ * Liste blanche des champs filtrables et triables par collection. Chaque champ
+ * listé ici est couvert par un index déclaré dans {@code MongoIndexManager}.
+ */
+public enum FilterSchema {
+
+    TASK(Map.of(
+            "projectCode", FieldType.STRING,
+            "status", FieldType.STRING,
+            "assignee", FieldType.STRING,
+            "trackingReference", FieldType.STRING,
+            "deadLine", FieldType.DATE,
+            "plannedStart", FieldType.DATE,
+            "creationDate", FieldType.DATE,
+            "updateDate", FieldType.DATE,
+            "doneDate", FieldType.DATE)),
+
+    PROJECT(Map.of(
+            "projectCode", FieldType.STRING,
+            "projectName", FieldType.STRING));
+
+    private final Map<String, FieldType> fields;
+
+    FilterSchema(Map<String, FieldType> fields) {
+        this.fields = fields;
+    }
+
+    public FieldType typeOf(String field) {
+        FieldType type = fields.get(field);
+        if (type == null) {
+            throw new IllegalArgumentException("Champ non filtrable: " + field
+                    + " (champs autorisés: " + String.join(", ", fields.keySet().stream().sorted().toList()) + ")");
+        }
+        return type;
+    }
+}
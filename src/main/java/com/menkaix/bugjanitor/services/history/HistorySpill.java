@@ -0,0 +1,109 @@
+package com.menkaix.bugjanitor.services.history;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.bson.Document;
+import org.bson.json.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Fichier de débordement de l'historique : entrées non écrites en base
+ * (file pleine, base indisponible, arrêt), une par ligne en JSON étendu, qui
+ * conserve dates et ObjectId.
+ *
+ * La relecture renomme d'abord le fichier ({@code .replay}) : les entrées
+ * ajoutées pendant la relecture vont dans un nouveau fichier. Si elle
+ * échoue, le fichier {@code .replay} est repris en premier la fois suivante ;
+ * les entrées déjà écrites sont rejetées en doublon de clé et comptées
+ * comme écrites. Une collection time series n'a pas d'index unique sur
+ * {@code _id} : elles y sont écrites deux fois, et la lecture de
+ * l'historique les dédoublonne par identifiant.
+ */
+final class HistorySpill {
+
+    private static final Logger log = LoggerFactory.getLogger(HistorySpill.class);
+
+    private final Path file;
+    private final Path replaying;
+
+    HistorySpill(Path file) {
+        this.file = file;
+        this.replaying = file.resolveSibling(file.getFileName() + ".replay");
+    }
+
+    synchronized void append(List<Document> entries) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND, StandardOpenOption.DSYNC)) {
+            for (Document entry : entries) {
+                out.write(entry.toJson());
+                out.write('\n');
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return !Files.exists(file) && !Files.exists(replaying);
+    }
+
+    /**
+     * Relit le fichier par lots de {@code batchSize} ; le fichier est
+     * supprimé une fois tous les lots acceptés par {@code writer}.
+     *
+     * @return nombre d'entrées relues
+     * @throws RuntimeException de {@code writer}, le reste du fichier étant
+     *                          conservé
+     */
+    long replay(int batchSize, Consumer<List<Document>> writer) throws IOException {
+        synchronized (this) {
+            if (!Files.exists(replaying)) {
+                if (!Files.exists(file)) {
+                    return 0;
+                }
+                Files.move(file, replaying, StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+        long count = 0;
+        try (BufferedReader in = Files.newBufferedReader(replaying, StandardCharsets.UTF_8)) {
+            List<Document> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    batch.add(Document.parse(line));
+                } catch (JsonParseException e) {
+                    // Ligne tronquée par un arrêt brutal pendant l'écriture
+                    log.warn("Entrée d'historique illisible ignorée dans {}: {}", replaying, e.getMessage());
+                    continue;
+                }
+                if (batch.size() == batchSize) {
+                    writer.accept(batch);
+                    count += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                writer.accept(batch);
+                count += batch.size();
+            }
+        }
+        Files.delete(replaying);
+        return count;
+    }
+}
@@ -0,0 +1,25 @@
+package com.menkaix.bugjanitor.services.history;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Entrée de l'historique d'une tâche : une écriture et les champs qu'elle a
+ * modifiés.
+ *
+ * @param operation {@code create}, {@code update} ou {@code delete}
+ * @param version   version de la tâche après l'écriture (avant pour une
+ *                  suppression)
+ * @param changes   champs modifiés ; pour une création, les champs
+ *                  renseignés ; vide pour une suppression
+ */
+public record TaskChange(String id, String taskId, Date at, String operation, Long version,
+                         List<FieldChange> changes) {
+
+    public static final String CREATE = "create";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+
+    public record FieldChange(String field, Object from, Object to) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.menkaix.bugjanitor.services.history;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.history.TaskChange.FieldChange;
+
+/**
+ * Différence champ par champ entre deux états d'une tâche. {@code id},
+ * {@code updateDate} et {@code version} changent à chaque écriture et ne
+ * sont pas comparés.
+ */
+final class TaskDiff {
+
+    static final List<String> FIELDS = List.of("projectCode", "title", "description", "status", "creationDate",
+            "doneDate", "plannedStart", "deadLine", "estimate", "trackingReference", "assignee");
+
+    private TaskDiff() {
+    }
+
+    static List<FieldChange> diff(Task before, Task after) {
+        List<FieldChange> changes = new ArrayList<>();
+        for (String field : FIELDS) {
+            Object from = before == null ? null : get(before, field);
+            Object to = after == null ? null : get(after, field);
+            if (!Objects.equals(from, to)) {
+                changes.add(new FieldChange(field, from, to));
+            }
+        }
+        return changes;
+    }
+
+    private static Object get(Task task, String field) {
+        return switch (field) {
+            case "projectCode" -> task.getProjectCode();
+            case "title" -> task.getTitle();
+            case "description" -> task.getDescription();
+            case "status" -> task.getStatus();
+            case "creationDate" -> task.getCreationDate();
+            case "doneDate" -> task.getDoneDate();
+            case "plannedStart" -> task.getPlannedStart();
+            case "deadLine" -> task.getDeadLine();
+            case "estimate" -> task.getEstimate();
+            case "trackingReference" -> task.getTrackingReference();
+            case "assignee" -> task.getAssignee();
+            default -> throw new IllegalArgumentException("Champ inconnu: " + field);
+        };
+    }
+}
@@ -0,0 +1,424 @@
+package com.menkaix.bugjanitor.services.history;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.CollectionOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+import org.springframework.stereotype.Service;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.TaskChangeListener;
+import com.menkaix.bugjanitor.services.history.TaskChange.FieldChange;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.model.InsertManyOptions;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Historique des modifications des tâches, écrit en différé.
+ *
+ * Les différences champ par champ sont calculées à la notification de
+ * {@code TaskService} puis mises en file : l'écriture de la tâche n'attend
+ * aucune insertion supplémentaire. Un thread regroupe les entrées
+ * (jusqu'à {@code app.history.batch-size}, ou toutes les
+ * {@code app.history.flush-ms}) et les insère en un {@code insertMany}.
+ *
+ * La collection {@value #COLLECTION} est une collection time series
+ * (champ temporel {@code at}, métadonnée {@code taskId}) : MongoDB regroupe
+ * les entrées d'une même tâche par tranche de temps et compresse ces
+ * tranches par colonne. Sur un serveur antérieur à 5.0, elle est créée comme
+ * une collection ordinaire.
+ *
+ * Rien n'est perdu : les entrées que la file ne peut accueillir, celles
+ * dont l'écriture échoue et celles restant à l'arrêt sont ajoutées au
+ * fichier {@code app.history.spill-file}, relu dès que la base répond de
+ * nouveau et au démarrage suivant.
+ */
+@Service
+public class TaskHistory implements TaskChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskHistory.class);
+
+    public static final String COLLECTION = "task_history";
+
+    private static final int MAX_LIMIT = 500;
+    private static final int DUPLICATE_KEY = 11000;
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushMillis;
+    private final long retryMillis;
+    private final int retentionDays;
+    private final BlockingQueue<TaskChange> queue;
+    private final HistorySpill spill;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    // Lot en cours de constitution ou d'écriture, visible des lectures
+    private final List<TaskChange> inFlight = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean collectionReady;
+    private volatile boolean stopped;
+    private volatile long retryAt;
+    private Thread writer;
+
+    public TaskHistory(MongoTemplate mongoTemplate,
+                       @Value("${app.history.enabled:true}") boolean enabled,
+                       @Value("${app.history.queue-size:10000}") int queueSize,
+                       @Value("${app.history.batch-size:500}") int batchSize,
+                       @Value("${app.history.flush-ms:1000}") long flushMillis,
+                       @Value("${app.history.retry-ms:30000}") long retryMillis,
+                       @Value("${app.history.retention-days:0}") int retentionDays,
+                       @Value("${app.history.spill-file:history-spill.ndjson}") String spillFile) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushMillis = flushMillis;
+        this.retryMillis = retryMillis;
+        this.retentionDays = retentionDays;
+        this.queue = new LinkedBlockingQueue<>(queueSize);
+        this.spill = new HistorySpill(Path.of(spillFile));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || writer != null) {
+            return;
+        }
+        writer = Thread.ofPlatform().daemon().name("task-history-writer").start(this::runWriter);
+    }
+
+    /**
+     * Écrit les entrées en file ; ce qui ne peut l'être part dans le fichier
+     * de débordement.
+     */
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+        Thread thread;
+        synchronized (this) {
+            thread = writer;
+        }
+        if (thread != null) {
+            try {
+                thread.join(flushMillis + STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        List<TaskChange> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += batchSize) {
+            write(remaining.subList(from, Math.min(from + batchSize, remaining.size())));
+        }
+        if (!spill.isEmpty()) {
+            log.info("Historique : {} entrées conservées dans le fichier de débordement", spilled.get());
+        }
+    }
+
+    @Override
+    public void onCreated(Task task) {
+        record(task.getId(), TaskChange.CREATE, task.getVersion(), TaskDiff.diff(null, task));
+    }
+
+    /**
+     * Lot de créations (création en lot, import) : ce que la file ne peut
+     * accueillir est mis de côté en un seul ajout au fichier de débordement,
+     * pas un par tâche.
+     */
+    @Override
+    public void onCreatedAll(List<Task> tasks) {
+        if (!enabled) {
+            return;
+        }
+        Date at = new Date();
+        List<Document> overflow = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getId() == null) {
+                continue;
+            }
+            TaskChange change = new TaskChange(new ObjectId().toHexString(), task.getId(), at, TaskChange.CREATE,
+                    task.getVersion(), TaskDiff.diff(null, task));
+            if (stopped || !queue.offer(change)) {
+                overflow.add(toDocument(change));
+            }
+        }
+        if (!overflow.isEmpty()) {
+            spill(overflow);
+        }
+    }
+
+    @Override
+    public void onUpdated(Task before, Task after) {
+        List<FieldChange> changes = TaskDiff.diff(before, after);
+        if (!changes.isEmpty()) {
+            record(after.getId(), TaskChange.UPDATE, after.getVersion(), changes);
+        }
+    }
+
+    @Override
+    public void onDeleted(Task task) {
+        record(task.getId(), TaskChange.DELETE, task.getVersion(), List.of());
+    }
+
+    /**
+     * Modifications d'une tâche, de la plus récente à la plus ancienne, y
+     * compris celles encore en attente d'écriture.
+     *
+     * @param since borne inférieure incluse, ou null
+     * @param limit nombre maximal d'entrées (plafonné à 500)
+     */
+    public List<TaskChange> find(String taskId, Date since, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_LIMIT));
+        Criteria criteria = Criteria.where("taskId").is(taskId);
+        if (since != null) {
+            criteria.and("at").gte(since);
+        }
+        Query query = new Query(criteria).with(Sort.by(Sort.Direction.DESC, "at")).limit(max);
+
+        // Dédoublonnage : une entrée relue du fichier de débordement peut avoir été écrite deux fois
+        Map<String, TaskChange> changes = new LinkedHashMap<>();
+        pending(taskId, since).forEach(change -> changes.putIfAbsent(change.id(), change));
+        for (Document document : mongoTemplate.find(query, Document.class, COLLECTION)) {
+            TaskChange change = fromDocument(document);
+            changes.putIfAbsent(change.id(), change);
+        }
+        return changes.values().stream()
+                // À la milliseconde près, l'ObjectId (compteur croissant) départage
+                .sorted(Comparator.comparing(TaskChange::at).thenComparing(TaskChange::id).reversed())
+                .limit(max)
+                .toList();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("queued", queue.size());
+        stats.put("written", written.get());
+        stats.put("spilled", spilled.get());
+        stats.put("spillPending", !spill.isEmpty());
+        return stats;
+    }
+
+    private void record(String taskId, String operation, Long version, List<FieldChange> changes) {
+        if (!enabled || taskId == null) {
+            return;
+        }
+        TaskChange change = new TaskChange(new ObjectId().toHexString(), taskId, new Date(), operation, version,
+                changes);
+        if (stopped || !queue.offer(change)) {
+            spill(List.of(toDocument(change)));
+        }
+    }
+
+    private List<TaskChange> pending(String taskId, Date since) {
+        List<TaskChange> pending = new ArrayList<>();
+        synchronized (inFlight) {
+            for (TaskChange change : inFlight) {
+                if (matches(change, taskId, since)) {
+                    pending.add(change);
+                }
+            }
+        }
+        for (TaskChange change : queue) {
+            if (matches(change, taskId, since)) {
+                pending.add(change);
+            }
+        }
+        return pending;
+    }
+
+    private static boolean matches(TaskChange change, String taskId, Date since) {
+        return change.taskId().equals(taskId) && (since == null || !change.at().before(since));
+    }
+
+    private void runWriter() {
+        List<TaskChange> batch = inFlight;
+        while (!stopped) {
+            boolean handled = false;
+            try {
+                TaskChange first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpill();
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushMillis;
+                while (batch.size() < batchSize && !stopped) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    TaskChange next = queue.poll(wait, TimeUnit.MILLISECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                boolean inserted = write(List.copyOf(batch));
+                handled = true;
+                if (inserted) {
+                    replaySpill();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Écriture de l'historique en échec: {}", e.getMessage());
+                if (!handled) {
+                    // Lot ni écrit ni mis de côté : il ne doit pas disparaître avec batch.clear()
+                    spill(List.copyOf(batch).stream().map(TaskHistory::toDocument).toList());
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Insère le lot, ou l'ajoute au fichier de débordement si la base ne
+     * répond pas (pendant {@code app.history.retry-ms} après un échec).
+     * Toute exception est retenue : celles du pilote, mais aussi celles que
+     * {@code MongoTemplate} traduit en {@code DataAccessException} et celles
+     * du limiteur de concurrence.
+     */
+    private boolean write(List<TaskChange> batch) {
+        List<Document> documents = batch.stream().map(TaskHistory::toDocument).toList();
+        if (System.currentTimeMillis() >= retryAt) {
+            try {
+                insert(documents);
+                return true;
+            } catch (RuntimeException e) {
+                retryAt = System.currentTimeMillis() + retryMillis;
+                log.warn("Historique non écrit ({} entrées mises de côté): {}", documents.size(), e.getMessage());
+            }
+        }
+        spill(documents);
+        return false;
+    }
+
+    private void insert(List<Document> documents) {
+        if (!collectionReady) {
+            ensureCollection();
+        }
+        try {
+            mongoTemplate.getCollection(COLLECTION).insertMany(documents, new InsertManyOptions().ordered(false));
+            written.addAndGet(documents.size());
+        } catch (MongoBulkWriteException e) {
+            // Entrées déjà écrites (relecture interrompue puis reprise) : le lot est acquis
+            boolean duplicatesOnly = e.getWriteConcernError() == null && e.getWriteErrors().stream()
+                    .allMatch(error -> error.getCode() == DUPLICATE_KEY);
+            if (!duplicatesOnly) {
+                throw e;
+            }
+            written.addAndGet(e.getWriteResult().getInsertedCount());
+        }
+    }
+
+    private void replaySpill() {
+        if (spill.isEmpty() || System.currentTimeMillis() < retryAt) {
+            return;
+        }
+        try {
+            long replayed = spill.replay(batchSize, this::insert);
+            log.info("Historique : {} entrées relues du fichier de débordement", replayed);
+        } catch (RuntimeException e) {
+            retryAt = System.currentTimeMillis() + retryMillis;
+            log.warn("Relecture du fichier de débordement de l'historique en échec: {}", e.getMessage());
+        } catch (IOException e) {
+            log.warn("Fichier de débordement de l'historique illisible: {}", e.getMessage());
+        }
+    }
+
+    private void spill(List<Document> documents) {
+        try {
+            spill.append(documents);
+            spilled.addAndGet(documents.size());
+        } catch (IOException e) {
+            log.error("Historique perdu ({} entrées) : fichier de débordement inaccessible: {}", documents.size(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Crée la collection time series à la première écriture ; une insertion
+     * dans une collection absente la créerait ordinaire.
+     */
+    private synchronized void ensureCollection() {
+        if (collectionReady) {
+            return;
+        }
+        if (!mongoTemplate.collectionExists(COLLECTION)) {
+            try {
+                mongoTemplate.createCollection(COLLECTION, CollectionOptions.timeSeries("at", options -> {
+                    options = options.metaField("taskId").granularity(Granularity.HOURS);
+                    return retentionDays > 0 ? options.expireAfter(Duration.ofDays(retentionDays)) : options;
+                }));
+            } catch (RuntimeException e) {
+                // MongoException ou DataAccessException selon la traduction de MongoTemplate
+                log.warn("Collection time series indisponible, {} créée comme collection ordinaire: {}", COLLECTION,
+                        e.getMessage());
+                if (!mongoTemplate.collectionExists(COLLECTION)) {
+                    mongoTemplate.createCollection(COLLECTION);
+                }
+            }
+        }
+        mongoTemplate.indexOps(COLLECTION).ensureIndex(new Index()
+                .on("taskId", Sort.Direction.ASC)
+                .on("at", Sort.Direction.DESC)
+                .named("taskId_at"));
+        collectionReady = true;
+    }
+
+    private static Document toDocument(TaskChange change) {
+        List<Document> changes = new ArrayList<>(change.changes().size());
+        for (FieldChange field : change.changes()) {
+            changes.add(new Document("field", field.field()).append("from", field.from()).append("to", field.to()));
+        }
+        return new Document("_id", new ObjectId(change.id()))
+                .append("taskId", change.taskId())
+                .append("at", change.at())
+                .append("operation", change.operation())
+                .append("version", change.version())
+                .append("changes", changes);
+    }
+
+    private static TaskChange fromDocument(Document document) {
+        List<FieldChange> changes = new ArrayList<>();
+        for (Document field : document.getList("changes", Document.class, List.of())) {
+            changes.add(new FieldChange(field.getString("field"), field.get("from"), field.get("to")));
+        }
+        Object version = document.get("version");
+        return new TaskChange(document.getObjectId("_id").toHexString(), document.getString("taskId"),
+                document.getDate("at"), document.getString("operation"),
+                version instanceof Number number ? number.longValue() : null, changes);
+    }
+}
@@ -0,0 +1,33 @@
+package com.menkaix.bugjanitor.services.paging;
+
+/**
+ * Manière de calculer le total d'une page.
+ */
+public enum CountMode {
+
+    /** Total exact, au prix d'un count sur le critère complet. */
+    EXACT,
+
+    /** Total mis en cache quelques secondes, ou métadonnées de collection sans filtre. */
+    ESTIMATED,
+
+    /** Aucun total : seule l'existence d'une page suivante est connue. */
+    NONE;
+
+    /**
+     * Interprète la valeur reçue d'un outil ou d'un paramètre HTTP ; une valeur
+     * absente conserve le comportement historique (total exact).
+     */
+    public static CountMode parse(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        return switch (value.trim().toLowerCase()) {
+            case "exact" -> EXACT;
+            case "estimated" -> ESTIMATED;
+            case "none", "slice" -> NONE;
+            default -> throw new IllegalArgumentException(
+                    "Mode de comptage inconnu: " + value + " (valeurs possibles: exact, estimated, none)");
+        };
+    }
+}
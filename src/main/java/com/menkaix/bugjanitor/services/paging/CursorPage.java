@@ -0,0 +1,10 @@
+package com.menkaix.bugjanitor.services.paging;
+
+import java.util.List;
+
+/**
+ * Page obtenue par curseur : pas de total ni de numéro de page, seulement le
+ * curseur de la page suivante lorsqu'elle existe.
+ */
+public record CursorPage<T>(List<T> content, int size, boolean hasNext, String nextCursor) {
+}
@@ -0,0 +1,100 @@
+package com.menkaix.bugjanitor.services.paging;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Curseur opaque de pagination.
+ *
+ * Deux formes coexistent : {@code afterId} pour la pagination par clé sur
+ * {@code _id} (coût constant quelle que soit la profondeur), et
+ * {@code offset} pour les résultats déjà classés en mémoire (recherche plein
+ * texte). Le curseur embarque une empreinte de la recherche et du filtre afin
+ * de refuser sa réutilisation sur une autre requête.
+ */
+public record PageCursor(String afterId, Long offset, String fingerprint) {
+
+    private static final String VERSION = "v1";
+
+    public static PageCursor afterId(String id, String search, String filter) {
+        return new PageCursor(id, null, fingerprint(search, filter));
+    }
+
+    public static PageCursor atOffset(long offset, String search, String filter) {
+        return new PageCursor(null, offset, fingerprint(search, filter));
+    }
+
+    public boolean isKeyset() {
+        return afterId != null;
+    }
+
+    public String encode() {
+        String payload = isKeyset()
+                ? String.join("|", VERSION, "i", afterId, fingerprint)
+                : String.join("|", VERSION, "o", Long.toString(offset), fingerprint);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur et vérifie qu'il a été émis pour la même recherche et
+     * le même filtre.
+     */
+    public static PageCursor decode(String cursor, String search, String filter) {
+        String payload;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Curseur invalide: " + cursor);
+        }
+        // L'identifiant peut contenir le séparateur (identifiants importés) :
+        // version et forme en tête, empreinte après le dernier séparateur
+        String[] head = payload.split("\\|", 3);
+        int last = payload.lastIndexOf('|');
+        if (head.length != 3 || !VERSION.equals(head[0]) || last <= head[0].length() + head[1].length() + 1) {
+            throw new IllegalArgumentException("Curseur invalide: " + cursor);
+        }
+        String[] parts = {
+                head[0], head[1],
+                payload.substring(head[0].length() + head[1].length() + 2, last),
+                payload.substring(last + 1) };
+        if (!parts[3].equals(fingerprint(search, filter))) {
+            throw new IllegalArgumentException("Le curseur a été émis pour une autre recherche ou un autre filtre");
+        }
+
+        if ("i".equals(parts[1])) {
+            return new PageCursor(parts[2], null, parts[3]);
+        }
+        if ("o".equals(parts[1])) {
+            try {
+                return new PageCursor(null, Long.parseLong(parts[2]), parts[3]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Curseur invalide: " + cursor);
+            }
+        }
+        throw new IllegalArgumentException("Curseur invalide: " + cursor);
+    }
+
+    /**
+     * Indique si un tri suit l'ordre de {@code _id}, seul ordre sur lequel un
+     * curseur par clé peut être émis. Un tri absent est complété par {@code _id}.
+     */
+    public static boolean followsIdOrder(Sort sort) {
+        if (sort == null || sort.isUnsorted()) {
+            return true;
+        }
+        return sort.stream().count() == 1
+                && sort.getOrderFor("id") != null
+                && sort.getOrderFor("id").isAscending();
+    }
+
+    private static String fingerprint(String search, String filter) {
+        return Integer.toHexString(Objects.hash(normalize(search), normalize(filter)));
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,93 @@
+package com.menkaix.bugjanitor.services.paging;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exécute une requête paginée selon le {@link CountMode} demandé.
+ *
+ * En mode {@code NONE}, une ligne de plus que la taille de page est lue pour
+ * savoir s'il existe une page suivante, sans count. En mode
+ * {@code ESTIMATED}, une requête sans filtre utilise les métadonnées de la
+ * collection et les autres réutilisent un total mis en cache par forme de
+ * requête normalisée pendant une courte durée.
+ */
+@Component
+public class PagedQueryExecutor {
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<String, CachedCount> cachedCounts = new ConcurrentHashMap<>();
+
+    @Value("${app.paging.count-cache-ttl-ms:30000}")
+    private long countCacheTtlMs;
+
+    @Value("${app.paging.count-cache-max-entries:1000}")
+    private int countCacheMaxEntries;
+
+    public PagedQueryExecutor(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Retourne une {@code Page} pour les modes avec total et une {@code Slice}
+     * pour le mode {@code NONE}.
+     */
+    public <T> Slice<T> execute(Query query, Pageable pageable, CountMode countMode, Class<T> entityClass) {
+        Query pagedQuery = Query.of(query).with(pageable);
+
+        if (countMode == CountMode.NONE) {
+            if (pageable.isUnpaged()) {
+                return new SliceImpl<>(mongoTemplate.find(pagedQuery, entityClass), pageable, false);
+            }
+            List<T> rows = mongoTemplate.find(Query.of(pagedQuery).limit(pageable.getPageSize() + 1), entityClass);
+            boolean hasNext = rows.size() > pageable.getPageSize();
+            return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+        }
+
+        Query countQuery = Query.of(query).limit(-1).skip(-1);
+        return PageableExecutionUtils.getPage(
+                mongoTemplate.find(pagedQuery, entityClass),
+                pageable,
+                () -> countMode == CountMode.ESTIMATED
+                        ? estimatedCount(countQuery, entityClass)
+                        : mongoTemplate.count(countQuery, entityClass));
+    }
+
+    private long estimatedCount(Query countQuery, Class<?> entityClass) {
+        Document filter = countQuery.getQueryObject();
+        if (filter.isEmpty()) {
+            return mongoTemplate.estimatedCount(entityClass);
+        }
+
+        String key = mongoTemplate.getCollectionName(entityClass) + ":" + filter.toJson();
+        long now = System.currentTimeMillis();
+        CachedCount cached = cachedCounts.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+
+        long count = mongoTemplate.count(countQuery, entityClass);
+        if (cachedCounts.size() >= countCacheMaxEntries) {
+            cachedCounts.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (cachedCounts.size() >= countCacheMaxEntries) {
+                cachedCounts.clear();
+            }
+        }
+        cachedCounts.put(key, new CachedCount(count, now + countCacheTtlMs));
+        return count;
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+}
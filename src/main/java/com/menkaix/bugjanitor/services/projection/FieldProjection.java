@@ -0,0 +1,86 @@
+package com.menkaix.bugjanitor.services.projection;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.data.mongodb.core.query.Query;
+
+/**
+ * Projection de champs demandée par un appelant : {@code full} (document
+ * complet), {@code summary} ou une liste de champs séparés par des virgules,
+ * éventuellement combinée à un préréglage ({@code summary,description}).
+ *
+ * La projection est appliquée à la requête MongoDB : les champs exclus ne sont
+ * ni lus, ni transférés, ni sérialisés : ils restent null dans l'entité lue
+ * (les entités lues depuis MongoDB n'ont pas de valeur par défaut) et Gson
+ * omet les champs null.
+ */
+public final class FieldProjection {
+
+    public static final String FULL = "full";
+    public static final String SUMMARY = "summary";
+
+    private static final FieldProjection FULL_PROJECTION = new FieldProjection(List.of());
+
+    private final List<String> fields;
+
+    private FieldProjection(List<String> fields) {
+        this.fields = fields;
+    }
+
+    public static FieldProjection full() {
+        return FULL_PROJECTION;
+    }
+
+    /**
+     * Interprète un paramètre {@code fields}. Null ou vide équivaut à
+     * {@code full}.
+     */
+    public static FieldProjection parse(String spec, ProjectionSchema schema) {
+        if (spec == null || spec.isBlank()) {
+            return FULL_PROJECTION;
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String token : spec.split(",")) {
+            String field = token.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (field.equalsIgnoreCase(FULL)) {
+                return FULL_PROJECTION;
+            }
+            if (field.equalsIgnoreCase(SUMMARY)) {
+                selected.addAll(schema.summary());
+            } else if (schema.fields().contains(field)) {
+                selected.add(field);
+            } else {
+                throw new IllegalArgumentException("Champ inconnu dans fields: " + field
+                        + " (champs disponibles: " + String.join(", ", schema.fields())
+                        + ", préréglages: " + SUMMARY + ", " + FULL + ")");
+            }
+        }
+        return new FieldProjection(List.copyOf(selected));
+    }
+
+    public boolean isFull() {
+        return fields.isEmpty();
+    }
+
+    public List<String> fields() {
+        return fields;
+    }
+
+    /**
+     * Restreint les champs retournés par la requête ; sans effet pour
+     * {@code full}.
+     */
+    public Query applyTo(Query query) {
+        if (!isFull()) {
+            query.fields().include(fields.toArray(String[]::new));
+        }
+        return query;
+    }
+}
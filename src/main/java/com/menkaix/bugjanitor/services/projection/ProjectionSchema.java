@@ -0,0 +1,36 @@
+package com.menkaix.bugjanitor.services.projection;
+
+import java.util.List;
+
+/**
+ * Champs projetables par collection et composition du préréglage
+ * {@code summary}.
+ */
+public enum ProjectionSchema {
+
+    TASK(List.of("id", "projectCode", "title", "description", "status", "creationDate", "updateDate",
+            "doneDate", "plannedStart", "deadLine", "estimate", "trackingReference", "assignee"),
+            List.of("id", "projectCode", "title", "status", "deadLine", "assignee")),
+
+    PROJECT(List.of("id", "projectName", "projectCode", "description", "updateDate"),
+            List.of("id", "projectCode", "projectName")),
+
+    PERSON(List.of("id", "firstName", "lastName", "email", "creationDate", "updateDate"),
+            List.of("id", "firstName", "lastName", "email"));
+
+    private final List<String> fields;
+    private final List<String> summary;
+
+    ProjectionSchema(List<String> fields, List<String> summary) {
+        this.fields = fields;
+        this.summary = summary;
+    }
+
+    public List<String> fields() {
+        return fields;
+    }
+
+    public List<String> summary() {
+        return summary;
+    }
+}
@@ -0,0 +1,32 @@
+package com.menkaix.bugjanitor.services.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import com.menkaix.bugjanitor.models.documents.Person;
+import com.menkaix.bugjanitor.repositories.reactive.ReactivePersonRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Lectures de personnes non bloquantes pour la pile WebFlux ; les écritures
+ * restent dans {@link com.menkaix.bugjanitor.services.PersonService}.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePersonService {
+
+    private final ReactivePersonRepository personRepository;
+
+    public ReactivePersonService(ReactivePersonRepository personRepository) {
+        this.personRepository = personRepository;
+    }
+
+    public Mono<Person> findById(String id) {
+        return personRepository.findById(id);
+    }
+
+    public Mono<Person> findByEmail(String email) {
+        return personRepository.findByEmail(email);
+    }
+}
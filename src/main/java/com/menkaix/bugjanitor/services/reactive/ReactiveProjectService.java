@@ -0,0 +1,36 @@
+package com.menkaix.bugjanitor.services.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import com.menkaix.bugjanitor.models.documents.Project;
+import com.menkaix.bugjanitor.repositories.reactive.ReactiveProjectRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Lectures de projets non bloquantes pour la pile WebFlux ; les écritures
+ * restent dans {@link com.menkaix.bugjanitor.services.ProjectService}.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveProjectService {
+
+    private final ReactiveProjectRepository projectRepository;
+
+    public ReactiveProjectService(ReactiveProjectRepository projectRepository) {
+        this.projectRepository = projectRepository;
+    }
+
+    public Mono<Project> findById(String id) {
+        return projectRepository.findById(id);
+    }
+
+    public Mono<Project> findByProjectCode(String projectCode) {
+        return projectRepository.findByProjectCode(projectCode);
+    }
+
+    public Mono<Project> findByProjectName(String projectName) {
+        return projectRepository.findByProjectName(projectName);
+    }
+}
@@ -0,0 +1,35 @@
+package com.menkaix.bugjanitor.services.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.repositories.reactive.ReactiveTaskRepository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Lectures de tâches non bloquantes pour la pile WebFlux.
+ *
+ * Les écritures restent dans {@link com.menkaix.bugjanitor.services.TaskService},
+ * seul à notifier les écouteurs (index, compteurs, ressources) et à tenir le
+ * cache d'entités ; ces lectures vont donc directement en base.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveTaskService {
+
+    private final ReactiveTaskRepository taskRepository;
+
+    public ReactiveTaskService(ReactiveTaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    public Mono<Task> findById(String id) {
+        return taskRepository.findById(id);
+    }
+
+    public Mono<Task> findByTrackingReference(String trackingReference) {
+        return taskRepository.findByTrackingReference(trackingReference);
+    }
+}
@@ -0,0 +1,163 @@
+package com.menkaix.bugjanitor.services.streaming;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Écriture incrémentale de résultats MongoDB en JSON.
+ *
+ * Les documents sont sérialisés un à un à mesure que le curseur avance : la
+ * mémoire consommée ne dépend pas du nombre de résultats. Le flux est vidé
+ * régulièrement pour que le client reçoive les premiers morceaux sans
+ * attendre la fin de la requête.
+ */
+public final class JsonStreams {
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_EVERY = 256;
+
+    private JsonStreams() {
+    }
+
+    /**
+     * NDJSON si demandé par {@code format=ndjson} ou par l'en-tête Accept,
+     * tableau JSON sinon.
+     */
+    public static boolean wantsNdjson(String format, String accept) {
+        if (format != null) {
+            return format.equalsIgnoreCase("ndjson");
+        }
+        return accept != null && accept.contains(NDJSON.toString());
+    }
+
+    /**
+     * Un document JSON compact par ligne.
+     */
+    public static <T> long writeNdjson(Stream<T> items, Writer out, Gson gson) throws IOException {
+        long count = 0;
+        Iterator<T> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            T item = iterator.next();
+            // JsonWriter n'a pas de tampon propre : il écrit directement dans out
+            gson.toJson(item, item.getClass(), new JsonWriter(out));
+            out.write('\n');
+            if (++count % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    /**
+     * Un tableau JSON {@code [...]}.
+     */
+    public static <T> long writeArray(Stream<T> items, Writer out, Gson gson) throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginArray();
+        long count = writeElements(items, writer, out, gson);
+        writer.endArray();
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Un objet {@code {"<name>": [...], "count": n, ...}} reprenant la forme
+     * des réponses non streamées ; {@code extra} est écrit après le tableau.
+     */
+    public static <T> long writeObject(String name, Stream<T> items, Map<String, ?> extra, Writer out, Gson gson)
+            throws IOException {
+        JsonWriter writer = new JsonWriter(out);
+        writer.beginObject();
+        writer.name(name).beginArray();
+        long count = writeElements(items, writer, out, gson);
+        writer.endArray();
+        writer.name("count").value(count);
+        for (Map.Entry<String, ?> entry : extra.entrySet()) {
+            writer.name(entry.getKey());
+            gson.toJson(entry.getValue(), Object.class, writer);
+        }
+        writer.endObject();
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Réponse HTTP streamée ({@code ndjson} ou tableau JSON). Le flux est
+     * ouvert au moment de l'écriture et toujours refermé, ce qui libère le
+     * curseur MongoDB même si le client se déconnecte.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> response(Supplier<Stream<T>> source, boolean ndjson,
+                                                                    Gson gson) {
+        return response(source, ndjson, null, gson);
+    }
+
+    /**
+     * Comme {@link #response(Supplier, boolean, Gson)}, mais enveloppe le
+     * tableau JSON dans un objet {@code {"<name>": [...], "count": n}}
+     * lorsque {@code name} est renseigné.
+     */
+    public static <T> ResponseEntity<StreamingResponseBody> response(Supplier<Stream<T>> source, boolean ndjson,
+                                                                    String name, Gson gson) {
+        StreamingResponseBody body = outputStream -> {
+            Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            try (Stream<T> items = source.get()) {
+                if (ndjson) {
+                    writeNdjson(items, out, gson);
+                } else if (name != null) {
+                    writeObject(name, items, Map.of(), out, gson);
+                } else {
+                    writeArray(items, out, gson);
+                }
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(ndjson ? NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Sérialise dans une chaîne sans matérialiser de liste intermédiaire, pour
+     * les appelants qui doivent renvoyer un {@code String} (outils MCP).
+     */
+    public static <T> String toJsonString(String name, Stream<T> items, Map<String, ?> extra, Gson gson) {
+        StringWriter out = new StringWriter();
+        try (items) {
+            writeObject(name, items, extra, out, gson);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    private static <T> long writeElements(Stream<T> items, JsonWriter writer, Writer out, Gson gson)
+            throws IOException {
+        long count = 0;
+        Iterator<T> iterator = items.iterator();
+        while (iterator.hasNext()) {
+            T item = iterator.next();
+            gson.toJson(item, item.getClass(), writer);
+            if (++count % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        }
+        return count;
+    }
+}
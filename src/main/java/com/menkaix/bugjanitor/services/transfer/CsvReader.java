@@ -0,0 +1,138 @@
+package com.menkaix.bugjanitor.services.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lecture en flux d'un CSV (RFC 4180) : séparateur virgule, champs entre
+ * guillemets pouvant contenir virgules, guillemets doublés et sauts de
+ * ligne, fins de ligne LF ou CRLF, BOM initial ignoré.
+ *
+ * Un enregistrement est lu à la fois ; sa taille est bornée par
+ * {@code maxRecordChars} pour qu'un guillemet non fermé n'absorbe pas tout
+ * le fichier en mémoire.
+ */
+final class CsvReader {
+
+    private static final int EOF = -1;
+
+    private final Reader in;
+    private final int maxRecordChars;
+    private final StringBuilder field = new StringBuilder();
+    private boolean started;
+    private int pending = -2;
+
+    CsvReader(Reader in, int maxRecordChars) {
+        this.in = in;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * Enregistrement suivant, ou null en fin de flux. Les lignes vides sont
+     * ignorées.
+     *
+     * @throws IllegalArgumentException si l'enregistrement est mal formé ou
+     *                                  trop long
+     */
+    List<String> next() throws IOException {
+        List<String> record = new ArrayList<>();
+        field.setLength(0);
+        int size = 0;
+        boolean quoted = false;
+        boolean afterQuote = false;
+        boolean any = false;
+
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                if (quoted) {
+                    throw new IllegalArgumentException("Guillemet non fermé en fin de fichier");
+                }
+                if (!any) {
+                    return null;
+                }
+                record.add(field.toString());
+                return record;
+            }
+            if (++size > maxRecordChars) {
+                throw new IllegalArgumentException("Enregistrement CSV trop long (plus de " + maxRecordChars
+                        + " caractères), guillemet non fermé ?");
+            }
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        afterQuote = true;
+                        unread(following);
+                    }
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+            switch (c) {
+                case ',' -> {
+                    record.add(field.toString());
+                    field.setLength(0);
+                    afterQuote = false;
+                    any = true;
+                }
+                case '\r', '\n' -> {
+                    if (c == '\r') {
+                        int following = read();
+                        if (following != '\n') {
+                            unread(following);
+                        }
+                    }
+                    if (!any && field.isEmpty()) {
+                        // Ligne vide
+                        size = 0;
+                        continue;
+                    }
+                    record.add(field.toString());
+                    return record;
+                }
+                case '"' -> {
+                    if (!field.isEmpty() || afterQuote) {
+                        throw new IllegalArgumentException("Guillemet inattendu dans un champ non délimité");
+                    }
+                    quoted = true;
+                    any = true;
+                }
+                default -> {
+                    if (afterQuote) {
+                        throw new IllegalArgumentException("Caractère inattendu après un champ entre guillemets");
+                    }
+                    field.append((char) c);
+                    any = true;
+                }
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (pending != -2) {
+            c = pending;
+            pending = -2;
+            return c;
+        }
+        c = in.read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = in.read();
+            }
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pending = c;
+    }
+}
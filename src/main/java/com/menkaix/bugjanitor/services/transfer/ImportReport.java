@@ -0,0 +1,27 @@
+package com.menkaix.bugjanitor.services.transfer;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Avancement ou bilan d'un import.
+ *
+ * @param status      {@code running}, {@code done} ou {@code failed}
+ * @param resumedFrom enregistrements sautés au démarrage, déjà validés par
+ *                    un point de reprise
+ * @param committed   enregistrements traités et validés depuis le début du
+ *                    fichier : point de reprise courant
+ * @param errors      premières erreurs, par numéro d'enregistrement (à partir
+ *                    de 0, hors en-tête et lignes vides)
+ */
+public record ImportReport(String jobId, String status, TransferFormat format, long resumedFrom, long committed,
+                           long inserted, long skipped, long failed, double recordsPerSecond, Date startedAt,
+                           Date finishedAt, String message, List<RecordError> errors) {
+
+    public static final String RUNNING = "running";
+    public static final String DONE = "done";
+    public static final String FAILED = "failed";
+
+    public record RecordError(long record, String id, String message) {
+    }
+}
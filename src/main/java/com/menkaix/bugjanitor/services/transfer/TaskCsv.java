@@ -0,0 +1,126 @@
+package com.menkaix.bugjanitor.services.transfer;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Date;
+import java.util.List;
+
+import com.menkaix.bugjanitor.configuration.json.JsonDates;
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.projection.ProjectionSchema;
+
+/**
+ * Correspondance entre colonnes CSV et champs d'une tâche. Les colonnes
+ * portent les noms des champs JSON ; les dates sont en ISO-8601 (lecture
+ * aussi tolérante que l'API JSON), une cellule vide vaut null.
+ */
+final class TaskCsv {
+
+    static final List<String> COLUMNS = ProjectionSchema.TASK.fields();
+
+    private TaskCsv() {
+    }
+
+    static String get(Task task, String column) {
+        return switch (column) {
+            case "id" -> task.getId();
+            case "projectCode" -> task.getProjectCode();
+            case "title" -> task.getTitle();
+            case "description" -> task.getDescription();
+            case "status" -> task.getStatus();
+            case "creationDate" -> date(task.getCreationDate());
+            case "updateDate" -> date(task.getUpdateDate());
+            case "doneDate" -> date(task.getDoneDate());
+            case "plannedStart" -> date(task.getPlannedStart());
+            case "deadLine" -> date(task.getDeadLine());
+            case "estimate" -> task.getEstimate();
+            case "trackingReference" -> task.getTrackingReference();
+            case "assignee" -> task.getAssignee();
+            default -> throw new IllegalArgumentException("Colonne inconnue: " + column);
+        };
+    }
+
+    /**
+     * @throws com.google.gson.JsonParseException si une date est invalide
+     */
+    static void set(Task task, String column, String value) {
+        if (value.isEmpty()) {
+            value = null;
+        }
+        switch (column) {
+            case "id" -> task.setId(value);
+            case "projectCode" -> task.setProjectCode(value);
+            case "title" -> task.setTitle(value);
+            case "description" -> task.setDescription(value);
+            case "status" -> task.setStatus(value);
+            case "creationDate" -> {
+                // Absente : date de l'import, comme pour une création
+                if (value != null) {
+                    task.setCreationDate(JsonDates.parse(value));
+                }
+            }
+            case "updateDate" -> task.setUpdateDate(parse(value));
+            case "doneDate" -> task.setDoneDate(parse(value));
+            case "plannedStart" -> task.setPlannedStart(parse(value));
+            case "deadLine" -> task.setDeadLine(parse(value));
+            case "estimate" -> task.setEstimate(value);
+            case "trackingReference" -> task.setTrackingReference(value);
+            case "assignee" -> task.setAssignee(value);
+            default -> throw new IllegalArgumentException("Colonne inconnue: " + column);
+        }
+    }
+
+    /**
+     * Vérifie la ligne d'en-tête d'un import.
+     */
+    static void checkHeader(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Fichier CSV vide : ligne d'en-tête attendue");
+        }
+        for (String column : header) {
+            if (!COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Colonne inconnue dans l'en-tête: '" + column
+                        + "' (colonnes disponibles: " + String.join(", ", COLUMNS) + ")");
+            }
+        }
+        if (!header.contains("title")) {
+            throw new IllegalArgumentException("Colonne 'title' requise dans l'en-tête");
+        }
+    }
+
+    static void writeRow(Writer out, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(out, values.get(i));
+        }
+        out.write("\r\n");
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    private static String date(Date date) {
+        return date == null ? null : JsonDates.format(date);
+    }
+
+    private static Date parse(String value) {
+        return value == null ? null : JsonDates.parse(value);
+    }
+}
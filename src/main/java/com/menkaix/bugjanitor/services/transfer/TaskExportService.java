@@ -0,0 +1,161 @@
+package com.menkaix.bugjanitor.services.transfer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.gson.Gson;
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.TaskService;
+import com.menkaix.bugjanitor.services.filter.FilterCompiler;
+import com.menkaix.bugjanitor.services.filter.FilterSchema;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+import com.menkaix.bugjanitor.services.streaming.JsonStreams;
+
+/**
+ * Export en flux des tâches correspondant à un filtre, en NDJSON ou CSV.
+ *
+ * Les tâches sont lues par un curseur MongoDB (lots de
+ * {@code app.transfer.batch-size}) et écrites à mesure : ni la réponse HTTP
+ * ni le fichier ne sont matérialisés en mémoire. Un export NDJSON se
+ * réimporte tel quel par {@link TaskImportService}, un export CSV aussi s'il
+ * contient la colonne {@code title}.
+ */
+@Service
+public class TaskExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskExportService.class);
+
+    private static final int FLUSH_EVERY = 256;
+
+    private final TaskService taskService;
+    private final FilterCompiler filterCompiler;
+    private final Gson gson;
+    private final int batchSize;
+    private final Path exportDir;
+
+    public TaskExportService(TaskService taskService, FilterCompiler filterCompiler, Gson gson,
+                             @Value("${app.transfer.batch-size:1000}") int batchSize,
+                             @Value("${app.transfer.export-dir:exports}") String exportDir) {
+        this.taskService = taskService;
+        this.filterCompiler = filterCompiler;
+        this.gson = gson;
+        this.batchSize = batchSize;
+        this.exportDir = Path.of(exportDir);
+    }
+
+    /**
+     * Vérifie le filtre avant d'ouvrir une réponse streamée, dont le statut
+     * ne peut plus changer une fois l'écriture commencée.
+     *
+     * @throws IllegalArgumentException si le filtre est invalide
+     */
+    public void checkFilter(String filter) {
+        filterCompiler.compile(filter, FilterSchema.TASK);
+    }
+
+    /**
+     * Écrit les tâches du filtre dans {@code out}, vidé régulièrement.
+     *
+     * @return nombre de tâches écrites
+     * @throws IllegalArgumentException si le filtre est invalide
+     */
+    public long export(String filter, FieldProjection projection, TransferFormat format, Writer out)
+            throws IOException {
+        try (Stream<Task> tasks = taskService.streamFiltered(filter, projection, batchSize)) {
+            if (format == TransferFormat.NDJSON) {
+                return JsonStreams.writeNdjson(tasks, out, gson);
+            }
+            return writeCsv(tasks, projection.isFull() ? TaskCsv.COLUMNS : projection.fields(), out);
+        }
+    }
+
+    /**
+     * Écrit l'export dans {@code app.transfer.export-dir}. Le fichier est
+     * d'abord écrit sous un nom temporaire puis renommé : un fichier présent
+     * sous son nom final est toujours complet.
+     *
+     * @param name nom du fichier, sans répertoire ; extension ajoutée si absente
+     */
+    public ExportFile exportToFile(String filter, FieldProjection projection, TransferFormat format, String name)
+            throws IOException {
+        String fileName = fileName(name, format);
+        Files.createDirectories(exportDir);
+        Path target = exportDir.resolve(fileName);
+        Path temp = Files.createTempFile(exportDir, fileName + ".", ".part");
+        long start = System.currentTimeMillis();
+        long count;
+        try (OutputStream output = Files.newOutputStream(temp);
+             Writer out = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+            count = export(filter, projection, format, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        long bytes = Files.size(target);
+        log.info("Export {}: {} tâches, {} octets en {} ms", target, count, bytes, System.currentTimeMillis() - start);
+        return new ExportFile(target.toString(), format, count, bytes);
+    }
+
+    /**
+     * Nom de fichier par défaut d'un export, pour
+     * {@code Content-Disposition}.
+     */
+    public static String defaultName(TransferFormat format) {
+        return "tasks." + format.extension();
+    }
+
+    private static long writeCsv(Stream<Task> tasks, List<String> columns, Writer out) throws IOException {
+        TaskCsv.writeRow(out, columns);
+        List<String> values = new ArrayList<>(columns.size());
+        long count = 0;
+        Iterator<Task> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            Task task = iterator.next();
+            values.clear();
+            for (String column : columns) {
+                values.add(TaskCsv.get(task, column));
+            }
+            TaskCsv.writeRow(out, values);
+            if (++count % FLUSH_EVERY == 0) {
+                out.flush();
+            }
+        }
+        out.flush();
+        return count;
+    }
+
+    private static String fileName(String name, TransferFormat format) {
+        if (name == null || name.isBlank()) {
+            return "tasks-" + System.currentTimeMillis() + "." + format.extension();
+        }
+        String trimmed = name.trim();
+        if (!trimmed.matches("[A-Za-z0-9._-]+") || trimmed.startsWith(".")) {
+            throw new IllegalArgumentException("Nom de fichier invalide: " + name
+                    + " (lettres, chiffres, '.', '_' et '-' uniquement)");
+        }
+        return trimmed.endsWith("." + format.extension()) ? trimmed : trimmed + "." + format.extension();
+    }
+
+    /**
+     * Fichier d'export écrit.
+     */
+    public record ExportFile(String file, TransferFormat format, long count, long bytes) {
+    }
+}
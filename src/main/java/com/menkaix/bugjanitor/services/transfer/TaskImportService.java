@@ -0,0 +1,465 @@
+package com.menkaix.bugjanitor.services.transfer;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.TaskService;
+import com.menkaix.bugjanitor.services.bulk.BulkItemResult;
+import com.menkaix.bugjanitor.services.bulk.BulkResult;
+import com.menkaix.bugjanitor.services.transfer.ImportReport.RecordError;
+
+/**
+ * Import en flux de tâches NDJSON ou CSV.
+ *
+ * Le fichier est lu enregistrement par enregistrement ; les tâches valides
+ * sont regroupées en lots de {@code app.transfer.batch-size} insérés par un
+ * {@code bulkWrite} non ordonné ({@link TaskService#importAll}). La lecture
+ * et l'écriture se chevauchent : un thread écrit pendant que la requête
+ * continue de lire, au plus {@code app.transfer.max-in-flight} lots en
+ * attente. Au-delà, la lecture s'arrête jusqu'à ce que la base suive ; la
+ * mémoire reste bornée quelle que soit la taille du fichier.
+ *
+ * Après chaque lot, un point de reprise (nombre d'enregistrements validés)
+ * est enregistré dans {@value #CHECKPOINTS}. Un import interrompu se reprend
+ * en renvoyant le même fichier avec le même {@code jobId} : les
+ * enregistrements déjà validés sont sautés. Les tâches sans identifiant en
+ * reçoivent un dérivé du job et du numéro d'enregistrement : un lot écrit
+ * juste avant l'interruption, mais pas encore validé, est retrouvé et compté
+ * {@code skipped} au lieu d'être dupliqué.
+ */
+@Service
+public class TaskImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskImportService.class);
+
+    public static final String CHECKPOINTS = "import_checkpoints";
+
+    private static final int MAX_ERRORS = 100;
+    private static final long LOG_EVERY = 100_000;
+
+    private final TaskService taskService;
+    private final MongoTemplate mongoTemplate;
+    private final Gson gson;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final int maxRecordChars;
+
+    private final Map<String, Job> running = new ConcurrentHashMap<>();
+
+    public TaskImportService(TaskService taskService, MongoTemplate mongoTemplate, Gson gson,
+                             @Value("${app.transfer.batch-size:1000}") int batchSize,
+                             @Value("${app.transfer.max-in-flight:2}") int maxInFlight,
+                             @Value("${app.transfer.max-record-chars:1048576}") int maxRecordChars) {
+        this.taskService = taskService;
+        this.mongoTemplate = mongoTemplate;
+        this.gson = gson;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * Importe le flux jusqu'à sa fin ; reprend au point de reprise de
+     * {@code jobId} s'il existe.
+     *
+     * @param jobId identifiant du job, généré si absent
+     * @return bilan ; {@code failed} si l'import s'est interrompu, le job se
+     *         reprend alors en renvoyant le fichier
+     * @throws IllegalArgumentException si le fichier est refusé avant tout lot
+     *                                  validé (en-tête CSV invalide, CSV mal
+     *                                  formé) ou si le job existant a un autre
+     *                                  format
+     * @throws IllegalStateException    si le job est déjà en cours
+     */
+    public ImportReport importTasks(String jobId, TransferFormat format, InputStream input) {
+        String id = StringUtils.hasText(jobId) ? jobId.trim() : UUID.randomUUID().toString();
+        Job job = new Job(id, format);
+        if (running.putIfAbsent(id, job) != null) {
+            throw new IllegalStateException("Import déjà en cours: " + id);
+        }
+        try {
+            resume(job);
+            // Point de reprise posé avant toute écriture : il fixe la date des identifiants dérivés
+            saveCheckpoint(job, ImportReport.RUNNING, null);
+        } catch (RuntimeException e) {
+            running.remove(id);
+            throw e;
+        }
+        try {
+            run(job, input);
+            job.finish(ImportReport.DONE, null);
+        } catch (IllegalArgumentException e) {
+            job.finish(ImportReport.FAILED, e.getMessage());
+            if (job.committed == job.resumedFrom) {
+                // Fichier refusé avant tout lot validé : erreur de la requête
+                saveCheckpoint(job, job.status, job.message);
+                throw e;
+            }
+        } catch (Exception e) {
+            log.warn("Import {} interrompu après {} enregistrements: {}", id, job.committed, e.getMessage());
+            job.finish(ImportReport.FAILED, e.getMessage());
+        } finally {
+            running.remove(id);
+        }
+        saveCheckpoint(job, job.status, job.message);
+        log.info("Import {} {}: {} insérées, {} déjà présentes, {} en erreur", id, job.status, job.inserted,
+                job.skipped, job.failed);
+        return job.report();
+    }
+
+    /**
+     * Avancement d'un import en cours, ou bilan enregistré d'un import
+     * terminé ou interrompu.
+     */
+    public Optional<ImportReport> progress(String jobId) {
+        Job job = running.get(jobId);
+        if (job != null) {
+            return Optional.of(job.report());
+        }
+        Document checkpoint = mongoTemplate.findById(jobId, Document.class, CHECKPOINTS);
+        if (checkpoint == null) {
+            return Optional.empty();
+        }
+        Job stored = Job.from(checkpoint);
+        return Optional.of(stored.report());
+    }
+
+    private void resume(Job job) {
+        Document checkpoint = mongoTemplate.findById(job.id, Document.class, CHECKPOINTS);
+        if (checkpoint == null) {
+            return;
+        }
+        Job previous = Job.from(checkpoint);
+        if (previous.format != job.format) {
+            throw new IllegalArgumentException("Le job " + job.id + " a été commencé au format " + previous.format);
+        }
+        job.startedAt = previous.startedAt;
+        job.resumedFrom = previous.committed;
+        job.committed = previous.committed;
+        job.inserted = previous.inserted;
+        job.skipped = previous.skipped;
+        job.failed = previous.failed;
+        job.errors.addAll(previous.errors);
+    }
+
+    private void run(Job job, InputStream input) throws Exception {
+        BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(maxInFlight);
+        Thread writer = Thread.ofVirtual().name("task-import-" + job.id).start(() -> write(job, queue));
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Batch batch = new Batch();
+        try {
+            long record = 0;
+            if (job.format == TransferFormat.CSV) {
+                CsvReader csv = new CsvReader(reader, maxRecordChars);
+                List<String> header = csv.next();
+                TaskCsv.checkHeader(header);
+                List<String> row;
+                while ((row = csv.next()) != null) {
+                    if (record >= job.committed) {
+                        List<String> values = row;
+                        batch.add(record, () -> fromCsv(header, values));
+                    }
+                    record++;
+                    batch = flushIfFull(job, queue, batch, record);
+                }
+            } else {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (record >= job.committed) {
+                        String json = line;
+                        batch.add(record, () -> gson.fromJson(json, Task.class));
+                    }
+                    record++;
+                    batch = flushIfFull(job, queue, batch, record);
+                }
+            }
+            batch.end = Math.max(record, job.committed);
+            put(job, queue, batch);
+        } finally {
+            put(job, queue, Batch.END);
+            writer.join();
+        }
+        if (job.writeFailure != null) {
+            throw job.writeFailure;
+        }
+    }
+
+    private Batch flushIfFull(Job job, BlockingQueue<Batch> queue, Batch batch, long record) throws Exception {
+        if (batch.size() < batchSize) {
+            return batch;
+        }
+        batch.end = record;
+        put(job, queue, batch);
+        return new Batch();
+    }
+
+    /**
+     * Met le lot en file ; bloque tant que {@code max-in-flight} lots
+     * attendent l'écriture.
+     */
+    private void put(Job job, BlockingQueue<Batch> queue, Batch batch) throws Exception {
+        while (!queue.offer(batch, 1, TimeUnit.SECONDS)) {
+            if (job.writeFailure != null) {
+                if (batch == Batch.END) {
+                    return;
+                }
+                throw job.writeFailure;
+            }
+        }
+    }
+
+    private void write(Job job, BlockingQueue<Batch> queue) {
+        try {
+            while (true) {
+                Batch batch = queue.take();
+                if (batch == Batch.END) {
+                    return;
+                }
+                if (job.writeFailure == null) {
+                    write(job, batch);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Job job, Batch batch) {
+        try {
+            List<Task> tasks = new ArrayList<>(batch.tasks.size());
+            List<Integer> indexes = new ArrayList<>(batch.tasks.size());
+            for (int i = 0; i < batch.tasks.size(); i++) {
+                Task task = batch.tasks.get(i);
+                long record = batch.records.get(i);
+                if (task.getId() == null) {
+                    task.setId(importId(job, record));
+                }
+                task.setVersion(0L);
+                tasks.add(task);
+                indexes.add(i);
+            }
+            BulkResult result = tasks.isEmpty() ? BulkResult.of(List.of()) : taskService.importAll(tasks, indexes);
+
+            long before = job.committed;
+            synchronized (job) {
+                for (BulkItemResult item : result.items()) {
+                    switch (item.status()) {
+                        case BulkItemResult.CREATED -> job.inserted++;
+                        case BulkItemResult.SKIPPED -> job.skipped++;
+                        default -> job.error(batch.records.get(item.index()), item.id(), item.error());
+                    }
+                }
+                batch.errors.forEach(error -> job.error(error.record(), error.id(), error.message()));
+                job.committed = batch.end;
+            }
+            saveCheckpoint(job, ImportReport.RUNNING, null);
+            if (batch.end / LOG_EVERY != before / LOG_EVERY) {
+                log.info("Import {}: {} enregistrements traités", job.id, batch.end);
+            }
+        } catch (RuntimeException e) {
+            job.writeFailure = e;
+        }
+    }
+
+    private Task fromCsv(List<String> header, List<String> values) {
+        if (values.size() != header.size()) {
+            throw new IllegalArgumentException(values.size() + " colonnes au lieu de " + header.size());
+        }
+        Task task = new Task();
+        for (int i = 0; i < header.size(); i++) {
+            TaskCsv.set(task, header.get(i), values.get(i));
+        }
+        return task;
+    }
+
+    /**
+     * Identifiant stable d'un enregistrement : secondes du premier démarrage
+     * du job, empreinte du job, numéro d'enregistrement sur 3 octets (la
+     * partie haute entre dans l'empreinte).
+     */
+    private static String importId(Job job, long record) {
+        ByteBuffer bytes = ByteBuffer.allocate(12);
+        bytes.putInt((int) (job.startedAt.getTime() / 1000));
+        bytes.put(sha256(job.id + ":" + (record >>> 24)), 0, 5);
+        bytes.put((byte) (record >>> 16)).put((byte) (record >>> 8)).put((byte) record);
+        return new ObjectId(bytes.array()).toHexString();
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void saveCheckpoint(Job job, String status, String message) {
+        Update update = new Update()
+                .set("format", job.format.name())
+                .set("status", status)
+                .set("startedAt", job.startedAt)
+                .set("updatedAt", new Date());
+        synchronized (job) {
+            update.set("committed", job.committed)
+                    .set("inserted", job.inserted)
+                    .set("skipped", job.skipped)
+                    .set("failed", job.failed)
+                    .set("recordsPerSecond", job.rate())
+                    .set("message", message);
+            if (!ImportReport.RUNNING.equals(status)) {
+                update.set("errors", job.errors.stream()
+                        .map(error -> new Document("record", error.record()).append("id", error.id())
+                                .append("message", error.message()))
+                        .toList());
+            }
+        }
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(job.id)), update, CHECKPOINTS);
+    }
+
+    private interface Parser {
+        Task parse();
+    }
+
+    /** Lot d'enregistrements lus, jusqu'à {@code end} (exclu). */
+    private static final class Batch {
+
+        static final Batch END = new Batch();
+
+        final List<Task> tasks = new ArrayList<>();
+        final List<Long> records = new ArrayList<>();
+        final List<RecordError> errors = new ArrayList<>();
+        long end;
+
+        void add(long record, Parser parser) {
+            try {
+                Task task = parser.parse();
+                if (task == null || !StringUtils.hasText(task.getTitle())) {
+                    errors.add(new RecordError(record, task == null ? null : task.getId(),
+                            "Le titre de la tâche est requis"));
+                    return;
+                }
+                tasks.add(task);
+                records.add(record);
+            } catch (JsonParseException | IllegalArgumentException e) {
+                errors.add(new RecordError(record, null, e.getMessage()));
+            }
+        }
+
+        int size() {
+            return tasks.size() + errors.size();
+        }
+    }
+
+    private static final class Job {
+
+        final String id;
+        final TransferFormat format;
+        final long runStartedAt = System.nanoTime();
+        final List<RecordError> errors = new ArrayList<>();
+        Date startedAt = new Date();
+        Date finishedAt;
+        long finishedNanos;
+        Double storedRate;
+        volatile String status = ImportReport.RUNNING;
+        String message;
+        long resumedFrom;
+        long committed;
+        long inserted;
+        long skipped;
+        long failed;
+        volatile RuntimeException writeFailure;
+
+        Job(String id, TransferFormat format) {
+            this.id = id;
+            this.format = format;
+        }
+
+        static Job from(Document checkpoint) {
+            Job job = new Job(checkpoint.getString("_id"), TransferFormat.valueOf(checkpoint.getString("format")));
+            job.status = checkpoint.getString("status");
+            job.message = checkpoint.getString("message");
+            job.startedAt = checkpoint.getDate("startedAt");
+            job.finishedAt = ImportReport.RUNNING.equals(job.status) ? null : checkpoint.getDate("updatedAt");
+            job.committed = number(checkpoint, "committed");
+            job.inserted = number(checkpoint, "inserted");
+            job.skipped = number(checkpoint, "skipped");
+            job.failed = number(checkpoint, "failed");
+            Object rate = checkpoint.get("recordsPerSecond");
+            job.storedRate = rate instanceof Number number ? number.doubleValue() : 0.0;
+            List<Document> errors = checkpoint.getList("errors", Document.class, List.of());
+            for (Document error : errors) {
+                job.errors.add(new RecordError(number(error, "record"), error.getString("id"),
+                        error.getString("message")));
+            }
+            return job;
+        }
+
+        void error(long record, String taskId, String text) {
+            failed++;
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(new RecordError(record, taskId, text));
+            }
+        }
+
+        synchronized void finish(String finalStatus, String finalMessage) {
+            status = finalStatus;
+            message = finalMessage;
+            finishedAt = new Date();
+            finishedNanos = System.nanoTime();
+        }
+
+        synchronized ImportReport report() {
+            return new ImportReport(id, status, format, resumedFrom, committed, inserted, skipped, failed,
+                    Math.round(rate() * 10) / 10.0, startedAt, finishedAt, message, List.copyOf(errors));
+        }
+
+        /** Débit de l'exécution courante, ou débit enregistré pour un job relu. */
+        double rate() {
+            if (storedRate != null) {
+                return storedRate;
+            }
+            long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+            double seconds = (end - runStartedAt) / 1e9;
+            return seconds > 0 ? (committed - resumedFrom) / seconds : 0;
+        }
+
+        private static long number(Document document, String field) {
+            Object value = document.get(field);
+            return value instanceof Number number ? number.longValue() : 0;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.menkaix.bugjanitor.services.transfer;
+
+import java.util.Locale;
+
+import org.springframework.http.MediaType;
+
+import com.menkaix.bugjanitor.services.streaming.JsonStreams;
+
+/**
+ * Formats d'import et d'export des tâches : NDJSON (un document JSON par
+ * ligne, forme des réponses de l'API) ou CSV avec ligne d'en-tête.
+ */
+public enum TransferFormat {
+
+    NDJSON(JsonStreams.NDJSON, "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    TransferFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Format demandé par {@code format}, à défaut déduit du type de contenu
+     * ({@code Content-Type} ou {@code Accept}) ; NDJSON par défaut.
+     */
+    public static TransferFormat of(String format, String mediaType) {
+        if (format != null && !format.isBlank()) {
+            return switch (format.trim().toLowerCase(Locale.ROOT)) {
+                case "ndjson" -> NDJSON;
+                case "csv" -> CSV;
+                default -> throw new IllegalArgumentException("Format inconnu: " + format + " (attendu: ndjson, csv)");
+            };
+        }
+        if (mediaType != null && mediaType.toLowerCase(Locale.ROOT).contains("csv")) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
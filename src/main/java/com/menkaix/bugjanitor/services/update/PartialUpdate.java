@@ -0,0 +1,47 @@
+package com.menkaix.bugjanitor.services.update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.springframework.data.mongodb.core.query.Update;
+
+/**
+ * Ensemble de champs à modifier, traduit à la fois en {@code $set} MongoDB et
+ * en modifications à rejouer sur une copie en mémoire de l'entité.
+ */
+public final class PartialUpdate<T> {
+
+    private final Update update = new Update();
+    private final List<Consumer<T>> changes = new ArrayList<>();
+
+    /**
+     * Pose le champ s'il est fourni (non null).
+     */
+    public <V> PartialUpdate<T> setIfPresent(String field, V value, BiConsumer<T, V> setter) {
+        if (value != null) {
+            set(field, value, setter);
+        }
+        return this;
+    }
+
+    public <V> PartialUpdate<T> set(String field, V value, BiConsumer<T, V> setter) {
+        update.set(field, value);
+        changes.add(entity -> setter.accept(entity, value));
+        return this;
+    }
+
+    public Update toUpdate() {
+        return update;
+    }
+
+    /**
+     * Applique les modifications à {@code entity} (une copie de l'état
+     * précédent) et la retourne.
+     */
+    public T applyTo(T entity) {
+        changes.forEach(change -> change.accept(entity));
+        return entity;
+    }
+}
@@ -0,0 +1,101 @@
+package com.menkaix.bugjanitor.services.update;
+
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mise à jour partielle en un seul aller-retour : {@code findAndModify} avec
+ * {@code $set} des seuls champs fournis et {@code $inc} de la version.
+ *
+ * Lorsque l'appelant fournit la version qu'il a lue, la modification n'est
+ * appliquée que si le document n'a pas changé depuis ; sinon une
+ * {@link OptimisticLockingFailureException} est levée. Sans version, les
+ * champs sont posés atomiquement sans écraser ceux modifiés en parallèle par
+ * un autre appelant.
+ *
+ * Les erreurs transitoires (bascule du primaire, délai réseau) sont rejouées
+ * jusqu'à {@code app.update.max-retries} fois : l'opération porte sur des
+ * valeurs absolues et peut être répétée sans risque.
+ */
+@Component
+public class VersionedUpdater {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionedUpdater.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${app.update.max-retries:2}")
+    private int maxRetries;
+
+    @Value("${app.update.retry-backoff-ms:50}")
+    private long retryBackoffMillis;
+
+    public VersionedUpdater(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    /**
+     * Applique {@code changes} au document {@code id} et retourne son état
+     * <em>avant</em> modification ; l'appelant en déduit l'état après sans
+     * seconde lecture.
+     *
+     * @throws OptimisticLockingFailureException si {@code expectedVersion} ne
+     *         correspond plus au document
+     * @throws RuntimeException si le document n'existe pas
+     */
+    public <T> T modify(Class<T> entityClass, String id, Long expectedVersion, PartialUpdate<T> changes) {
+        Update update = changes.toUpdate();
+        update.inc("version", 1);
+
+        Criteria criteria = Criteria.where("id").is(id);
+        if (expectedVersion != null) {
+            criteria.and("version").is(expectedVersion);
+        }
+        Query query = new Query(criteria);
+        FindAndModifyOptions options = FindAndModifyOptions.options().returnNew(false);
+
+        T before = withRetry(() -> mongoTemplate.findAndModify(query, update, options, entityClass));
+        if (before != null) {
+            return before;
+        }
+
+        String entityName = entityClass.getSimpleName();
+        if (expectedVersion != null && mongoTemplate.exists(new Query(Criteria.where("id").is(id)), entityClass)) {
+            throw new OptimisticLockingFailureException(entityName + " " + id
+                    + " modifié entre-temps (version attendue " + expectedVersion + ")");
+        }
+        throw new RuntimeException(entityName + " not found with id: " + id);
+    }
+
+    private <T> T withRetry(Supplier<T> operation) {
+        int attempt = 0;
+        while (true) {
+            try {
+                return operation.get();
+            } catch (TransientDataAccessException e) {
+                if (attempt >= maxRetries) {
+                    throw e;
+                }
+                attempt++;
+                log.warn("Mise à jour en échec transitoire ({}), tentative {}/{}", e.getMessage(), attempt, maxRetries);
+                try {
+                    Thread.sleep(retryBackoffMillis * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+}
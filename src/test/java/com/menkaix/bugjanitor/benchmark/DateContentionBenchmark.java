@@ -0,0 +1,121 @@
+package com.menkaix.bugjanitor.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.menkaix.bugjanitor.configuration.JsonUtils;
+
+/**
+ * Sérialise et relit en parallèle des réponses riches en dates, avec
+ * l'ancien {@code setDateFormat} puis avec le Gson partagé : débit total et
+ * nombre d'attentes sur moniteur relevées par la JVM.
+ *
+ * Lancement : {@code ./gradlew dateContentionBenchmark}
+ */
+public class DateContentionBenchmark {
+
+    private static final long RUN_MILLIS = 2000;
+
+    public static void main(String[] args) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.setThreadContentionMonitoringEnabled(true);
+
+        Gson legacy = new GsonBuilder()
+                .setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+                .create();
+        Gson shared = new JsonUtils().gson(false);
+        Map<String, Object> payload = samplePayload();
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        // Préchauffage, non affiché
+        for (int i = 0; i < 20_000; i++) {
+            legacy.fromJson(legacy.toJson(payload), DatePayload.class);
+            shared.fromJson(shared.toJson(payload), DatePayload.class);
+        }
+
+        System.out.printf("%-8s %8s %14s %12s %12s%n", "gson", "threads", "ops/s", "blocked", "blocked ms");
+        for (int threadCount : new int[] { 1, Math.max(4, cores), Math.max(16, cores * 4) }) {
+            run("legacy", legacy, payload, threadCount, threads);
+            run("shared", shared, payload, threadCount, threads);
+        }
+    }
+
+    private static void run(String name, Gson gson, Map<String, Object> payload, int threadCount,
+                            ThreadMXBean threads) throws InterruptedException {
+        String json = gson.toJson(payload);
+        AtomicBoolean running = new AtomicBoolean(true);
+        LongAdder ops = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threadCount; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (running.get()) {
+                    gson.toJson(payload);
+                    gson.fromJson(json, DatePayload.class);
+                    ops.increment();
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+
+        // Les compteurs sont relevés avant la fin des threads, qui efface leurs statistiques
+        long[] before = blocked(threads, workers);
+        start.countDown();
+        Thread.sleep(RUN_MILLIS);
+        long[] after = blocked(threads, workers);
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        System.out.printf("%-8s %8d %14.0f %12d %12d%n", name, threadCount,
+                ops.sum() * 1000.0 / RUN_MILLIS, after[0] - before[0], after[1] - before[1]);
+    }
+
+    private static long[] blocked(ThreadMXBean threads, List<Thread> workers) {
+        long count = 0;
+        long millis = 0;
+        for (Thread worker : workers) {
+            ThreadInfo info = threads.getThreadInfo(worker.threadId());
+            if (info != null) {
+                count += info.getBlockedCount();
+                millis += info.getBlockedTime();
+            }
+        }
+        return new long[] { count, millis };
+    }
+
+    private static Map<String, Object> samplePayload() {
+        long now = System.currentTimeMillis();
+        List<Date> dates = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            dates.add(new Date(now - i * 3_600_000L));
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("timestamp", new Date(now));
+        payload.put("dates", dates);
+        return payload;
+    }
+
+    private static final class DatePayload {
+        private Date timestamp;
+        private List<Date> dates;
+    }
+}
@@ -0,0 +1,116 @@
+package com.menkaix.bugjanitor.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.sun.management.ThreadMXBean;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.menkaix.bugjanitor.configuration.JsonUtils;
+import com.menkaix.bugjanitor.models.documents.Task;
+
+/**
+ * Compare les adaptateurs écrits à la main au chemin réflexif de Gson sur une
+ * page de 50 tâches réalistes : débit et octets alloués par opération.
+ *
+ * Lancement : {@code ./gradlew jsonBenchmark}
+ */
+public class JsonAdapterBenchmark {
+
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final long ROUND_NANOS = 1_000_000_000L;
+
+    public static void main(String[] args) {
+        Gson reflective = new GsonBuilder()
+                .setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'")
+                .create();
+        Gson adapters = new JsonUtils().gson(false);
+
+        List<Task> page = samplePage(50);
+        String pageJson = adapters.toJson(page);
+        String taskJson = adapters.toJson(page.get(0));
+
+        System.out.printf("%-28s %14s %14s %16s%n", "benchmark", "reflective", "adapters", "alloc B/op r/a");
+        compare("serialize page (50 tasks)", () -> reflective.toJson(page), () -> adapters.toJson(page));
+        compare("deserialize page (50 tasks)", () -> reflective.fromJson(pageJson, Task[].class),
+                () -> adapters.fromJson(pageJson, Task[].class));
+        compare("deserialize one task", () -> reflective.fromJson(taskJson, Task.class),
+                () -> adapters.fromJson(taskJson, Task.class));
+    }
+
+    private static void compare(String name, Supplier<Object> reflective, Supplier<Object> adapters) {
+        Result r = measure(reflective);
+        Result a = measure(adapters);
+        System.out.printf("%-28s %10.0f op/s %10.0f op/s %8d / %d  (x%.2f)%n",
+                name, r.opsPerSecond(), a.opsPerSecond(), r.bytesPerOp(), a.bytesPerOp(),
+                a.opsPerSecond() / r.opsPerSecond());
+    }
+
+    private static Result measure(Supplier<Object> operation) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round(operation);
+        }
+        double ops = 0;
+        long bytes = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            Result round = round(operation);
+            ops += round.opsPerSecond();
+            bytes += round.bytesPerOp();
+        }
+        return new Result(ops / MEASURED_ROUNDS, bytes / MEASURED_ROUNDS);
+    }
+
+    private static Result round(Supplier<Object> operation) {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long sink = 0;
+        long count = 0;
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            sink += operation.get().hashCode();
+            count++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ROUND_NANOS);
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+        if (sink == 42) {
+            System.out.print("");
+        }
+        return new Result(count * 1e9 / elapsed, allocated / count);
+    }
+
+    private static List<Task> samplePage(int size) {
+        List<Task> tasks = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < size; i++) {
+            Task task = new Task();
+            task.setId(String.format("66f1c2a9e4b0a1b2c3d4%04x", i));
+            task.setProjectCode("JANITOR");
+            task.setTitle("Corriger la pagination des tâches #" + i);
+            task.setDescription("Le curseur ne reprend pas au bon endroit lorsque le filtre contient un tri ; "
+                    + "reproduire avec find-tasks et un filtre sur deadLine.");
+            task.setStatus(i % 3 == 0 ? "DONE" : "TODO");
+            task.setUpdateDate(new Date(now - i * 60_000L));
+            task.setPlannedStart(new Date(now + i * 3_600_000L));
+            task.setDeadLine(new Date(now + i * 86_400_000L));
+            if (i % 3 == 0) {
+                task.setDoneDate(new Date(now));
+            }
+            task.setEstimate("2h");
+            task.setTrackingReference("JAN-" + (1000 + i));
+            task.setAssignee("alice@example.com");
+            task.setVersion((long) i);
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    private record Result(double opsPerSecond, long bytesPerOp) {
+    }
+}
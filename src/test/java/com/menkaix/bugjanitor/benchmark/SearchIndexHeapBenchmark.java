@@ -0,0 +1,107 @@
+package com.menkaix.bugjanitor.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.menkaix.bugjanitor.search.Bm25Index;
+
+/**
+ * Tas occupé par {@link Bm25Index} pour un corpus synthétique : vocabulaire
+ * de répartition de Zipf, une quarantaine de termes par tâche (titre compté
+ * deux fois, description). Affiche les octets retenus par document et par
+ * couple (terme, document), puis le temps d'une requête sur un terme courant.
+ *
+ * Lancement : {@code ./gradlew searchIndexBenchmark} (nombre de documents en
+ * argument, 500 000 par défaut ; prévoir un {@code -Xmx} suffisant).
+ */
+public class SearchIndexHeapBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int TERMS_PER_DOCUMENT = 40;
+
+    public static void main(String[] args) {
+        int documents = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        Random random = new Random(42);
+        double[] cumulative = zipf(VOCABULARY);
+        String[] vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            vocabulary[i] = "terme" + i;
+        }
+
+        long before = usedHeap();
+        Bm25Index index = new Bm25Index();
+        long pairs = 0;
+        for (int doc = 0; doc < documents; doc++) {
+            List<String> terms = new ArrayList<>(TERMS_PER_DOCUMENT);
+            for (int i = 0; i < TERMS_PER_DOCUMENT; i++) {
+                terms.add(vocabulary[pick(cumulative, random.nextDouble())]);
+            }
+            pairs += new HashSet<>(terms).size();
+            index.index("task-" + doc, terms);
+        }
+        // Réindexation d'un dixième du corpus, comme des mises à jour
+        for (int doc = 0; doc < documents; doc += 10) {
+            List<String> terms = new ArrayList<>(TERMS_PER_DOCUMENT);
+            for (int i = 0; i < TERMS_PER_DOCUMENT; i++) {
+                terms.add(vocabulary[pick(cumulative, random.nextDouble())]);
+            }
+            index.index("task-" + doc, terms);
+        }
+        long retained = usedHeap() - before;
+
+        System.out.printf("documents            %,d%n", documents);
+        System.out.printf("couples terme/doc    %,d%n", pairs);
+        System.out.printf("tas retenu           %,d Mo%n", retained / (1024 * 1024));
+        System.out.printf("octets par document  %,d%n", retained / documents);
+        System.out.printf("octets par couple    %.1f%n", (double) retained / pairs);
+
+        List<Set<String>> query = List.of(Set.of(vocabulary[0]), Set.of(vocabulary[100]));
+        for (int i = 0; i < 5; i++) {
+            index.search(query, Integer.MAX_VALUE);
+        }
+        long start = System.nanoTime();
+        int hits = index.search(query, Integer.MAX_VALUE).size();
+        System.out.printf("requête courante     %,d résultats en %d ms%n", hits,
+                (System.nanoTime() - start) / 1_000_000);
+        // Garde l'index vivant jusqu'à la mesure
+        System.out.printf("taille de l'index    %,d%n", index.size());
+    }
+
+    private static double[] zipf(int size) {
+        double[] cumulative = new double[size];
+        double sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += 1.0 / (i + 1);
+            cumulative[i] = sum;
+        }
+        for (int i = 0; i < size; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int pick(double[] cumulative, double value) {
+        int low = 0;
+        int high = cumulative.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,130 @@
+package com.menkaix.bugjanitor.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.dao.TransientDataAccessResourceException;
+
+import com.menkaix.bugjanitor.configuration.concurrency.MongoConcurrencyLimiter;
+
+/**
+ * Simule des sessions MCP sur SSE dans les deux modes d'exécution : nombre de
+ * sessions réellement servies en même temps et latence des appels d'outils.
+ *
+ * Chaque session retient un thread de requête pendant toute sa durée et
+ * enchaîne des appels d'outils séparés par un temps de réflexion du client.
+ * Comme le transport MCP, la session attend chaque appel exécuté sur
+ * l'ordonnanceur des outils ; l'appel lui-même passe par le limiteur Mongo
+ * et bloque le temps d'une requête.
+ *
+ * En mode plateforme, les requêtes ont le pool par défaut de Tomcat (200
+ * threads) et les outils celui de {@code boundedElastic} (dix threads par
+ * cœur) ; en mode virtuel, un thread virtuel par tâche des deux côtés.
+ *
+ * Lancement : {@code ./gradlew threadModeBenchmark}
+ */
+public class ThreadModeBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+    private static final int CALLS_PER_SESSION = 5;
+    private static final long THINK_MILLIS = 20;
+    private static final long MONGO_MILLIS = 5;
+    private static final int MONGO_CONCURRENCY = 50;
+
+    public static void main(String[] args) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        // Préchauffage, non affiché
+        run("platform", 100, cores);
+        run("virtual", 100, cores);
+
+        System.out.printf("%-9s %9s %13s %13s %11s %11s %9s %9s%n", "mode", "sessions", "peak active",
+                "p99 admit ms", "p50 call ms", "p99 call ms", "rejected", "total ms");
+        for (int sessions : new int[] { 200, 1000, 4000 }) {
+            print(run("platform", sessions, cores));
+            print(run("virtual", sessions, cores));
+        }
+    }
+
+    private static Result run(String mode, int sessions, int cores) throws Exception {
+        boolean virtual = mode.equals("virtual");
+        MongoConcurrencyLimiter limiter = new MongoConcurrencyLimiter(true, MONGO_CONCURRENCY, 30_000);
+
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        LongAdder rejected = new LongAdder();
+        long[] admitNanos = new long[sessions];
+        long[] callNanos = new long[sessions * CALLS_PER_SESSION];
+
+        long start = System.nanoTime();
+        try (ExecutorService requests = virtual ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+             ExecutorService tools = virtual ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(10 * cores)) {
+
+            Future<?>[] futures = new Future<?>[sessions];
+            for (int s = 0; s < sessions; s++) {
+                int session = s;
+                long submitted = System.nanoTime();
+                futures[s] = requests.submit(() -> {
+                    admitNanos[session] = System.nanoTime() - submitted;
+                    peak.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    try {
+                        for (int c = 0; c < CALLS_PER_SESSION; c++) {
+                            sleep(THINK_MILLIS);
+                            long callStart = System.nanoTime();
+                            try {
+                                tools.submit(() -> limiter.call(() -> sleep(MONGO_MILLIS))).get();
+                            } catch (ExecutionException e) {
+                                if (e.getCause() instanceof TransientDataAccessResourceException) {
+                                    rejected.increment();
+                                }
+                            }
+                            callNanos[session * CALLS_PER_SESSION + c] = System.nanoTime() - callStart;
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        active.decrementAndGet();
+                    }
+                    return null;
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        long total = System.nanoTime() - start;
+
+        Arrays.sort(admitNanos);
+        Arrays.sort(callNanos);
+        return new Result(mode, sessions, peak.get(), percentile(admitNanos, 0.99), percentile(callNanos, 0.50),
+                percentile(callNanos, 0.99), rejected.sum(), total / 1e6);
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+    }
+
+    private static void print(Result r) {
+        System.out.printf("%-9s %9d %13d %13.1f %11.1f %11.1f %9d %9.0f%n", r.mode(), r.sessions(), r.peakActive(),
+                r.p99AdmitMs(), r.p50CallMs(), r.p99CallMs(), r.rejected(), r.totalMs());
+    }
+
+    private record Result(String mode, int sessions, int peakActive, double p99AdmitMs, double p50CallMs,
+                          double p99CallMs, long rejected, double totalMs) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.menkaix.bugjanitor.mcp.resources;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ResourceRouterTest {
+
+    private final ResourceRouter router = ResourceRouter.of(new Handler());
+
+    @Test
+    void literalSegmentWinsOverVariable() {
+        assertThat(resolve("tasks/search").template()).isEqualTo("tasks/search");
+        assertThat(resolve("tasks/abc123").template()).isEqualTo("tasks/{taskId}");
+        assertThat(resolve("tasks/abc123").variable("taskId")).isEqualTo("abc123");
+    }
+
+    @Test
+    void backtracksToVariableWhenLiteralBranchFails() {
+        assertThat(resolve("projects/active/summary").template()).isEqualTo("projects/active/summary");
+
+        ResourceRequest request = resolve("projects/active/tasks");
+        assertThat(request.template()).isEqualTo("projects/{projectCode}/tasks");
+        assertThat(request.variable("projectCode")).isEqualTo("active");
+    }
+
+    @Test
+    void capturesSeveralVariables() {
+        ResourceRequest request = resolve("projects/BJ/tasks/t-1");
+
+        assertThat(request.template()).isEqualTo("projects/{projectCode}/tasks/{taskId}");
+        assertThat(request.variables()).containsExactlyInAnyOrderEntriesOf(Map.of("projectCode", "BJ", "taskId", "t-1"));
+    }
+
+    @Test
+    void variableNeverSpansSegmentsNorMatchesEmpty() {
+        assertThat(router.resolve("tasks/a/b", Map.of())).isNull();
+        assertThat(router.resolve("tasks/", Map.of())).isNull();
+        assertThat(router.resolve("projects//tasks", Map.of())).isNull();
+        assertThat(router.resolve("unknown", Map.of())).isNull();
+    }
+
+    @Test
+    void parsesQueryString() {
+        ResourceRequest request = resolve("tasks?cursor=abc&size=20&flag&empty=");
+
+        assertThat(request.template()).isEqualTo("tasks");
+        assertThat(request.parameters()).containsExactlyInAnyOrderEntriesOf(
+                Map.of("cursor", "abc", "size", "20", "flag", "", "empty", ""));
+    }
+
+    @Test
+    void extraParametersOverrideQueryString() {
+        Map<String, String> extra = new HashMap<>();
+        extra.put("size", "50");
+        extra.put("filter", "status:TODO");
+        extra.put("cursor", null);
+
+        ResourceRequest request = router.resolve("tasks?size=20&cursor=abc", extra);
+
+        assertThat(request.parameters()).containsExactlyInAnyOrderEntriesOf(
+                Map.of("size", "50", "filter", "status:TODO", "cursor", "abc"));
+    }
+
+    @Test
+    void decodesPathSegmentsKeepingPlus() {
+        ResourceRequest request = resolve("tasks/a%2Fb%20c+d%C3%A9");
+
+        assertThat(request.template()).isEqualTo("tasks/{taskId}");
+        assertThat(request.variable("taskId")).isEqualTo("a/b c+dé");
+    }
+
+    @Test
+    void decodesQueryParametersWithPlusAsSpace() {
+        ResourceRequest request = resolve("tasks?filter=status%3ATODO+assignee%3A%22Jean%20D%22&q%26=x%3Dy");
+
+        assertThat(request.parameter("filter")).isEqualTo("status:TODO assignee:\"Jean D\"");
+        assertThat(request.parameter("q&")).isEqualTo("x=y");
+    }
+
+    @Test
+    void dispatchInvokesTheMatchingMethod() {
+        assertThat(router.dispatch("tasks/42?x=1", Map.of()))
+                .containsEntry("route", "task")
+                .containsEntry("taskId", "42");
+        assertThat(router.dispatch("nowhere", Map.of())).isNull();
+        assertThat(router.dispatch(resolve("tasks/search"))).containsEntry("route", "search");
+    }
+
+    @Test
+    void dispatchRethrowsHandlerExceptions() {
+        assertThatThrownBy(() -> router.dispatch("failing", Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("boom");
+        assertThatThrownBy(() -> router.dispatch(new ResourceRequest("missing", Map.of(), Map.of())))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void listingGroupsRoutesSortedByTemplate() {
+        Map<String, Map<String, String>> listing = router.listing();
+
+        assertThat(listing.keySet()).containsExactlyInAnyOrder("task_resources", "project_resources");
+        assertThat(listing.get("task_resources").keySet())
+                .containsExactly("failing", "tasks", "tasks/search", "tasks/{taskId}");
+    }
+
+    @Test
+    void conflictingRoutesAreRejected() {
+        assertThatThrownBy(() -> ResourceRouter.of(new ConflictingHandler()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("en conflit");
+    }
+
+    @Test
+    void wrongSignatureIsRejected() {
+        assertThatThrownBy(() -> ResourceRouter.of(new WrongSignatureHandler()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("signature");
+    }
+
+    private ResourceRequest resolve(String uri) {
+        ResourceRequest request = router.resolve(uri, Map.of());
+        assertThat(request).as(uri).isNotNull();
+        return request;
+    }
+
+    static class Handler {
+
+        @ResourceRoute(value = "tasks", group = "task_resources", description = "Tâches")
+        Map<String, Object> tasks(ResourceRequest request) {
+            return Map.of("route", "tasks");
+        }
+
+        @ResourceRoute(value = "tasks/search", group = "task_resources", description = "Recherche")
+        Map<String, Object> search(ResourceRequest request) {
+            return Map.of("route", "search");
+        }
+
+        @ResourceRoute(value = "tasks/{taskId}", group = "task_resources", description = "Tâche")
+        Map<String, Object> task(ResourceRequest request) {
+            return Map.of("route", "task", "taskId", request.variable("taskId"));
+        }
+
+        @ResourceRoute(value = "failing", group = "task_resources", description = "Échec")
+        Map<String, Object> failing(ResourceRequest request) {
+            throw new IllegalArgumentException("boom");
+        }
+
+        @ResourceRoute(value = "projects/active/summary", group = "project_resources", description = "Actifs")
+        Map<String, Object> activeSummary(ResourceRequest request) {
+            return Map.of("route", "activeSummary");
+        }
+
+        @ResourceRoute(value = "projects/{projectCode}/tasks", group = "project_resources", description = "Tâches du projet")
+        Map<String, Object> projectTasks(ResourceRequest request) {
+            return Map.of("route", "projectTasks");
+        }
+
+        @ResourceRoute(value = "projects/{projectCode}/tasks/{taskId}", group = "project_resources", description = "Tâche du projet")
+        Map<String, Object> projectTask(ResourceRequest request) {
+            return Map.of("route", "projectTask");
+        }
+    }
+
+    static class ConflictingHandler {
+
+        @ResourceRoute(value = "tasks/{taskId}", group = "g", description = "a")
+        Map<String, Object> first(ResourceRequest request) {
+            return Map.of();
+        }
+
+        @ResourceRoute(value = "tasks/{id}", group = "g", description = "b")
+        Map<String, Object> second(ResourceRequest request) {
+            return Map.of();
+        }
+    }
+
+    static class WrongSignatureHandler {
+
+        @ResourceRoute(value = "tasks", group = "g", description = "a")
+        Map<String, Object> tasks(String uri) {
+            return Map.of();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.menkaix.bugjanitor.services.deadlines;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.projection.FieldProjection;
+
+class DeadlineIndexTest {
+
+    private static final long HOUR = 60L * 60 * 1000;
+
+    private MongoTemplate mongoTemplate;
+    private DeadlineIndex index;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        index = new DeadlineIndex(mongoTemplate, mock(ObjectProvider.class), true, 1000, 30_000);
+    }
+
+    @Test
+    void rebuildLoadsOpenTasksByDeadline() {
+        streamFromDatabase(() -> Stream.of(task("late", -2), task("soon", 3), task("later", 24 * 30)));
+
+        assertThat(index.rebuild()).isEqualTo(3);
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(ids(index.overdue(FieldProjection.full()))).containsExactly("late");
+        assertThat(ids(index.upcoming(FieldProjection.full()))).containsExactly("soon");
+    }
+
+    @Test
+    void writesDuringRebuildAreReplayedOverTheSnapshot() {
+        // Le flux simule une lecture lente : les écritures arrivent pendant le parcours
+        streamFromDatabase(() -> Stream.of(task("deleted", 5), task("moved", 10), task("closed", 20))
+                .peek(task -> {
+                    switch (task.getId()) {
+                        case "deleted" -> index.onDeleted(task);
+                        case "moved" -> {
+                            Task moved = task("moved", -1);
+                            index.onUpdated(task, moved);
+                        }
+                        case "closed" -> {
+                            Task closed = task("closed", 20);
+                            closed.setDoneDate(new Date());
+                            index.onUpdated(task, closed);
+                            index.onCreated(task("created", 30));
+                        }
+                        default -> {
+                        }
+                    }
+                }));
+
+        index.rebuild();
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(ids(index.overdue(FieldProjection.full()))).containsExactly("moved");
+        assertThat(ids(index.upcoming(FieldProjection.full()))).containsExactly("created");
+    }
+
+    @Test
+    void writeBeforeTheSnapshotReachesTheTaskWins() {
+        // La tâche est modifiée avant que le parcours ne l'atteigne : l'instantané la lit périmée
+        Task stale = task("task", 48);
+        streamFromDatabase(() -> Stream.of(task("first", 24 * 30), stale)
+                .peek(task -> {
+                    if (task.getId().equals("first")) {
+                        index.onUpdated(stale, task("task", 4));
+                    }
+                }));
+
+        index.rebuild();
+
+        List<Task> upcoming = index.upcoming(FieldProjection.full());
+        assertThat(ids(upcoming)).containsExactly("task");
+        assertThat(upcoming.get(0).getDeadLine().getTime())
+                .isLessThan(System.currentTimeMillis() + 5 * HOUR);
+    }
+
+    @Test
+    void failedRebuildKeepsTheIndexNotReadyAndStopsBuffering() {
+        doThrow(new IllegalStateException("down")).when(mongoTemplate).stream(any(Query.class), eq(Task.class));
+
+        assertThatThrownBy(index::rebuild).isInstanceOf(IllegalStateException.class);
+        assertThat(index.isReady()).isFalse();
+
+        streamFromDatabase(Stream::empty);
+        index.onCreated(task("after", 3));
+        index.rebuild();
+
+        // L'écriture faite hors chargement n'est pas rejouée sur le nouvel instantané
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void writesAfterRebuildUpdateTheIndex() {
+        streamFromDatabase(() -> Stream.of(task("a", 5)));
+        index.rebuild();
+
+        Task a = task("a", 5);
+        Task done = task("a", 5);
+        done.setDoneDate(new Date());
+        index.onUpdated(a, done);
+        index.onCreated(task("b", -3));
+        index.onCreated(task("undated", 0));
+
+        assertThat(ids(index.upcoming(FieldProjection.full()))).isEmpty();
+        assertThat(ids(index.overdue(FieldProjection.full()))).containsExactly("b");
+    }
+
+    @Test
+    void disabledIndexIgnoresWrites() {
+        @SuppressWarnings("unchecked")
+        DeadlineIndex disabled = new DeadlineIndex(mongoTemplate, mock(ObjectProvider.class), false, 1000, 30_000);
+
+        disabled.onCreated(task("a", 5));
+
+        assertThat(disabled.isReady()).isFalse();
+        assertThat(disabled.size()).isZero();
+    }
+
+    private void streamFromDatabase(Supplier<Stream<Task>> tasks) {
+        doAnswer(invocation -> tasks.get()).when(mongoTemplate).stream(any(Query.class), eq(Task.class));
+    }
+
+    /**
+     * Tâche ouverte dont l'échéance est à {@code hoursFromNow} heures ;
+     * zéro pour une tâche sans échéance.
+     */
+    private static Task task(String id, long hoursFromNow) {
+        Task task = new Task();
+        task.setId(id);
+        task.setDeadLine(hoursFromNow == 0 ? null : new Date(System.currentTimeMillis() + hoursFromNow * HOUR));
+        return task;
+    }
+
+    private static List<String> ids(List<Task> tasks) {
+        return tasks.stream().map(Task::getId).toList();
+    }
+}
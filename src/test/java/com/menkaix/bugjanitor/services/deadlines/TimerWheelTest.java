@@ -0,0 +1,178 @@
+package com.menkaix.bugjanitor.services.deadlines;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TimerWheelTest {
+
+    // Portée de la roue : 64⁴ graduations
+    private static final long SPAN = 1L << 24;
+
+    private final TimerWheel wheel = new TimerWheel(0, 1);
+
+    @Test
+    void expiresAtItsTick() {
+        wheel.schedule("a", 5);
+
+        assertThat(advance(4)).isEmpty();
+        assertThat(advance(5)).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+        assertThat(advance(100)).isEmpty();
+    }
+
+    @Test
+    void roundsDueTimeUpToTheNextTick() {
+        TimerWheel seconds = new TimerWheel(0, 1000);
+        seconds.schedule("a", 1500);
+        List<String> expired = new ArrayList<>();
+
+        seconds.advance(1999, expired::add);
+        assertThat(expired).isEmpty();
+        assertThat(seconds.nextTickMillis()).isEqualTo(2000);
+
+        seconds.advance(2000, expired::add);
+        assertThat(expired).containsExactly("a");
+    }
+
+    @Test
+    void cascadesThroughEveryLevel() {
+        long[] dues = { 63, 64, 65, 64 * 64 - 1, 64 * 64, 64 * 64 + 7, 64 * 64 * 64, 64 * 64 * 64 + 3,
+                SPAN - 1 };
+        for (long due : dues) {
+            wheel.schedule("k" + due, due);
+        }
+
+        for (long due : dues) {
+            assertThat(advance(due - 1)).as("avant %d", due).isEmpty();
+            assertThat(advance(due)).as("à %d", due).containsExactly("k" + due);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void cascadesFromAnUnalignedPosition() {
+        advance(100);
+        long due = 100 + 64 * 64 * 64 + 64 * 64 + 17;
+        wheel.schedule("a", due);
+
+        assertThat(advance(due - 1)).isEmpty();
+        assertThat(advance(due)).containsExactly("a");
+    }
+
+    @Test
+    void deadlineBeyondTheSpanIsReclassified() {
+        long due = 2 * SPAN + 12_345;
+        wheel.schedule("far", due);
+        wheel.schedule("edge", SPAN);
+
+        assertThat(advance(SPAN - 1)).isEmpty();
+        assertThat(advance(SPAN)).containsExactly("edge");
+        assertThat(advance(due - 1)).isEmpty();
+        assertThat(advance(due)).containsExactly("far");
+    }
+
+    @Test
+    void pastDueExpiresOnTheNextTick() {
+        advance(100);
+        wheel.schedule("late", 10);
+        wheel.schedule("now", 100);
+
+        assertThat(advance(100)).isEmpty();
+        assertThat(advance(101)).containsExactlyInAnyOrder("late", "now");
+    }
+
+    @Test
+    void cancelRemovesTheDeadline() {
+        wheel.schedule("a", 10);
+        wheel.schedule("b", 10);
+
+        assertThat(wheel.cancel("a")).isTrue();
+        assertThat(wheel.cancel("a")).isFalse();
+        assertThat(wheel.cancel("unknown")).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(advance(10)).containsExactly("b");
+    }
+
+    @Test
+    void cancelAfterCascadeStillRemoves() {
+        wheel.schedule("a", 64 * 64 + 100);
+
+        // Redistribué du niveau 2 vers le niveau 1 à la graduation 4096
+        assertThat(advance(64 * 64 + 1)).isEmpty();
+        assertThat(wheel.cancel("a")).isTrue();
+        assertThat(advance(64 * 64 + 200)).isEmpty();
+    }
+
+    @Test
+    void rescheduleReplacesThePreviousDeadline() {
+        wheel.schedule("later", 10);
+        wheel.schedule("later", 5_000);
+        wheel.schedule("sooner", 5_000);
+        wheel.schedule("sooner", 10);
+
+        assertThat(wheel.size()).isEqualTo(2);
+        assertThat(advance(10)).containsExactly("sooner");
+        assertThat(advance(4_999)).isEmpty();
+        assertThat(advance(5_000)).containsExactly("later");
+    }
+
+    @Test
+    void expiredKeyCanBeScheduledAgain() {
+        wheel.schedule("a", 3);
+        assertThat(advance(3)).containsExactly("a");
+
+        wheel.schedule("a", 7);
+        assertThat(advance(7)).containsExactly("a");
+    }
+
+    @Test
+    void matchesAReferenceModel() {
+        Random random = new Random(42);
+        Map<String, Long> expected = new HashMap<>();
+        long now = 0;
+
+        for (int step = 0; step < 20_000; step++) {
+            String key = "k" + random.nextInt(500);
+            int action = random.nextInt(10);
+            if (action < 5) {
+                long due = now + switch (random.nextInt(4)) {
+                    case 0 -> random.nextInt(64) - 8;
+                    case 1 -> random.nextInt(64 * 64);
+                    case 2 -> random.nextInt(64 * 64 * 64);
+                    default -> random.nextLong(SPAN * 2);
+                };
+                wheel.schedule(key, due);
+                // Une échéance passée expire à la graduation suivante
+                expected.put(key, Math.max(due, now + 1));
+            } else if (action < 7) {
+                assertThat(wheel.cancel(key)).isEqualTo(expected.remove(key) != null);
+            } else {
+                long target = now + (random.nextInt(500) == 0 ? random.nextLong(SPAN / 4) : random.nextInt(2_000));
+                List<String> expired = advance(target);
+                List<String> due = new ArrayList<>();
+                expected.forEach((k, at) -> {
+                    if (at <= target) {
+                        due.add(k);
+                    }
+                });
+                assertThat(expired).containsExactlyInAnyOrderElementsOf(due);
+                due.forEach(expected::remove);
+                now = target;
+            }
+            assertThat(wheel.size()).isEqualTo(expected.size());
+        }
+    }
+
+    private List<String> advance(long nowMillis) {
+        List<String> expired = new ArrayList<>();
+        wheel.advance(nowMillis, expired::add);
+        return expired;
+    }
+}
@@ -0,0 +1,176 @@
+package com.menkaix.bugjanitor.services.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.menkaix.bugjanitor.services.filter.FilterCompiler.CompiledFilter;
+
+class FilterCompilerTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private FilterCompiler compiler;
+
+    @BeforeEach
+    void setUp() {
+        compiler = new FilterCompiler(1024);
+        ReflectionTestUtils.setField(compiler, "planCacheSize", 256);
+    }
+
+    @Test
+    void blankFilterCompilesToNull() {
+        assertThat(compiler.compile(null, FilterSchema.TASK)).isNull();
+        assertThat(compiler.compile("   ", FilterSchema.TASK)).isNull();
+    }
+
+    @Test
+    void equalityAndInequality() {
+        assertThat(criteria("status:TODO")).isEqualTo(new Document("status", "TODO"));
+        assertThat(criteria("status!=DONE")).isEqualTo(new Document("status", new Document("$ne", "DONE")));
+    }
+
+    @Test
+    void inList() {
+        assertThat(criteria("status in (TODO, BLOCKED)"))
+                .isEqualTo(new Document("status", new Document("$in", List.of("TODO", "BLOCKED"))));
+    }
+
+    @Test
+    void existsAndNotExists() {
+        assertThat(criteria("doneDate exists")).isEqualTo(new Document("doneDate", new Document("$exists", true)));
+        assertThat(criteria("doneDate !exists")).isEqualTo(new Document("doneDate", new Document("$exists", false)));
+    }
+
+    @Test
+    void orOfAndKeepsPrecedence() {
+        assertThat(criteria("status:A OR status:B assignee:c")).isEqualTo(new Document("$or", List.of(
+                new Document("status", "A"),
+                new Document("$and", List.of(new Document("status", "B"), new Document("assignee", "c"))))));
+    }
+
+    @Test
+    void absoluteDatesAreUtc() {
+        Document day = (Document) criteria("deadLine>=2024-01-31").get("deadLine");
+        assertThat(day.get("$gte")).isEqualTo(Date.from(Instant.parse("2024-01-31T00:00:00Z")));
+
+        Document local = (Document) criteria("deadLine<2024-01-31T12:30:00").get("deadLine");
+        assertThat(local.get("$lt")).isEqualTo(Date.from(Instant.parse("2024-01-31T12:30:00Z")));
+
+        Document offset = (Document) criteria("deadLine<=2024-01-31T12:30:00+02:00").get("deadLine");
+        assertThat(offset.get("$lte")).isEqualTo(Date.from(Instant.parse("2024-01-31T10:30:00Z")));
+    }
+
+    @Test
+    void relativeDatesMoveFromNow() {
+        long now = System.currentTimeMillis();
+
+        assertThat(FilterCompiler.parseDate("now", "deadLine").getTime()).isCloseTo(now, within(5_000L));
+        assertThat(FilterCompiler.parseDate("now+7d", "deadLine").getTime()).isCloseTo(now + 7 * DAY, within(5_000L));
+        assertThat(FilterCompiler.parseDate("now-2d", "deadLine").getTime()).isCloseTo(now - 2 * DAY, within(5_000L));
+        assertThat(FilterCompiler.parseDate("now-2h", "deadLine").getTime())
+                .isCloseTo(now - 2 * 60 * 60 * 1000, within(5_000L));
+        assertThat(FilterCompiler.parseDate("now+30m", "deadLine").getTime())
+                .isCloseTo(now + 30 * 60 * 1000, within(5_000L));
+
+        Document upcoming = (Document) criteria("deadLine<now+7d").get("deadLine");
+        assertThat(((Date) upcoming.get("$lt")).getTime()).isCloseTo(now + 7 * DAY, within(5_000L));
+    }
+
+    @Test
+    void sortEndsWithIdForATotalOrder() {
+        CompiledFilter compiled = compiler.compile("status:TODO sort:-deadLine,status", FilterSchema.TASK);
+
+        assertThat(compiled.sort()).isEqualTo(Sort.by(
+                Sort.Order.desc("deadLine"), Sort.Order.asc("status"), Sort.Order.asc("id")));
+        assertThat(compiled.criteria().getCriteriaObject()).isEqualTo(new Document("status", "TODO"));
+    }
+
+    @Test
+    void sortOnlyFilterHasNoCriteria() {
+        CompiledFilter compiled = compiler.compile("sort:creationDate", FilterSchema.TASK);
+
+        assertThat(compiled.criteria()).isNull();
+        assertThat(compiled.sort().getOrderFor("creationDate")).isNotNull();
+    }
+
+    @Test
+    void unknownFieldIsRejected() {
+        assertThatThrownBy(() -> compiler.compile("title:bug", FilterSchema.TASK))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("title");
+        assertThatThrownBy(() -> compiler.compile("sort:title", FilterSchema.TASK))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> compiler.compile("deadLine exists", FilterSchema.PROJECT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rangeOnTextFieldIsRejected() {
+        assertThatThrownBy(() -> compiler.compile("status>TODO", FilterSchema.TASK))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("status");
+    }
+
+    @Test
+    void invalidDateIsRejected() {
+        assertThatThrownBy(() -> compiler.compile("deadLine<tomorrow", FilterSchema.TASK))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("deadLine");
+        assertThatThrownBy(() -> compiler.compile("deadLine<now+7w", FilterSchema.TASK))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void syntaxErrorIsRejected() {
+        assertThatThrownBy(() -> compiler.compile("status:TODO AND (", FilterSchema.TASK))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void filtersDifferingOnlyByValueShareOnePlan() {
+        Document todo = compiler.compile("status:TODO deadLine<2024-01-01", FilterSchema.TASK)
+                .criteria().getCriteriaObject();
+        Document done = compiler.compile("status:DONE deadLine<2025-06-01", FilterSchema.TASK)
+                .criteria().getCriteriaObject();
+
+        assertThat(compiler.cachedPlanCount()).isEqualTo(1);
+        assertThat(todo).isNotEqualTo(done);
+        assertThat(done.toJson()).contains("DONE");
+        assertThat(todo.toJson()).contains("TODO");
+    }
+
+    @Test
+    void differentShapesGetTheirOwnPlan() {
+        compiler.compile("status:TODO", FilterSchema.TASK);
+        compiler.compile("status!=TODO", FilterSchema.TASK);
+        compiler.compile("status in (TODO, DONE)", FilterSchema.TASK);
+        compiler.compile("status in (TODO, DONE, BLOCKED)", FilterSchema.TASK);
+        compiler.compile("projectCode:TODO", FilterSchema.PROJECT);
+
+        assertThat(compiler.cachedPlanCount()).isEqualTo(5);
+    }
+
+    @Test
+    void repeatedExpressionReusesThePlan() {
+        CompiledFilter first = compiler.compile("status:TODO", FilterSchema.TASK);
+        CompiledFilter second = compiler.compile(" status:TODO ", FilterSchema.TASK);
+
+        assertThat(compiler.cachedPlanCount()).isEqualTo(1);
+        assertThat(second.criteria().getCriteriaObject()).isEqualTo(first.criteria().getCriteriaObject());
+    }
+
+    private Document criteria(String expression) {
+        return compiler.compile(expression, FilterSchema.TASK).criteria().getCriteriaObject();
+    }
+}
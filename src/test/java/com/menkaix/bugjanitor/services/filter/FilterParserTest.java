@@ -0,0 +1,142 @@
+package com.menkaix.bugjanitor.services.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.menkaix.bugjanitor.services.filter.FilterNode.And;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Comparison;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Exists;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Operator;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Or;
+import com.menkaix.bugjanitor.services.filter.FilterNode.Parsed;
+import com.menkaix.bugjanitor.services.filter.FilterNode.SortKey;
+
+class FilterParserTest {
+
+    @Test
+    void andBindsTighterThanOr() {
+        Parsed parsed = FilterParser.parse("status:TODO OR status:DONE assignee:alice");
+
+        assertThat(parsed.root()).isEqualTo(new Or(List.of(
+                eq("status", "TODO"),
+                new And(List.of(eq("status", "DONE"), eq("assignee", "alice"))))));
+    }
+
+    @Test
+    void explicitAndMatchesJuxtaposition() {
+        assertThat(FilterParser.parse("status:TODO AND assignee:bob").root())
+                .isEqualTo(FilterParser.parse("status:TODO assignee:bob").root());
+    }
+
+    @Test
+    void parenthesesOverridePrecedence() {
+        Parsed parsed = FilterParser.parse("status:TODO and (assignee:alice or assignee:bob)");
+
+        assertThat(parsed.root()).isEqualTo(new And(List.of(
+                eq("status", "TODO"),
+                new Or(List.of(eq("assignee", "alice"), eq("assignee", "bob"))))));
+    }
+
+    @Test
+    void keywordsAreCaseInsensitive() {
+        assertThat(FilterParser.parse("status:A Or status:B").root())
+                .isEqualTo(new Or(List.of(eq("status", "A"), eq("status", "B"))));
+    }
+
+    @Test
+    void parsesInList() {
+        assertThat(FilterParser.parse("status in ( TODO , IN_PROGRESS,DONE )").root())
+                .isEqualTo(new Comparison("status", Operator.IN, List.of("TODO", "IN_PROGRESS", "DONE")));
+    }
+
+    @Test
+    void parsesExistsAndNotExists() {
+        assertThat(FilterParser.parse("doneDate exists").root()).isEqualTo(new Exists("doneDate", true));
+        assertThat(FilterParser.parse("doneDate !exists").root()).isEqualTo(new Exists("doneDate", false));
+    }
+
+    @Test
+    void parsesEveryComparisonOperator() {
+        assertThat(operatorOf("status:A")).isEqualTo(Operator.EQ);
+        assertThat(operatorOf("status=A")).isEqualTo(Operator.EQ);
+        assertThat(operatorOf("status!=A")).isEqualTo(Operator.NE);
+        assertThat(operatorOf("status != A")).isEqualTo(Operator.NE);
+        assertThat(operatorOf("deadLine>now")).isEqualTo(Operator.GT);
+        assertThat(operatorOf("deadLine>=now")).isEqualTo(Operator.GTE);
+        assertThat(operatorOf("deadLine<now")).isEqualTo(Operator.LT);
+        assertThat(operatorOf("deadLine<=now")).isEqualTo(Operator.LTE);
+    }
+
+    @Test
+    void valuesKeepIsoColonsAndQuotedSpaces() {
+        assertThat(FilterParser.parse("deadLine>=2024-01-31T12:00:00Z").root())
+                .isEqualTo(new Comparison("deadLine", Operator.GTE, List.of("2024-01-31T12:00:00Z")));
+        assertThat(FilterParser.parse("assignee:\"Jean \\\"JD\\\" Dupont\"").root())
+                .isEqualTo(eq("assignee", "Jean \"JD\" Dupont"));
+    }
+
+    @Test
+    void relativeDatesAreSingleValues() {
+        assertThat(FilterParser.parse("deadLine<now+7d").root())
+                .isEqualTo(new Comparison("deadLine", Operator.LT, List.of("now+7d")));
+    }
+
+    @Test
+    void sortIsCollectedAnywhereAtTopLevel() {
+        Parsed parsed = FilterParser.parse("sort:-deadLine,+status status:TODO");
+
+        assertThat(parsed.root()).isEqualTo(eq("status", "TODO"));
+        assertThat(parsed.sort()).containsExactly(new SortKey("deadLine", false), new SortKey("status", true));
+        assertThat(FilterParser.parse("status:TODO sort:creationDate").sort())
+                .containsExactly(new SortKey("creationDate", true));
+    }
+
+    @Test
+    void sortAloneLeavesNoExpression() {
+        Parsed parsed = FilterParser.parse("sort:-updateDate");
+
+        assertThat(parsed.root()).isNull();
+        assertThat(parsed.sort()).containsExactly(new SortKey("updateDate", false));
+    }
+
+    @Test
+    void sortInsideParenthesesIsRejected() {
+        assertThatThrownBy(() -> FilterParser.parse("(status:TODO sort:deadLine)"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("sort");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "status",
+            "status:",
+            "status ~ TODO",
+            "(status:TODO",
+            "status:TODO)",
+            "status in TODO",
+            "status in (TODO",
+            "status:TODO OR",
+            "assignee:\"unterminated",
+            ":TODO",
+            "()"
+    })
+    void invalidInputIsRejected(String expression) {
+        assertThatThrownBy(() -> FilterParser.parse(expression))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Filtre invalide");
+    }
+
+    private static Comparison eq(String field, String value) {
+        return new Comparison(field, Operator.EQ, List.of(value));
+    }
+
+    private static Operator operatorOf(String expression) {
+        return ((Comparison) FilterParser.parse(expression).root()).operator();
+    }
+}
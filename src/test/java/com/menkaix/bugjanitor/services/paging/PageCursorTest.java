@@ -0,0 +1,109 @@
+package com.menkaix.bugjanitor.services.paging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+class PageCursorTest {
+
+    @Test
+    void keysetCursorRoundTrips() {
+        PageCursor cursor = PageCursor.afterId("65a1f0c2e4b0a1b2c3d4e5f6", "login", "status:TODO");
+
+        PageCursor decoded = PageCursor.decode(cursor.encode(), "login", "status:TODO");
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.isKeyset()).isTrue();
+        assertThat(decoded.afterId()).isEqualTo("65a1f0c2e4b0a1b2c3d4e5f6");
+        assertThat(decoded.offset()).isNull();
+    }
+
+    @Test
+    void offsetCursorRoundTrips() {
+        PageCursor cursor = PageCursor.atOffset(1_200L, "login", null);
+
+        PageCursor decoded = PageCursor.decode(cursor.encode(), "login", null);
+
+        assertThat(decoded).isEqualTo(cursor);
+        assertThat(decoded.isKeyset()).isFalse();
+        assertThat(decoded.offset()).isEqualTo(1_200L);
+    }
+
+    @Test
+    void idContainingTheSeparatorRoundTrips() {
+        PageCursor cursor = PageCursor.afterId("import|42|é", null, null);
+
+        assertThat(PageCursor.decode(cursor.encode(), null, null).afterId()).isEqualTo("import|42|é");
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = PageCursor.afterId("??>>~~", "a b", "status:TODO").encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void blankAndPaddedCriteriaShareAFingerprint() {
+        String encoded = PageCursor.atOffset(10, null, "  status:TODO ").encode();
+
+        assertThat(PageCursor.decode(encoded, "", "status:TODO").offset()).isEqualTo(10L);
+        assertThat(PageCursor.decode(encoded, "   ", "status:TODO").offset()).isEqualTo(10L);
+    }
+
+    @Test
+    void cursorFromAnotherSearchIsRejected() {
+        String encoded = PageCursor.atOffset(50, "login", null).encode();
+
+        assertThatThrownBy(() -> PageCursor.decode(encoded, "logout", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("autre recherche");
+    }
+
+    @Test
+    void cursorFromAnotherFilterIsRejected() {
+        String encoded = PageCursor.afterId("abc", null, "status:TODO").encode();
+
+        assertThatThrownBy(() -> PageCursor.decode(encoded, null, "status:DONE"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("autre filtre");
+        assertThatThrownBy(() -> PageCursor.decode(encoded, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String fingerprint = PageCursor.afterId("x", null, null).fingerprint();
+
+        assertInvalid("not base64 !");
+        assertInvalid(encode("v1|i|abc"));
+        assertInvalid(encode("v2|i|abc|" + fingerprint));
+        assertInvalid(encode("v1|x|abc|" + fingerprint));
+        assertInvalid(encode("v1|o|douze|" + fingerprint));
+        assertInvalid(encode("garbage"));
+    }
+
+    @Test
+    void onlyIdOrderAllowsKeysetCursors() {
+        assertThat(PageCursor.followsIdOrder(null)).isTrue();
+        assertThat(PageCursor.followsIdOrder(Sort.unsorted())).isTrue();
+        assertThat(PageCursor.followsIdOrder(Sort.by("id"))).isTrue();
+        assertThat(PageCursor.followsIdOrder(Sort.by(Sort.Direction.DESC, "id"))).isFalse();
+        assertThat(PageCursor.followsIdOrder(Sort.by("deadLine", "id"))).isFalse();
+    }
+
+    private static void assertInvalid(String cursor) {
+        assertThatThrownBy(() -> PageCursor.decode(cursor, null, null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Curseur invalide");
+    }
+
+    private static String encode(String payload) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
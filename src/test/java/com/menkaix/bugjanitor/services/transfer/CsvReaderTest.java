@@ -0,0 +1,118 @@
+package com.menkaix.bugjanitor.services.transfer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvReaderTest {
+
+    @Test
+    void readsRecordsUntilEndOfStream() throws IOException {
+        CsvReader reader = reader("a,b,c\n1,2,3\n");
+
+        assertThat(reader.next()).containsExactly("a", "b", "c");
+        assertThat(reader.next()).containsExactly("1", "2", "3");
+        assertThat(reader.next()).isNull();
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void acceptsCrlfMissingFinalNewlineAndBom() throws IOException {
+        assertThat(readAll("\uFEFFa,b\r\n1,2")).containsExactly(List.of("a", "b"), List.of("1", "2"));
+    }
+
+    @Test
+    void skipsBlankLines() throws IOException {
+        assertThat(readAll("\n\r\na\r\n\r\n\nb\n\n")).containsExactly(List.of("a"), List.of("b"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertThat(readAll("a,,\n,\n\"\"\n")).containsExactly(List.of("a", "", ""), List.of("", ""), List.of(""));
+    }
+
+    @Test
+    void quotedFieldsKeepSeparatorsAndDoubledQuotes() throws IOException {
+        assertThat(readAll("\"a,b\",\"say \"\"hi\"\"\",\"\"\"\"\n"))
+                .containsExactly(List.of("a,b", "say \"hi\"", "\""));
+    }
+
+    @Test
+    void quotedFieldsKeepEmbeddedNewlines() throws IOException {
+        assertThat(readAll("title,description\r\n\"t\",\"line 1\nline 2\r\n\r\nline 4\"\r\nnext,x\r\n"))
+                .containsExactly(
+                        List.of("title", "description"),
+                        List.of("t", "line 1\nline 2\r\n\r\nline 4"),
+                        List.of("next", "x"));
+    }
+
+    @Test
+    void unterminatedQuoteIsRejected() {
+        assertThatThrownBy(() -> readAll("a,\"open\nnever closed"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("non fermé");
+    }
+
+    @Test
+    void quoteInsideUnquotedFieldIsRejected() {
+        assertThatThrownBy(() -> readAll("ab\"c\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Guillemet inattendu");
+    }
+
+    @Test
+    void textAfterClosingQuoteIsRejected() {
+        assertThatThrownBy(() -> readAll("\"ab\"c\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("après un champ entre guillemets");
+    }
+
+    @Test
+    void recordLongerThanTheLimitIsRejected() {
+        assertThatThrownBy(() -> new CsvReader(new StringReader("a,".repeat(10) + "\n"), 16).next())
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("trop long");
+    }
+
+    @Test
+    void unclosedQuoteStopsAtTheLimitInsteadOfReadingEverything() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("ok\n\"" + "x\n".repeat(10_000)), 64);
+
+        assertThat(reader.next()).containsExactly("ok");
+        assertThatThrownBy(reader::next)
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("trop long");
+    }
+
+    @Test
+    void limitAppliesPerRecord() throws IOException {
+        String line = "abcdefgh\n";
+        CsvReader reader = new CsvReader(new StringReader(line.repeat(100)), line.length());
+
+        int records = 0;
+        while (reader.next() != null) {
+            records++;
+        }
+        assertThat(records).isEqualTo(100);
+    }
+
+    private static CsvReader reader(String csv) {
+        return new CsvReader(new StringReader(csv), 1024);
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvReader reader = reader(csv);
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
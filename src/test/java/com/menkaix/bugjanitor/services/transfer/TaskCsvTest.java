@@ -0,0 +1,121 @@
+package com.menkaix.bugjanitor.services.transfer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonParseException;
+import com.menkaix.bugjanitor.models.documents.Task;
+
+class TaskCsvTest {
+
+    @Test
+    void headerRequiresTitleAndKnownColumns() {
+        TaskCsv.checkHeader(List.of("title"));
+        TaskCsv.checkHeader(TaskCsv.COLUMNS);
+
+        assertThatThrownBy(() -> TaskCsv.checkHeader(null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("vide");
+        assertThatThrownBy(() -> TaskCsv.checkHeader(List.of("title", "priority")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'priority'");
+        assertThatThrownBy(() -> TaskCsv.checkHeader(List.of("projectCode", "status")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'title'");
+        assertThatThrownBy(() -> TaskCsv.checkHeader(List.of("Title")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyCellsAreNull() {
+        Task task = new Task();
+        task.setAssignee("alice");
+        task.setDeadLine(new Date());
+
+        TaskCsv.set(task, "assignee", "");
+        TaskCsv.set(task, "deadLine", "");
+
+        assertThat(task.getAssignee()).isNull();
+        assertThat(task.getDeadLine()).isNull();
+    }
+
+    @Test
+    void missingCreationDateKeepsTheImportDate() {
+        Task task = new Task();
+        Date importedAt = task.getCreationDate();
+
+        TaskCsv.set(task, "creationDate", "");
+        assertThat(task.getCreationDate()).isEqualTo(importedAt);
+
+        TaskCsv.set(task, "creationDate", "2024-01-31T10:00:00Z");
+        assertThat(task.getCreationDate()).isEqualTo(Date.from(Instant.parse("2024-01-31T10:00:00Z")));
+    }
+
+    @Test
+    void invalidDateIsRejected() {
+        assertThatThrownBy(() -> TaskCsv.set(new Task(), "deadLine", "demain"))
+                .isInstanceOf(JsonParseException.class);
+    }
+
+    @Test
+    void unknownColumnIsRejected() {
+        assertThatThrownBy(() -> TaskCsv.set(new Task(), "priority", "high"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TaskCsv.get(new Task(), "priority"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rowsRoundTripThroughTheReader() throws IOException {
+        List<String> values = Arrays.asList("plain", "a,b", "say \"hi\"", "line 1\r\nline 2", null, "");
+        StringWriter out = new StringWriter();
+
+        TaskCsv.writeRow(out, values);
+        TaskCsv.writeRow(out, List.of("x"));
+
+        assertThat(out.toString()).startsWith("plain,\"a,b\",\"say \"\"hi\"\"\",\"line 1\r\nline 2\",,\r\n");
+        CsvReader reader = new CsvReader(new StringReader(out.toString()), 1024);
+        assertThat(reader.next()).containsExactly("plain", "a,b", "say \"hi\"", "line 1\r\nline 2", "", "");
+        assertThat(reader.next()).containsExactly("x");
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void everyColumnRoundTrips() {
+        Task task = new Task();
+        task.setId("65a1f0c2e4b0a1b2c3d4e5f6");
+        task.setProjectCode("BJ");
+        task.setTitle("Titre, \"cité\"");
+        task.setDescription("Sur\ndeux lignes");
+        task.setStatus("TODO");
+        task.setCreationDate(Date.from(Instant.parse("2024-01-01T08:00:00Z")));
+        task.setUpdateDate(Date.from(Instant.parse("2024-01-02T08:00:00.123Z")));
+        task.setDoneDate(Date.from(Instant.parse("2024-01-03T08:00:00Z")));
+        task.setPlannedStart(Date.from(Instant.parse("2024-01-04T08:00:00Z")));
+        task.setDeadLine(Date.from(Instant.parse("2024-01-05T08:00:00Z")));
+        task.setEstimate("3d");
+        task.setTrackingReference("JIRA-1");
+        task.setAssignee("alice");
+
+        Task copy = new Task();
+        for (String column : TaskCsv.COLUMNS) {
+            String value = TaskCsv.get(task, column);
+            TaskCsv.set(copy, column, value == null ? "" : value);
+        }
+
+        for (String column : TaskCsv.COLUMNS) {
+            assertThat(TaskCsv.get(copy, column)).as(column).isEqualTo(TaskCsv.get(task, column));
+        }
+        assertThat(copy.getUpdateDate()).isEqualTo(task.getUpdateDate());
+    }
+}
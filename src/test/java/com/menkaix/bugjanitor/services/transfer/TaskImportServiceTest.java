@@ -0,0 +1,179 @@
+package com.menkaix.bugjanitor.services.transfer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import com.google.gson.Gson;
+import com.menkaix.bugjanitor.models.documents.Task;
+import com.menkaix.bugjanitor.services.TaskService;
+import com.menkaix.bugjanitor.services.bulk.BulkItemResult;
+import com.menkaix.bugjanitor.services.bulk.BulkResult;
+
+class TaskImportServiceTest {
+
+    private static final String CSV = "title,status\nt0,TODO\nt1,TODO\nt2,TODO\nt3,TODO\nt4,TODO\n";
+
+    // Tâches en base et identifiants reçus par chaque appel d'import
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+    private final List<List<String>> batches = new ArrayList<>();
+    // Points de reprise ; au-delà de crashAfter écritures, la base devient injoignable
+    private final Map<String, Document> checkpoints = new HashMap<>();
+    private int checkpointWrites;
+    private int crashAfter = Integer.MAX_VALUE;
+
+    private TaskImportService service;
+
+    @BeforeEach
+    void setUp() {
+        TaskService taskService = mock(TaskService.class);
+        doAnswer(invocation -> {
+            List<Task> submitted = invocation.getArgument(0);
+            List<Integer> indexes = invocation.getArgument(1);
+            List<BulkItemResult> results = new ArrayList<>();
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < submitted.size(); i++) {
+                Task task = submitted.get(i);
+                ids.add(task.getId());
+                if (tasks.putIfAbsent(task.getId(), task) == null) {
+                    results.add(BulkItemResult.success(indexes.get(i), task.getId(), BulkItemResult.CREATED));
+                } else {
+                    results.add(BulkItemResult.skipped(indexes.get(i), task.getId(), "déjà présente"));
+                }
+            }
+            batches.add(ids);
+            return BulkResult.of(results);
+        }).when(taskService).importAll(anyList(), anyList());
+
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        doAnswer(invocation -> {
+            Document stored = checkpoints.get(invocation.<String>getArgument(0));
+            return stored == null ? null : new Document(stored);
+        }).when(mongoTemplate).findById(anyString(), eq(Document.class), eq(TaskImportService.CHECKPOINTS));
+        doAnswer(invocation -> {
+            if (++checkpointWrites > crashAfter) {
+                throw new IllegalStateException("Base injoignable");
+            }
+            String id = invocation.<Query>getArgument(0).getQueryObject().getString("_id");
+            Document set = (Document) invocation.<Update>getArgument(1).getUpdateObject().get("$set");
+            checkpoints.computeIfAbsent(id, key -> new Document("_id", key)).putAll(set);
+            return null;
+        }).when(mongoTemplate).upsert(any(Query.class), any(Update.class), eq(TaskImportService.CHECKPOINTS));
+
+        service = new TaskImportService(taskService, mongoTemplate, new Gson(), 2, 1, 1024);
+    }
+
+    @Test
+    void importsEveryRecordInBatches() {
+        ImportReport report = service.importTasks("job", TransferFormat.CSV, input(CSV));
+
+        assertThat(report.status()).isEqualTo(ImportReport.DONE);
+        assertThat(report.committed()).isEqualTo(5);
+        assertThat(report.inserted()).isEqualTo(5);
+        assertThat(batches).extracting(List::size).containsExactly(2, 2, 1);
+        assertThat(tasks.values()).extracting(Task::getTitle).containsExactly("t0", "t1", "t2", "t3", "t4");
+        assertThat(checkpoints.get("job").getLong("committed")).isEqualTo(5);
+    }
+
+    @Test
+    void resumeSkipsCommittedRecordsAndCountsTheReplayedBatch() {
+        // Initial, lot 0-1 : validés ; le lot 2-3 est écrit puis la base tombe avant son point de reprise
+        crashAfter = 2;
+        assertThatThrownBy(() -> service.importTasks("job", TransferFormat.CSV, input(CSV)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(tasks).hasSize(4);
+        assertThat(checkpoints.get("job").getLong("committed")).isEqualTo(2);
+        List<String> writtenBeforeCrash = batches.get(1);
+
+        crashAfter = Integer.MAX_VALUE;
+        batches.clear();
+        ImportReport report = service.importTasks("job", TransferFormat.CSV, input(CSV));
+
+        assertThat(batches.get(0)).isEqualTo(writtenBeforeCrash);
+        assertThat(report.status()).isEqualTo(ImportReport.DONE);
+        assertThat(report.resumedFrom()).isEqualTo(2);
+        assertThat(report.committed()).isEqualTo(5);
+        assertThat(report.inserted()).isEqualTo(3);
+        assertThat(report.skipped()).isEqualTo(2);
+        assertThat(report.failed()).isZero();
+        assertThat(tasks).hasSize(5);
+        assertThat(tasks.values()).extracting(Task::getTitle).containsExactly("t0", "t1", "t2", "t3", "t4");
+    }
+
+    @Test
+    void derivedIdsAreStablePerJobAndRecord() {
+        service.importTasks("job-a", TransferFormat.CSV, input(CSV));
+        List<String> first = new ArrayList<>(tasks.keySet());
+
+        // Même job relancé sur un fichier déjà validé : rien n'est réécrit
+        ImportReport replay = service.importTasks("job-a", TransferFormat.CSV, input(CSV));
+        assertThat(replay.resumedFrom()).isEqualTo(5);
+        assertThat(batches).hasSize(3);
+
+        service.importTasks("job-b", TransferFormat.CSV, input(CSV));
+
+        assertThat(first).hasSize(5).doesNotHaveDuplicates().allMatch(id -> id.matches("[0-9a-f]{24}"));
+        assertThat(tasks).hasSize(10);
+    }
+
+    @Test
+    void explicitIdsAreKept() {
+        service.importTasks("job", TransferFormat.CSV, input("id,title\nmine,t0\n,t1\n"));
+
+        assertThat(tasks).containsKey("mine").hasSize(2);
+    }
+
+    @Test
+    void invalidRecordsAreReportedByNumber() {
+        ImportReport report = service.importTasks("job", TransferFormat.CSV,
+                input("title,deadLine\nok,\n,\nbad,demain\nshort\n"));
+
+        assertThat(report.status()).isEqualTo(ImportReport.DONE);
+        assertThat(report.inserted()).isEqualTo(1);
+        assertThat(report.failed()).isEqualTo(3);
+        assertThat(report.errors()).extracting(ImportReport.RecordError::record).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void invalidHeaderRejectsTheRequest() {
+        assertThatThrownBy(() -> service.importTasks("job", TransferFormat.CSV, input("name,status\nx,TODO\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'name'");
+        assertThat(tasks).isEmpty();
+        assertThat(checkpoints.get("job").getString("status")).isEqualTo(ImportReport.FAILED);
+    }
+
+    @Test
+    void resumeInAnotherFormatIsRejected() {
+        service.importTasks("job", TransferFormat.CSV, input(CSV));
+
+        assertThatThrownBy(() -> service.importTasks("job", TransferFormat.NDJSON, input("{\"title\":\"x\"}\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("CSV");
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}